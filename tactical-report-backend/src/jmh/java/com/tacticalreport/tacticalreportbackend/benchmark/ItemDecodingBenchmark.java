@@ -0,0 +1,109 @@
+package com.tacticalreport.tacticalreportbackend.benchmark;
+
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import com.tacticalreport.tacticalreportbackend.repository.ItemCodec;
+import com.tacticalreport.tacticalreportbackend.repository.ItemSummaryCodec;
+import org.bson.BsonBinaryReader;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decode cost of a GET /api/items page from raw BSON, as the driver hands it over
+ * mapping: BSON -> Document -> MappingMongoConverter (the Spring Data path)
+ * codec / summaryCodec: BSON -> Item directly through ItemCodec / ItemSummaryCodec
+ * Run with: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemDecodingBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private final DecoderContext decoderContext = DecoderContext.builder().build();
+    private final DocumentCodec documentCodec = new DocumentCodec();
+    private final ItemCodec itemCodec = new ItemCodec();
+    private final ItemSummaryCodec summaryCodec = new ItemSummaryCodec();
+    private MappingMongoConverter converter;
+    private List<RawBsonDocument> page;
+
+    @Setup
+    public void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Item item = new Item();
+            item.setId(String.format("65a1b2c3d4e5f6a7b8c9%04d", i));
+            item.setName("Benchmark Item " + i);
+            item.setDescription("Wireless performance mouse with ultra-fast scrolling and MagSpeed wheel, revision " + i);
+            item.setPrice(new BigDecimal("99.99").add(BigDecimal.valueOf(i)));
+            item.setQuantity(150 - i);
+            item.setCategory(i % 3 == 0 ? "Electronics" : "Office Supplies");
+            item.setSku("BENCH-" + i);
+            item.setStatus(ItemStatus.AVAILABLE);
+            item.setChangeSequence((long) i);
+            item.setCreatedAt(LocalDateTime.of(2025, 1, 1, 12, 0).plusMinutes(i));
+            item.setUpdatedAt(LocalDateTime.of(2025, 1, 2, 12, 0).plusMinutes(i));
+            Document document = new Document();
+            converter.write(item, document);
+            page.add(new RawBsonDocument(document, documentCodec));
+        }
+    }
+
+    @Benchmark
+    public List<Item> mapping() {
+        List<Item> items = new ArrayList<>(pageSize);
+        for (RawBsonDocument raw : page) {
+            Document document = documentCodec.decode(new BsonBinaryReader(raw.getByteBuffer().asNIO()), decoderContext);
+            items.add(converter.read(Item.class, document));
+        }
+        return items;
+    }
+
+    @Benchmark
+    public List<Item> codec() {
+        List<Item> items = new ArrayList<>(pageSize);
+        for (RawBsonDocument raw : page) {
+            items.add(itemCodec.decode(new BsonBinaryReader(raw.getByteBuffer().asNIO()), decoderContext));
+        }
+        return items;
+    }
+
+    @Benchmark
+    public List<Item> summaryCodec() {
+        List<Item> items = new ArrayList<>(pageSize);
+        for (RawBsonDocument raw : page) {
+            items.add(summaryCodec.decode(new BsonBinaryReader(raw.getByteBuffer().asNIO()), decoderContext));
+        }
+        return items;
+    }
+}
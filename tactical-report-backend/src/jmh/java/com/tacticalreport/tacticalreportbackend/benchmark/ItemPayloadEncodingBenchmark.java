@@ -0,0 +1,114 @@
+package com.tacticalreport.tacticalreportbackend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode cost vs payload size of a GET /api/items page in JSON, CBOR and Smile, with and without gzip
+ * Encoded sizes are printed once per trial so the time/bytes trade-off can be read side by side
+ * Run with: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemPayloadEncodingBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ObjectMapper jsonMapper;
+    private ObjectMapper cborMapper;
+    private ObjectMapper smileMapper;
+    private Page<Item> page;
+
+    @Setup
+    public void setUp() throws IOException {
+        jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+        cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+
+        List<Item> items = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Item item = new Item();
+            item.setId(String.format("65a1b2c3d4e5f6a7b8c9%04d", i));
+            item.setName("Benchmark Item " + i);
+            item.setDescription("Wireless performance mouse with ultra-fast scrolling and MagSpeed wheel, revision " + i);
+            item.setPrice(new BigDecimal("99.99").add(BigDecimal.valueOf(i)));
+            item.setQuantity(150 - i);
+            item.setCategory(i % 3 == 0 ? "Electronics" : "Office Supplies");
+            item.setSku("BENCH-" + i);
+            item.setStatus(ItemStatus.AVAILABLE);
+            item.setChangeSequence((long) i);
+            item.setCreatedAt(LocalDateTime.of(2025, 1, 1, 12, 0).plusMinutes(i));
+            item.setUpdatedAt(LocalDateTime.of(2025, 1, 2, 12, 0).plusMinutes(i));
+            items.add(item);
+        }
+        page = new PageImpl<>(items, PageRequest.of(0, pageSize), 1000);
+
+        System.out.printf("%n[pageSize=%d] bytes json=%d (gzip %d), cbor=%d (gzip %d), smile=%d (gzip %d)%n",
+                pageSize,
+                jsonMapper.writeValueAsBytes(page).length, gzip(jsonMapper.writeValueAsBytes(page)).length,
+                cborMapper.writeValueAsBytes(page).length, gzip(cborMapper.writeValueAsBytes(page)).length,
+                smileMapper.writeValueAsBytes(page).length, gzip(smileMapper.writeValueAsBytes(page)).length);
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        return jsonMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] cbor() throws IOException {
+        return cborMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] smile() throws IOException {
+        return smileMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] jsonGzip() throws IOException {
+        return gzip(jsonMapper.writeValueAsBytes(page));
+    }
+
+    @Benchmark
+    public byte[] cborGzip() throws IOException {
+        return gzip(cborMapper.writeValueAsBytes(page));
+    }
+
+    @Benchmark
+    public byte[] smileGzip() throws IOException {
+        return gzip(smileMapper.writeValueAsBytes(page));
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
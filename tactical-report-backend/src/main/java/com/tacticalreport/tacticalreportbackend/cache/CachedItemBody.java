@@ -0,0 +1,73 @@
+package com.tacticalreport.tacticalreportbackend.cache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pre-rendered JSON body of an item, returned from the controller and written by CachedItemBodyHttpMessageConverter
+ * Bodies backed by the off-heap slab pin their pages until {@link #release()} is called after writing.
+ */
+public class CachedItemBody {
+
+    private static final ThreadLocal<byte[]> TRANSFER_BUFFER = ThreadLocal.withInitial(() -> new byte[8192]);
+
+    private final ItemResponseCache.Entry entry;
+    private final byte[] heapBytes;
+    private final boolean gzipped;
+    private final String etag;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    CachedItemBody(ItemResponseCache.Entry entry, boolean gzipped) {
+        this.entry = entry;
+        this.heapBytes = null;
+        this.gzipped = gzipped;
+        this.etag = entry.etag;
+    }
+
+    CachedItemBody(byte[] heapBytes, boolean gzipped, String etag) {
+        this.entry = null;
+        this.heapBytes = heapBytes;
+        this.gzipped = gzipped;
+        this.etag = etag;
+    }
+
+    /**
+     * @return true if the bytes are gzip-encoded and the response needs a Content-Encoding header
+     */
+    public boolean isGzipped() {
+        return gzipped;
+    }
+
+    /**
+     * @return The ETag of the rendered item version, or null if the item has no version yet
+     */
+    public String getETag() {
+        return etag;
+    }
+
+    public int getContentLength() {
+        if (heapBytes != null) {
+            return heapBytes.length;
+        }
+        return gzipped ? entry.gzipLength : entry.jsonLength;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        if (heapBytes != null) {
+            out.write(heapBytes);
+            return;
+        }
+        int[] pages = gzipped ? entry.gzipPages : entry.jsonPages;
+        entry.slab.copyTo(pages, getContentLength(), out, TRANSFER_BUFFER.get());
+    }
+
+    /**
+     * Unpin the slab pages, safe to call more than once
+     */
+    public void release() {
+        if (entry != null && released.compareAndSet(false, true)) {
+            entry.release();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.tacticalreport.tacticalreportbackend.cache;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Writes pre-rendered item JSON straight from the response cache without going through Jackson
+ */
+public class CachedItemBodyHttpMessageConverter extends AbstractHttpMessageConverter<CachedItemBody> {
+
+    public CachedItemBodyHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CachedItemBody.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected CachedItemBody readInternal(Class<? extends CachedItemBody> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Cached item bodies are write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(CachedItemBody body, MediaType contentType) {
+        return (long) body.getContentLength();
+    }
+
+    @Override
+    protected void writeInternal(CachedItemBody body, HttpOutputMessage outputMessage) throws IOException {
+        try {
+            body.writeTo(outputMessage.getBody());
+        } finally {
+            body.release();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.tacticalreport.tacticalreportbackend.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Small on-heap cache whose entries expire a fixed time after they were stored
+ * Meant for results that are expensive to compute but fine to serve slightly stale (stats, facet counts).
+ * The number of entries is bounded: expired entries are purged when the cache is full, and if that is not
+ * enough the whole cache is dropped.
+ */
+public class ExpiringCache<K, V> {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    public ExpiringCache(Duration ttl, int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return The cached value, or null if absent or expired
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry, System.nanoTime())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    public void put(K key, V value) {
+        if (ttlNanos <= 0) {
+            return;
+        }
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            long now = System.nanoTime();
+            entries.values().removeIf(entry -> isExpired(entry, now));
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+        }
+        entries.put(key, new Entry<>(value, System.nanoTime()));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        return now - entry.createdAtNanos() >= ttlNanos;
+    }
+
+    private record Entry<V>(V value, long createdAtNanos) {
+    }
+}
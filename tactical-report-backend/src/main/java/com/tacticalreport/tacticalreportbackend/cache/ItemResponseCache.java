@@ -0,0 +1,366 @@
+package com.tacticalreport.tacticalreportbackend.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangedEvent;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.service.ItemETags;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of pre-rendered item JSON (and optionally gzip) bytes stored off-heap, used by GET /api/items/{id}
+ * - Entries are keyed by item ID and tagged with the item's changeSequence
+ * - ItemService writes replace the entry with a fence so an older version loaded concurrently is never cached
+ * - LRU eviction frees slab pages when space runs out; entries also expire after a TTL to bound staleness
+ *   caused by writes on other instances. Eviction skips fences, which hold no pages.
+ */
+@Component
+public class ItemResponseCache {
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final int gzipMinSize;
+    private final long ttlNanos;
+    private final OffHeapSlab slab;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(1024, 0.75f, true);
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public ItemResponseCache(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${items.response-cache.enabled:true}") boolean enabled,
+            @Value("${items.response-cache.capacity-mb:64}") int capacityMb,
+            @Value("${items.response-cache.page-size:4096}") int pageSize,
+            @Value("${items.response-cache.max-entries:100000}") int maxEntries,
+            @Value("${items.response-cache.gzip-min-size:1024}") int gzipMinSize,
+            @Value("${items.response-cache.ttl:30s}") Duration ttl
+    ) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.gzipMinSize = gzipMinSize;
+        this.ttlNanos = ttl.toNanos();
+        this.slab = enabled ? new OffHeapSlab(pageSize, (int) ((capacityMb * 1024L * 1024L) / pageSize)) : null;
+
+        this.hits = Counter.builder("items.response.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("items.response.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("items.response.cache.evictions").register(meterRegistry);
+        if (slab != null) {
+            Gauge.builder("items.response.cache.used.bytes", slab,
+                            s -> (double) (s.getPageCount() - s.getFreePageCount()) * s.getPageSize())
+                    .register(meterRegistry);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Look up the pre-rendered body of an item
+     *
+     * @param id   The item ID
+     * @param gzip Whether the client accepts gzip
+     * @return A pinned body that must be released after writing, or null on a miss
+     */
+    public CachedItemBody get(String id, boolean gzip) {
+        synchronized (entries) {
+            Entry entry = entries.get(id);
+            if (entry == null || entry.isFence()) {
+                misses.increment();
+                return null;
+            }
+            if (System.nanoTime() - entry.createdAtNanos > ttlNanos) {
+                entries.remove(id);
+                entry.release();
+                misses.increment();
+                return null;
+            }
+            entry.retain();
+            hits.increment();
+            return new CachedItemBody(entry, gzip && entry.gzipPages != null);
+        }
+    }
+
+    /**
+     * Look up the ETag of a cached item without pinning its body, so conditional requests can skip the database
+     *
+     * @param id The item ID
+     * @return The ETag, or null if the item is not cached
+     */
+    public String peekETag(String id) {
+        synchronized (entries) {
+            Entry entry = entries.get(id);
+            if (entry == null || entry.isFence() || System.nanoTime() - entry.createdAtNanos > ttlNanos) {
+                return null;
+            }
+            return entry.etag;
+        }
+    }
+
+    /**
+     * Render an item and cache the bytes
+     *
+     * @param item The item loaded from the database
+     * @param gzip Whether the client accepts gzip
+     * @return The rendered body, pinned in the slab if it could be cached
+     */
+    public CachedItemBody put(Item item, boolean gzip) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(item);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] gzipped = json.length >= gzipMinSize ? gzip(json) : null;
+        long version = versionOf(item);
+        String etag = ItemETags.of(item);
+
+        int[] jsonPages;
+        int[] gzipPages = null;
+        synchronized (entries) {
+            Entry current = entries.get(item.getId());
+            if (current != null && current.version > version) {
+                return heapBody(json, gzipped, gzip, etag);
+            }
+            jsonPages = allocateEvicting(json.length);
+            if (jsonPages != null && gzipped != null) {
+                gzipPages = allocateEvicting(gzipped.length);
+                if (gzipPages == null) {
+                    slab.release(jsonPages);
+                    jsonPages = null;
+                }
+            }
+        }
+        if (jsonPages == null) {
+            return heapBody(json, gzipped, gzip, etag);
+        }
+
+        // Pages are owned exclusively until the entry is published, so copy outside the lock
+        slab.write(jsonPages, json, json.length);
+        if (gzipPages != null) {
+            slab.write(gzipPages, gzipped, gzipped.length);
+        }
+        Entry entry = new Entry(slab, version, etag, jsonPages, json.length, gzipPages,
+                gzipped == null ? 0 : gzipped.length);
+
+        synchronized (entries) {
+            Entry current = entries.get(item.getId());
+            if (current != null && current.version > version) {
+                entry.release();
+                return heapBody(json, gzipped, gzip, etag);
+            }
+            Entry replaced = entries.put(item.getId(), entry);
+            if (replaced != null) {
+                replaced.release();
+            }
+            trimToMaxEntries();
+            entry.retain();
+            return new CachedItemBody(entry, gzip && gzipPages != null);
+        }
+    }
+
+    /**
+     * Drop the cached body of an item and fence out versions older than the write
+     */
+    public void invalidate(String id, long minimumVersion) {
+        synchronized (entries) {
+            Entry replaced = entries.put(id, Entry.fence(minimumVersion));
+            if (replaced != null) {
+                replaced.release();
+            }
+            trimToMaxEntries();
+        }
+    }
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        long fence = event.getAfter() == null ? Long.MAX_VALUE : versionOf(event.getAfter());
+        invalidate(event.getItemId(), fence);
+    }
+
+    /**
+     * Check whether the JSON representation is acceptable, so binary formats still go through content negotiation
+     *
+     * @param accept The Accept header (may be null)
+     * @return true if a cached JSON body can be served
+     */
+    public static boolean acceptsJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+        for (MediaType mediaType : mediaTypes) {
+            boolean binary = mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)
+                    || mediaType.equalsTypeAndSubtype(SMILE);
+            if (binary && mediaType.getQualityValue() > 0) {
+                return false;
+            }
+        }
+        return mediaTypes.stream().anyMatch(mediaType -> mediaType.isCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    /**
+     * Binary format preferred by the Accept header
+     *
+     * @param accept The Accept header (may be null)
+     * @return application/cbor or application/x-jackson-smile, whichever has the highest quality, or null for JSON
+     */
+    public static MediaType binaryType(String accept) {
+        if (acceptsJson(accept)) {
+            return null;
+        }
+        MediaType preferred = null;
+        for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+            boolean binary = mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)
+                    || mediaType.equalsTypeAndSubtype(SMILE);
+            if (binary && mediaType.getQualityValue() > 0
+                    && (preferred == null || mediaType.getQualityValue() > preferred.getQualityValue())) {
+                preferred = mediaType;
+            }
+        }
+        return preferred == null ? null : new MediaType(preferred.getType(), preferred.getSubtype());
+    }
+
+    /**
+     * @param acceptEncoding The Accept-Encoding header (may be null)
+     * @return true if the client accepts gzip
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    private int[] allocateEvicting(int length) {
+        if (slab.pagesFor(length) > slab.getPageCount()) {
+            return null;
+        }
+        int[] pages = slab.allocate(length);
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (pages == null && eldest.hasNext()) {
+            Entry evicted = eldest.next().getValue();
+            if (evicted.isFence()) {
+                continue;  // holds no pages, and dropping it would let an older concurrent read be cached
+            }
+            eldest.remove();
+            evicted.release();
+            evictions.increment();
+            pages = slab.allocate(length);
+        }
+        return pages;
+    }
+
+    /**
+     * Evict the least recently used bodies beyond max-entries
+     * Fences are kept until they are older than the TTL, by which time reads that started before the write have
+     * finished; they are dropped then, so their number stays bounded by the write rate.
+     */
+    private void trimToMaxEntries() {
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        long now = System.nanoTime();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            Entry evicted = eldest.next().getValue();
+            if (evicted.isFence()) {
+                if (now - evicted.createdAtNanos > ttlNanos) {
+                    eldest.remove();
+                }
+                continue;
+            }
+            eldest.remove();
+            evicted.release();
+            evictions.increment();
+        }
+    }
+
+    private static CachedItemBody heapBody(byte[] json, byte[] gzipped, boolean gzip, String etag) {
+        return gzip && gzipped != null ? new CachedItemBody(gzipped, true, etag) : new CachedItemBody(json, false, etag);
+    }
+
+    private static long versionOf(Item item) {
+        return item.getChangeSequence() == null ? -1L : item.getChangeSequence();
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Cached rendition of one item version; pages return to the slab once the cache and all readers let go
+     */
+    static final class Entry {
+
+        final OffHeapSlab slab;
+        final long version;
+        final String etag;
+        final int[] jsonPages;
+        final int jsonLength;
+        final int[] gzipPages;
+        final int gzipLength;
+        final long createdAtNanos = System.nanoTime();
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        Entry(OffHeapSlab slab, long version, String etag, int[] jsonPages, int jsonLength, int[] gzipPages,
+              int gzipLength) {
+            this.slab = slab;
+            this.version = version;
+            this.etag = etag;
+            this.jsonPages = jsonPages;
+            this.jsonLength = jsonLength;
+            this.gzipPages = gzipPages;
+            this.gzipLength = gzipLength;
+        }
+
+        static Entry fence(long version) {
+            return new Entry(null, version, null, null, 0, null, 0);
+        }
+
+        boolean isFence() {
+            return jsonPages == null;
+        }
+
+        void retain() {
+            references.incrementAndGet();
+        }
+
+        void release() {
+            if (references.decrementAndGet() == 0 && !isFence()) {
+                slab.release(jsonPages);
+                if (gzipPages != null) {
+                    slab.release(gzipPages);
+                }
+            }
+        }
+    }
+}
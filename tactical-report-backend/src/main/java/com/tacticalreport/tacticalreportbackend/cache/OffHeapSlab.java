@@ -0,0 +1,109 @@
+package com.tacticalreport.tacticalreportbackend.cache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-size pages carved out of a single direct ByteBuffer
+ * Values are stored across one or more (not necessarily contiguous) pages, so the slab never fragments.
+ * Page allocation is synchronized; reads and writes use absolute bulk operations and need no locking.
+ */
+public class OffHeapSlab {
+
+    private final ByteBuffer memory;
+    private final int pageSize;
+    private final int[] freePages;
+    private int freeCount;
+
+    /**
+     * @param pageSize  Size of one page in bytes
+     * @param pageCount Number of pages; pageSize * pageCount must fit in an int
+     */
+    public OffHeapSlab(int pageSize, int pageCount) {
+        if (pageSize <= 0 || pageCount <= 0 || (long) pageSize * pageCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid slab size: " + pageCount + " pages of " + pageSize + " bytes");
+        }
+        this.memory = ByteBuffer.allocateDirect(pageSize * pageCount);
+        this.pageSize = pageSize;
+        this.freePages = new int[pageCount];
+        for (int i = 0; i < pageCount; i++) {
+            freePages[i] = pageCount - 1 - i;
+        }
+        this.freeCount = pageCount;
+    }
+
+    /**
+     * Reserve enough pages for a value
+     *
+     * @param length Value length in bytes
+     * @return Page indexes, or null if not enough pages are free
+     */
+    public synchronized int[] allocate(int length) {
+        int needed = pagesFor(length);
+        if (needed > freeCount) {
+            return null;
+        }
+        int[] pages = new int[needed];
+        for (int i = 0; i < needed; i++) {
+            pages[i] = freePages[--freeCount];
+        }
+        return pages;
+    }
+
+    /**
+     * Return pages to the free list
+     */
+    public synchronized void release(int[] pages) {
+        for (int page : pages) {
+            freePages[freeCount++] = page;
+        }
+    }
+
+    /**
+     * Copy a value into previously allocated pages
+     */
+    public void write(int[] pages, byte[] value, int length) {
+        int offset = 0;
+        for (int page : pages) {
+            int chunk = Math.min(pageSize, length - offset);
+            memory.put(page * pageSize, value, offset, chunk);
+            offset += chunk;
+        }
+    }
+
+    /**
+     * Stream a value to an output stream through a caller-supplied transfer buffer
+     */
+    public void copyTo(int[] pages, int length, OutputStream out, byte[] transferBuffer) throws IOException {
+        int remaining = length;
+        for (int page : pages) {
+            int pageOffset = 0;
+            int pageRemaining = Math.min(pageSize, remaining);
+            while (pageRemaining > 0) {
+                int chunk = Math.min(pageRemaining, transferBuffer.length);
+                memory.get(page * pageSize + pageOffset, transferBuffer, 0, chunk);
+                out.write(transferBuffer, 0, chunk);
+                pageOffset += chunk;
+                pageRemaining -= chunk;
+                remaining -= chunk;
+            }
+        }
+    }
+
+    public int pagesFor(int length) {
+        return Math.max(1, (length + pageSize - 1) / pageSize);
+    }
+
+    public int getPageCount() {
+        return freePages.length;
+    }
+
+    public synchronized int getFreePageCount() {
+        return freeCount;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+}
@@ -0,0 +1,114 @@
+package com.tacticalreport.tacticalreportbackend.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Coalesces concurrent identical calls: the first caller for a key runs the loader, callers arriving while it is
+ * in flight wait for and share its result (or exception) instead of issuing the same query again.
+ * Nothing is kept once the call completes, so this is not a cache. Waiting callers receive their own copy of the
+ * result (mutable entities must not be shared between requests), and give up after the timeout and run the
+ * loader themselves. Calls are counted by outcome (leader, shared, timeout) under the given operation name.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+    private final UnaryOperator<V> copier;
+
+    private final Counter leaders;
+    private final Counter shared;
+    private final Counter timeouts;
+
+    public SingleFlight(String operation, Duration timeout, UnaryOperator<V> copier, MeterRegistry meterRegistry) {
+        this.timeoutNanos = timeout.toNanos();
+        this.copier = copier;
+        this.leaders = counter(meterRegistry, operation, "leader");
+        this.shared = counter(meterRegistry, operation, "shared");
+        this.timeouts = counter(meterRegistry, operation, "timeout");
+        Gauge.builder("items.singleflight.inflight", calls, Map::size)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String operation, String outcome) {
+        return Counter.builder("items.singleflight.calls")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run the loader, or join a call for the same key that is already in flight
+     *
+     * @param key    Normalized query key
+     * @param loader The query
+     * @return The loader's result; a copy of it for callers that joined another call
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = calls.putIfAbsent(key, call);
+        if (inFlight != null) {
+            return join(inFlight, loader);
+        }
+
+        leaders.increment();
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, call);
+        }
+    }
+
+    /**
+     * Stop sharing in-flight calls whose key matches, e.g. after a write made their result stale
+     * Callers already waiting still get the old result; later callers start a new call
+     */
+    public void forget(Predicate<K> keys) {
+        calls.keySet().removeIf(keys);
+    }
+
+    public int inFlight() {
+        return calls.size();
+    }
+
+    private V join(CompletableFuture<V> inFlight, Supplier<V> loader) {
+        try {
+            V value = inFlight.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            shared.increment();
+            return value == null ? null : copier.apply(value);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shared call", e);
+        } catch (ExecutionException e) {
+            shared.increment();
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
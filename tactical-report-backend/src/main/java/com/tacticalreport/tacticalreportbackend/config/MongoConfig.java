@@ -1,13 +1,85 @@
 package com.tacticalreport.tacticalreportbackend.config;
 
+import com.mongodb.MongoCompressor;
+import com.tacticalreport.tacticalreportbackend.service.ReadRouting;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * MongoDB Configuration
- * Enables automatic timestamp management for createdAt and updatedAt fields
+ * Enables automatic timestamp management for createdAt and updatedAt fields,
+ * tunes the client's connection pool, timeouts and wire compression,
+ * and routes lag-tolerant reads to secondaries (see ReadRouting)
  */
 @Configuration
 @EnableMongoAuditing  // Enables @CreatedDate and @LastModifiedDate annotations
 public class MongoConfig {
-}
\ No newline at end of file
+
+    /**
+     * Replaces Boot's default template; repositories pick it up as well
+     */
+    @Bean
+    public MongoTemplate mongoTemplate(MongoDatabaseFactory factory, MongoConverter converter,
+                                       ReadRouting readRouting) {
+        return new ReadRoutingMongoTemplate(factory, converter, readRouting);
+    }
+
+    /**
+     * Client settings applied on top of spring.data.mongodb.uri
+     * max-wait bounds how long a request queues for a pooled connection, so pool starvation surfaces as fast
+     * failures (and in mongodb.pool.checkout.wait) instead of requests hanging. Compressors are offered to the
+     * server in order of preference; the server picks the first one it supports.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoClientTuning(
+            MongoPoolMetrics poolMetrics,
+            @Value("${items.mongo.pool.min-size:10}") int minPoolSize,
+            @Value("${items.mongo.pool.max-size:100}") int maxPoolSize,
+            @Value("${items.mongo.pool.max-wait:2s}") Duration maxWait,
+            @Value("${items.mongo.pool.max-idle:10m}") Duration maxIdle,
+            @Value("${items.mongo.pool.max-connecting:4}") int maxConnecting,
+            @Value("${items.mongo.connect-timeout:5s}") Duration connectTimeout,
+            @Value("${items.mongo.socket-timeout:30s}") Duration socketTimeout,
+            @Value("${items.mongo.compressors:zstd,snappy,zlib}") List<String> compressors
+    ) {
+        if (minPoolSize < 0 || maxPoolSize < 1 || minPoolSize > maxPoolSize) {
+            throw new IllegalArgumentException("Invalid Mongo pool size: min " + minPoolSize + ", max " + maxPoolSize);
+        }
+        List<MongoCompressor> wireCompressors = compressors.stream()
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .map(MongoConfig::compressor)
+                .toList();
+        return builder -> builder
+                .applyToConnectionPoolSettings(pool -> pool
+                        .minSize(minPoolSize)
+                        .maxSize(maxPoolSize)
+                        .maxWaitTime(maxWait.toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnectionIdleTime(maxIdle.toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnecting(maxConnecting)
+                        .addConnectionPoolListener(poolMetrics))
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout((int) connectTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                        .readTimeout((int) socketTimeout.toMillis(), TimeUnit.MILLISECONDS))
+                .compressorList(wireCompressors);
+    }
+
+    static MongoCompressor compressor(String name) {
+        return switch (name.toLowerCase()) {
+            case "zstd" -> MongoCompressor.createZstdCompressor();
+            case "snappy" -> MongoCompressor.createSnappyCompressor();
+            case "zlib" -> MongoCompressor.createZlibCompressor();
+            default -> throw new IllegalArgumentException("Unknown Mongo wire compressor: " + name);
+        };
+    }
+}
@@ -0,0 +1,88 @@
+package com.tacticalreport.tacticalreportbackend.config;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connection pool listener timing how long operations wait to check out a connection
+ * A growing checkout wait is the first sign of pool starvation, well before checkouts start timing out.
+ * Pool size, in-use (checked out) connections and wait queue length per server are published by Spring Boot's
+ * own listener as mongodb.driver.pool.*; this one adds the wait and counts open connections per server for
+ * pre-warming.
+ */
+@Component
+public class MongoPoolMetrics implements ConnectionPoolListener {
+
+    private final Timer checkedOut;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger open = new AtomicInteger();
+    private final Map<ServerAddress, AtomicInteger> openByServer = new ConcurrentHashMap<>();
+
+    public MongoPoolMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.checkedOut = checkoutTimer("success", "none");
+    }
+
+    private Timer checkoutTimer(String outcome, String reason) {
+        return Timer.builder("mongodb.pool.checkout.wait")
+                .description("Time spent waiting for a pooled connection")
+                .tag("outcome", outcome)
+                .tag("reason", reason)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        checkedOut.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        checkoutTimer("failed", event.getReason().name().toLowerCase())
+                .record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void connectionCreated(ConnectionCreatedEvent event) {
+        open.incrementAndGet();
+        openByServer.computeIfAbsent(event.getConnectionId().getServerId().getAddress(), address -> new AtomicInteger())
+                .incrementAndGet();
+    }
+
+    @Override
+    public void connectionClosed(ConnectionClosedEvent event) {
+        open.decrementAndGet();
+        AtomicInteger server = openByServer.get(event.getConnectionId().getServerId().getAddress());
+        if (server != null) {
+            server.decrementAndGet();
+        }
+    }
+
+    /**
+     * Connections currently open across all servers
+     */
+    public int openConnections() {
+        return open.get();
+    }
+
+    /**
+     * Connections currently open to one server
+     */
+    public int openConnections(ServerAddress server) {
+        AtomicInteger count = openByServer.get(server);
+        return count == null ? 0 : count.get();
+    }
+}
@@ -0,0 +1,156 @@
+package com.tacticalreport.tacticalreportbackend.config;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoClient;
+import com.mongodb.connection.ServerDescription;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Opens the pool's minimum connections before the web server starts taking traffic
+ * Otherwise the first burst of requests after a deploy pays for TCP, TLS and handshake round trips while
+ * waiting for connections. Each server has its own pool, so a few bursts of concurrent pings, half sent to the
+ * primary and half with secondaryPreferred like routed reads, make the pools open connections side by side until
+ * every primary and secondary has min-size open; anything still missing after that is opened by the driver's pool
+ * maintenance in the background. An unreachable database delays startup by at most the pre-warm timeout.
+ */
+@Component
+@Slf4j
+public class MongoPoolWarmer implements SmartInitializingSingleton {
+
+    private static final Document PING = new Document("ping", 1);
+    private static final int MAX_ROUNDS = 5;
+    private static final List<ReadPreference> TARGETS = List.of(ReadPreference.primary(),
+            ReadPreference.secondaryPreferred());
+
+    private final MongoClient mongoClient;
+    private final MongoPoolMetrics poolMetrics;
+    private final boolean enabled;
+    private final int minSize;
+    private final Duration timeout;
+
+    public MongoPoolWarmer(
+            MongoClient mongoClient,
+            MongoPoolMetrics poolMetrics,
+            @Value("${items.mongo.pool.prewarm:true}") boolean enabled,
+            @Value("${items.mongo.pool.min-size:10}") int minSize,
+            @Value("${items.mongo.pool.prewarm-timeout:10s}") Duration timeout
+    ) {
+        this.mongoClient = mongoClient;
+        this.poolMetrics = poolMetrics;
+        this.enabled = enabled;
+        this.minSize = minSize;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled && minSize > 0) {
+            warm();
+        }
+    }
+
+    /**
+     * @return Whether min-size connections were open to every primary and secondary when warming stopped
+     */
+    boolean warm() {
+        long started = System.nanoTime();
+        long deadline = started + timeout.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(minSize * TARGETS.size(), runnable -> {
+            Thread thread = new Thread(runnable, "mongo-pool-warmer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (int round = 0; !warmed(); round++) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || round == MAX_ROUNDS) {
+                    log.warn("Pre-warm opened {} of {} Mongo connections per server; the pools open the rest in the "
+                            + "background", openByServer(), minSize);
+                    return false;
+                }
+                pingConcurrently(executor, remaining);
+            }
+            log.info("Pre-warmed Mongo connections {} in {} ms", openByServer(),
+                    Duration.ofNanos(System.nanoTime() - started).toMillis());
+            return true;
+        } catch (TimeoutException e) {
+            log.warn("Mongo connection pre-warm timed out after {} ms", timeout.toMillis());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (RuntimeException e) {
+            log.warn("Could not pre-warm Mongo connections: {}", e.getMessage());
+            return false;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Whether every known primary and secondary (or standalone, or mongos) has min-size connections open
+     */
+    private boolean warmed() {
+        List<ServerAddress> servers = servers();
+        return !servers.isEmpty()
+                && servers.stream().allMatch(server -> poolMetrics.openConnections(server) >= minSize);
+    }
+
+    private List<ServerAddress> servers() {
+        return mongoClient.getClusterDescription().getServerDescriptions().stream()
+                .filter(server -> server.isOk() && (server.isPrimary() || server.isSecondary()
+                        || server.isStandAlone() || server.isShardRouter()))
+                .map(ServerDescription::getAddress)
+                .toList();
+    }
+
+    private Map<ServerAddress, Integer> openByServer() {
+        return servers().stream().collect(Collectors.toMap(server -> server, poolMetrics::openConnections));
+    }
+
+    private void pingConcurrently(ExecutorService executor, long timeoutNanos)
+            throws InterruptedException, TimeoutException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Document>> pings = new ArrayList<>(minSize * TARGETS.size());
+        for (ReadPreference target : TARGETS) {
+            for (int i = 0; i < minSize; i++) {
+                pings.add(CompletableFuture.supplyAsync(() -> {
+                    awaitUninterruptibly(start);
+                    return mongoClient.getDatabase("admin").runCommand(PING, target);
+                }, executor));
+            }
+        }
+        start.countDown();
+        try {
+            CompletableFuture.allOf(pings.toArray(CompletableFuture[]::new)).get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
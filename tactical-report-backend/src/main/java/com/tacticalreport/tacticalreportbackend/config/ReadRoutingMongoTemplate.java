@@ -0,0 +1,33 @@
+package com.tacticalreport.tacticalreportbackend.config;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoCollection;
+import com.tacticalreport.tacticalreportbackend.service.ReadRouting;
+import org.bson.Document;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * MongoTemplate that applies the read preference chosen by ReadRouting for the current thread
+ * Repositories and services share this template, so routing a read needs no changes to the query itself.
+ */
+class ReadRoutingMongoTemplate extends MongoTemplate {
+
+    private final ReadRouting readRouting;
+
+    ReadRoutingMongoTemplate(MongoDatabaseFactory factory, MongoConverter converter, ReadRouting readRouting) {
+        super(factory, converter);
+        this.readRouting = readRouting;
+    }
+
+    @Override
+    protected MongoCollection<Document> prepareCollection(MongoCollection<Document> collection) {
+        MongoCollection<Document> prepared = super.prepareCollection(collection);
+        // With auto-index-creation the superclass constructor creates indexes before readRouting is assigned
+        ReadPreference routed = readRouting == null ? null : readRouting.current();
+        return routed == null || routed.equals(prepared.getReadPreference())
+                ? prepared
+                : prepared.withReadPreference(routed);
+    }
+}
@@ -0,0 +1,13 @@
+package com.tacticalreport.tacticalreportbackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling Configuration
+ * Enables @Scheduled background jobs (SSE heartbeats, maintenance tasks)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
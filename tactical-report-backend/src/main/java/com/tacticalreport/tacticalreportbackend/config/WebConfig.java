@@ -1,13 +1,20 @@
 package com.tacticalreport.tacticalreportbackend.config;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.tacticalreport.tacticalreportbackend.cache.CachedItemBodyHttpMessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
  * Web Configuration
  * Configures CORS to allow frontend requests from localhost:3000
+ * Registers CBOR and Smile converters so clients can negotiate binary payloads via the Accept header
  */
 @Configuration
 public class WebConfig {
@@ -21,9 +28,35 @@ public class WebConfig {
                         .allowedOrigins("http://localhost:3000") // Next.js frontend
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders("ETag", "Retry-After")
                         .allowCredentials(true)
                         .maxAge(3600);
             }
         };
     }
-}
\ No newline at end of file
+
+    /**
+     * application/cbor converter sharing the Jackson settings (modules, spring.jackson.*) of the JSON converter
+     * Boot's builder is a prototype bean, so setting its factory here does not affect the JSON mapper
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * application/x-jackson-smile converter sharing the Jackson settings of the JSON converter
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Writes item bodies served from the off-heap response cache
+     */
+    @Bean
+    public CachedItemBodyHttpMessageConverter cachedItemBodyHttpMessageConverter() {
+        return new CachedItemBodyHttpMessageConverter();
+    }
+}
@@ -0,0 +1,48 @@
+package com.tacticalreport.tacticalreportbackend.controller;
+
+import com.tacticalreport.tacticalreportbackend.exception.ItemNotFoundException;
+import com.tacticalreport.tacticalreportbackend.model.ImageBlob;
+import com.tacticalreport.tacticalreportbackend.service.ImageBlobStore;
+import com.tacticalreport.tacticalreportbackend.service.ItemImages;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * REST Controller serving images from the content-addressed blob store
+ * Base URL: /api/images
+ */
+@RestController
+@RequestMapping("/api/images")
+@RequiredArgsConstructor
+public class ImageController {
+
+    static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private final ImageBlobStore imageBlobStore;
+
+    /**
+     * Get an image by content hash
+     * GET /api/images/{hash}
+     * The content behind a hash never changes, so responses are cacheable forever. Supports Range requests.
+     * Blobs that are not a supported raster type are sent as application/octet-stream.
+     *
+     * @param hash The SHA-256 hash of the image
+     */
+    @GetMapping("/{hash}")
+    public void getImage(
+            @PathVariable String hash,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        ImageBlob blob = imageBlobStore.find(hash)
+                .orElseThrow(() -> new ItemNotFoundException("Image not found: " + hash, true));
+        FileRangeResponder.write(imageBlobStore.pathOf(hash), blob.getSize(),
+                ItemImages.safeContentType(blob.getContentType()), "\"" + hash + "\"", IMMUTABLE, request, response);
+    }
+}
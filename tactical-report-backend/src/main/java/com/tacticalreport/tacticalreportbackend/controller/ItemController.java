@@ -1,18 +1,29 @@
 package com.tacticalreport.tacticalreportbackend.controller;
 
+import com.tacticalreport.tacticalreportbackend.cache.CachedItemBody;
+import com.tacticalreport.tacticalreportbackend.cache.ItemResponseCache;
+import com.tacticalreport.tacticalreportbackend.dto.FacetedPage;
 import com.tacticalreport.tacticalreportbackend.model.Item;
 import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import com.tacticalreport.tacticalreportbackend.service.ItemETags;
+import com.tacticalreport.tacticalreportbackend.service.ItemFacetService;
+import com.tacticalreport.tacticalreportbackend.service.ItemFilter;
 import com.tacticalreport.tacticalreportbackend.service.ItemService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -28,7 +39,11 @@ import java.util.Map;
 @Slf4j
 public class ItemController {
 
+    private static final String VARY_REPRESENTATION = HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING;
+
     private final ItemService itemService;
+    private final ItemResponseCache itemResponseCache;
+    private final ItemFacetService itemFacetService;
 
     /**
      * Create a new item
@@ -41,7 +56,7 @@ public class ItemController {
     public ResponseEntity<Item> createItem(@Valid @RequestBody Item item) {
         log.info("REST request to create item: {}", item.getName());
         Item createdItem = itemService.createItem(item);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdItem);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ItemETags.of(createdItem)).body(createdItem);
     }
 
     /**
@@ -56,7 +71,15 @@ public class ItemController {
      * @param sku      Search by SKU (optional)
      * @param page     Page number (0-indexed, default: 0)
      * @param size     Page size (default: 20)
-     * @return 200 OK with paginated list of items
+     * @param facets   Also return facet counts (category, status, price and quantity ranges) for the filters
+     *                 Filters combine: when several are given, items must match all of them
+     * @param includeArchived Also list archived items (deleted or long discontinued); combines with category
+     *                        and status only
+     * @param sort     Sort orders, e.g. sort=price,asc&sort=name,desc; only orders an index serves for the
+     *                 chosen filter are accepted, with _id appended as tie-breaker (default: createdAt,desc on
+     *                 the unfiltered list)
+     * @return 200 OK with paginated list of items and a weak ETag, 304 Not Modified on If-None-Match, or
+     * 400 Bad Request for a sort that is not allowed
      */
     @GetMapping
     public ResponseEntity<Page<Item>> getAllItems(
@@ -70,21 +93,31 @@ public class ItemController {
             @RequestParam(required = false) String sku,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(required = false) String search
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            Sort sort
 
     ) {
 
 
-        Pageable pageable = PageRequest.of(page, size);
+        Pageable pageable = PageRequest.of(page, size, sort);
 
         Page<Item> items;
+        ItemFilter filter = new ItemFilter(search, name, sku, category, status,
+                minPrice, maxPrice, minQuantity, maxQuantity);
 
-        if (search != null && !search.isEmpty()) {
+        if (includeArchived) {
+            if (hasText(search) || hasText(sku) || hasText(name) || minPrice != null || maxPrice != null
+                    || minQuantity != null || maxQuantity != null || facets) {
+                throw new IllegalArgumentException("includeArchived can only be combined with category and status");
+            }
+            items = itemService.getItemsIncludingArchived(category, status, pageable);
+        } else if (filter.normalized().activeFilters() > 1) {
+            items = itemService.getItemsByFilter(filter, pageable);
+        } else if (search != null && !search.isEmpty()) {
             items = itemService.searchAllFields(search, pageable);
-            return ResponseEntity.ok(items);
-        }
-
-        if (sku != null && !sku.isEmpty()) {
+        } else if (sku != null && !sku.isEmpty()) {
             Item item = itemService.getItemBySku(sku);
             items = new org.springframework.data.domain.PageImpl<>(List.of(item), pageable, 1);
         } else if (name != null && !name.isEmpty()) {
@@ -115,22 +148,115 @@ public class ItemController {
         } else {
             items = itemService.getAllItems(pageable);
         }
+        items = items.map(ItemController::listView);
 
-        return ResponseEntity.ok(items);
+        if (facets) {
+            FacetedPage<Item> faceted = new FacetedPage<>(items, itemFacetService.getFacets(filter));
+            return ResponseEntity.ok()
+                    .eTag(ItemETags.ofList(faceted.getContent(), faceted.getTotalElements(), faceted.getFacets()))
+                    .body(faceted);
+        }
+        return ResponseEntity.ok().eTag(ItemETags.ofList(items.getContent(), items.getTotalElements())).body(items);
     }
 
     /**
      * Get item by ID
      * GET /api/items/{id}
+     * JSON responses are served from pre-rendered bytes when the item is in the response cache
+     * If-None-Match is answered from the cache or a version-only projection, without loading the document
      *
-     * @param id The item ID
-     * @return 200 OK with the item, or 404 Not Found
+     * @param id             The item ID
+     * @param accept         Accept header (optional)
+     * @param acceptEncoding Accept-Encoding header (optional)
+     * @param ifNoneMatch    If-None-Match header (optional)
+     * @param includeArchived Fall back to the archive when the item is not live (not served from the cache)
+     * @return 200 OK with the item and the ETag of its representation (e.g. "42", "42-gzip", "42-cbor"),
+     * 304 Not Modified, or 404 Not Found
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Item> getItemById(@PathVariable String id) {
+    public ResponseEntity<?> getItemById(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(defaultValue = "false") boolean includeArchived
+    ) {
         log.info("REST request to get item by ID: {}", id);
-        Item item = itemService.getItemById(id);
-        return ResponseEntity.ok(item);
+
+        // Each representation gets its own ETag, so a cache never serves gzip or CBOR bytes for another variant
+        MediaType binaryType = ItemResponseCache.binaryType(accept);
+        // Pre-rendered bytes are JSON only; anything else (including 406 for unsupported types) is negotiated
+        boolean cached = itemResponseCache.isEnabled() && ItemResponseCache.acceptsJson(accept) && !includeArchived;
+        boolean gzip = cached && ItemResponseCache.acceptsGzip(acceptEncoding);
+        String representation = binaryType == null ? (gzip ? ItemETags.GZIP : null)
+                : binaryType.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR) ? ItemETags.CBOR : ItemETags.SMILE;
+
+        if (includeArchived) {
+            Item item = itemService.getItemById(id, true);
+            String eTag = ItemETags.ofRepresentation(ItemETags.of(item), representation);
+            if (ifNoneMatch != null && ItemETags.matchesWeakly(ifNoneMatch, eTag)) {
+                return notModified(eTag);
+            }
+            return itemResponse(eTag, binaryType).body(item);
+        }
+
+        if (ifNoneMatch != null) {
+            String currentETag = itemResponseCache.isEnabled() ? itemResponseCache.peekETag(id) : null;
+            if (currentETag == null) {
+                currentETag = ItemETags.of(itemService.getItemVersion(id));
+            }
+            if (ItemETags.matchesWeakly(ifNoneMatch, currentETag)) {
+                return notModified(ItemETags.ofRepresentation(currentETag, representation));
+            }
+        }
+
+        if (!cached) {
+            Item item = itemService.getItemById(id);
+            return itemResponse(ItemETags.ofRepresentation(ItemETags.of(item), representation), binaryType).body(item);
+        }
+
+        CachedItemBody body = itemResponseCache.get(id, gzip);
+        if (body == null) {
+            body = itemResponseCache.put(itemService.getItemById(id), gzip);
+        }
+        // The converter unpins the pages after writing; this also unpins them if the body is never written
+        // (client abort, an error before the write). Releasing twice is a no-op.
+        RequestContextHolder.currentRequestAttributes().registerDestructionCallback(
+                CachedItemBody.class.getName(), body::release, RequestAttributes.SCOPE_REQUEST);
+        String eTag = ItemETags.ofRepresentation(body.getETag(), representation);
+        if (ifNoneMatch != null && ItemETags.matchesWeakly(ifNoneMatch, eTag)) {
+            // Changed back between the version check and the read; the pinned body will not be written
+            body.release();
+            return notModified(eTag);
+        }
+
+        ResponseEntity.BodyBuilder response = itemResponse(eTag, null);
+        if (body.isGzipped()) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * 200 OK for a single item, varying on the headers that pick its representation
+     *
+     * @param contentType Binary format chosen from the Accept header, or null to let JSON be negotiated
+     */
+    private static ResponseEntity.BodyBuilder itemResponse(String eTag, MediaType contentType) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(eTag)
+                .header(HttpHeaders.VARY, VARY_REPRESENTATION);
+        if (contentType != null) {
+            response.contentType(contentType);
+        }
+        return response;
+    }
+
+    private static ResponseEntity<Object> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .header(HttpHeaders.VARY, VARY_REPRESENTATION)
+                .build();
     }
 
     /**
@@ -139,29 +265,35 @@ public class ItemController {
      *
      * @param id          The item ID to update
      * @param itemDetails The updated item details (validated)
-     * @return 200 OK with the updated item, or 404 Not Found
+     * @param ifMatch     If-Match header (optional); the update only applies if the item still has this ETag
+     * @return 200 OK with the updated item, 404 Not Found, or 412 Precondition Failed
      */
     @PutMapping("/{id}")
     public ResponseEntity<Item> updateItem(
             @PathVariable String id,
-            @Valid @RequestBody Item itemDetails
+            @Valid @RequestBody Item itemDetails,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
         log.info("REST request to update item with ID: {}", id);
-        Item updatedItem = itemService.updateItem(id, itemDetails);
-        return ResponseEntity.ok(updatedItem);
+        Item updatedItem = itemService.updateItem(id, itemDetails, ifMatch);
+        return ResponseEntity.ok().eTag(ItemETags.of(updatedItem)).body(updatedItem);
     }
 
     /**
      * Delete an item by ID
      * DELETE /api/items/{id}
      *
-     * @param id The item ID to delete
-     * @return 204 No Content, or 404 Not Found
+     * @param id      The item ID to delete
+     * @param ifMatch If-Match header (optional); the delete only applies if the item still has this ETag
+     * @return 200 OK, or 412 Precondition Failed
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, String>> deleteItem(@PathVariable String id) {
+    public ResponseEntity<Map<String, String>> deleteItem(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
         log.info("REST request to delete item with ID: {}", id);
-        itemService.deleteItem(id);
+        itemService.deleteItem(id, ifMatch);
         Map<String, String> body = Map.of(
                 "message", "Item deleted successfully",
                 "id", id
@@ -178,7 +310,23 @@ public class ItemController {
     @GetMapping("/available")
     public ResponseEntity<List<Item>> getAvailableItems() {
         log.info("REST request to get available items");
-        List<Item> items = itemService.getAvailableItems();
-        return ResponseEntity.ok(items);
+        List<Item> items = itemService.getAvailableItems().stream().map(ItemController::listView).toList();
+        return ResponseEntity.ok().eTag(ItemETags.ofList(items, items.size())).body(items);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    /**
+     * List responses drop the inline image of items that have renditions; cards load them from /api/items/{id}/image
+     */
+    private static Item listView(Item item) {
+        if (item.getImageHash() == null) {
+            return item;
+        }
+        Item view = new Item();
+        BeanUtils.copyProperties(item, view, "image");
+        return view;
     }
-}
\ No newline at end of file
+}
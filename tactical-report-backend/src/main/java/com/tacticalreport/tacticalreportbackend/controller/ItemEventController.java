@@ -0,0 +1,44 @@
+package com.tacticalreport.tacticalreportbackend.controller;
+
+import com.tacticalreport.tacticalreportbackend.event.ItemEventBroadcaster;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST Controller streaming item changes as Server-Sent Events
+ * Base URL: /api/items/events
+ */
+@RestController
+@RequestMapping("/api/items/events")
+@RequiredArgsConstructor
+@Slf4j
+public class ItemEventController {
+
+    private final ItemEventBroadcaster itemEventBroadcaster;
+
+    /**
+     * Subscribe to item changes
+     * GET /api/items/events
+     * Event names: created, updated, deleted, stock_changed and resync (reload everything)
+     *
+     * @param lastEventIdHeader Last-Event-ID header sent by EventSource on reconnect (optional)
+     * @param lastEventId       Same as the header, for clients that cannot set headers (optional)
+     * @return text/event-stream of item changes
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(required = false) String lastEventId
+    ) {
+        String resumeFrom = lastEventIdHeader != null ? lastEventIdHeader : lastEventId;
+        log.info("REST request to stream item events (Last-Event-ID: {})", resumeFrom);
+        return itemEventBroadcaster.subscribe(resumeFrom);
+    }
+}
@@ -0,0 +1,167 @@
+package com.tacticalreport.tacticalreportbackend.controller;
+
+import com.tacticalreport.tacticalreportbackend.exception.ItemNotFoundException;
+import com.tacticalreport.tacticalreportbackend.exception.PayloadTooLargeException;
+import com.tacticalreport.tacticalreportbackend.model.ImageBlob;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemImageRef;
+import com.tacticalreport.tacticalreportbackend.model.ItemImageRendition;
+import com.tacticalreport.tacticalreportbackend.service.ImageBlobStore;
+import com.tacticalreport.tacticalreportbackend.service.ImageRenditionService;
+import com.tacticalreport.tacticalreportbackend.service.ItemETags;
+import com.tacticalreport.tacticalreportbackend.service.ItemImages;
+import com.tacticalreport.tacticalreportbackend.service.ItemService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * REST Controller serving and uploading item images as binary
+ * Base URL: /api/items/{id}/image
+ */
+@RestController
+@RequestMapping("/api/items")
+@RequiredArgsConstructor
+@Slf4j
+public class ItemImageController {
+
+    private final ItemService itemService;
+    private final ImageRenditionService imageRenditionService;
+    private final ImageBlobStore imageBlobStore;
+
+    /**
+     * Get an item image, resized when a size is given
+     * GET /api/items/{id}/image?size=256&v={imageHash}
+     * Responses for a URL carrying the current image hash (v) are cacheable forever.
+     * Originals are streamed from the blob store with Range support; while renditions are still being generated
+     * the original is returned uncached.
+     *
+     * @param id         The item ID
+     * @param size       Requested longest side in pixels (optional, original image if omitted)
+     * @param version    Image hash the client expects (optional)
+     * @param webRequest The current request, used for If-None-Match handling
+     * @return 200 OK with the image bytes, 304 Not Modified, or 404 Not Found
+     */
+    @GetMapping("/{id}/image")
+    public ResponseEntity<byte[]> getItemImage(
+            @PathVariable String id,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(name = "v", required = false) String version,
+            WebRequest webRequest,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        ItemImageRef ref = itemService.getItemImageRef(id);
+        String imageHash = ref.getImageHash();
+        if (imageHash == null) {
+            return inlineImage(itemService.getItemById(id));
+        }
+
+        CacheControl cacheControl = imageHash.equals(version) ? ImageController.IMMUTABLE : CacheControl.noCache();
+        if (size != null) {
+            int resolvedSize = imageRenditionService.resolveSize(size);
+            String etag = "\"" + imageHash + "-" + resolvedSize + "\"";
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+            Optional<ItemImageRendition> rendition = imageRenditionService.findRendition(imageHash, resolvedSize);
+            if (rendition.isPresent()) {
+                return ResponseEntity.ok()
+                        .cacheControl(cacheControl)
+                        .eTag(etag)
+                        .header(FileRangeResponder.CONTENT_TYPE_OPTIONS, FileRangeResponder.NOSNIFF)
+                        .contentType(MediaType.parseMediaType(rendition.get().getContentType()))
+                        .body(rendition.get().getData());
+            }
+            log.debug("Rendition {} of item {} not ready, serving original", resolvedSize, id);
+            imageRenditionService.submit(imageHash);
+            cacheControl = CacheControl.noCache();
+        }
+
+        ImageBlob blob = imageBlobStore.find(imageHash)
+                .orElseThrow(() -> new ItemNotFoundException("Image not found for item: " + id, true));
+        FileRangeResponder.write(imageBlobStore.pathOf(imageHash), blob.getSize(),
+                ItemImages.safeContentType(blob.getContentType()),
+                "\"" + imageHash + "\"", cacheControl, request, response);
+        return null;
+    }
+
+    /**
+     * Upload a new image for an item as a raw request body
+     * PUT /api/items/{id}/image (Content-Type: image/png, image/jpeg, ...)
+     * The body is streamed to the blob store without being buffered in memory
+     *
+     * @param id            The item ID
+     * @param contentType   Content-Type header
+     * @param contentLength Content-Length header (optional, used to reject oversized uploads up front)
+     * @param ifMatch       If-Match header (optional)
+     * @param request       The HTTP request whose body is the image
+     * @return 200 OK with the updated item, 404 Not Found, 412 Precondition Failed, or 413 Payload Too Large
+     */
+    @PutMapping(value = "/{id}/image", consumes = "image/*")
+    public ResponseEntity<Item> uploadItemImage(
+            @PathVariable String id,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            HttpServletRequest request
+    ) throws IOException {
+        log.info("REST request to upload image for item with ID: {}", id);
+        if (contentLength != null && contentLength > imageBlobStore.getMaxImageBytes()) {
+            throw new PayloadTooLargeException(imageBlobStore.getMaxImageBytes());
+        }
+        Item updatedItem = itemService.replaceImage(id, request.getInputStream(), contentType, ifMatch);
+        return ResponseEntity.ok().eTag(ItemETags.of(updatedItem)).body(updatedItem);
+    }
+
+    /**
+     * Upload a new image for an item as a multipart form field named "file"
+     * PUT /api/items/{id}/image (Content-Type: multipart/form-data)
+     * The container spools the part to disk, and it is streamed from there to the blob store
+     *
+     * @param id      The item ID
+     * @param file    The uploaded image
+     * @param ifMatch If-Match header (optional)
+     * @return 200 OK with the updated item, 404 Not Found, 412 Precondition Failed, or 413 Payload Too Large
+     */
+    @PutMapping(value = "/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Item> uploadItemImageMultipart(
+            @PathVariable String id,
+            @RequestParam("file") MultipartFile file,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws IOException {
+        log.info("REST request to upload image file for item with ID: {}", id);
+        Item updatedItem;
+        try (InputStream content = file.getInputStream()) {
+            updatedItem = itemService.replaceImage(id, content, file.getContentType(), ifMatch);
+        }
+        return ResponseEntity.ok().eTag(ItemETags.of(updatedItem)).body(updatedItem);
+    }
+
+    /**
+     * Serve an image still stored inline on an item written before the blob store existed
+     */
+    private static ResponseEntity<byte[]> inlineImage(Item item) {
+        if (item.getImage() == null || item.getImage().isEmpty()) {
+            throw new ItemNotFoundException("Image not found for item: " + item.getId(), true);
+        }
+        ItemImages.DecodedImage image = ItemImages.decode(item.getImage());
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .header(FileRangeResponder.CONTENT_TYPE_OPTIONS, FileRangeResponder.NOSNIFF)
+                .contentType(MediaType.parseMediaType(image.contentType()))
+                .body(image.bytes());
+    }
+}
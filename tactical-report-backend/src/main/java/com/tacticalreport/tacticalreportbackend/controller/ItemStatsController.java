@@ -0,0 +1,82 @@
+package com.tacticalreport.tacticalreportbackend.controller;
+
+import com.tacticalreport.tacticalreportbackend.dto.ItemQuantilesResponse;
+import com.tacticalreport.tacticalreportbackend.dto.ItemStatsResponse;
+import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import com.tacticalreport.tacticalreportbackend.service.ItemQuantileService;
+import com.tacticalreport.tacticalreportbackend.service.ItemRollupService;
+import com.tacticalreport.tacticalreportbackend.service.ItemStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST Controller for inventory analytics
+ * Base URL: /api/items/stats
+ */
+@RestController
+@RequestMapping("/api/items/stats")
+@RequiredArgsConstructor
+@Slf4j
+public class ItemStatsController {
+
+    private final ItemStatsService itemStatsService;
+    private final ItemRollupService itemRollupService;
+    private final ItemQuantileService itemQuantileService;
+
+    /**
+     * Get item counts, stock value and price statistics per category and status
+     * GET /api/items/stats?category={category}&status={status}&lowStockThreshold={n}
+     *
+     * @param category          Only count items in this category (optional)
+     * @param status            Only count items with this status (optional)
+     * @param lowStockThreshold Highest quantity counted as low stock (optional)
+     * @return 200 OK with the aggregated statistics
+     */
+    @GetMapping
+    public ResponseEntity<ItemStatsResponse> getStats(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) ItemStatus status,
+            @RequestParam(required = false) Integer lowStockThreshold
+    ) {
+        log.info("REST request to get item stats for category: {}, status: {}", category, status);
+        return ResponseEntity.ok(itemStatsService.getStats(category, status, lowStockThreshold));
+    }
+
+    /**
+     * Get item counts, stock units and inventory value per category and status from the maintained rollups
+     * GET /api/items/stats/summary
+     * Reads a few rollup documents instead of aggregating the catalog; price statistics are not included
+     *
+     * @return 200 OK with the summary statistics
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<ItemStatsResponse> getSummary() {
+        log.info("REST request to get item stats summary");
+        return ResponseEntity.ok(itemRollupService.getSummary());
+    }
+
+    /**
+     * Get approximate price and quantity percentiles, overall and per category
+     * GET /api/items/stats/quantiles?category={category}&q=0.5,0.9,0.99
+     * Answered from in-memory t-digest sketches without touching the database
+     *
+     * @param category Only this category (optional)
+     * @param q        Quantiles between 0 and 1 (default: 0.5, 0.9, 0.99)
+     * @return 200 OK with the quantiles, or 400 Bad Request for a quantile outside [0, 1]
+     */
+    @GetMapping("/quantiles")
+    public ResponseEntity<ItemQuantilesResponse> getQuantiles(
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "0.5,0.9,0.99") List<Double> q
+    ) {
+        log.debug("REST request to get item quantiles for category: {}", category);
+        return ResponseEntity.ok(itemQuantileService.getQuantiles(category, q));
+    }
+}
@@ -0,0 +1,41 @@
+package com.tacticalreport.tacticalreportbackend.controller;
+
+import com.tacticalreport.tacticalreportbackend.dto.ItemChangesResponse;
+import com.tacticalreport.tacticalreportbackend.service.ItemSyncService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST Controller for incremental catalog sync
+ * Base URL: /api/items/changes
+ */
+@RestController
+@RequestMapping("/api/items/changes")
+@RequiredArgsConstructor
+@Slf4j
+public class ItemSyncController {
+
+    private final ItemSyncService itemSyncService;
+
+    /**
+     * Get changes since a sync token
+     * GET /api/items/changes?since={token}
+     *
+     * @param since Token returned by the previous call (optional, omit for a full sync)
+     * @param limit Maximum number of changes (default: 500)
+     * @return 200 OK with changed items, deletion tombstones and the next token
+     */
+    @GetMapping
+    public ResponseEntity<ItemChangesResponse> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit
+    ) {
+        log.info("REST request to get item changes since token: {}", since);
+        return ResponseEntity.ok(itemSyncService.getChangesSince(since, limit));
+    }
+}
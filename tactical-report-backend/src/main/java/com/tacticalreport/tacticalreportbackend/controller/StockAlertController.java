@@ -0,0 +1,107 @@
+package com.tacticalreport.tacticalreportbackend.controller;
+
+import com.tacticalreport.tacticalreportbackend.dto.StockAlert;
+import com.tacticalreport.tacticalreportbackend.event.StockAlertBroadcaster;
+import com.tacticalreport.tacticalreportbackend.model.StockThreshold;
+import com.tacticalreport.tacticalreportbackend.service.StockAlertService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * REST Controller for low-stock alerts and their thresholds
+ * Base URL: /api/items/stock-alerts
+ */
+@RestController
+@RequestMapping("/api/items/stock-alerts")
+@RequiredArgsConstructor
+@Slf4j
+public class StockAlertController {
+
+    private final StockAlertService stockAlertService;
+    private final StockAlertBroadcaster stockAlertBroadcaster;
+
+    /**
+     * Get the items at or below their low-stock threshold, lowest stock cover first
+     * GET /api/items/stock-alerts?category={category}&limit={n}
+     * Served from memory without querying the catalog
+     *
+     * @param category Only this category (optional)
+     * @param limit    Maximum number of alerts (default: 100)
+     * @return 200 OK with the alerts
+     */
+    @GetMapping
+    public ResponseEntity<List<StockAlert>> getAlerts(
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        log.debug("REST request to get stock alerts for category: {}", category);
+        return ResponseEntity.ok(stockAlertService.getAlerts(category, Math.max(0, limit)));
+    }
+
+    /**
+     * Subscribe to alerts as they are raised, change severity or resolve
+     * GET /api/items/stock-alerts/stream
+     * Event names: low_stock, out_of_stock, resolved and resync (reload the alert list)
+     *
+     * @param lastEventIdHeader Last-Event-ID header sent by EventSource on reconnect (optional)
+     * @param lastEventId       Same as the header, for clients that cannot set headers (optional)
+     * @return text/event-stream of alerts
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAlerts(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(required = false) String lastEventId
+    ) {
+        String resumeFrom = lastEventIdHeader != null ? lastEventIdHeader : lastEventId;
+        log.info("REST request to stream stock alerts (Last-Event-ID: {})", resumeFrom);
+        return stockAlertBroadcaster.subscribe(resumeFrom);
+    }
+
+    /**
+     * Get the configured category and item thresholds
+     * GET /api/items/stock-alerts/thresholds
+     *
+     * @return 200 OK with the thresholds; items without one use items.stock-alerts.default-threshold
+     */
+    @GetMapping("/thresholds")
+    public ResponseEntity<List<StockThreshold>> getThresholds() {
+        return ResponseEntity.ok(stockAlertService.getThresholds());
+    }
+
+    /**
+     * Set the threshold of a category or item
+     * PUT /api/items/stock-alerts/thresholds
+     *
+     * @param threshold Scope (CATEGORY or ITEM), key (category name or item ID) and threshold (validated)
+     * @return 200 OK with the saved threshold
+     */
+    @PutMapping("/thresholds")
+    public ResponseEntity<StockThreshold> saveThreshold(@Valid @RequestBody StockThreshold threshold) {
+        log.info("REST request to set {} stock threshold of {} to {}", threshold.getScope(), threshold.getKey(),
+                threshold.getThreshold());
+        return ResponseEntity.ok(stockAlertService.saveThreshold(threshold));
+    }
+
+    /**
+     * Remove the threshold of a category or item
+     * DELETE /api/items/stock-alerts/thresholds/{scope}/{key}
+     *
+     * @param scope CATEGORY or ITEM
+     * @param key   Category name or item ID
+     * @return 204 No Content, or 404 Not Found if no such threshold exists
+     */
+    @DeleteMapping("/thresholds/{scope}/{key}")
+    public ResponseEntity<Void> deleteThreshold(@PathVariable StockThreshold.Scope scope, @PathVariable String key) {
+        log.info("REST request to remove {} stock threshold of {}", scope, key);
+        return stockAlertService.deleteThreshold(scope, key)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.tacticalreport.tacticalreportbackend.controller;
+
+import com.tacticalreport.tacticalreportbackend.dto.StockDeltaRequest;
+import com.tacticalreport.tacticalreportbackend.dto.StockDeltaResponse;
+import com.tacticalreport.tacticalreportbackend.service.StockDeltaBuffer;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * REST Controller for stock delta ingestion (warehouse scanner feeds)
+ * Base URL: /api/items/stock-deltas
+ */
+@RestController
+@RequestMapping("/api/items/stock-deltas")
+@Slf4j
+public class StockDeltaController {
+
+    private final StockDeltaBuffer stockDeltaBuffer;
+    private final Duration ackTimeout;
+
+    public StockDeltaController(
+            StockDeltaBuffer stockDeltaBuffer,
+            @Value("${items.stock-ingest.ack-timeout:5s}") Duration ackTimeout
+    ) {
+        this.stockDeltaBuffer = stockDeltaBuffer;
+        this.ackTimeout = ackTimeout;
+    }
+
+    /**
+     * Submit quantity deltas by SKU
+     * POST /api/items/stock-deltas?ack=FLUSH|ENQUEUE
+     * Deltas are summed per SKU and written in bulk on the next flush
+     *
+     * @param request The deltas
+     * @param ack     FLUSH (default) to answer once written, ENQUEUE to answer once buffered
+     * @return 200 OK when written, or 202 Accepted when only buffered (ENQUEUE, or the flush took longer than
+     * items.stock-ingest.ack-timeout; the deltas are still applied)
+     */
+    @PostMapping
+    public ResponseEntity<StockDeltaResponse> submitDeltas(
+            @Valid @RequestBody StockDeltaRequest request,
+            @RequestParam(defaultValue = "FLUSH") StockDeltaBuffer.Ack ack
+    ) throws InterruptedException {
+        log.debug("REST request to submit {} stock deltas (ack {})", request.getDeltas().size(), ack);
+
+        CompletableFuture<StockDeltaBuffer.FlushResult> flushed = stockDeltaBuffer.add(request.getDeltas());
+        StockDeltaResponse.StockDeltaResponseBuilder response = StockDeltaResponse.builder()
+                .accepted(request.getDeltas().size());
+        if (ack == StockDeltaBuffer.Ack.ENQUEUE) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response.flushed(false).build());
+        }
+
+        try {
+            StockDeltaBuffer.FlushResult result = flushed.get(ackTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return ResponseEntity.ok(response.flushed(true)
+                    .unknownSkus(skusOf(request, result.unknownSkus()))
+                    .unresolvedSkus(skusOf(request, result.unresolvedSkus()))
+                    .build());
+        } catch (TimeoutException | ExecutionException e) {
+            log.warn("Stock deltas not flushed within {}, acknowledging as buffered", ackTimeout);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response.flushed(false).build());
+        }
+    }
+
+    /**
+     * SKUs of the request that are in the given set, in request order
+     */
+    private static List<String> skusOf(StockDeltaRequest request, Set<String> skus) {
+        return request.getDeltas().stream()
+                .map(delta -> delta.getSku().trim())
+                .filter(skus::contains)
+                .distinct()
+                .toList();
+    }
+}
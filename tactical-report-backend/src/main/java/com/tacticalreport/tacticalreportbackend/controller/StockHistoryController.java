@@ -0,0 +1,77 @@
+package com.tacticalreport.tacticalreportbackend.controller;
+
+import com.tacticalreport.tacticalreportbackend.dto.StockSeriesPoint;
+import com.tacticalreport.tacticalreportbackend.model.StockLevel;
+import com.tacticalreport.tacticalreportbackend.service.StockHistoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * REST Controller for stock-level history
+ * Base URL: /api/items
+ */
+@RestController
+@RequestMapping("/api/items")
+@RequiredArgsConstructor
+@Slf4j
+public class StockHistoryController {
+
+    private final StockHistoryService stockHistoryService;
+
+    /**
+     * Get the quantity changes of an item, newest first
+     * GET /api/items/{id}/stock-history?from={from}&to={to}&limit={n}
+     * Changes are written asynchronously and appear about a second after they happen
+     *
+     * @param id    The item ID
+     * @param from  Start of the range, ISO date-time (default: 30 days before to)
+     * @param to    End of the range, ISO date-time (default: now)
+     * @param limit Maximum number of changes (default: 500, capped at items.stock-history.max-points)
+     * @return 200 OK with the changes
+     */
+    @GetMapping("/{id}/stock-history")
+    public ResponseEntity<List<StockLevel>> getItemHistory(
+            @PathVariable String id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "500") int limit
+    ) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(30);
+        log.debug("REST request to get stock history of item {} from {} to {}", id, start, end);
+        return ResponseEntity.ok(stockHistoryService.getItemHistory(id, start, end, limit));
+    }
+
+    /**
+     * Get a category's stock movement downsampled into fixed buckets
+     * GET /api/items/stock-history?category={category}&from={from}&to={to}&interval=1h
+     *
+     * @param category The category
+     * @param from     Start of the range, ISO date-time (default: 7 days before to)
+     * @param to       End of the range, ISO date-time (default: now)
+     * @param interval Bucket size: a number and m, h, d or w (default: 1h)
+     * @return 200 OK with one point per bucket, or 400 Bad Request for a malformed interval or too many buckets
+     */
+    @GetMapping("/stock-history")
+    public ResponseEntity<List<StockSeriesPoint>> getCategorySeries(
+            @RequestParam String category,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "1h") String interval
+    ) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(7);
+        log.debug("REST request to get stock series of category {} from {} to {} by {}", category, start, end, interval);
+        return ResponseEntity.ok(stockHistoryService.getCategorySeries(category, start, end, interval));
+    }
+}
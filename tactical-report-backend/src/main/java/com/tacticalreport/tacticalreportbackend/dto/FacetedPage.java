@@ -0,0 +1,21 @@
+package com.tacticalreport.tacticalreportbackend.dto;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+/**
+ * Page of items serialized like any other page, with the facet counts of the filter set added alongside
+ */
+public class FacetedPage<T> extends PageImpl<T> {
+
+    private final ItemFacets facets;
+
+    public FacetedPage(Page<T> page, ItemFacets facets) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+        this.facets = facets;
+    }
+
+    public ItemFacets getFacets() {
+        return facets;
+    }
+}
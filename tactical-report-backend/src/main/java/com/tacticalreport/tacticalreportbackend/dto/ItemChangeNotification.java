@@ -0,0 +1,31 @@
+package com.tacticalreport.tacticalreportbackend.dto;
+
+import com.tacticalreport.tacticalreportbackend.event.ItemChangeType;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Payload of an item change pushed to clients over the /api/items/events stream
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemChangeNotification {
+
+    private ItemChangeType type;
+
+    private String itemId;
+
+    /**
+     * Current state of the item without its image, null when the item was deleted
+     */
+    private Item item;
+
+    private Instant occurredAt;
+}
@@ -0,0 +1,46 @@
+package com.tacticalreport.tacticalreportbackend.dto;
+
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemTombstone;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response of the delta-sync endpoint
+ * Clients apply the items and deletions in order, then pass nextToken on their next call
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemChangesResponse {
+
+    /**
+     * Items created or updated since the token, ordered by changeSequence
+     */
+    private List<Item> items;
+
+    /**
+     * Items deleted since the token, ordered by changeSequence
+     */
+    private List<ItemTombstone> deleted;
+
+    /**
+     * Token to pass as "since" on the next call
+     */
+    private String nextToken;
+
+    /**
+     * True when more changes are available right away
+     */
+    private boolean hasMore;
+
+    /**
+     * True when the token is older than the tombstone retention window; the client must drop its cache and sync from scratch
+     */
+    private boolean resyncRequired;
+}
@@ -0,0 +1,61 @@
+package com.tacticalreport.tacticalreportbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Facet counts for the filter sidebar
+ * Each facet is counted with every active filter except its own, so the counts tell how many items each option
+ * would return if it were picked instead of the current one
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemFacets {
+
+    /**
+     * Item count per category, most frequent first
+     */
+    private List<ValueCount> categories;
+
+    /**
+     * Item count per status, in declaration order (zero counts included)
+     */
+    private List<ValueCount> statuses;
+
+    /**
+     * Item count per price range
+     */
+    private List<RangeCount> priceRanges;
+
+    /**
+     * Item count per quantity range
+     */
+    private List<RangeCount> quantityRanges;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ValueCount {
+        private String value;
+        private long count;
+    }
+
+    /**
+     * Items with from <= value < to; to is null for the open-ended last range
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RangeCount {
+        private BigDecimal from;
+        private BigDecimal to;
+        private long count;
+    }
+}
@@ -0,0 +1,63 @@
+package com.tacticalreport.tacticalreportbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate price and quantity percentiles, overall and per category
+ * Values come from t-digest sketches; the relative error is smallest at the tails (p1, p99)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemQuantilesResponse {
+
+    /**
+     * Requested quantiles, e.g. [0.5, 0.9, 0.99]
+     */
+    private List<Double> quantiles;
+
+    /**
+     * Distribution across all categories; null when a single category was requested
+     */
+    private SketchQuantiles overall;
+
+    private List<SketchQuantiles> categories;
+
+    /**
+     * When the sketches were last rebuilt from the items collection
+     */
+    private Instant rebuiltAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SketchQuantiles {
+
+        /**
+         * Category name; null for items without a category and for the overall distribution
+         */
+        private String category;
+
+        private long count;
+
+        /**
+         * Price per quantile label ("p50", "p90", "p99.9")
+         */
+        private Map<String, BigDecimal> price;
+
+        /**
+         * Quantity per quantile label
+         */
+        private Map<String, Double> quantity;
+    }
+}
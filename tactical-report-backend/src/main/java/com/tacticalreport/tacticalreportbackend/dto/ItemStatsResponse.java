@@ -0,0 +1,79 @@
+package com.tacticalreport.tacticalreportbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Response of the inventory analytics endpoint
+ * Stock value is price × quantity; an item is low on stock when 0 < quantity <= lowStockThreshold
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemStatsResponse {
+
+    private long totalItems;
+
+    private long totalQuantity;
+
+    private BigDecimal totalValue;
+
+    private long lowStockItems;
+
+    private long outOfStockItems;
+
+    private int lowStockThreshold;
+
+    /**
+     * Lowest, average and highest unit price; null when no item matches or when served from rollups
+     */
+    private PriceStats price;
+
+    /**
+     * Breakdown per category, ordered by category
+     */
+    private List<GroupStats> byCategory;
+
+    /**
+     * Breakdown per status, ordered by status
+     */
+    private List<GroupStats> byStatus;
+
+    /**
+     * When the statistics were computed; aggregated results are cached for a few seconds
+     */
+    private Instant generatedAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceStats {
+        private BigDecimal min;
+        private BigDecimal avg;
+        private BigDecimal max;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class GroupStats {
+        /**
+         * Category name or status; null for items without a category
+         */
+        private String key;
+        private long count;
+        private long totalQuantity;
+        private BigDecimal totalValue;
+        private long lowStockItems;
+        private long outOfStockItems;
+    }
+}
@@ -0,0 +1,49 @@
+package com.tacticalreport.tacticalreportbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one data migration, as reported by /actuator/migrations
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MigrationProgress {
+
+    private int version;
+
+    private String name;
+
+    /**
+     * PENDING (not started), RUNNING (lease held), PAUSED (stopped, resumes on next start) or COMPLETED
+     */
+    private String status;
+
+    private long migrated;
+
+    private int chunks;
+
+    private int chunksDone;
+
+    /**
+     * Average rewrite rate since the migration started
+     */
+    private double documentsPerSecond;
+
+    /**
+     * Instance holding the lease while RUNNING
+     */
+    private String owner;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime completedAt;
+}
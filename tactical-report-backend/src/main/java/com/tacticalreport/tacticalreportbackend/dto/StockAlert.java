@@ -0,0 +1,58 @@
+package com.tacticalreport.tacticalreportbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * An item at or below its low-stock threshold, as listed by /api/items/stock-alerts and pushed over its stream
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAlert {
+
+    public enum Severity {
+        LOW_STOCK,
+        OUT_OF_STOCK,
+        /**
+         * Back above the threshold, deleted or no longer sold; only sent on the stream
+         */
+        RESOLVED
+    }
+
+    private String itemId;
+
+    private String sku;
+
+    private String name;
+
+    private String category;
+
+    private Severity severity;
+
+    private int quantity;
+
+    private int threshold;
+
+    /**
+     * Recent consumption in units per day, decayed over items.stock-alerts.usage-window; 0 when none was seen
+     */
+    private double dailyUsage;
+
+    /**
+     * Days until the item runs out at the recent consumption, 0 when out of stock, null when no consumption was seen
+     */
+    private Double stockCoverDays;
+
+    /**
+     * When the item first crossed its threshold
+     */
+    private Instant raisedAt;
+
+    private Instant updatedAt;
+}
@@ -0,0 +1,41 @@
+package com.tacticalreport.tacticalreportbackend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Batch of quantity changes pushed by a scanner feed
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockDeltaRequest {
+
+    @NotEmpty(message = "At least one delta is required")
+    @Size(max = 10000, message = "At most 10000 deltas per request")
+    private List<@Valid Delta> deltas;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Delta {
+
+        @NotBlank(message = "SKU is required")
+        @Size(max = 50, message = "SKU cannot exceed 50 characters")
+        private String sku;
+
+        /**
+         * Signed change in quantity, e.g. -1 for a unit picked, +24 for a case received
+         */
+        @NotNull(message = "Delta is required")
+        private Integer delta;
+    }
+}
@@ -0,0 +1,39 @@
+package com.tacticalreport.tacticalreportbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of submitting stock deltas
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockDeltaResponse {
+
+    /**
+     * Number of deltas accepted into the buffer
+     */
+    private int accepted;
+
+    /**
+     * True when the deltas have been written to the database; false when they are only buffered
+     */
+    private boolean flushed;
+
+    /**
+     * SKUs of the request that matched no item (only known once flushed); their deltas were dropped
+     */
+    private List<String> unknownSkus;
+
+    /**
+     * SKUs of the request whose delta was dropped because a write timed out and the item changed before it could
+     * be told whether that write had been applied; check the item's quantity before resubmitting
+     */
+    private List<String> unresolvedSkus;
+}
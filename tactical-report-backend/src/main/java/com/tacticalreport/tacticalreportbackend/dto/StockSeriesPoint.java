@@ -0,0 +1,43 @@
+package com.tacticalreport.tacticalreportbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock movement of a category within one time bucket of a downsampled series
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockSeriesPoint {
+
+    /**
+     * Start of the bucket
+     */
+    private LocalDateTime bucket;
+
+    /**
+     * Number of quantity changes recorded in the bucket
+     */
+    private long changes;
+
+    /**
+     * Units added (sum of positive deltas)
+     */
+    private long unitsIn;
+
+    /**
+     * Units removed (sum of negative deltas, as a positive number)
+     */
+    private long unitsOut;
+
+    /**
+     * unitsIn - unitsOut
+     */
+    private long netChange;
+}
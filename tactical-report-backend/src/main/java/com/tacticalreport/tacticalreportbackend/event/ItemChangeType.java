@@ -0,0 +1,9 @@
+package com.tacticalreport.tacticalreportbackend.event;
+
+
+public enum ItemChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    STOCK_CHANGED
+}
@@ -0,0 +1,34 @@
+package com.tacticalreport.tacticalreportbackend.event;
+
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Application event published by ItemService after every successful write
+ * Carries the document state before and after the change so listeners can compute deltas
+ */
+@Getter
+@RequiredArgsConstructor
+@ToString(of = {"type", "itemId", "occurredAt"})
+public class ItemChangedEvent {
+
+    private final ItemChangeType type;
+
+    private final String itemId;
+
+    /**
+     * State before the change, null for CREATED
+     */
+    private final Item before;
+
+    /**
+     * State after the change, null for DELETED
+     */
+    private final Item after;
+
+    private final Instant occurredAt;
+}
@@ -0,0 +1,80 @@
+package com.tacticalreport.tacticalreportbackend.event;
+
+import com.tacticalreport.tacticalreportbackend.dto.ItemChangeNotification;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Streams item changes published by ItemService to connected SSE clients
+ * Each client is served from a virtual thread so slow connections cost no platform threads
+ */
+@Component
+@Slf4j
+public class ItemEventBroadcaster {
+
+    private final ExecutorService dispatchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SseBroadcaster<ItemChangeNotification> broadcaster;
+
+    public ItemEventBroadcaster(
+            @Value("${items.events.client-buffer-size:256}") int clientBufferSize,
+            @Value("${items.events.replay-capacity:1024}") int replayCapacity,
+            @Value("${items.events.emitter-timeout-ms:1800000}") long emitterTimeoutMillis
+    ) {
+        this.broadcaster = new SseBroadcaster<>("item-events", clientBufferSize, replayCapacity,
+                emitterTimeoutMillis, dispatchExecutor);
+    }
+
+    /**
+     * Open a new event stream
+     *
+     * @param lastEventId Last event ID received by the client (optional)
+     * @return SSE emitter bound to the client connection
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        return broadcaster.subscribe(lastEventId);
+    }
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        ItemChangeNotification notification = ItemChangeNotification.builder()
+                .type(event.getType())
+                .itemId(event.getItemId())
+                .item(withoutImage(event.getAfter()))
+                .occurredAt(event.getOccurredAt())
+                .build();
+        broadcaster.publish(event.getType().name().toLowerCase(), notification);
+    }
+
+    @Scheduled(fixedRateString = "${items.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        broadcaster.heartbeat();
+    }
+
+    public int getSubscriberCount() {
+        return broadcaster.getSubscriberCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatchExecutor.shutdownNow();
+    }
+
+    private static Item withoutImage(Item item) {
+        if (item == null) {
+            return null;
+        }
+        Item copy = new Item();
+        BeanUtils.copyProperties(item, copy, "image");
+        return copy;
+    }
+}
@@ -0,0 +1,230 @@
+package com.tacticalreport.tacticalreportbackend.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fan-out of server-sent events to many subscribers
+ * - Every subscriber owns a bounded queue drained on the dispatch executor, so a slow client never blocks publishers
+ * - A subscriber whose queue overflows has its backlog dropped and receives a single "resync" event instead,
+ *   carrying the latest event ID; only events published after it follow
+ * - The most recent events are kept in a replay buffer so reconnecting clients can resume from Last-Event-ID
+ *
+ * @param <T> Payload type, serialized as JSON
+ */
+@Slf4j
+public class SseBroadcaster<T> {
+
+    public static final String RESYNC_EVENT = "resync";
+
+    private final String name;
+    private final int clientBufferSize;
+    private final int replayCapacity;
+    private final long emitterTimeoutMillis;
+    private final Executor dispatchExecutor;
+
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final Deque<Envelope<T>> replay = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Object lock = new Object();
+
+    public SseBroadcaster(String name, int clientBufferSize, int replayCapacity,
+                          long emitterTimeoutMillis, Executor dispatchExecutor) {
+        this.name = name;
+        this.clientBufferSize = clientBufferSize;
+        this.replayCapacity = replayCapacity;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.dispatchExecutor = dispatchExecutor;
+    }
+
+    /**
+     * Register a new subscriber
+     *
+     * @param lastEventId Last event ID seen by the client (optional), used to replay missed events
+     * @return The emitter to return from the controller
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(emitter);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        synchronized (lock) {
+            Long resumeFrom = parseEventId(lastEventId);
+            if (resumeFrom != null) {
+                replayInto(subscriber, resumeFrom);
+            }
+            subscribers.add(subscriber);
+        }
+
+        subscriber.schedule();
+        log.debug("New {} subscriber (lastEventId={}), {} connected", name, lastEventId, subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Publish an event to every connected subscriber
+     *
+     * @param eventName SSE event name
+     * @param payload   Event payload
+     */
+    public void publish(String eventName, T payload) {
+        synchronized (lock) {
+            Envelope<T> envelope = new Envelope<>(sequence.incrementAndGet(), eventName, payload);
+            replay.addLast(envelope);
+            if (replay.size() > replayCapacity) {
+                replay.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.enqueue(envelope);
+            }
+        }
+    }
+
+    /**
+     * Send an SSE comment to every subscriber to keep idle connections open and detect dead clients
+     */
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatPending.set(true);
+            subscriber.schedule();
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Create the emitter of a new subscriber
+     */
+    SseEmitter newEmitter() {
+        return new SseEmitter(emitterTimeoutMillis);
+    }
+
+    /**
+     * Replay buffered events newer than the given ID, or signal a resync when the client is too far behind
+     */
+    private void replayInto(Subscriber subscriber, long resumeFrom) {
+        long latest = sequence.get();
+        long oldest = replay.isEmpty() ? latest + 1 : replay.peekFirst().id();
+
+        if (resumeFrom > latest || resumeFrom < oldest - 1) {
+            subscriber.overflowed.set(true);
+            return;
+        }
+        for (Envelope<T> envelope : replay) {
+            if (envelope.id() > resumeFrom) {
+                subscriber.enqueue(envelope);
+            }
+        }
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private record Envelope<T>(long id, String name, T payload) {
+    }
+
+    /**
+     * A connected client with its own bounded backlog
+     */
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<Envelope<T>> queue = new ArrayBlockingQueue<>(clientBufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean overflowed = new AtomicBoolean();
+        private final AtomicBoolean heartbeatPending = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void enqueue(Envelope<T> envelope) {
+            if (!queue.offer(envelope)) {
+                overflowed.set(true);
+                queue.clear();
+                log.warn("{} subscriber fell behind by more than {} events, dropping backlog and requesting resync",
+                        name, clientBufferSize);
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                dispatchExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    if (overflowed.getAndSet(false)) {
+                        // The resync covers everything published so far; later events keep higher IDs
+                        long resyncId;
+                        synchronized (lock) {
+                            queue.clear();
+                            resyncId = sequence.get();
+                        }
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(resyncId))
+                                .name(RESYNC_EVENT)
+                                .data(Map.of("reason", "Event backlog exceeded, reload current state"),
+                                        MediaType.APPLICATION_JSON));
+                    }
+                    if (heartbeatPending.getAndSet(false)) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+
+                    Envelope<T> envelope = queue.poll();
+                    if (envelope != null) {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(envelope.id()))
+                                .name(envelope.name())
+                                .data(envelope.payload(), MediaType.APPLICATION_JSON));
+                        continue;
+                    }
+
+                    draining.set(false);
+                    // Re-check so work enqueued after the last poll is not stranded
+                    if (!hasPendingWork() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("{} subscriber disconnected: {}", name, e.getMessage());
+                subscribers.remove(this);
+                draining.set(false);
+                emitter.completeWithError(e);
+            }
+        }
+
+        private boolean hasPendingWork() {
+            return !queue.isEmpty() || overflowed.get() || heartbeatPending.get();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.tacticalreport.tacticalreportbackend.event;
+
+import com.tacticalreport.tacticalreportbackend.dto.StockAlert;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Streams low-stock alerts raised by StockAlertService to connected SSE clients
+ * Uses the same client buffering, replay and heartbeat settings as the item change stream
+ */
+@Component
+public class StockAlertBroadcaster {
+
+    private final ExecutorService dispatchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SseBroadcaster<StockAlert> broadcaster;
+
+    public StockAlertBroadcaster(
+            @Value("${items.events.client-buffer-size:256}") int clientBufferSize,
+            @Value("${items.events.replay-capacity:1024}") int replayCapacity,
+            @Value("${items.events.emitter-timeout-ms:1800000}") long emitterTimeoutMillis
+    ) {
+        this.broadcaster = new SseBroadcaster<>("stock-alerts", clientBufferSize, replayCapacity,
+                emitterTimeoutMillis, dispatchExecutor);
+    }
+
+    /**
+     * Open a new alert stream
+     *
+     * @param lastEventId Last event ID received by the client (optional)
+     * @return SSE emitter bound to the client connection
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        return broadcaster.subscribe(lastEventId);
+    }
+
+    /**
+     * Push an alert; the event name is its severity in lower case (low_stock, out_of_stock, resolved)
+     */
+    public void publish(StockAlert alert) {
+        broadcaster.publish(alert.getSeverity().name().toLowerCase(), alert);
+    }
+
+    @Scheduled(fixedRateString = "${items.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        broadcaster.heartbeat();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatchExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,13 @@
+package com.tacticalreport.tacticalreportbackend.exception;
+
+
+public class PayloadTooLargeException extends RuntimeException {
+
+    /**
+     * Constructor with size limit
+     * @param maxBytes The maximum accepted size in bytes
+     */
+    public PayloadTooLargeException(long maxBytes) {
+        super("Upload exceeds the maximum size of " + maxBytes + " bytes");
+    }
+}
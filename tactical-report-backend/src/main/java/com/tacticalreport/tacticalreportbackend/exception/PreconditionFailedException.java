@@ -0,0 +1,13 @@
+package com.tacticalreport.tacticalreportbackend.exception;
+
+
+public class PreconditionFailedException extends RuntimeException {
+
+    /**
+     * Constructor with item ID
+     * @param id The ID of the item whose current version did not match If-Match
+     */
+    public PreconditionFailedException(String id) {
+        super("Item has been modified since it was retrieved: " + id);
+    }
+}
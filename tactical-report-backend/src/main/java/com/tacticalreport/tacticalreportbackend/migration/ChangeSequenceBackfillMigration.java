@@ -0,0 +1,72 @@
+package com.tacticalreport.tacticalreportbackend.migration;
+
+import com.tacticalreport.tacticalreportbackend.service.ChangeSequenceService;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.util.Pair;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stamps a changeSequence on items written before delta sync existed, so they reach sync clients
+ * Each batch gets a block of sequences from the change counter, tracked as in flight until its bulk write has
+ * finished, so no sync token moves past an item before it carries its sequence. Only items still without a
+ * sequence are updated: an API write in the meantime has already stamped its own.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeSequenceBackfillMigration implements Migration {
+
+    static final String NAME = "item-change-sequence-backfill";
+
+    private final ChangeSequenceService changeSequenceService;
+
+    /**
+     * First sequence of each batch being written, by the batch's first _id
+     */
+    private final Map<Object, Long> inFlight = new ConcurrentHashMap<>();
+
+    @Override
+    public int version() {
+        return 2;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Criteria pending() {
+        return Criteria.where("changeSequence").is(null);
+    }
+
+    @Override
+    public List<Pair<Query, UpdateDefinition>> rewrite(List<Document> batch) {
+        long first = changeSequenceService.beginRange(batch.size());
+        inFlight.put(batch.getFirst().get("_id"), first);
+        List<Pair<Query, UpdateDefinition>> updates = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            updates.add(Pair.of(
+                    Query.query(Criteria.where("_id").is(batch.get(i).get("_id")).and("changeSequence").is(null)),
+                    new Update().set("changeSequence", first + i)));
+        }
+        return updates;
+    }
+
+    @Override
+    public void written(List<Document> batch) {
+        Long first = inFlight.remove(batch.getFirst().get("_id"));
+        if (first != null) {
+            changeSequenceService.complete(first);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.tacticalreport.tacticalreportbackend.migration;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.util.Pair;
+
+import java.util.List;
+
+/**
+ * A versioned rewrite of the documents in one collection, run online by MigrationRunner
+ * Migrations run one after another in version order. The runner pages through the documents still matching
+ * {@link #pending()} and bulk-writes the updates returned by {@link #rewrite(List)}, so an implementation only
+ * describes which documents are outdated and how to fix one batch of them.
+ * <p>
+ * Updates must be idempotent and guarded by the same condition as {@link #pending()}: batches can be retried
+ * after a crash and API writes keep happening while a migration runs, so an update that no longer matches must
+ * simply not apply.
+ */
+public interface Migration {
+
+    /**
+     * Position in the migration order; must be unique
+     */
+    int version();
+
+    /**
+     * Stable name, also the id of the migration's checkpoint
+     */
+    String name();
+
+    default String collection() {
+        return "items";
+    }
+
+    /**
+     * Documents still needing this migration; a migrated document must no longer match
+     */
+    Criteria pending();
+
+    /**
+     * Fields read for each pending document; empty reads whole documents
+     */
+    default List<String> fields() {
+        return List.of("_id");
+    }
+
+    /**
+     * Updates for one batch of pending documents, executed as a single unordered bulk write
+     *
+     * @param batch Pending documents in _id order, limited to {@link #fields()}
+     * @return One (filter, update) pair per document to rewrite; may be empty
+     */
+    List<Pair<Query, UpdateDefinition>> rewrite(List<Document> batch);
+
+    /**
+     * Called once the bulk write for a batch passed to {@link #rewrite(List)} has finished, successfully or not
+     *
+     * @param batch The same batch
+     */
+    default void written(List<Document> batch) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.tacticalreport.tacticalreportbackend.migration;
+
+import com.tacticalreport.tacticalreportbackend.dto.MigrationProgress;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * GET /actuator/migrations - progress of every registered migration, in version order
+ * Read from the checkpoints, so any instance reports the progress of the one running the migration
+ */
+@Component
+@Endpoint(id = "migrations")
+@RequiredArgsConstructor
+public class MigrationEndpoint {
+
+    private final MigrationRunner migrationRunner;
+
+    @ReadOperation
+    public List<MigrationProgress> migrations() {
+        return migrationRunner.progress();
+    }
+}
@@ -0,0 +1,413 @@
+package com.tacticalreport.tacticalreportbackend.migration;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.tacticalreport.tacticalreportbackend.dto.MigrationProgress;
+import com.tacticalreport.tacticalreportbackend.model.MigrationCheckpoint;
+import com.tacticalreport.tacticalreportbackend.model.MigrationCheckpoint.Chunk;
+import com.tacticalreport.tacticalreportbackend.ratelimit.TokenBucket;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.data.util.Pair;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the registered migrations in the background after startup, one after another in version order
+ * <p>
+ * A migration's collection is split into _id ranges (chunks) that a small pool of workers pages through in
+ * _id order, reading the documents still pending and bulk-writing their updates (unordered). Every batch
+ * advances its chunk's checkpoint in the "migrations" collection, so after a crash or redeploy the next instance
+ * resumes each chunk where it stopped. Once all chunks are done a final sweep picks up documents written in the
+ * old shape meanwhile (e.g. by instances still running the previous version), then the migration is complete.
+ * <p>
+ * To stay out of the way of API traffic all workers share one token bucket of ops-per-second documents, and
+ * only one instance runs a migration at a time: it holds a lease on the checkpoint, renewed with every batch,
+ * which another instance takes over once it has expired. Every checkpoint write is conditional on still owning
+ * the lease, and a run that finds it taken over stops. Ranges are planned from ObjectId timestamps, so
+ * chunks are even when items were created at a steady rate; string _ids get a chunk of their own.
+ */
+@Component
+@Slf4j
+public class MigrationRunner {
+
+    private static final ObjectId MIN_OBJECT_ID = new ObjectId(new byte[12]);
+
+    private final MongoTemplate mongoTemplate;
+    private final List<Migration> migrations;
+    private final boolean enabled;
+    private final int chunks;
+    private final int batchSize;
+    private final Duration lease;
+    private final TokenBucket throttle;
+    private final String owner = UUID.randomUUID().toString();
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(daemon("migration-runner"));
+    private final ExecutorService workerPool;
+
+    public MigrationRunner(
+            MongoTemplate mongoTemplate,
+            List<Migration> migrations,
+            @Value("${items.migrations.enabled:true}") boolean enabled,
+            @Value("${items.migrations.workers:2}") int workers,
+            @Value("${items.migrations.chunks:16}") int chunks,
+            @Value("${items.migrations.batch-size:500}") int batchSize,
+            @Value("${items.migrations.ops-per-second:2000}") double opsPerSecond,
+            @Value("${items.migrations.lease:1m}") Duration lease
+    ) {
+        if (workers < 1 || chunks < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Migration workers, chunks and batch size must be positive");
+        }
+        if (migrations.stream().map(Migration::version).distinct().count() != migrations.size()) {
+            throw new IllegalArgumentException("Migration versions must be unique");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.migrations = migrations.stream().sorted(Comparator.comparingInt(Migration::version)).toList();
+        this.enabled = enabled;
+        this.chunks = chunks;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        // A batch is acquired as a whole, so the bucket must hold at least one
+        this.throttle = new TokenBucket(Math.max(batchSize, (long) opsPerSecond), opsPerSecond, System.nanoTime());
+        this.workerPool = Executors.newFixedThreadPool(workers, daemon("migration-worker"));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled && !migrations.isEmpty()) {
+            coordinator.execute(this::runAll);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workerPool.shutdownNow();
+    }
+
+    /**
+     * Run every migration in order, stopping at the first one that does not complete
+     */
+    void runAll() {
+        for (Migration migration : migrations) {
+            if (!run(migration)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Run one migration to completion, resuming from its checkpoint
+     * Waits while another instance holds the lease.
+     *
+     * @return Whether the migration is complete; false if it failed or was interrupted (the next start resumes)
+     */
+    boolean run(Migration migration) {
+        try {
+            MigrationCheckpoint checkpoint;
+            while ((checkpoint = acquire(migration)) == null) {
+                MigrationCheckpoint current = mongoTemplate.findById(migration.name(), MigrationCheckpoint.class);
+                if (current != null && current.getCompletedAt() != null) {
+                    return true;
+                }
+                TimeUnit.MILLISECONDS.sleep(lease.toMillis());
+            }
+            if (checkpoint.getChunks() == null || checkpoint.getChunks().isEmpty()) {
+                checkpoint.setChunks(plan(migration));
+                checkpoint(migration, new Update().set("chunks", checkpoint.getChunks()));
+            }
+            log.info("Running migration {} (v{}): {} chunks, {} documents done", migration.name(),
+                    migration.version(), checkpoint.getChunks().size(), checkpoint.getMigrated());
+            runChunks(migration, checkpoint.getChunks());
+            runChunk(migration, -1, new Chunk(null, null, false, null, 0, false));
+            runChunk(migration, -1, new Chunk(null, null, true, null, 0, false));
+            complete(migration);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (RuntimeException e) {
+            log.warn("Migration {} stopped, will resume on next start: {}", migration.name(), e.getMessage());
+            release(migration);
+            return false;
+        }
+    }
+
+    /**
+     * Take or renew the lease on the migration's checkpoint, creating the checkpoint on first run
+     *
+     * @return The checkpoint, or null if the migration is complete or leased by another instance
+     */
+    MigrationCheckpoint acquire(Migration migration) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(Criteria.where("_id").is(migration.name()).and("completedAt").is(null)
+                .orOperator(
+                        Criteria.where("leaseUntil").is(null),
+                        Criteria.where("leaseUntil").lt(now),
+                        Criteria.where("owner").is(owner)));
+        Update update = new Update()
+                .set("owner", owner)
+                .set("leaseUntil", now.plus(lease))
+                .set("version", migration.version())
+                .set("updatedAt", now)
+                .setOnInsert("migrated", 0L)
+                .setOnInsert("startedAt", now);
+        try {
+            return mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().returnNew(true).upsert(true), MigrationCheckpoint.class);
+        } catch (DuplicateKeyException e) {
+            return null;  // the checkpoint exists but did not match
+        }
+    }
+
+    private void runChunks(Migration migration, List<Chunk> plan) throws InterruptedException {
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 0; i < plan.size(); i++) {
+            if (!plan.get(i).isDone()) {
+                int index = i;
+                running.add(workerPool.submit(() -> {
+                    runChunk(migration, index, plan.get(index));
+                    return null;
+                }));
+            }
+        }
+        try {
+            for (Future<?> chunk : running) {
+                chunk.get();
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        } finally {
+            running.forEach(chunk -> chunk.cancel(true));
+        }
+    }
+
+    /**
+     * Page through one chunk until no pending document is left in it
+     *
+     * @param index Position in the checkpoint's chunk list, or -1 for the final sweep (not checkpointed)
+     */
+    private void runChunk(Migration migration, int index, Chunk chunk) throws InterruptedException {
+        Object lastId = chunk.getLastId();
+        while (true) {
+            acquirePermits(batchSize);
+            List<Document> batch = mongoTemplate.find(batchQuery(migration, chunk, lastId, batchSize),
+                    Document.class, migration.collection());
+            if (batch.isEmpty()) {
+                if (index >= 0) {
+                    checkpoint(migration, new Update().set("chunks." + index + ".done", true));
+                }
+                return;
+            }
+            long written = write(migration, batch);
+            lastId = batch.getLast().get("_id");
+            LocalDateTime now = LocalDateTime.now();
+            Update progress = new Update()
+                    .inc("migrated", written)
+                    .set("updatedAt", now)
+                    .set("leaseUntil", now.plus(lease));
+            if (index >= 0) {
+                progress.set("chunks." + index + ".lastId", lastId).inc("chunks." + index + ".migrated", written);
+            }
+            checkpoint(migration, progress);
+        }
+    }
+
+    private long write(Migration migration, List<Document> batch) {
+        List<Pair<Query, UpdateDefinition>> updates = migration.rewrite(batch);
+        try {
+            if (updates.isEmpty()) {
+                return 0;
+            }
+            BulkWriteResult result = mongoTemplate
+                    .bulkOps(BulkOperations.BulkMode.UNORDERED, migration.collection())
+                    .updateOne(updates)
+                    .execute();
+            return result.getModifiedCount();
+        } finally {
+            migration.written(batch);
+        }
+    }
+
+    /**
+     * Pending documents of a chunk after lastId, in _id order
+     * The lower bound is always set, which also restricts the scan to the chunk's _id type.
+     */
+    static Query batchQuery(Migration migration, Chunk chunk, Object lastId, int limit) {
+        Criteria range = Criteria.where("_id");
+        if (lastId != null) {
+            range.gt(lastId);
+        } else if (chunk.getFrom() != null) {
+            range.gte(chunk.getFrom());
+        } else {
+            range.gte(chunk.isStringIds() ? "" : MIN_OBJECT_ID);
+        }
+        if (chunk.getTo() != null) {
+            range.lt(chunk.getTo());
+        }
+        Query query = Query.query(new Criteria().andOperator(range, migration.pending()))
+                .with(Sort.by("_id"))
+                .limit(limit);
+        migration.fields().forEach(query.fields()::include);
+        return query;
+    }
+
+    /**
+     * Split the collection's ObjectId range into chunks, plus one chunk for string _ids
+     */
+    private List<Chunk> plan(Migration migration) {
+        List<Chunk> plan = new ArrayList<>(ranges(boundary(migration, Sort.Direction.ASC),
+                boundary(migration, Sort.Direction.DESC), chunks));
+        plan.add(new Chunk(null, null, true, null, 0, false));
+        return plan;
+    }
+
+    private ObjectId boundary(Migration migration, Sort.Direction direction) {
+        Query query = Query.query(Criteria.where("_id").type(JsonSchemaObject.Type.OBJECT_ID))
+                .with(Sort.by(direction, "_id"));
+        query.fields().include("_id");
+        Document document = mongoTemplate.findOne(query, Document.class, migration.collection());
+        return document == null ? null : document.getObjectId("_id");
+    }
+
+    /**
+     * Up to count contiguous ranges between two ObjectIds, split on their timestamps
+     * The first range is open below and the last open above, so ids outside [min, max] are still covered.
+     */
+    static List<Chunk> ranges(ObjectId min, ObjectId max, int count) {
+        List<Chunk> ranges = new ArrayList<>();
+        if (min == null || max == null) {
+            ranges.add(new Chunk(null, null, false, null, 0, false));
+            return ranges;
+        }
+        long from = Integer.toUnsignedLong(min.getTimestamp());
+        long span = Integer.toUnsignedLong(max.getTimestamp()) + 1 - from;
+        Object lower = null;
+        long previous = from;
+        for (int i = 1; i < count; i++) {
+            long seconds = from + span * i / count;
+            if (seconds > previous) {  // fewer seconds than chunks: skip empty ranges
+                ObjectId upper = floor(seconds);
+                ranges.add(new Chunk(lower, upper, false, null, 0, false));
+                lower = upper;
+                previous = seconds;
+            }
+        }
+        ranges.add(new Chunk(lower, null, false, null, 0, false));
+        return ranges;
+    }
+
+    /**
+     * Smallest ObjectId with the given timestamp
+     */
+    private static ObjectId floor(long epochSeconds) {
+        return new ObjectId(ByteBuffer.allocate(12).putInt((int) epochSeconds).array());
+    }
+
+    private void acquirePermits(int permits) throws InterruptedException {
+        long wait;
+        while ((wait = throttle.tryAcquire(permits, System.nanoTime())) > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    private void complete(Migration migration) {
+        LocalDateTime now = LocalDateTime.now();
+        checkpoint(migration, new Update().set("completedAt", now).set("updatedAt", now).unset("leaseUntil"));
+        log.info("Migration {} (v{}) complete", migration.name(), migration.version());
+    }
+
+    private void release(Migration migration) {
+        try {
+            mongoTemplate.updateFirst(owned(migration), new Update().unset("leaseUntil"), MigrationCheckpoint.class);
+        } catch (RuntimeException e) {
+            log.debug("Could not release migration lease, it expires on its own: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Progress of every migration, read from the checkpoints
+     */
+    public List<MigrationProgress> progress() {
+        LocalDateTime now = LocalDateTime.now();
+        return migrations.stream().map(migration -> {
+            MigrationCheckpoint checkpoint = mongoTemplate.findById(migration.name(), MigrationCheckpoint.class);
+            if (checkpoint == null) {
+                return MigrationProgress.builder()
+                        .version(migration.version()).name(migration.name()).status("PENDING").build();
+            }
+            List<Chunk> plan = checkpoint.getChunks() == null ? List.of() : checkpoint.getChunks();
+            String status = checkpoint.getCompletedAt() != null ? "COMPLETED"
+                    : checkpoint.getLeaseUntil() != null && checkpoint.getLeaseUntil().isAfter(now) ? "RUNNING"
+                    : "PAUSED";
+            LocalDateTime until = checkpoint.getCompletedAt() != null ? checkpoint.getCompletedAt() : now;
+            double seconds = checkpoint.getStartedAt() == null ? 0
+                    : Duration.between(checkpoint.getStartedAt(), until).toMillis() / 1000.0;
+            return MigrationProgress.builder()
+                    .version(migration.version())
+                    .name(migration.name())
+                    .status(status)
+                    .migrated(checkpoint.getMigrated())
+                    .chunks(plan.size())
+                    .chunksDone((int) plan.stream().filter(Chunk::isDone).count())
+                    .documentsPerSecond(seconds > 0 ? checkpoint.getMigrated() / seconds : 0)
+                    .owner("RUNNING".equals(status) ? checkpoint.getOwner() : null)
+                    .startedAt(checkpoint.getStartedAt())
+                    .updatedAt(checkpoint.getUpdatedAt())
+                    .completedAt(checkpoint.getCompletedAt())
+                    .build();
+        }).toList();
+    }
+
+    /**
+     * Write to the checkpoint only while this instance still holds it
+     * Once the lease has expired and another instance took it over, this instance must stop writing progress.
+     *
+     * @throws IllegalStateException if the checkpoint is owned by another instance
+     */
+    private void checkpoint(Migration migration, Update update) {
+        UpdateResult result = mongoTemplate.updateFirst(owned(migration), update, MigrationCheckpoint.class);
+        if (result.getMatchedCount() == 0) {
+            throw new IllegalStateException("Lease on migration " + migration.name() + " was taken over");
+        }
+    }
+
+    private Query owned(Migration migration) {
+        return Query.query(Criteria.where("_id").is(migration.name()).and("owner").is(owner));
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
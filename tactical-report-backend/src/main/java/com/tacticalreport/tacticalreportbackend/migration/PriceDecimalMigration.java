@@ -0,0 +1,52 @@
+package com.tacticalreport.tacticalreportbackend.migration;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.data.util.Pair;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Converts item prices stored as strings to Decimal128
+ * Each item is converted server-side with an update pipeline ($toDecimal), only where the price is still a
+ * string, so concurrent writes are never overwritten and running it again is harmless.
+ */
+@Component
+public class PriceDecimalMigration implements Migration {
+
+    static final String NAME = "item-price-decimal128";
+
+    private static final AggregationUpdate TO_DECIMAL = AggregationUpdate.update()
+            .set("price").toValue(ConvertOperators.ToDecimal.toDecimal("$price"));
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Criteria pending() {
+        return Criteria.where("price").type(JsonSchemaObject.Type.STRING);
+    }
+
+    @Override
+    public List<Pair<Query, UpdateDefinition>> rewrite(List<Document> batch) {
+        return batch.stream()
+                .map(document -> Pair.<Query, UpdateDefinition>of(
+                        Query.query(Criteria.where("_id").is(document.get("_id"))
+                                .and("price").type(JsonSchemaObject.Type.STRING)),
+                        TO_DECIMAL))
+                .toList();
+    }
+}
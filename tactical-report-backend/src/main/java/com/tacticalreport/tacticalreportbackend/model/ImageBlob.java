@@ -0,0 +1,38 @@
+package com.tacticalreport.tacticalreportbackend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Metadata and reference count of an image stored in the content-addressed blob store
+ * The bytes live on disk under the hash; the file is deleted when the last referencing item lets go
+ * Stored in MongoDB "image_blobs" collection
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "image_blobs")
+public class ImageBlob {
+
+    /**
+     * Lowercase hex SHA-256 of the image bytes
+     */
+    @Id
+    private String id;
+
+    private String contentType;
+
+    private long size;
+
+    /**
+     * Number of items referencing this image
+     */
+    private long refCount;
+
+    private LocalDateTime createdAt;
+}
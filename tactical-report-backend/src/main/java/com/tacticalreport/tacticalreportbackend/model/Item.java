@@ -1,5 +1,6 @@
 package com.tacticalreport.tacticalreportbackend.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,7 +8,12 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.ReadOnlyProperty;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -20,6 +26,17 @@ import java.time.LocalDateTime;
 @NoArgsConstructor  // Lombok: generates no-args constructor (required by MongoDB)
 @AllArgsConstructor  // Lombok: generates constructor with all fields
 @Document(collection = "items")
+@CompoundIndex(name = "category_status", def = "{'category': 1, 'status': 1}")
+// Sort indexes, ending in _id for a stable tie-break; ItemSort only accepts sorts one of them returns in order
+@CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "price_id", def = "{'price': 1, '_id': 1}")
+@CompoundIndex(name = "price_name_id", def = "{'price': 1, 'name': -1, '_id': 1}")
+@CompoundIndex(name = "name_id", def = "{'name': 1, '_id': 1}")
+@CompoundIndex(name = "quantity_id", def = "{'quantity': 1, '_id': 1}")
+@CompoundIndex(name = "category_createdAt_id", def = "{'category': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "category_price_id", def = "{'category': 1, 'price': 1, '_id': 1}")
+@CompoundIndex(name = "category_name_id", def = "{'category': 1, 'name': 1, '_id': 1}")
+@CompoundIndex(name = "status_createdAt_id", def = "{'status': 1, 'createdAt': -1, '_id': -1}")
 public class Item {
 
     @Id
@@ -35,6 +52,7 @@ public class Item {
     @NotNull(message = "Price is required")
     @DecimalMin(value = "0.01", message = "Price must be greater than 0")
     @Digits(integer = 10, fraction = 2, message = "Price must have at most 2 decimal places")
+    @Field(targetType = FieldType.DECIMAL128)  // numeric, so range queries and sorts compare by value and use price_id
     private BigDecimal price;
 
     @NotNull(message = "Quantity is required")
@@ -45,19 +63,40 @@ public class Item {
     private String category;
 
     @Size(max = 50, message = "SKU cannot exceed 50 characters")
+    @Indexed(sparse = true)
     private String sku;
 
     @Size(max = 10485760, message = "Image data cannot exceed 10MB (base64 encoded)")
     private String image;  
 
+    /**
+     * SHA-256 of the decoded image, set by ItemService; renditions are served from /api/items/{id}/image
+     */
+    @Indexed
+    private String imageHash;
+
+    @Indexed
     private ItemStatus status = ItemStatus.AVAILABLE;
 
+    /**
+     * Monotonic sequence assigned on every write, used as the delta-sync token
+     */
+    @Indexed
+    private Long changeSequence;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
+    /**
+     * When the item was moved to "items_archive"; only set on items read with includeArchived
+     */
+    @ReadOnlyProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime archivedAt;
+
     /**
      * Check if item is in stock
      *
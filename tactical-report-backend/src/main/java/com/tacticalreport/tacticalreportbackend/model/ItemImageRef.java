@@ -0,0 +1,11 @@
+package com.tacticalreport.tacticalreportbackend.model;
+
+/**
+ * Projection of an item's image hash, used to look up renditions without loading the inline image
+ */
+public interface ItemImageRef {
+
+    String getId();
+
+    String getImageHash();
+}
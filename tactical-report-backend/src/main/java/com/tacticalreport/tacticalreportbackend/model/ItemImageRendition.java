@@ -0,0 +1,46 @@
+package com.tacticalreport.tacticalreportbackend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resized copy of an item image, generated in the background after the item is written
+ * Keyed by source image hash and size, so items sharing an image share its renditions
+ * Stored in MongoDB "item_image_renditions" collection
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "item_image_renditions")
+public class ItemImageRendition {
+
+    /**
+     * "{imageHash}:{size}"
+     */
+    @Id
+    private String id;
+
+    @Indexed
+    private String imageHash;
+
+    /**
+     * Longest side in pixels
+     */
+    private int size;
+
+    private String contentType;
+
+    private byte[] data;
+
+    private LocalDateTime createdAt;
+
+    public static String idOf(String imageHash, int size) {
+        return imageHash + ":" + size;
+    }
+}
@@ -0,0 +1,48 @@
+package com.tacticalreport.tacticalreportbackend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of the price and quantity t-digests of one category (or of the whole catalog)
+ * Loaded on startup so quantiles are available before the rebuild scan finishes
+ * Stored in MongoDB "item_quantile_sketches" collection
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "item_quantile_sketches")
+public class ItemQuantileSketch {
+
+    /**
+     * "all", "category:{name}", or "category" for items without a category
+     */
+    @Id
+    private String id;
+
+    private String category;
+
+    private long count;
+
+    /**
+     * Updates and deletions applied since the digests were built; t-digests cannot forget values
+     */
+    private long removals;
+
+    /**
+     * Serialized MergingDigest of prices
+     */
+    private byte[] price;
+
+    /**
+     * Serialized MergingDigest of quantities
+     */
+    private byte[] quantity;
+
+    private LocalDateTime snapshotAt;
+}
@@ -0,0 +1,64 @@
+package com.tacticalreport.tacticalreportbackend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+
+/**
+ * Materialized totals of one category, one status, or the whole catalog
+ * Maintained with $inc from the before/after state of every item write and repaired by a periodic reconciliation
+ * Stored in MongoDB "item_rollups" collection
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "item_rollups")
+public class ItemRollup {
+
+    public static final String TOTAL = "total";
+    public static final String CATEGORY = "category";
+    public static final String STATUS = "status";
+
+    /**
+     * "total", "category:{name}" or "status:{status}"; items without a category roll up into "category"
+     */
+    @Id
+    private String id;
+
+    /**
+     * One of TOTAL, CATEGORY or STATUS
+     */
+    private String dimension;
+
+    /**
+     * Category name or status; null for the total and for items without a category
+     */
+    private String key;
+
+    private long count;
+
+    private long quantity;
+
+    /**
+     * Inventory value (price × quantity); stored as Decimal128 so it can be incremented server-side
+     */
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal value;
+
+    private long lowStockItems;
+
+    private long outOfStockItems;
+
+    public static String idOf(String dimension, String key) {
+        if (TOTAL.equals(dimension)) {
+            return TOTAL;
+        }
+        return key == null ? dimension : dimension + ":" + key;
+    }
+}
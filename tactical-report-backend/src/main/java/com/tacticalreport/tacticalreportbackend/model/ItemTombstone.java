@@ -0,0 +1,36 @@
+package com.tacticalreport.tacticalreportbackend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted item, kept for the tombstone retention window so syncing clients learn about deletions
+ * Stored in MongoDB "item_tombstones" collection, purged by a TTL index on deletedAt
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "item_tombstones")
+public class ItemTombstone {
+
+    /**
+     * ID of the deleted item
+     */
+    @Id
+    private String id;
+
+    private String sku;
+
+    private String category;
+
+    @Indexed
+    private Long changeSequence;
+
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,16 @@
+package com.tacticalreport.tacticalreportbackend.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the fields an item's ETag is derived from
+ * Lets conditional requests be answered without loading the full document (image included)
+ */
+public interface ItemVersion {
+
+    String getId();
+
+    Long getChangeSequence();
+
+    LocalDateTime getUpdatedAt();
+}
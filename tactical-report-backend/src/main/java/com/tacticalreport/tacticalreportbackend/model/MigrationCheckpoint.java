@@ -0,0 +1,80 @@
+package com.tacticalreport.tacticalreportbackend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress of a data migration, updated after every batch so a restarted instance resumes where it stopped
+ * Stored in MongoDB "migrations" collection
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "migrations")
+public class MigrationCheckpoint {
+
+    /**
+     * Migration name
+     */
+    @Id
+    private String id;
+
+    private int version;
+
+    /**
+     * Instance currently running the migration, and until when its lease holds
+     * Another instance takes over once the lease has expired (e.g. after a crash)
+     */
+    private String owner;
+
+    private LocalDateTime leaseUntil;
+
+    /**
+     * Documents rewritten so far
+     */
+    private long migrated;
+
+    /**
+     * _id ranges the collection was split into; planned once and kept for resuming
+     */
+    private List<Chunk> chunks;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime completedAt;
+
+    /**
+     * One _id range [from, to) worked through by a single worker
+     * A null bound is open; string _ids (legacy documents) get a chunk of their own.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chunk {
+
+        private Object from;
+
+        private Object to;
+
+        private boolean stringIds;
+
+        /**
+         * _id of the last document handled; the next batch starts after it
+         */
+        private Object lastId;
+
+        private long migrated;
+
+        private boolean done;
+    }
+}
@@ -0,0 +1,60 @@
+package com.tacticalreport.tacticalreportbackend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One quantity change of an item
+ * Stored in MongoDB "stock_history" time-series collection (time field timestamp, meta field meta), so the changes
+ * of an item are packed into compressed buckets instead of one document each
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "stock_history")
+public class StockLevel {
+
+    @Id
+    private String id;
+
+    private LocalDateTime timestamp;
+
+    private Meta meta;
+
+    /**
+     * Quantity after the change (0 once the item is deleted or archived)
+     */
+    private Integer quantity;
+
+    /**
+     * Signed change, quantity minus the previous quantity
+     */
+    private Integer delta;
+
+    /**
+     * The ItemChangeType that caused the change
+     */
+    private String change;
+
+    /**
+     * Series identity; measurements with equal meta share buckets
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Meta {
+
+        private String itemId;
+
+        private String sku;
+
+        private String category;
+    }
+}
@@ -0,0 +1,62 @@
+package com.tacticalreport.tacticalreportbackend.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Low-stock threshold for a category or a single item
+ * Stored in MongoDB "stock_thresholds" collection; an item threshold overrides its category's
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "stock_thresholds")
+public class StockThreshold {
+
+    public enum Scope {
+        CATEGORY,
+        ITEM
+    }
+
+    /**
+     * scope:key, so there is one threshold per category or item
+     */
+    @Id
+    @JsonIgnore
+    private String id;
+
+    @NotNull(message = "Scope is required (CATEGORY or ITEM)")
+    private Scope scope;
+
+    /**
+     * Category name or item ID
+     */
+    @NotBlank(message = "Key is required")
+    @Size(max = 50, message = "Key cannot exceed 50 characters")
+    private String key;
+
+    /**
+     * Highest quantity considered low stock
+     */
+    @NotNull(message = "Threshold is required")
+    @Min(value = 0, message = "Threshold cannot be negative")
+    private Integer threshold;
+
+    private LocalDateTime updatedAt;
+
+    public static String idOf(Scope scope, String key) {
+        return scope.name() + ":" + key;
+    }
+}
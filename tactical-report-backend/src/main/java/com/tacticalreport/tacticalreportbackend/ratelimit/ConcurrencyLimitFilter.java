@@ -0,0 +1,213 @@
+package com.tacticalreport.tacticalreportbackend.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive concurrency limit for the item API (/api/items/**)
+ * The number of requests allowed inside the application at once follows a GradientLimit driven by their latency,
+ * so when Mongo slows down the limit drops and excess requests are turned away with 503 right here instead of
+ * piling up on Tomcat threads. Priorities decide who is shed first: scans (search, facets, export, bulk) may only
+ * use part of the limit and never wait, plain reads may briefly queue for a free slot, and writes may use the
+ * whole limit. The SSE stream is excluded because its requests stay open indefinitely, stock delta ingestion
+ * because it deliberately waits for the next buffer flush, and streamed image uploads because they last as long as
+ * the client takes to send the body; none of these durations says anything about database latency.
+ */
+@Component
+@Order(2)
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String PATH_PREFIX = "/api/items";
+    private static final String EVENTS_PATH = "/api/items/events";
+    private static final String STOCK_DELTAS_PATH = "/api/items/stock-deltas";
+    private static final String IMAGE_SUFFIX = "/image";
+
+    enum Priority { WRITE, READ, SCAN }
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final GradientLimit limit;
+    private final int maxQueue;
+    private final long maxQueueWaitNanos;
+    private final Map<Priority, Double> shares = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> shed = new EnumMap<>(Priority.class);
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    public ConcurrencyLimitFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${items.concurrency.enabled:true}") boolean enabled,
+            @Value("${items.concurrency.initial-limit:50}") int initialLimit,
+            @Value("${items.concurrency.min-limit:10}") int minLimit,
+            @Value("${items.concurrency.max-limit:200}") int maxLimit,
+            @Value("${items.concurrency.smoothing:0.2}") double smoothing,
+            @Value("${items.concurrency.rtt-tolerance:1.5}") double rttTolerance,
+            @Value("${items.concurrency.window:250ms}") Duration window,
+            @Value("${items.concurrency.read-share:0.9}") double readShare,
+            @Value("${items.concurrency.scan-share:0.5}") double scanShare,
+            @Value("${items.concurrency.max-queue:50}") int maxQueue,
+            @Value("${items.concurrency.max-queue-wait:50ms}") Duration maxQueueWait
+    ) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.limit = new GradientLimit(initialLimit, minLimit, maxLimit, smoothing, rttTolerance, window.toNanos(),
+                System.nanoTime());
+        this.maxQueue = maxQueue;
+        this.maxQueueWaitNanos = maxQueueWait.toNanos();
+        shares.put(Priority.WRITE, 1.0);
+        shares.put(Priority.READ, readShare);
+        shares.put(Priority.SCAN, scanShare);
+        for (Priority priority : Priority.values()) {
+            shed.put(priority, Counter.builder("items.concurrency.shed")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("items.concurrency.limit", limit, GradientLimit::getLimit).register(meterRegistry);
+        Gauge.builder("items.concurrency.inflight", inflight, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("items.concurrency.queue", queued, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !enabled
+                || HttpMethod.OPTIONS.matches(request.getMethod())
+                || !path.startsWith(PATH_PREFIX)
+                || path.startsWith(EVENTS_PATH)
+                || path.startsWith(STOCK_DELTAS_PATH)
+                || isImageUpload(request.getMethod(), path);
+    }
+
+    /**
+     * PUT /api/items/{id}/image, which streams the request body into the blob store
+     */
+    private static boolean isImageUpload(String method, String path) {
+        return HttpMethod.PUT.matches(method)
+                && path.endsWith(IMAGE_SUFFIX)
+                && path.indexOf('/', PATH_PREFIX.length() + 1) == path.length() - IMAGE_SUFFIX.length();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Priority priority = priorityOf(request);
+        int admittedWith;
+        try {
+            admittedWith = acquire(priority);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admittedWith = 0;
+        }
+        if (admittedWith == 0) {
+            shed.get(priority).increment();
+            log.debug("Shedding {} request to {} (limit {}, in flight {})",
+                    priority, request.getRequestURI(), limit.getLimit(), inflight.get());
+            RejectedRequests.write(objectMapper, request, response, HttpStatus.SERVICE_UNAVAILABLE, 1,
+                    "Service is overloaded, please retry shortly");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = true;
+        } finally {
+            release();
+            if (completed) {
+                long now = System.nanoTime();
+                limit.onSample(now - start, admittedWith, now);
+            }
+        }
+    }
+
+    static Priority priorityOf(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+            return Priority.WRITE;
+        }
+        return RateLimitFilter.tierOf(request) == RateLimitFilter.Tier.EXPENSIVE ? Priority.SCAN : Priority.READ;
+    }
+
+    /**
+     * Take a slot for a request, waiting up to max-queue-wait for one to free up unless it is a scan
+     *
+     * @return Requests in flight after admission, or 0 if the request must be shed
+     */
+    int acquire(Priority priority) throws InterruptedException {
+        int admitted = tryAdmit(priority);
+        if (admitted > 0 || priority == Priority.SCAN || maxQueueWaitNanos <= 0) {
+            return admitted;
+        }
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            return 0;
+        }
+        lock.lock();
+        try {
+            long remaining = maxQueueWaitNanos;
+            while ((admitted = tryAdmit(priority)) == 0 && remaining > 0) {
+                remaining = released.awaitNanos(remaining);
+            }
+            return admitted;
+        } finally {
+            lock.unlock();
+            queued.decrementAndGet();
+        }
+    }
+
+    void release() {
+        inflight.decrementAndGet();
+        if (queued.get() > 0) {
+            lock.lock();
+            try {
+                released.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    int getLimit() {
+        return limit.getLimit();
+    }
+
+    private int tryAdmit(Priority priority) {
+        int allowed = Math.max(1, (int) Math.ceil(limit.getLimit() * shares.get(priority)));
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                return 0;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.tacticalreport.tacticalreportbackend.ratelimit;
+
+/**
+ * Concurrency limit that adapts to observed latency (gradient algorithm)
+ * Request latencies are averaged over short windows and compared with a slow moving average of past windows.
+ * While latency stays near the long-term average the limit grows by roughly sqrt(limit) per window; when
+ * latency rises (queuing in Mongo or the connection pool) the limit shrinks in proportion, down to half per
+ * window. The limit is not raised while fewer than half of the permits are in use, since latency says nothing
+ * about capacity the application isn't using.
+ */
+public class GradientLimit {
+
+    private static final int LONG_WINDOW = 600;
+    private static final int MIN_WINDOW_SAMPLES = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final long windowNanos;
+
+    private volatile double limit;
+
+    private double longRttNanos;
+    private long windowStartNanos;
+    private long windowRttSumNanos;
+    private int windowSamples;
+    private int windowMaxInflight;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double smoothing, double rttTolerance,
+                         long windowNanos, long nowNanos) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.rttTolerance = rttTolerance;
+        this.windowNanos = windowNanos;
+        this.limit = initialLimit;
+        this.windowStartNanos = nowNanos;
+    }
+
+    /**
+     * @return The current limit, rounded down
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Record a completed request and, at the end of a window, recompute the limit
+     *
+     * @param rttNanos Time the request spent in the application
+     * @param inflight Requests in flight when it was admitted (including itself)
+     * @param nowNanos Current System.nanoTime()
+     */
+    public synchronized void onSample(long rttNanos, int inflight, long nowNanos) {
+        windowRttSumNanos += rttNanos;
+        windowSamples++;
+        windowMaxInflight = Math.max(windowMaxInflight, inflight);
+        if (windowSamples < MIN_WINDOW_SAMPLES || nowNanos - windowStartNanos < windowNanos) {
+            return;
+        }
+        double shortRtt = (double) windowRttSumNanos / windowSamples;
+        int maxInflight = windowMaxInflight;
+        windowStartNanos = nowNanos;
+        windowRttSumNanos = 0;
+        windowSamples = 0;
+        windowMaxInflight = 0;
+        update(shortRtt, maxInflight);
+    }
+
+    private void update(double shortRtt, int maxInflight) {
+        if (longRttNanos == 0) {
+            longRttNanos = shortRtt;
+            return;
+        }
+        longRttNanos += (shortRtt - longRttNanos) * 2.0 / (LONG_WINDOW + 1);
+        if (longRttNanos / shortRtt > 2) {
+            // Latency recovered well below the long-term average: let the average catch up quickly
+            longRttNanos *= 0.95;
+        }
+        if (maxInflight < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / shortRtt));
+        double queueAllowance = Math.sqrt(limit);
+        double target = limit * gradient + queueAllowance;
+        double next = limit * (1 - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
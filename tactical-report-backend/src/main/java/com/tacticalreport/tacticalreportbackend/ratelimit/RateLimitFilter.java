@@ -0,0 +1,186 @@
+package com.tacticalreport.tacticalreportbackend.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client rate limiting in front of the item API (/api/items/**)
+ * Clients are identified by their X-API-Key header when it is one of the configured keys, otherwise by remote
+ * address, so rotating unknown keys does not buy a fresh budget. Each client gets
+ * two token buckets: a cheap budget for id lookups, plain listings and writes, and a much smaller expensive budget
+ * for requests that scan the collection (free-text or name search, facet counts, stats, export and bulk routes).
+ * Buckets live in a ConcurrentHashMap and are updated with compare-and-set, so an abusive client never makes
+ * other clients wait on a lock. Rejected requests get 429 with Retry-After and are counted per tier.
+ */
+@Component
+@Order(1)
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String API_KEY_HEADER = "X-API-Key";
+    private static final String PATH_PREFIX = "/api/items";
+
+    enum Tier { CHEAP, EXPENSIVE }
+
+    private record Budget(long capacity, double refillPerSecond) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int maxClients;
+    private final Set<String> apiKeys;
+    private final Map<Tier, Budget> budgets = new EnumMap<>(Tier.class);
+    private final Map<Tier, Counter> rejections = new EnumMap<>(Tier.class);
+    private final Map<Tier, TokenBucket> overflow = new EnumMap<>(Tier.class);
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${items.rate-limit.enabled:true}") boolean enabled,
+            @Value("${items.rate-limit.cheap.capacity:200}") long cheapCapacity,
+            @Value("${items.rate-limit.cheap.refill-per-second:100}") double cheapRefillPerSecond,
+            @Value("${items.rate-limit.expensive.capacity:20}") long expensiveCapacity,
+            @Value("${items.rate-limit.expensive.refill-per-second:5}") double expensiveRefillPerSecond,
+            @Value("${items.rate-limit.max-clients:100000}") int maxClients,
+            @Value("${items.rate-limit.api-keys:}") Set<String> apiKeys
+    ) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxClients = maxClients;
+        this.apiKeys = apiKeys.stream()
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.toUnmodifiableSet());
+        budgets.put(Tier.CHEAP, new Budget(cheapCapacity, cheapRefillPerSecond));
+        budgets.put(Tier.EXPENSIVE, new Budget(expensiveCapacity, expensiveRefillPerSecond));
+        long now = System.nanoTime();
+        for (Tier tier : Tier.values()) {
+            Budget budget = budgets.get(tier);
+            overflow.put(tier, new TokenBucket(budget.capacity(), budget.refillPerSecond(), now));
+            rejections.put(tier, Counter.builder("items.ratelimit.rejected")
+                    .tag("tier", tier.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("items.ratelimit.clients", buckets, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || HttpMethod.OPTIONS.matches(request.getMethod())
+                || !pathOf(request).startsWith(PATH_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Tier tier = tierOf(request);
+        long now = System.nanoTime();
+        long waitNanos = bucketFor(tier, clientOf(request), now).tryAcquire(1, now);
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        rejections.get(tier).increment();
+        reject(request, response, tier, waitNanos);
+    }
+
+    /**
+     * Drop buckets that have refilled completely; a new bucket for the same client behaves identically
+     * Runs once a minute
+     */
+    @Scheduled(fixedDelayString = "${items.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    /**
+     * Classify a request by how much work it costs the database
+     */
+    static Tier tierOf(HttpServletRequest request) {
+        String path = pathOf(request);
+        if (path.endsWith("/export") || path.contains("/bulk") || path.equals(PATH_PREFIX + "/stock-history")) {
+            return Tier.EXPENSIVE;
+        }
+        // Stats aggregate the whole catalog on a cache miss; the summary reads every rollup document
+        if (HttpMethod.GET.matches(request.getMethod())
+                && (path.equals(PATH_PREFIX + "/stats") || path.startsWith(PATH_PREFIX + "/stats/"))) {
+            return Tier.EXPENSIVE;
+        }
+        if (HttpMethod.GET.matches(request.getMethod()) && (path.equals(PATH_PREFIX) || path.equals(PATH_PREFIX + "/"))
+                && (StringUtils.hasText(request.getParameter("search"))
+                || StringUtils.hasText(request.getParameter("name"))
+                || Boolean.parseBoolean(request.getParameter("facets")))) {
+            return Tier.EXPENSIVE;
+        }
+        return Tier.CHEAP;
+    }
+
+    /**
+     * Configured API keys separate clients sharing an address (e.g. behind a gateway); any other key is ignored
+     */
+    String clientOf(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        if (apiKey != null && apiKeys.contains(apiKey.trim())) {
+            return "key:" + apiKey.trim();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    /**
+     * Get or create the client's bucket for a tier
+     * Once max-clients buckets exist, new clients share one overflow bucket per tier until the scheduled eviction
+     * frees room, which bounds memory when an abuser rotates keys or addresses. Evicting here instead would scan
+     * every bucket on each new client exactly when the map is largest.
+     */
+    private TokenBucket bucketFor(Tier tier, String client, long now) {
+        String key = tier.name() + '|' + client;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxClients) {
+            return overflow.get(tier);
+        }
+        Budget budget = budgets.get(tier);
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(budget.capacity(), budget.refillPerSecond(), now));
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, Tier tier, long waitNanos)
+            throws IOException {
+        long retryAfterSeconds = Math.max(1L, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        log.debug("Rate limited {} request from {} to {}", tier, clientOf(request), request.getRequestURI());
+
+        RejectedRequests.write(objectMapper, request, response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds,
+                "Rate limit exceeded, retry after " + retryAfterSeconds + "s");
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,62 @@
+package com.tacticalreport.tacticalreportbackend.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket holding up to {@code capacity} tokens, refilled at {@code refillPerSecond}
+ * The state is a single "theoretical arrival time" (the instant at which the bucket would be full again), updated
+ * with compare-and-set, so acquiring never blocks or allocates. Times are System.nanoTime() values so callers and
+ * tests can pass their own clock.
+ */
+public class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Token bucket needs a positive capacity and refill rate");
+        }
+        this.nanosPerToken = Math.max(1L, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = capacity * nanosPerToken;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Take tokens if they are available
+     *
+     * @param permits  Number of tokens to take
+     * @param nowNanos Current System.nanoTime()
+     * @return 0 if the tokens were taken, otherwise how many nanoseconds until they will be available
+     */
+    public long tryAcquire(int permits, long nowNanos) {
+        long cost = permits * nanosPerToken;
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + cost;
+            long debt = next - nowNanos;
+            if (debt > burstNanos) {
+                return debt - burstNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return Whole tokens currently available
+     */
+    public long available(long nowNanos) {
+        long debt = Math.max(0L, fullAt.get() - nowNanos);
+        return (burstNanos - debt) / nanosPerToken;
+    }
+
+    /**
+     * @return true if the bucket has refilled completely, i.e. it can be dropped without changing behaviour
+     */
+    public boolean isFull(long nowNanos) {
+        return fullAt.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,172 @@
+package com.tacticalreport.tacticalreportbackend.repository;
+
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Hand-written BSON codec for Item, producing and reading the same documents as Spring Data's mapping
+ * Streams fields straight between BSON and the entity instead of going through an intermediate Document and
+ * reflective property access, which dominates the CPU cost of decoding large list pages. The layout matches
+ * MappingMongoConverter: ObjectId-shaped ids as ObjectId, price as Decimal128, enums by name, dates as BSON dates
+ * in the system time zone, nulls omitted and the _class type hint written (ItemCodecTest keeps them in step).
+ * Unknown fields are skipped, so documents written by newer versions still decode.
+ */
+public class ItemCodec implements Codec<Item> {
+
+    static final String TYPE_KEY = "_class";
+    static final String TYPE_HINT = Item.class.getName();
+
+    @Override
+    public Class<Item> getEncoderClass() {
+        return Item.class;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Item item, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        if (item.getId() != null) {
+            if (ObjectId.isValid(item.getId())) {
+                writer.writeObjectId("_id", new ObjectId(item.getId()));
+            } else {
+                writer.writeString("_id", item.getId());
+            }
+        }
+        writeString(writer, "name", item.getName());
+        writeString(writer, "description", item.getDescription());
+        if (item.getPrice() != null) {
+            writer.writeDecimal128("price", new Decimal128(item.getPrice()));
+        }
+        if (item.getQuantity() != null) {
+            writer.writeInt32("quantity", item.getQuantity());
+        }
+        writeString(writer, "category", item.getCategory());
+        writeString(writer, "sku", item.getSku());
+        writeString(writer, "image", item.getImage());
+        writeString(writer, "imageHash", item.getImageHash());
+        writeString(writer, "status", item.getStatus() == null ? null : item.getStatus().name());
+        if (item.getChangeSequence() != null) {
+            writer.writeInt64("changeSequence", item.getChangeSequence());
+        }
+        writeDate(writer, "createdAt", item.getCreatedAt());
+        writeDate(writer, "updatedAt", item.getUpdatedAt());
+        writer.writeString(TYPE_KEY, TYPE_HINT);
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Item decode(BsonReader reader, DecoderContext decoderContext) {
+        Item item = new Item();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String field = reader.readName();
+            if (!isDecoded(field) || !readField(reader, field, item)) {
+                reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return item;
+    }
+
+    /**
+     * Whether a field is read into the entity; the rest are skipped without being materialized
+     */
+    protected boolean isDecoded(String field) {
+        return true;
+    }
+
+    /**
+     * Read the current value into the matching property
+     *
+     * @return false if the field is not an Item property (the caller skips it)
+     */
+    static boolean readField(BsonReader reader, String field, Item item) {
+        if (reader.getCurrentBsonType() == BsonType.NULL) {
+            reader.readNull();
+            if (field.equals("status")) {
+                item.setStatus(null);
+            }
+            return true;
+        }
+        switch (field) {
+            case "_id" -> item.setId(reader.getCurrentBsonType() == BsonType.OBJECT_ID
+                    ? reader.readObjectId().toHexString()
+                    : reader.readString());
+            case "name" -> item.setName(reader.readString());
+            case "description" -> item.setDescription(reader.readString());
+            case "price" -> item.setPrice(readDecimal(reader));
+            case "quantity" -> item.setQuantity(readInt(reader));
+            case "category" -> item.setCategory(reader.readString());
+            case "sku" -> item.setSku(reader.readString());
+            case "image" -> item.setImage(reader.readString());
+            case "imageHash" -> item.setImageHash(reader.readString());
+            case "status" -> item.setStatus(ItemStatus.valueOf(reader.readString()));
+            case "changeSequence" -> item.setChangeSequence(readLong(reader));
+            case "createdAt" -> item.setCreatedAt(readDate(reader));
+            case "updatedAt" -> item.setUpdatedAt(readDate(reader));
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeString(BsonWriter writer, String name, String value) {
+        if (value != null) {
+            writer.writeString(name, value);
+        }
+    }
+
+    private static void writeDate(BsonWriter writer, String name, LocalDateTime value) {
+        if (value != null) {
+            writer.writeDateTime(name, value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+
+    private static LocalDateTime readDate(BsonReader reader) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(reader.readDateTime()), ZoneId.systemDefault());
+    }
+
+    /**
+     * Prices are Decimal128; strings written before PriceDecimalMigration and other numbers are accepted as well
+     */
+    private static BigDecimal readDecimal(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case DECIMAL128 -> reader.readDecimal128().bigDecimalValue();
+            case STRING -> new BigDecimal(reader.readString());
+            case DOUBLE -> BigDecimal.valueOf(reader.readDouble());
+            case INT32 -> BigDecimal.valueOf(reader.readInt32());
+            case INT64 -> BigDecimal.valueOf(reader.readInt64());
+            default -> throw new IllegalStateException("Unexpected price type " + reader.getCurrentBsonType());
+        };
+    }
+
+    private static Integer readInt(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case INT32 -> reader.readInt32();
+            case INT64 -> Math.toIntExact(reader.readInt64());
+            case DOUBLE -> (int) reader.readDouble();
+            default -> throw new IllegalStateException("Unexpected quantity type " + reader.getCurrentBsonType());
+        };
+    }
+
+    private static Long readLong(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case INT64 -> reader.readInt64();
+            case INT32 -> (long) reader.readInt32();
+            default -> throw new IllegalStateException("Unexpected sequence type " + reader.getCurrentBsonType());
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package com.tacticalreport.tacticalreportbackend.repository;
+
+import com.tacticalreport.tacticalreportbackend.model.Item;
+
+/**
+ * Writes that only apply while an item is still at the version a client's If-Match was checked against
+ * The version fields are part of the write's filter, so a concurrent write in between makes it match nothing
+ * Mixed into ItemRepository.
+ */
+public interface ItemConditionalRepository {
+
+    /**
+     * Replace an item if it is still at the expected version; updatedAt is set to now
+     * Query: { "_id": id, "changeSequence": 42 } (or { "changeSequence": null, "updatedAt": ... } for items
+     * written before changeSequence existed)
+     *
+     * @param item     The new document
+     * @param expected The item as read when If-Match was checked
+     * @return false if no document matched (deleted or changed since)
+     */
+    boolean replaceIfUnchanged(Item item, Item expected);
+
+    /**
+     * Stamp a new change sequence on an item if it is still at the expected version
+     * Claims the item for a delete, so concurrent conditional writes fail against the new version
+     *
+     * @param expected The item as read when If-Match was checked
+     * @param sequence The new change sequence
+     * @return false if no document matched (deleted or changed since)
+     */
+    boolean stampIfUnchanged(Item expected, long sequence);
+}
@@ -0,0 +1,46 @@
+package com.tacticalreport.tacticalreportbackend.repository;
+
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+/**
+ * ItemConditionalRepository on MongoTemplate
+ * Auditing runs after MongoTemplate.replace has mapped the document, so updatedAt is set here instead.
+ */
+class ItemConditionalRepositoryImpl implements ItemConditionalRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    public ItemConditionalRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public boolean replaceIfUnchanged(Item item, Item expected) {
+        item.setUpdatedAt(LocalDateTime.now());
+        return mongoTemplate.replace(versionQuery(expected), item).getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean stampIfUnchanged(Item expected, long sequence) {
+        return mongoTemplate.updateFirst(versionQuery(expected),
+                Update.update("changeSequence", sequence), Item.class).getMatchedCount() > 0;
+    }
+
+    /**
+     * Match the item only at the version its ETag was derived from (see ItemETags.of)
+     */
+    static Query versionQuery(Item expected) {
+        Criteria criteria = Criteria.where("_id").is(expected.getId())
+                .and("changeSequence").is(expected.getChangeSequence());
+        if (expected.getChangeSequence() == null) {
+            criteria.and("updatedAt").is(expected.getUpdatedAt());
+        }
+        return Query.query(criteria);
+    }
+}
@@ -0,0 +1,22 @@
+package com.tacticalreport.tacticalreportbackend.repository;
+
+import com.tacticalreport.tacticalreportbackend.model.ItemImageRendition;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+
+@Repository
+public interface ItemImageRenditionRepository extends MongoRepository<ItemImageRendition, String> {
+
+    /**
+     * Count renditions generated for an image
+     * Query: { "imageHash": "9f86d0..." }
+     */
+    long countByImageHash(String imageHash);
+
+    /**
+     * Remove all renditions of an image once no item references it
+     * Query: { "imageHash": "9f86d0..." }
+     */
+    void deleteByImageHash(String imageHash);
+}
@@ -0,0 +1,46 @@
+package com.tacticalreport.tacticalreportbackend.repository;
+
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.stream.Stream;
+
+/**
+ * Hot list finders implemented against the driver with ItemCodec instead of derived queries
+ * Mixed into ItemRepository, where these implementations take precedence over the generated ones.
+ */
+public interface ItemPageRepository {
+
+    /**
+     * Find a page of all items
+     * Query: { } with the pageable's sort, skip and limit
+     */
+    Page<Item> findAll(Pageable pageable);
+
+    /**
+     * Find items by category with pagination
+     * Query: { "category": "Electronics" }
+     */
+    Page<Item> findByCategory(String category, Pageable pageable);
+
+    /**
+     * Find items by status with pagination
+     * Query: { "status": "AVAILABLE" }
+     */
+    Page<Item> findByStatus(ItemStatus status, Pageable pageable);
+
+    /**
+     * Find items matching several filters combined with pagination
+     * Query: { "$and": [ { "category": "Electronics" }, { "status": "AVAILABLE" } ] }
+     */
+    Page<Item> findMatching(Criteria criteria, Pageable pageable);
+
+    /**
+     * Stream every item's summary fields (no description or image); the stream must be closed
+     * Query: { } with projection { "name": 1, "category": 1, "price": 1, "quantity": 1, ... }
+     */
+    Stream<Item> streamSummaries();
+}
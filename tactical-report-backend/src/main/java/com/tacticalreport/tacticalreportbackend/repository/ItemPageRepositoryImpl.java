@@ -0,0 +1,114 @@
+package com.tacticalreport.tacticalreportbackend.repository;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * ItemPageRepository backed by the hand-written codecs
+ * Queries run through MongoTemplate.execute, so read routing and exception translation still apply; only
+ * decoding bypasses the mapping layer. With items.codec.enabled=false, or for case-insensitive sorts, the same
+ * queries go through MongoTemplate and Spring Data's mapping.
+ */
+class ItemPageRepositoryImpl implements ItemPageRepository {
+
+    private static final CodecRegistry ITEM_CODECS = CodecRegistries.fromRegistries(
+            CodecRegistries.fromCodecs(new ItemCodec()), MongoClientSettings.getDefaultCodecRegistry());
+    private static final CodecRegistry SUMMARY_CODECS = CodecRegistries.fromRegistries(
+            CodecRegistries.fromCodecs(new ItemSummaryCodec()), MongoClientSettings.getDefaultCodecRegistry());
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+
+    public ItemPageRepositoryImpl(MongoTemplate mongoTemplate,
+                                  @Value("${items.codec.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Page<Item> findAll(Pageable pageable) {
+        return findPage(new Document(), pageable);
+    }
+
+    @Override
+    public Page<Item> findByCategory(String category, Pageable pageable) {
+        return findPage(new Document("category", category), pageable);
+    }
+
+    @Override
+    public Page<Item> findByStatus(ItemStatus status, Pageable pageable) {
+        return findPage(new Document("status", status == null ? null : status.name()), pageable);
+    }
+
+    @Override
+    public Page<Item> findMatching(Criteria criteria, Pageable pageable) {
+        return findPage(criteria.getCriteriaObject(), pageable);
+    }
+
+    @Override
+    public Stream<Item> streamSummaries() {
+        if (!enabled) {
+            Query query = new BasicQuery(new Document(), ItemSummaryCodec.projection());
+            return mongoTemplate.stream(query, Item.class);
+        }
+        MongoCursor<Item> cursor = mongoTemplate.execute(Item.class, collection -> items(collection, SUMMARY_CODECS)
+                .find()
+                .projection(ItemSummaryCodec.projection())
+                .cursor());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false)
+                .onClose(cursor::close);
+    }
+
+    private Page<Item> findPage(Document filter, Pageable pageable) {
+        if (!enabled || pageable.getSort().stream().anyMatch(Sort.Order::isIgnoreCase)) {
+            List<Item> content = mongoTemplate.find(new BasicQuery(filter).with(pageable), Item.class);
+            return PageableExecutionUtils.getPage(content, pageable,
+                    () -> mongoTemplate.count(new BasicQuery(filter), Item.class));
+        }
+        List<Item> content = mongoTemplate.execute(Item.class, collection -> {
+            FindIterable<Item> find = items(collection, ITEM_CODECS).find(filter).sort(sort(pageable.getSort()));
+            if (pageable.isPaged()) {
+                find.skip((int) pageable.getOffset()).limit(pageable.getPageSize());
+            }
+            return find.into(new ArrayList<>());
+        });
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> mongoTemplate.execute(Item.class, collection -> collection.countDocuments(filter)));
+    }
+
+    private static MongoCollection<Item> items(MongoCollection<Document> collection, CodecRegistry codecs) {
+        return collection.withCodecRegistry(codecs).withDocumentClass(Item.class);
+    }
+
+    static Document sort(Sort sort) {
+        Document document = new Document();
+        for (Sort.Order order : sort) {
+            String field = order.getProperty().equals("id") ? "_id" : order.getProperty();
+            document.append(field, order.isAscending() ? 1 : -1);
+        }
+        return document;
+    }
+}
@@ -1,7 +1,9 @@
 package com.tacticalreport.tacticalreportbackend.repository;
 
 import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemImageRef;
 import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import com.tacticalreport.tacticalreportbackend.model.ItemVersion;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
@@ -13,7 +15,8 @@ import java.util.Optional;
 
 
 @Repository
-public interface ItemRepository extends MongoRepository<Item, String> {
+public interface ItemRepository extends MongoRepository<Item, String>, ItemPageRepository,
+        ItemConditionalRepository {
 
 
     /**
@@ -44,18 +47,6 @@ public interface ItemRepository extends MongoRepository<Item, String> {
      */
     Page<Item> findByNameContainingIgnoreCase(String name, Pageable pageable);
 
-    /**
-     * Find items by category with pagination
-     * Query: { "category": "Electronics" }
-     */
-    Page<Item> findByCategory(String category, Pageable pageable);
-
-    /**
-     * Find items by status with pagination
-     * Query: { "status": "AVAILABLE" }
-     */
-    Page<Item> findByStatus(ItemStatus status, Pageable pageable);
-
     /**
      * Find items by price range with pagination
      * Query: { "price": { $gte: 100, $lte: 500 } }
@@ -73,6 +64,30 @@ public interface ItemRepository extends MongoRepository<Item, String> {
     Page<Item> findByPriceGreaterThanEqual(BigDecimal priceIsGreaterThan, Pageable pageable);
     Page<Item> findByPriceBetween(BigDecimal priceIsBetween, Pageable pageable);
 
+    /**
+     * Find items written after a sync token, oldest first
+     * Query: { "changeSequence": { $gt: 42 } } sorted by changeSequence
+     */
+    List<Item> findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(Long changeSequence, Pageable pageable);
+
+    /**
+     * Find only the version fields of an item
+     * Query: { "_id": "..." } with projection { "changeSequence": 1, "updatedAt": 1 }
+     */
+    Optional<ItemVersion> findVersionById(String id);
+
+    /**
+     * Find only the image hash of an item
+     * Query: { "_id": "..." } with projection { "imageHash": 1 }
+     */
+    Optional<ItemImageRef> findImageRefById(String id);
+
+    /**
+     * Check if any item still references an image
+     * Query: { "imageHash": "9f86d0..." }
+     */
+    boolean existsByImageHash(String imageHash);
+
     /**
      * Search items across multiple fields with pagination (name OR description OR sku OR category)
      * Query: { $or: [
@@ -0,0 +1,30 @@
+package com.tacticalreport.tacticalreportbackend.repository;
+
+import org.bson.Document;
+
+import java.util.Set;
+
+/**
+ * Item codec for summary projections: reads the small listing fields and skips the rest
+ * Description and the legacy inline image are the bulk of a stored item, so scans that only need
+ * identity, price, stock and status neither materialize nor (with {@link #projection()}) transfer them.
+ */
+public class ItemSummaryCodec extends ItemCodec {
+
+    static final Set<String> FIELDS = Set.of(
+            "_id", "name", "category", "sku", "price", "quantity", "status", "changeSequence", "updatedAt");
+
+    /**
+     * Server-side projection returning just the summary fields
+     */
+    public static Document projection() {
+        Document projection = new Document();
+        FIELDS.forEach(field -> projection.append(field, 1));
+        return projection;
+    }
+
+    @Override
+    protected boolean isDecoded(String field) {
+        return FIELDS.contains(field);
+    }
+}
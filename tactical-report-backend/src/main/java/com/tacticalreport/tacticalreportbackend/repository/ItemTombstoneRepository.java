@@ -0,0 +1,19 @@
+package com.tacticalreport.tacticalreportbackend.repository;
+
+import com.tacticalreport.tacticalreportbackend.model.ItemTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+
+@Repository
+public interface ItemTombstoneRepository extends MongoRepository<ItemTombstone, String> {
+
+    /**
+     * Find deletions after a sync token, oldest first
+     * Query: { "changeSequence": { $gt: 42 } } sorted by changeSequence
+     */
+    List<ItemTombstone> findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(Long changeSequence, Pageable pageable);
+}
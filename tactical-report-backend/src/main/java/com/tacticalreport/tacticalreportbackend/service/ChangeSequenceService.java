@@ -0,0 +1,92 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentSkipListSet;
+/**
+ * Allocates the monotonic change sequence stamped on every item write
+ * Sequences come from a counter document in the "counters" collection so they are unique across instances.
+ * Writes still in flight are tracked so delta sync never hands out a token past a write that may commit later.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeSequenceService {
+
+    static final String COUNTERS_COLLECTION = "counters";
+    static final String ITEM_CHANGES_COUNTER = "itemChanges";
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+
+    /**
+     * Allocate the next sequence for a write about to happen
+     * Must be paired with {@link #complete(long)} once the write has finished (successfully or not)
+     *
+     * @return The allocated sequence
+     */
+    public long begin() {
+        return beginRange(1);
+    }
+
+    /**
+     * Allocate a block of consecutive sequences for a batch of writes
+     * The whole block is tracked as one in-flight write: pass the first sequence to {@link #complete(long)}
+     *
+     * @param count Number of sequences to allocate
+     * @return The first sequence of the block; the block is [first, first + count - 1]
+     */
+    public long beginRange(int count) {
+        Document counter = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(ITEM_CHANGES_COUNTER)),
+                new Update().inc("seq", (long) count),
+                FindAndModifyOptions.options().returnNew(true).upsert(true),
+                Document.class,
+                COUNTERS_COLLECTION);
+
+        long first = ((Number) counter.get("seq")).longValue() - count + 1;
+        inFlight.add(first);
+        return first;
+    }
+
+    /**
+     * Mark a write as finished
+     *
+     * @param sequence The sequence returned by {@link #begin()}, or the first one from {@link #beginRange(int)}
+     */
+    public void complete(long sequence) {
+        inFlight.remove(sequence);
+    }
+
+    /**
+     * Highest sequence allocated so far by any instance
+     * If it is unchanged after a read, no write started anywhere while the read ran
+     *
+     * @return The latest allocated sequence, 0 before the first write
+     */
+    public long latestSequence() {
+        Document counter = mongoTemplate.findOne(Query.query(Criteria.where("_id").is(ITEM_CHANGES_COUNTER)),
+                Document.class, COUNTERS_COLLECTION);
+        return counter == null ? 0 : ((Number) counter.get("seq")).longValue();
+    }
+
+    /**
+     * Highest sequence below which every write started by this instance has finished
+     * Changes above this watermark are withheld from delta sync until the writes before them are durable
+     *
+     * @return The stable watermark, Long.MAX_VALUE when no write is in flight
+     */
+    public long stableWatermark() {
+        Long oldestInFlight = inFlight.ceiling(Long.MIN_VALUE);
+        return oldestInFlight == null ? Long.MAX_VALUE : oldestInFlight - 1;
+    }
+}
@@ -0,0 +1,240 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.exception.PayloadTooLargeException;
+import com.tacticalreport.tacticalreportbackend.model.ImageBlob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed, reference-counted store for item images
+ * - Files are named by the SHA-256 of their bytes under root/ab/cd/{hash}, so identical images are stored once
+ * - Reference counts live in the "image_blobs" collection; the file is removed when the count drops to zero
+ * - Files are written to a temp file and moved into place atomically, so readers never see partial content
+ * Reference changes for the same hash are serialized by striped locks within this instance.
+ */
+@Service
+@Slf4j
+public class ImageBlobStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final int LOCK_STRIPES = 64;
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final MongoTemplate mongoTemplate;
+    private final Path root;
+    private final Path tempDir;
+    private final long maxImageBytes;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public ImageBlobStore(
+            MongoTemplate mongoTemplate,
+            @Value("${items.images.blob-root:./data/image-blobs}") Path root,
+            @Value("${items.images.max-size:10MB}") DataSize maxImageSize
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxImageBytes = maxImageSize.toBytes();
+        this.root = root.toAbsolutePath().normalize();
+        this.tempDir = this.root.resolve("tmp");
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        try {
+            Files.createDirectories(tempDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create image blob directory " + this.root, e);
+        }
+    }
+
+    /**
+     * Store image bytes and add a reference to them
+     *
+     * @param bytes       The image bytes
+     * @param contentType The image content type
+     * @return The image hash
+     */
+    public String put(byte[] bytes, String contentType) {
+        try {
+            return put(new ByteArrayInputStream(bytes), Long.MAX_VALUE, contentType);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store image", e);
+        }
+    }
+
+    /**
+     * Stream an image into the store and add a reference to it
+     * The stream is copied to a temp file in fixed-size chunks while its SHA-256 is computed, so heap use does not
+     * depend on the image size. The upload is aborted as soon as it exceeds maxBytes.
+     *
+     * @param in          The image bytes (not closed)
+     * @param maxBytes    Maximum accepted size
+     * @param contentType The image content type
+     * @return The image hash
+     * @throws PayloadTooLargeException if the stream is longer than maxBytes
+     */
+    public String put(InputStream in, long maxBytes, String contentType) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[CHUNK_SIZE];
+        long size = 0;
+        Path temp = Files.createTempFile(tempDir, "upload", ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new PayloadTooLargeException(maxBytes);
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            if (size == 0) {
+                throw new IllegalArgumentException("Image is empty");
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            ReentrantLock lock = lockFor(hash);
+            lock.lock();
+            try {
+                Path path = pathOf(hash);
+                if (!Files.exists(path)) {
+                    moveIntoPlace(temp, path);
+                }
+                addReference(hash, contentType, size);
+            } finally {
+                lock.unlock();
+            }
+            return hash;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Drop a reference to an image, deleting it when no references remain
+     *
+     * @param hash The image hash (ignored if null)
+     */
+    public void release(String hash) {
+        if (hash == null) {
+            return;
+        }
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            ImageBlob blob = mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("_id").is(hash)),
+                    new Update().inc("refCount", -1L),
+                    FindAndModifyOptions.options().returnNew(true),
+                    ImageBlob.class);
+            if (blob == null || blob.getRefCount() > 0) {
+                return;
+            }
+            boolean removed = mongoTemplate.remove(
+                    Query.query(Criteria.where("_id").is(hash).and("refCount").lte(0L)), ImageBlob.class)
+                    .getDeletedCount() > 0;
+            if (removed) {
+                Files.deleteIfExists(pathOf(hash));
+                log.debug("Deleted unreferenced image {}", hash);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete image file {}: {}", hash, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Metadata of a stored image, if present
+     */
+    public Optional<ImageBlob> find(String hash) {
+        if (!isValidHash(hash)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(mongoTemplate.findById(hash, ImageBlob.class));
+    }
+
+    /**
+     * @return Path of the file holding an image's bytes
+     * @throws IllegalArgumentException if the hash is not a SHA-256 hex string
+     */
+    public Path pathOf(String hash) {
+        if (!isValidHash(hash)) {
+            throw new IllegalArgumentException("Invalid image hash: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    /**
+     * Open an image for reading
+     */
+    public InputStream open(String hash) throws IOException {
+        return Files.newInputStream(pathOf(hash));
+    }
+
+    /**
+     * @return Maximum size of a single image in bytes
+     */
+    public long getMaxImageBytes() {
+        return maxImageBytes;
+    }
+
+    public static boolean isValidHash(String hash) {
+        return hash != null && HASH.matcher(hash).matches();
+    }
+
+    private void addReference(String hash, String contentType, long size) {
+        mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(hash)),
+                new Update().inc("refCount", 1L)
+                        .setOnInsert("contentType", contentType)
+                        .setOnInsert("size", size)
+                        .setOnInsert("createdAt", LocalDateTime.now()),
+                ImageBlob.class);
+    }
+
+    private static void moveIntoPlace(Path temp, Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Written concurrently by another instance; content is identical by construction
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private ReentrantLock lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+}
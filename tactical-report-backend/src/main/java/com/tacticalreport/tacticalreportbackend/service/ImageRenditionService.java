@@ -0,0 +1,281 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.event.ItemChangedEvent;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemImageRendition;
+import com.tacticalreport.tacticalreportbackend.repository.ItemImageRenditionRepository;
+import com.tacticalreport.tacticalreportbackend.repository.ItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates resized renditions of item images on a bounded background pool
+ * - Triggered by ItemChangedEvent, so item writes return without waiting for image processing
+ * - Each image is decoded once and scaled down step by step from the largest rendition to the smallest
+ * - Renditions are keyed by image hash, so identical images are processed and stored once
+ */
+@Service
+@Slf4j
+public class ImageRenditionService {
+
+    private final ItemRepository itemRepository;
+    private final ItemImageRenditionRepository renditionRepository;
+    private final ImageBlobStore imageBlobStore;
+    private final List<Integer> sizes;
+    private final long maxPixels;
+    private final float jpegQuality;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    private final Timer renditionTimer;
+    private final Counter rejected;
+
+    public ImageRenditionService(
+            ItemRepository itemRepository,
+            ItemImageRenditionRepository renditionRepository,
+            ImageBlobStore imageBlobStore,
+            MeterRegistry meterRegistry,
+            @Value("${items.images.rendition-sizes:64,256,1024}") List<Integer> sizes,
+            @Value("${items.images.workers:2}") int workers,
+            @Value("${items.images.queue-capacity:100}") int queueCapacity,
+            @Value("${items.images.max-pixels:40000000}") long maxPixels,
+            @Value("${items.images.jpeg-quality:0.85}") float jpegQuality
+    ) {
+        this.itemRepository = itemRepository;
+        this.renditionRepository = renditionRepository;
+        this.imageBlobStore = imageBlobStore;
+        this.sizes = sizes.stream().sorted(Comparator.reverseOrder()).toList();
+        this.maxPixels = maxPixels;
+        this.jpegQuality = jpegQuality;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-rendition-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        this.renditionTimer = Timer.builder("items.images.rendition.duration").register(meterRegistry);
+        this.rejected = Counter.builder("items.images.rendition.rejected").register(meterRegistry);
+        meterRegistry.gauge("items.images.rendition.queue.depth", executor, e -> e.getQueue().size());
+    }
+
+    /**
+     * Pick the rendition to serve for a requested display size
+     *
+     * @param requested Requested size in pixels
+     * @return The smallest rendition at least as large as requested, or the largest rendition
+     */
+    public int resolveSize(int requested) {
+        int resolved = sizes.get(0);
+        for (int size : sizes) {
+            if (size >= requested) {
+                resolved = size;
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * @return The stored rendition of an image, if it has been generated
+     */
+    public Optional<ItemImageRendition> findRendition(String imageHash, int size) {
+        return renditionRepository.findById(ItemImageRendition.idOf(imageHash, size));
+    }
+
+    /**
+     * Queue rendition generation for an image unless it is already queued
+     *
+     * @param imageHash Hash of an image in the blob store
+     */
+    public void submit(String imageHash) {
+        if (!pending.add(imageHash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    renditionTimer.record(() -> generate(imageHash));
+                } finally {
+                    pending.remove(imageHash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(imageHash);
+            rejected.increment();
+            log.warn("Rendition queue full, image {} will be processed on first request", imageHash);
+        }
+    }
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        String previousHash = event.getBefore() == null ? null : event.getBefore().getImageHash();
+        Item after = event.getAfter();
+        String currentHash = after == null ? null : after.getImageHash();
+
+        if (currentHash != null && !currentHash.equals(previousHash)) {
+            submit(currentHash);
+        }
+        if (previousHash != null && !previousHash.equals(currentHash)) {
+            try {
+                executor.execute(() -> removeIfUnreferenced(previousHash));
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                log.warn("Rendition queue full, renditions of image {} are left in place", previousHash);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void generate(String imageHash) {
+        if (renditionRepository.countByImageHash(imageHash) >= sizes.size()) {
+            log.debug("Renditions already exist for image {}", imageHash);
+            return;
+        }
+        try {
+            BufferedImage source;
+            try (InputStream in = imageBlobStore.open(imageHash)) {
+                source = read(in);
+            }
+            if (source == null) {
+                log.warn("Unsupported image format for image {}", imageHash);
+                return;
+            }
+
+            List<ItemImageRendition> renditions = new ArrayList<>(sizes.size());
+            BufferedImage current = source;
+            for (int size : sizes) {
+                current = scaleDown(current, size);
+                boolean alpha = current.getColorModel().hasAlpha();
+                renditions.add(new ItemImageRendition(ItemImageRendition.idOf(imageHash, size), imageHash, size,
+                        alpha ? "image/png" : "image/jpeg", alpha ? encodePng(current) : encodeJpeg(current),
+                        LocalDateTime.now()));
+            }
+
+            if (!itemRepository.existsByImageHash(imageHash)) {
+                log.debug("Image {} was replaced before its renditions were ready", imageHash);
+                return;
+            }
+            renditionRepository.saveAll(renditions);
+            log.info("Generated {} renditions for image {}", renditions.size(), imageHash);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to generate renditions for image {}: {}", imageHash, e.getMessage());
+        }
+    }
+
+    private void removeIfUnreferenced(String imageHash) {
+        if (!itemRepository.existsByImageHash(imageHash)) {
+            renditionRepository.deleteByImageHash(imageHash);
+            log.debug("Removed renditions of unreferenced image {}", imageHash);
+        }
+    }
+
+    private BufferedImage read(InputStream in) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Check dimensions from the header before allocating pixels
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxPixels) {
+                    throw new IOException("Image exceeds " + maxPixels + " pixels");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scaleDown(BufferedImage image, int size) {
+        int longest = Math.max(image.getWidth(), image.getHeight());
+        if (longest <= size) {
+            return image;
+        }
+        double scale = (double) size / longest;
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage scaled = new BufferedImage(width, height, type);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        BufferedImage rgb = image;
+        if (image.getType() != BufferedImage.TYPE_INT_RGB && image.getType() != BufferedImage.TYPE_3BYTE_BGR) {
+            rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = rgb.createGraphics();
+            graphics.drawImage(image, 0, 0, null);
+            graphics.dispose();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(rgb, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,300 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.event.ItemChangeType;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangedEvent;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import com.tacticalreport.tacticalreportbackend.model.ItemTombstone;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.UnionWithOperation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Keeps the hot "items" collection small by moving items that are no longer sold to "items_archive"
+ * <p>
+ * Deleted items are archived in the delete request itself (soft delete) and purged from the archive by a TTL
+ * index once the deleted retention has passed. Items discontinued for longer than discontinued-after are moved
+ * by a scheduled job in batches: each batch is copied to the archive, gets sync tombstones and change events
+ * like a delete, and is then removed from "items" only where it is still discontinued and unchanged. Items
+ * updated in the meantime stay in "items" and their archive copies and tombstones are rolled back.
+ * Archived items are visible again through the opt-in includeArchived reads.
+ */
+@Service
+@Slf4j
+public class ItemArchiveService {
+
+    static final String ITEMS = "items";
+    static final String ARCHIVE = "items_archive";
+    static final String ARCHIVED_AT = "archivedAt";
+    static final String ARCHIVE_REASON = "archiveReason";
+    static final String EXPIRES_AT = "expiresAt";
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "_id");
+
+    private final MongoTemplate mongoTemplate;
+    private final ChangeSequenceService changeSequenceService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReadRouting readRouting;
+    private final boolean enabled;
+    private final Duration discontinuedAfter;
+    private final Duration deletedRetention;
+    private final int batchSize;
+
+    public ItemArchiveService(
+            MongoTemplate mongoTemplate,
+            ChangeSequenceService changeSequenceService,
+            ApplicationEventPublisher eventPublisher,
+            ReadRouting readRouting,
+            @Value("${items.archive.enabled:true}") boolean enabled,
+            @Value("${items.archive.discontinued-after:180d}") Duration discontinuedAfter,
+            @Value("${items.archive.deleted-retention:90d}") Duration deletedRetention,
+            @Value("${items.archive.batch-size:500}") int batchSize
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.changeSequenceService = changeSequenceService;
+        this.eventPublisher = eventPublisher;
+        this.readRouting = readRouting;
+        this.enabled = enabled;
+        this.discontinuedAfter = discontinuedAfter;
+        this.deletedRetention = deletedRetention;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Copy an item about to be deleted into the archive
+     * The image is released by the delete, so the copy does not reference it
+     *
+     * @param item The item being deleted
+     */
+    public void archiveDeleted(Item item) {
+        LocalDateTime now = LocalDateTime.now();
+        Document copy = new Document();
+        mongoTemplate.getConverter().write(item, copy);
+        copy.remove("image");
+        copy.remove("imageHash");
+        copy.append(ARCHIVED_AT, toDate(now))
+                .append(ARCHIVE_REASON, "DELETED")
+                .append(EXPIRES_AT, toDate(now.plus(deletedRetention)));
+        mongoTemplate.save(copy, ARCHIVE);
+    }
+
+    /**
+     * Find an archived item
+     *
+     * @param id The item ID
+     * @return The archived item, with archivedAt set
+     */
+    public Optional<Item> findArchived(String id) {
+        return Optional.ofNullable(mongoTemplate.findById(id, Item.class, ARCHIVE));
+    }
+
+    /**
+     * Page through live and archived items together, newest first
+     *
+     * @param category Filter by category (optional)
+     * @param status   Filter by status (optional)
+     * @param pageable Page number and size
+     * @return Page of items; archived ones have archivedAt set
+     */
+    public Page<Item> findIncludingArchived(String category, ItemStatus status, Pageable pageable) {
+        List<Criteria> filters = new ArrayList<>();
+        if (category != null && !category.isEmpty()) {
+            filters.add(Criteria.where("category").is(category));
+        }
+        if (status != null) {
+            filters.add(Criteria.where("status").is(status.name()));
+        }
+        Criteria criteria = filters.isEmpty() ? new Criteria() : new Criteria().andOperator(filters);
+        // Each side returns only its newest offset + size items from its createdAt index, so the merge sorts
+        // at most twice a page's worth of documents instead of both collections
+        long top = pageable.getOffset() + pageable.getPageSize();
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.sort(NEWEST_FIRST),
+                Aggregation.limit(top),
+                UnionWithOperation.unionWith(ARCHIVE).pipeline(
+                        Aggregation.match(criteria),
+                        Aggregation.sort(NEWEST_FIRST),
+                        Aggregation.limit(top)),
+                Aggregation.sort(NEWEST_FIRST),
+                Aggregation.skip(pageable.getOffset()),
+                Aggregation.limit(pageable.getPageSize()))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+        List<Item> content = readRouting.secondary(() ->
+                mongoTemplate.aggregate(aggregation, ITEMS, Item.class).getMappedResults());
+        return PageableExecutionUtils.getPage(content, pageable, () -> readRouting.secondary(() ->
+                mongoTemplate.count(Query.query(criteria), ITEMS) + mongoTemplate.count(Query.query(criteria), ARCHIVE)));
+    }
+
+    /**
+     * Move items discontinued for longer than discontinued-after to the archive, batch by batch
+     *
+     * @return Number of items moved
+     */
+    @Scheduled(initialDelayString = "${items.archive.initial-delay-ms:60000}",
+            fixedDelayString = "${items.archive.interval-ms:3600000}")
+    public int archiveDiscontinued() {
+        if (!enabled) {
+            return 0;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(discontinuedAfter);
+        int moved = 0;
+        try {
+            while (true) {
+                List<Document> batch = mongoTemplate.find(discontinuedBefore(cutoff).limit(batchSize),
+                        Document.class, ITEMS);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                moved += archiveBatch(batch, cutoff);
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Archiving discontinued items stopped after {} items: {}", moved, e.getMessage());
+        }
+        if (moved > 0) {
+            log.info("Archived {} items discontinued before {}", moved, cutoff);
+        }
+        return moved;
+    }
+
+    private int archiveBatch(List<Document> batch, LocalDateTime cutoff) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object> ids = batch.stream().map(document -> document.get("_id")).toList();
+
+        BulkOperations archive = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ARCHIVE);
+        for (Document document : batch) {
+            Document copy = new Document(document)
+                    .append(ARCHIVED_AT, toDate(now))
+                    .append(ARCHIVE_REASON, ItemStatus.DISCONTINUED.name());
+            archive.replaceOne(byId(document.get("_id")), copy, FindAndReplaceOptions.options().upsert());
+        }
+        archive.execute();
+
+        Set<Object> kept;
+        long first = changeSequenceService.beginRange(batch.size());
+        try {
+            BulkOperations tombstones = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ItemTombstone.class);
+            for (int i = 0; i < batch.size(); i++) {
+                Document document = batch.get(i);
+                ItemTombstone tombstone = new ItemTombstone(idOf(document.get("_id")), document.getString("sku"),
+                        document.getString("category"), first + i, now);
+                tombstones.replaceOne(byId(tombstone.getId()), tombstone, FindAndReplaceOptions.options().upsert());
+            }
+            tombstones.execute();
+
+            long removed = mongoTemplate.remove(
+                    Query.query(Criteria.where("_id").in(ids)).addCriteria(stillDiscontinued(cutoff)),
+                    ITEMS).getDeletedCount();
+            kept = removed == batch.size() ? Set.of() : rollBackKept(ids);
+        } finally {
+            changeSequenceService.complete(first);
+        }
+
+        int moved = 0;
+        Instant occurredAt = Instant.now();
+        for (Document document : batch) {
+            if (!kept.contains(document.get("_id"))) {
+                Item before = mongoTemplate.getConverter().read(Item.class, document);
+                eventPublisher.publishEvent(
+                        new ItemChangedEvent(ItemChangeType.DELETED, before.getId(), before, null, occurredAt));
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Undo the archive copies and tombstones of items that were changed while being archived
+     *
+     * @return _ids of the items still in "items"
+     */
+    private Set<Object> rollBackKept(List<Object> ids) {
+        Query stillLive = Query.query(Criteria.where("_id").in(ids));
+        stillLive.fields().include("_id");
+        Set<Object> kept = new HashSet<>();
+        mongoTemplate.find(stillLive, Document.class, ITEMS).forEach(document -> kept.add(document.get("_id")));
+        if (!kept.isEmpty()) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(kept)), ARCHIVE);
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(kept.stream().map(ItemArchiveService::idOf)
+                    .toList())), ItemTombstone.class);
+            log.debug("{} items changed while being archived, kept in items", kept.size());
+        }
+        return kept;
+    }
+
+    /**
+     * Create the TTL index purging deleted items from the archive once the retention has passed
+     * Only deleted items have expiresAt; archived discontinued items are kept
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureArchiveIndexes() {
+        try {
+            mongoTemplate.indexOps(ARCHIVE).createIndex(new Index()
+                    .on(EXPIRES_AT, Sort.Direction.ASC)
+                    .expire(Duration.ZERO)
+                    .named("expiresAt_ttl"));
+            mongoTemplate.indexOps(ARCHIVE).createIndex(new Index()
+                    .on("createdAt", Sort.Direction.DESC)
+                    .on("_id", Sort.Direction.DESC)
+                    .named("createdAt_id"));
+        } catch (RuntimeException e) {
+            log.warn("Could not create item archive indexes: {}", e.getMessage());
+        }
+    }
+
+    private static Query discontinuedBefore(LocalDateTime cutoff) {
+        return Query.query(stillDiscontinued(cutoff));
+    }
+
+    private static Criteria stillDiscontinued(LocalDateTime cutoff) {
+        return Criteria.where("status").is(ItemStatus.DISCONTINUED.name()).and("updatedAt").lt(cutoff);
+    }
+
+    /**
+     * Dates in raw documents are stored the way the mapping layer stores LocalDateTime (system time zone)
+     */
+    private static Date toDate(LocalDateTime value) {
+        return Date.from(value.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static Query byId(Object id) {
+        return Query.query(Criteria.where("_id").is(id));
+    }
+
+    private static String idOf(Object id) {
+        return id instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(id);
+    }
+}
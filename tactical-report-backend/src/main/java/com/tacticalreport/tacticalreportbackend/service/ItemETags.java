@@ -0,0 +1,155 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemVersion;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+/**
+ * ETag helpers for item resources
+ * - Single items get a strong ETag from changeSequence (falls back to updatedAt for items written before it existed)
+ * - GET responses suffix it per representation ("42-gzip", "42-cbor"), since each encoding has different bytes;
+ *   If-Match and If-None-Match compare the version part, so any representation's tag validates the item
+ * - Lists get a weak ETag hashed from the IDs and versions on the page
+ */
+public final class ItemETags {
+
+    /**
+     * Representation suffixes of single-item ETags
+     */
+    public static final String GZIP = "gzip";
+    public static final String CBOR = "cbor";
+    public static final String SMILE = "smile";
+
+    private static final List<String> REPRESENTATIONS = List.of(GZIP, CBOR, SMILE);
+
+    private ItemETags() {
+    }
+
+    /**
+     * @return The quoted strong ETag of an item, or null if it has no version information yet
+     */
+    public static String of(Item item) {
+        return of(item.getChangeSequence(), item.getUpdatedAt());
+    }
+
+    public static String of(ItemVersion version) {
+        return of(version.getChangeSequence(), version.getUpdatedAt());
+    }
+
+    private static String of(Long changeSequence, LocalDateTime updatedAt) {
+        if (changeSequence != null) {
+            return "\"" + changeSequence + "\"";
+        }
+        if (updatedAt != null) {
+            return "\"t" + updatedAt.toInstant(ZoneOffset.UTC).toEpochMilli() + "\"";
+        }
+        return null;
+    }
+
+    /**
+     * Strong ETag of one representation of an item
+     *
+     * @param etag           The item's ETag (may be null)
+     * @param representation GZIP, CBOR or SMILE, or null for identity JSON
+     * @return The quoted ETag with the representation suffix
+     */
+    public static String ofRepresentation(String etag, String representation) {
+        if (etag == null || representation == null) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + representation + "\"";
+    }
+
+    /**
+     * Weak ETag of a list response
+     *
+     * @param items         Items in the response, in order
+     * @param totalElements Total matches across all pages (changes when items outside the page are added/removed)
+     * @return The quoted weak ETag
+     */
+    public static String ofList(Collection<Item> items, long totalElements) {
+        CRC32C crc = new CRC32C();
+        StringBuilder key = new StringBuilder();
+        for (Item item : items) {
+            key.setLength(0);
+            key.append(item.getId()).append('@').append(of(item)).append(';');
+            crc.update(key.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return "W/\"" + Long.toHexString(crc.getValue()) + "-" + items.size() + "-" + totalElements + "\"";
+    }
+
+    /**
+     * Weak ETag of a list response that also carries facet counts
+     *
+     * @param items         Items in the response, in order
+     * @param totalElements Total matches across all pages
+     * @param facets        Facet counts included in the response
+     * @return The quoted weak ETag
+     */
+    public static String ofList(Collection<Item> items, long totalElements, Object facets) {
+        String etag = ofList(items, totalElements);
+        return etag.substring(0, etag.length() - 1) + "-" + Integer.toHexString(Objects.hashCode(facets)) + "\"";
+    }
+
+    /**
+     * Evaluate an If-Match header against the current ETag using strong comparison
+     *
+     * @param ifMatch     The If-Match header value
+     * @param currentETag The current ETag, or null if the item does not exist
+     * @return true if the precondition holds
+     */
+    public static boolean matches(String ifMatch, String currentETag) {
+        if (currentETag == null) {
+            return false;
+        }
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || withoutRepresentation(tag).equals(withoutRepresentation(currentETag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evaluate an If-None-Match header against the current ETag using weak comparison
+     *
+     * @param ifNoneMatch The If-None-Match header value
+     * @param currentETag The current ETag (may be null)
+     * @return true if the client's copy is current
+     */
+    public static boolean matchesWeakly(String ifNoneMatch, String currentETag) {
+        if (currentETag == null) {
+            return false;
+        }
+        String current = withoutRepresentation(stripWeak(currentETag));
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || withoutRepresentation(stripWeak(tag)).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String withoutRepresentation(String etag) {
+        for (String representation : REPRESENTATIONS) {
+            String suffix = "-" + representation + "\"";
+            if (etag.endsWith(suffix)) {
+                return etag.substring(0, etag.length() - suffix.length()) + "\"";
+            }
+        }
+        return etag;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
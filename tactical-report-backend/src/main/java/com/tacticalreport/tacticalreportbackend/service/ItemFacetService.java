@@ -0,0 +1,197 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.cache.ExpiringCache;
+import com.tacticalreport.tacticalreportbackend.dto.ItemFacets;
+import com.tacticalreport.tacticalreportbackend.dto.ItemFacets.RangeCount;
+import com.tacticalreport.tacticalreportbackend.dto.ItemFacets.ValueCount;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet counts (category, status, price and quantity ranges) for the list endpoint's filter set
+ * All four facets come from one $facet aggregation. Text filters (search, name, sku) apply to every facet in a
+ * leading $match; each facet then applies the remaining filters except its own, so picking another option in
+ * the sidebar returns exactly the count the list (which applies ItemFilter.toCriteria) shows for it.
+ * Results are cached briefly per normalized filter.
+ */
+@Service
+@Slf4j
+public class ItemFacetService {
+
+    private static final int MAX_CACHED_FILTERS = 1024;
+    private static final String OTHER_BUCKET = "other";
+
+    private final MongoTemplate mongoTemplate;
+    private final ReadRouting readRouting;
+    private final List<BigDecimal> priceBoundaries;
+    private final List<Integer> quantityBoundaries;
+    private final int maxCategories;
+    private final ExpiringCache<ItemFilter, ItemFacets> cache;
+
+    public ItemFacetService(
+            MongoTemplate mongoTemplate,
+            ReadRouting readRouting,
+            @Value("${items.facets.price-buckets:0,10,50,100,500,1000}") List<BigDecimal> priceBoundaries,
+            @Value("${items.facets.quantity-buckets:0,1,10,50,100}") List<Integer> quantityBoundaries,
+            @Value("${items.facets.max-categories:50}") int maxCategories,
+            @Value("${items.facets.cache-ttl:30s}") Duration cacheTtl
+    ) {
+        if (priceBoundaries.size() < 2 || quantityBoundaries.size() < 2) {
+            throw new IllegalArgumentException("Facet buckets need at least two boundaries");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.readRouting = readRouting;
+        this.priceBoundaries = List.copyOf(priceBoundaries);
+        this.quantityBoundaries = List.copyOf(quantityBoundaries);
+        this.maxCategories = maxCategories;
+        this.cache = new ExpiringCache<>(cacheTtl, MAX_CACHED_FILTERS);
+    }
+
+    /**
+     * Get facet counts for a filter set
+     *
+     * @param filter The list filters
+     * @return Counts per category, status, price range and quantity range
+     */
+    public ItemFacets getFacets(ItemFilter filter) {
+        ItemFilter key = filter.normalized();
+        ItemFacets cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        ItemFacets facets = aggregate(key);
+        cache.put(key, facets);
+        return facets;
+    }
+
+    private ItemFacets aggregate(ItemFilter filter) {
+        log.debug("Aggregating item facets for {}", filter);
+        List<AggregationOperation> stages = new ArrayList<>();
+        Criteria text = filter.textCriteria();
+        if (text != null) {
+            stages.add(Aggregation.match(text));
+        }
+
+        // No-op for Decimal128 prices; still buckets prices stored as strings before PriceDecimalMigration ran
+        AggregationExpression price = ConvertOperators.ToDecimal.toDecimal("$price");
+        FacetOperation facet = Aggregation
+                .facet(stages(filter, "category",
+                        Aggregation.group("category").count().as("count"),
+                        Aggregation.sort(Sort.by(Sort.Direction.DESC, "count").and(Sort.by("_id"))),
+                        Aggregation.limit(maxCategories))).as("categories")
+                .and(stages(filter, "status",
+                        Aggregation.group("status").count().as("count"))).as("statuses")
+                .and(stages(filter, "price",
+                        Aggregation.bucket(price)
+                                .withBoundaries(priceBoundaries.stream().map(Decimal128::new).toArray())
+                                .withDefaultBucket(OTHER_BUCKET))).as("priceRanges")
+                .and(stages(filter, "quantity",
+                        Aggregation.bucket("quantity")
+                                .withBoundaries(quantityBoundaries.toArray())
+                                .withDefaultBucket(OTHER_BUCKET))).as("quantityRanges");
+        stages.add(facet);
+
+        Document result = readRouting.secondary(() -> mongoTemplate
+                .aggregate(Aggregation.newAggregation(stages), Item.class, Document.class)
+                .getUniqueMappedResult());
+        if (result == null) {
+            result = new Document();
+        }
+
+        return ItemFacets.builder()
+                .categories(result.getList("categories", Document.class, List.of()).stream()
+                        .map(group -> new ValueCount(group.getString("_id"), toLong(group.get("count"))))
+                        .toList())
+                .statuses(statusCounts(result.getList("statuses", Document.class, List.of())))
+                .priceRanges(rangeCounts(result.getList("priceRanges", Document.class, List.of()), priceBoundaries))
+                .quantityRanges(rangeCounts(result.getList("quantityRanges", Document.class, List.of()),
+                        quantityBoundaries.stream().map(BigDecimal::valueOf).toList()))
+                .build();
+    }
+
+    /**
+     * Prefix a facet's stages with a $match on every filter except the facet's own field
+     */
+    private static AggregationOperation[] stages(ItemFilter filter, String own, AggregationOperation... facetStages) {
+        List<Criteria> criteria = filter.fieldCriteria(own);
+        if (criteria.isEmpty()) {
+            return facetStages;
+        }
+        AggregationOperation[] withMatch = new AggregationOperation[facetStages.length + 1];
+        withMatch[0] = Aggregation.match(new Criteria().andOperator(criteria));
+        System.arraycopy(facetStages, 0, withMatch, 1, facetStages.length);
+        return withMatch;
+    }
+
+    private static List<ValueCount> statusCounts(List<Document> groups) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Document group : groups) {
+            if (group.get("_id") != null) {
+                counts.put(group.get("_id").toString(), toLong(group.get("count")));
+            }
+        }
+        List<ValueCount> statuses = new ArrayList<>();
+        for (ItemStatus status : ItemStatus.values()) {
+            statuses.add(new ValueCount(status.name(), counts.getOrDefault(status.name(), 0L)));
+        }
+        return statuses;
+    }
+
+    /**
+     * Map $bucket output to one entry per range, including empty ranges; the default bucket becomes the
+     * open-ended range above the last boundary
+     */
+    private static List<RangeCount> rangeCounts(List<Document> buckets, List<BigDecimal> boundaries) {
+        Map<BigDecimal, Long> counts = new HashMap<>();
+        long above = 0;
+        for (Document bucket : buckets) {
+            Object id = bucket.get("_id");
+            if (OTHER_BUCKET.equals(id)) {
+                above = toLong(bucket.get("count"));
+            } else {
+                counts.put(toBigDecimal(id).stripTrailingZeros(), toLong(bucket.get("count")));
+            }
+        }
+        List<RangeCount> ranges = new ArrayList<>();
+        for (int i = 0; i < boundaries.size() - 1; i++) {
+            BigDecimal from = boundaries.get(i);
+            ranges.add(new RangeCount(from, boundaries.get(i + 1), counts.getOrDefault(from.stripTrailingZeros(), 0L)));
+        }
+        ranges.add(new RangeCount(boundaries.get(boundaries.size() - 1), null, above));
+        return ranges;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof Decimal128 decimal) {
+            return decimal.bigDecimalValue();
+        }
+        if (value instanceof Number number) {
+            return new BigDecimal(number.toString());
+        }
+        return BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,136 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Filters of the item list endpoint
+ * The normalized form is used as a cache key, so equivalent requests ("Laptop " vs "laptop") share an entry
+ * The list and its facet counts build their queries from the same criteria, so both apply every active filter
+ */
+public record ItemFilter(String search, String name, String sku, String category, ItemStatus status,
+                         BigDecimal minPrice, BigDecimal maxPrice, Integer minQuantity, Integer maxQuantity) {
+
+    /**
+     * Trim text filters, drop blank ones, lower-case the case-insensitive ones and strip trailing zeros from prices
+     */
+    public ItemFilter normalized() {
+        return new ItemFilter(
+                lowerCase(search),
+                lowerCase(name),
+                trim(sku),
+                trim(category),
+                status,
+                minPrice == null ? null : minPrice.stripTrailingZeros(),
+                maxPrice == null ? null : maxPrice.stripTrailingZeros(),
+                minQuantity,
+                maxQuantity);
+    }
+
+    /**
+     * Number of active filters; a price or quantity range counts once
+     */
+    public int activeFilters() {
+        int active = 0;
+        for (Object value : new Object[]{search, name, sku, category, status}) {
+            if (value != null) {
+                active++;
+            }
+        }
+        if (minPrice != null || maxPrice != null) {
+            active++;
+        }
+        if (minQuantity != null || maxQuantity != null) {
+            active++;
+        }
+        return active;
+    }
+
+    /**
+     * Every active filter combined with $and (empty criteria when none is active)
+     */
+    public Criteria toCriteria() {
+        List<Criteria> criteria = new ArrayList<>();
+        Criteria text = textCriteria();
+        if (text != null) {
+            criteria.add(text);
+        }
+        criteria.addAll(fieldCriteria(null));
+        if (criteria.isEmpty()) {
+            return new Criteria();
+        }
+        return criteria.size() == 1 ? criteria.get(0) : new Criteria().andOperator(criteria);
+    }
+
+    /**
+     * Text matching of the list endpoint: case-insensitive substring on name, or on name/description/sku/category
+     * for a free-text search; SKU is an exact match
+     *
+     * @return The text criteria, or null when no text filter is active
+     */
+    public Criteria textCriteria() {
+        List<Criteria> criteria = new ArrayList<>();
+        if (search != null) {
+            String pattern = Pattern.quote(search);
+            criteria.add(new Criteria().orOperator(
+                    Criteria.where("name").regex(pattern, "i"),
+                    Criteria.where("description").regex(pattern, "i"),
+                    Criteria.where("sku").regex(pattern, "i"),
+                    Criteria.where("category").regex(pattern, "i")));
+        }
+        if (name != null) {
+            criteria.add(Criteria.where("name").regex(Pattern.quote(name), "i"));
+        }
+        if (sku != null) {
+            criteria.add(Criteria.where("sku").is(sku));
+        }
+        if (criteria.isEmpty()) {
+            return null;
+        }
+        return criteria.size() == 1 ? criteria.get(0) : new Criteria().andOperator(criteria);
+    }
+
+    /**
+     * Criteria of the category, status, price and quantity filters
+     *
+     * @param excluded Field whose filter is left out (category, status, price or quantity), or null for none
+     * @return One criteria per active filter bound
+     */
+    public List<Criteria> fieldCriteria(String excluded) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (!"category".equals(excluded) && category != null) {
+            criteria.add(Criteria.where("category").is(category));
+        }
+        if (!"status".equals(excluded) && status != null) {
+            criteria.add(Criteria.where("status").is(status.name()));
+        }
+        if (!"price".equals(excluded) && minPrice != null) {
+            criteria.add(Criteria.where("price").gte(new Decimal128(minPrice)));
+        }
+        if (!"price".equals(excluded) && maxPrice != null) {
+            criteria.add(Criteria.where("price").lte(new Decimal128(maxPrice)));
+        }
+        if (!"quantity".equals(excluded) && minQuantity != null) {
+            criteria.add(Criteria.where("quantity").gte(minQuantity));
+        }
+        if (!"quantity".equals(excluded) && maxQuantity != null) {
+            criteria.add(Criteria.where("quantity").lte(maxQuantity));
+        }
+        return criteria;
+    }
+
+    private static String trim(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static String lowerCase(String value) {
+        String trimmed = trim(value);
+        return trimmed == null ? null : trimmed.toLowerCase();
+    }
+}
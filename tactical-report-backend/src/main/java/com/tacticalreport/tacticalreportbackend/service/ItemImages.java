@@ -0,0 +1,128 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Helpers for the base64 data URLs stored in Item.image
+ * Only PNG, JPEG, GIF and WebP are accepted. The stored content type is taken from the image's magic bytes rather
+ * than from the client, so a blob is never served as HTML or script from the API origin.
+ */
+public final class ItemImages {
+
+    private static final String DATA_URL_PREFIX = "data:";
+    private static final String BASE64_MARKER = ";base64,";
+
+    public static final Set<String> RASTER_TYPES = Set.of("image/png", "image/jpeg", "image/gif", "image/webp");
+
+    /**
+     * Bytes needed to recognise every raster type (WebP: "RIFF", 4-byte size, "WEBP")
+     */
+    public static final int SNIFF_LENGTH = 12;
+
+    private static final String UNSUPPORTED = "Image must be PNG, JPEG, GIF or WebP";
+
+    private ItemImages() {
+    }
+
+    /**
+     * Decoded image bytes with the content type declared by the data URL
+     */
+    public record DecodedImage(String contentType, byte[] bytes) {
+    }
+
+    /**
+     * Decode a data URL ("data:image/png;base64,...") or bare base64 string
+     *
+     * @param image The encoded image
+     * @return The decoded image, with the content type detected from its bytes
+     * @throws IllegalArgumentException if the value is not valid base64 or not a supported raster image
+     */
+    public static DecodedImage decode(String image) {
+        String declaredType = null;
+        String payload = image;
+        if (image.startsWith(DATA_URL_PREFIX)) {
+            int marker = image.indexOf(BASE64_MARKER);
+            if (marker < 0) {
+                throw new IllegalArgumentException("Image must be a base64 data URL");
+            }
+            declaredType = image.substring(DATA_URL_PREFIX.length(), marker);
+            payload = image.substring(marker + BASE64_MARKER.length());
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getMimeDecoder().decode(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Image is not valid base64", e);
+        }
+        return new DecodedImage(requireRasterType(declaredType, bytes), bytes);
+    }
+
+    /**
+     * Check the declared type against the allowlist and detect the actual type from the leading bytes
+     *
+     * @param declaredType Content type sent by the client (optional)
+     * @param header       At least the first {@value #SNIFF_LENGTH} bytes of the image, if it has that many
+     * @return The detected content type
+     * @throws IllegalArgumentException if either type is not PNG, JPEG, GIF or WebP
+     */
+    public static String requireRasterType(String declaredType, byte[] header) {
+        if (declaredType != null && !isRasterType(declaredType)) {
+            throw new IllegalArgumentException(UNSUPPORTED + ", got: " + declaredType);
+        }
+        String detected = sniff(header);
+        if (detected == null) {
+            throw new IllegalArgumentException(UNSUPPORTED);
+        }
+        return detected;
+    }
+
+    /**
+     * @return Whether the content type (parameters ignored) is PNG, JPEG, GIF or WebP
+     */
+    public static boolean isRasterType(String contentType) {
+        return contentType != null && RASTER_TYPES.contains(mediaTypeOf(contentType));
+    }
+
+    /**
+     * @return The stored content type if it is a supported raster type, otherwise application/octet-stream
+     */
+    public static String safeContentType(String contentType) {
+        return isRasterType(contentType) ? contentType : "application/octet-stream";
+    }
+
+    static String sniff(byte[] header) {
+        if (startsWith(header, 0, 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n')) {
+            return "image/png";
+        }
+        if (startsWith(header, 0, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(header, 0, 'G', 'I', 'F', '8')) {
+            return "image/gif";
+        }
+        if (startsWith(header, 0, 'R', 'I', 'F', 'F') && startsWith(header, 8, 'W', 'E', 'B', 'P')) {
+            return "image/webp";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] bytes, int offset, int... magic) {
+        if (bytes.length < offset + magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((bytes[offset + i] & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String mediaTypeOf(String contentType) {
+        int parameters = contentType.indexOf(';');
+        return (parameters < 0 ? contentType : contentType.substring(0, parameters)).trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,398 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.dto.ItemQuantilesResponse;
+import com.tacticalreport.tacticalreportbackend.dto.ItemQuantilesResponse.SketchQuantiles;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangedEvent;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemQuantileSketch;
+import com.tacticalreport.tacticalreportbackend.repository.ItemRepository;
+import com.tdunning.math.stats.MergingDigest;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Approximate price and quantity percentiles per category, kept in memory as t-digest sketches
+ * - Every item write adds the new values to the sketches of its category and of the whole catalog
+ * - t-digests cannot forget values, so updates and deletions are only counted; once they exceed a share of a
+ *   sketch, the next maintenance run rebuilds all sketches from a projected cursor scan of the items
+ * - Sketches are snapshotted to Mongo periodically; on startup the snapshot is loaded first so quantiles are
+ *   served immediately, then a background scan rebuilds them from the catalog
+ * Each sketch uses a few KB regardless of catalog size, and a quantile lookup is a walk over its centroids.
+ */
+@Service
+@Slf4j
+public class ItemQuantileService {
+
+    static final String ALL = "all";
+
+    private final MongoTemplate mongoTemplate;
+    private final ItemRepository itemRepository;
+    private final double compression;
+    private final double staleRatio;
+    private final int maxCategories;
+    private final int maxPendingEvents;
+    private final Duration rebuildInterval;
+
+    private volatile Map<String, Sketch> sketches = new ConcurrentHashMap<>();
+    private volatile Instant rebuiltAt;
+
+    /**
+     * Writes seen while a rebuild scan runs, replayed onto the new sketches before they are swapped in
+     * Past max-pending-events the rebuild is abandoned, since its sketches would miss the writes not kept
+     */
+    private List<ItemChangedEvent> pendingDuringRebuild;
+    private boolean pendingOverflowed;
+    private final Object rebuildLock = new Object();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "item-quantile-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ItemQuantileService(
+            MongoTemplate mongoTemplate,
+            ItemRepository itemRepository,
+            @Value("${items.quantiles.compression:100}") double compression,
+            @Value("${items.quantiles.stale-ratio:0.2}") double staleRatio,
+            @Value("${items.quantiles.max-categories:1000}") int maxCategories,
+            @Value("${items.quantiles.max-pending-events:10000}") int maxPendingEvents,
+            @Value("${items.quantiles.rebuild-interval:6h}") Duration rebuildInterval
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.itemRepository = itemRepository;
+        this.compression = compression;
+        this.staleRatio = staleRatio;
+        this.maxCategories = maxCategories;
+        this.maxPendingEvents = maxPendingEvents;
+        this.rebuildInterval = rebuildInterval;
+    }
+
+    /**
+     * Get approximate quantiles of price and quantity
+     *
+     * @param category  Only this category (optional, all categories and the overall distribution if null)
+     * @param quantiles Quantiles between 0 and 1
+     * @return Quantiles per category, ordered by category
+     * @throws IllegalArgumentException if a quantile is outside [0, 1]
+     */
+    public ItemQuantilesResponse getQuantiles(String category, List<Double> quantiles) {
+        for (Double q : quantiles) {
+            if (q == null || q < 0 || q > 1) {
+                throw new IllegalArgumentException("Quantiles must be between 0 and 1, got: " + q);
+            }
+        }
+        Map<String, Sketch> current = sketches;
+        List<SketchQuantiles> categories = new ArrayList<>();
+        SketchQuantiles overall = null;
+        if (category != null) {
+            Sketch sketch = current.get(idOf(category));
+            if (sketch != null) {
+                categories.add(sketch.quantiles(quantiles));
+            }
+        } else {
+            current.entrySet().stream()
+                    .filter(entry -> !ALL.equals(entry.getKey()))
+                    .map(entry -> entry.getValue().quantiles(quantiles))
+                    .sorted(Comparator.comparing(SketchQuantiles::getCategory,
+                            Comparator.nullsFirst(Comparator.naturalOrder())))
+                    .forEach(categories::add);
+            Sketch all = current.get(ALL);
+            overall = all == null ? new Sketch(null, compression).quantiles(quantiles) : all.quantiles(quantiles);
+        }
+        return ItemQuantilesResponse.builder()
+                .quantiles(quantiles)
+                .overall(overall)
+                .categories(categories)
+                .rebuiltAt(rebuiltAt)
+                .build();
+    }
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        // Recorded and applied under one lock, so a rebuild cannot swap in between and replay the event twice
+        synchronized (rebuildLock) {
+            if (pendingDuringRebuild != null && !pendingOverflowed) {
+                if (pendingDuringRebuild.size() < maxPendingEvents) {
+                    pendingDuringRebuild.add(event);
+                } else {
+                    pendingOverflowed = true;
+                    pendingDuringRebuild.clear();
+                }
+            }
+            apply(sketches, event);
+        }
+    }
+
+    /**
+     * Load the last snapshot, then rebuild from the catalog, both off the startup thread
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuildExecutor.execute(() -> {
+            loadSnapshot();
+            rebuild();
+        });
+    }
+
+    /**
+     * Rebuild stale or expired sketches and snapshot them, on the rebuild thread so the scheduler is not blocked
+     */
+    @Scheduled(initialDelayString = "${items.quantiles.snapshot-interval-ms:300000}",
+            fixedDelayString = "${items.quantiles.snapshot-interval-ms:300000}")
+    public void maintain() {
+        rebuildExecutor.execute(() -> {
+            boolean stale = sketches.values().stream().anyMatch(sketch -> sketch.isStale(staleRatio));
+            boolean expired = rebuiltAt == null || rebuiltAt.isBefore(Instant.now().minus(rebuildInterval));
+            if (stale || expired) {
+                rebuild();
+            }
+            snapshot();
+        });
+    }
+
+    void loadSnapshot() {
+        try {
+            Map<String, Sketch> loaded = new ConcurrentHashMap<>();
+            for (ItemQuantileSketch snapshot : mongoTemplate.findAll(ItemQuantileSketch.class)) {
+                loaded.put(snapshot.getId(), Sketch.fromSnapshot(snapshot));
+            }
+            synchronized (rebuildLock) {
+                if (rebuiltAt == null) {
+                    sketches = loaded;
+                }
+            }
+            log.info("Loaded {} quantile sketches from snapshot", loaded.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not load quantile sketch snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Build fresh sketches from a cursor over the items collection (summary projection, no description or image)
+     */
+    void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            synchronized (rebuildLock) {
+                pendingDuringRebuild = new ArrayList<>();
+                pendingOverflowed = false;
+            }
+            long started = System.nanoTime();
+            Map<String, Sketch> rebuilt = new ConcurrentHashMap<>();
+            try (Stream<Item> items = itemRepository.streamSummaries()) {
+                items.forEach(item -> add(rebuilt, item));
+            }
+            synchronized (rebuildLock) {
+                if (pendingOverflowed) {
+                    log.warn("More than {} item writes during the quantile rebuild scan, keeping the current sketches "
+                            + "until the next maintenance run", maxPendingEvents);
+                    return;
+                }
+                for (ItemChangedEvent event : pendingDuringRebuild) {
+                    apply(rebuilt, event);
+                }
+                sketches = rebuilt;
+                rebuiltAt = Instant.now();
+            }
+            log.info("Rebuilt {} quantile sketches in {} ms", rebuilt.size(),
+                    Duration.ofNanos(System.nanoTime() - started).toMillis());
+        } catch (RuntimeException e) {
+            log.warn("Could not rebuild quantile sketches: {}", e.getMessage());
+        } finally {
+            synchronized (rebuildLock) {
+                pendingDuringRebuild = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Write every sketch to Mongo and drop snapshots of categories that no longer exist
+     */
+    void snapshot() {
+        try {
+            Map<String, Sketch> current = sketches;
+            LocalDateTime now = LocalDateTime.now();
+            for (Map.Entry<String, Sketch> entry : current.entrySet()) {
+                mongoTemplate.save(entry.getValue().toSnapshot(entry.getKey(), now));
+            }
+            mongoTemplate.remove(Query.query(Criteria.where("_id").nin(current.keySet())), ItemQuantileSketch.class);
+        } catch (RuntimeException e) {
+            log.warn("Could not snapshot quantile sketches: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private void apply(Map<String, Sketch> target, ItemChangedEvent event) {
+        Item before = event.getBefore();
+        Item after = event.getAfter();
+        if (before != null && after != null && sameValues(before, after)) {
+            return;
+        }
+        if (before != null) {
+            removed(target, before);
+        }
+        if (after != null) {
+            add(target, after);
+        }
+    }
+
+    private void add(Map<String, Sketch> target, Item item) {
+        if (item.getPrice() == null && item.getQuantity() == null) {
+            return;
+        }
+        target.computeIfAbsent(ALL, id -> new Sketch(null, compression)).add(item);
+        Sketch category = sketchOf(target, item.getCategory());
+        if (category != null) {
+            category.add(item);
+        }
+    }
+
+    private void removed(Map<String, Sketch> target, Item item) {
+        Sketch all = target.get(ALL);
+        if (all != null) {
+            all.removed();
+        }
+        Sketch category = target.get(idOf(item.getCategory()));
+        if (category != null) {
+            category.removed();
+        }
+    }
+
+    private Sketch sketchOf(Map<String, Sketch> target, String category) {
+        String id = idOf(category);
+        Sketch sketch = target.get(id);
+        if (sketch == null) {
+            if (target.size() > maxCategories) {
+                return null;
+            }
+            sketch = target.computeIfAbsent(id, key -> new Sketch(category, compression));
+        }
+        return sketch;
+    }
+
+    private static boolean sameValues(Item before, Item after) {
+        return Objects.equals(before.getCategory(), after.getCategory())
+                && Objects.equals(before.getQuantity(), after.getQuantity())
+                && (before.getPrice() == null ? after.getPrice() == null
+                : after.getPrice() != null && before.getPrice().compareTo(after.getPrice()) == 0);
+    }
+
+    static String idOf(String category) {
+        return category == null ? "category" : "category:" + category;
+    }
+
+    /**
+     * Label a quantile the way dashboards print it: 0.5 -> "p50", 0.999 -> "p99.9"
+     */
+    static String labelOf(double quantile) {
+        return "p" + BigDecimal.valueOf(quantile).movePointRight(2).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Price and quantity digests of one category; MergingDigest is not thread-safe, so access is synchronized
+     */
+    static final class Sketch {
+
+        private final String category;
+        private final MergingDigest price;
+        private final MergingDigest quantity;
+        private long removals;
+
+        Sketch(String category, double compression) {
+            this(category, new MergingDigest(compression), new MergingDigest(compression), 0);
+        }
+
+        private Sketch(String category, MergingDigest price, MergingDigest quantity, long removals) {
+            this.category = category;
+            this.price = price;
+            this.quantity = quantity;
+            this.removals = removals;
+        }
+
+        synchronized void add(Item item) {
+            if (item.getPrice() != null) {
+                price.add(item.getPrice().doubleValue());
+            }
+            if (item.getQuantity() != null) {
+                quantity.add(item.getQuantity());
+            }
+        }
+
+        synchronized void removed() {
+            removals++;
+        }
+
+        synchronized boolean isStale(double staleRatio) {
+            return removals > 0 && removals >= staleRatio * Math.max(price.size(), quantity.size());
+        }
+
+        synchronized SketchQuantiles quantiles(List<Double> quantiles) {
+            Map<String, BigDecimal> prices = new LinkedHashMap<>();
+            Map<String, Double> quantities = new LinkedHashMap<>();
+            for (double q : quantiles) {
+                String label = labelOf(q);
+                prices.put(label, price.size() == 0 ? null
+                        : BigDecimal.valueOf(price.quantile(q)).setScale(2, RoundingMode.HALF_UP));
+                quantities.put(label, quantity.size() == 0 ? null : quantity.quantile(q));
+            }
+            return SketchQuantiles.builder()
+                    .category(category)
+                    .count(Math.max(price.size(), quantity.size()))
+                    .price(prices)
+                    .quantity(quantities)
+                    .build();
+        }
+
+        synchronized ItemQuantileSketch toSnapshot(String id, LocalDateTime snapshotAt) {
+            return new ItemQuantileSketch(id, category, Math.max(price.size(), quantity.size()), removals,
+                    toBytes(price), toBytes(quantity), snapshotAt);
+        }
+
+        static Sketch fromSnapshot(ItemQuantileSketch snapshot) {
+            return new Sketch(snapshot.getCategory(),
+                    MergingDigest.fromBytes(ByteBuffer.wrap(snapshot.getPrice())),
+                    MergingDigest.fromBytes(ByteBuffer.wrap(snapshot.getQuantity())),
+                    snapshot.getRemovals());
+        }
+
+        private static byte[] toBytes(MergingDigest digest) {
+            ByteBuffer buffer = ByteBuffer.allocate(digest.byteSize());
+            digest.asBytes(buffer);
+            return buffer.array();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.cache.SingleFlight;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangedEvent;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing for the hottest item reads (by id, by category page)
+ * Concurrent requests for the same item or the same category page share one Mongo query, so a burst of identical
+ * reads after a deploy or a cache expiry costs one query. Writes stop sharing in-flight reads of the items and
+ * categories they touched, so a read issued after a write never joins a query that started before it.
+ */
+@Component
+public class ItemReadCoalescer {
+
+    private record CategoryPage(String category, int page, int size, Sort sort) {
+    }
+
+    private final boolean enabled;
+    private final SingleFlight<String, Optional<Item>> byId;
+    private final SingleFlight<CategoryPage, Page<Item>> byCategory;
+
+    public ItemReadCoalescer(
+            MeterRegistry meterRegistry,
+            @Value("${items.coalescing.enabled:true}") boolean enabled,
+            @Value("${items.coalescing.timeout:2s}") Duration timeout
+    ) {
+        this.enabled = enabled;
+        this.byId = new SingleFlight<>("findById", timeout, item -> item.map(ItemReadCoalescer::copy), meterRegistry);
+        this.byCategory = new SingleFlight<>("findByCategory", timeout, ItemReadCoalescer::copy, meterRegistry);
+    }
+
+    public Optional<Item> findById(String id, Supplier<Optional<Item>> loader) {
+        return enabled ? byId.execute(id, loader) : loader.get();
+    }
+
+    public Page<Item> findByCategory(String category, Pageable pageable, Supplier<Page<Item>> loader) {
+        if (!enabled || pageable.isUnpaged()) {
+            return loader.get();
+        }
+        CategoryPage key = new CategoryPage(category, pageable.getPageNumber(), pageable.getPageSize(),
+                pageable.getSort());
+        return byCategory.execute(key, loader);
+    }
+
+    /**
+     * Later reads of a changed item, or of its old and new category, start a fresh query
+     */
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        byId.forget(id -> id.equals(event.getItemId()));
+        String before = event.getBefore() == null ? null : event.getBefore().getCategory();
+        String after = event.getAfter() == null ? null : event.getAfter().getCategory();
+        byCategory.forget(key -> Objects.equals(key.category(), before) || Objects.equals(key.category(), after));
+    }
+
+    private static Item copy(Item item) {
+        Item copy = new Item();
+        BeanUtils.copyProperties(item, copy);
+        return copy;
+    }
+
+    private static Page<Item> copy(Page<Item> page) {
+        return new PageImpl<>(page.getContent().stream().map(ItemReadCoalescer::copy).toList(),
+                page.getPageable(), page.getTotalElements());
+    }
+}
@@ -0,0 +1,291 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.dto.ItemStatsResponse;
+import com.tacticalreport.tacticalreportbackend.dto.ItemStatsResponse.GroupStats;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangedEvent;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemRollup;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Incrementally maintained totals per category, per status and overall ("item_rollups")
+ * Every item write is turned into $inc deltas by subtracting the item's contribution before the change and adding
+ * its contribution after it, so summary reads touch a handful of rollup documents instead of the catalog.
+ * A failed increment never fails the write; a periodic reconciliation recomputes the totals with an aggregation
+ * and repairs any drift with compensating increments.
+ */
+@Service
+@Slf4j
+public class ItemRollupService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ItemStatsService itemStatsService;
+    private final ChangeSequenceService changeSequenceService;
+    private final int lowStockThreshold;
+
+    private final Counter updateFailures;
+    private final Counter driftRepairs;
+
+    public ItemRollupService(
+            MongoTemplate mongoTemplate,
+            ItemStatsService itemStatsService,
+            ChangeSequenceService changeSequenceService,
+            MeterRegistry meterRegistry,
+            @Value("${items.stats.low-stock-threshold:5}") int lowStockThreshold
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.itemStatsService = itemStatsService;
+        this.changeSequenceService = changeSequenceService;
+        this.lowStockThreshold = lowStockThreshold;
+        this.updateFailures = Counter.builder("items.rollups.update.failures").register(meterRegistry);
+        this.driftRepairs = Counter.builder("items.rollups.drift.repaired").register(meterRegistry);
+    }
+
+    /**
+     * Get summary statistics from the rollups without scanning items
+     * Price statistics cannot be maintained incrementally and are left null
+     *
+     * @return Totals, per-category and per-status counts, stock units and inventory value
+     */
+    public ItemStatsResponse getSummary() {
+        Map<String, ItemRollup> rollups = mongoTemplate.findAll(ItemRollup.class).stream()
+                .collect(Collectors.toMap(ItemRollup::getId, Function.identity()));
+        ItemRollup total = rollups.getOrDefault(ItemRollup.TOTAL, empty(ItemRollup.TOTAL, null));
+
+        return ItemStatsResponse.builder()
+                .totalItems(total.getCount())
+                .totalQuantity(total.getQuantity())
+                .totalValue(valueOf(total))
+                .lowStockItems(total.getLowStockItems())
+                .outOfStockItems(total.getOutOfStockItems())
+                .lowStockThreshold(lowStockThreshold)
+                .byCategory(groups(rollups, ItemRollup.CATEGORY))
+                .byStatus(groups(rollups, ItemRollup.STATUS))
+                .generatedAt(Instant.now())
+                .build();
+    }
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        Map<String, Delta> deltas = new LinkedHashMap<>();
+        if (event.getBefore() != null) {
+            addContribution(deltas, event.getBefore(), -1);
+        }
+        if (event.getAfter() != null) {
+            addContribution(deltas, event.getAfter(), 1);
+        }
+        deltas.values().removeIf(Delta::isZero);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            apply(deltas);
+        } catch (RuntimeException e) {
+            updateFailures.increment();
+            log.warn("Could not update rollups for item {}, reconciliation will repair them: {}",
+                    event.getItemId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Recompute the rollups from the items collection and repair drift
+     * The aggregation reads the primary, where the rollups are written, so replication lag is not taken for drift
+     * A write whose item is already in the aggregate but whose increment has not landed yet would look like drift,
+     * so the round only runs while no write of this instance is in flight, and is skipped if any instance allocated
+     * a change sequence or the rollups changed while aggregating. Corrections are applied as increments, so they
+     * compose with writes that happen while the repair is in flight.
+     *
+     * @return Number of rollup documents repaired
+     */
+    @Scheduled(initialDelayString = "${items.rollups.reconcile-initial-delay-ms:30000}",
+            fixedDelayString = "${items.rollups.reconcile-interval-ms:900000}")
+    public int reconcile() {
+        try {
+            if (changeSequenceService.stableWatermark() != Long.MAX_VALUE) {
+                log.debug("Item writes in flight, retrying rollup reconciliation next round");
+                return 0;
+            }
+            long latestSequence = changeSequenceService.latestSequence();
+            Map<String, ItemRollup> before = currentRollups();
+            ItemStatsResponse stats = itemStatsService.aggregateOnPrimary(lowStockThreshold);
+            Map<String, ItemRollup> actual = currentRollups();
+            if (changeSequenceService.latestSequence() != latestSequence || !before.equals(actual)) {
+                log.debug("Items or rollups changed during reconciliation, retrying next round");
+                return 0;
+            }
+
+            Map<String, Delta> corrections = new LinkedHashMap<>();
+            Map<String, Delta> expected = expectedRollups(stats);
+            for (Map.Entry<String, Delta> entry : expected.entrySet()) {
+                ItemRollup current = actual.get(entry.getKey());
+                Delta correction = current == null ? entry.getValue() : entry.getValue().minus(Delta.of(current));
+                if (!correction.isZero()) {
+                    corrections.put(entry.getKey(), correction);
+                }
+            }
+            for (ItemRollup stale : actual.values()) {
+                if (!expected.containsKey(stale.getId())) {
+                    Delta correction = Delta.of(stale).negate();
+                    if (!correction.isZero()) {
+                        corrections.put(stale.getId(), correction);
+                    }
+                }
+            }
+
+            if (!corrections.isEmpty()) {
+                log.warn("Repairing drift in {} item rollups: {}", corrections.size(), corrections.keySet());
+                apply(corrections);
+                driftRepairs.increment(corrections.size());
+            }
+            return corrections.size();
+        } catch (RuntimeException e) {
+            log.warn("Item rollup reconciliation failed: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private void addContribution(Map<String, Delta> deltas, Item item, int sign) {
+        int quantity = item.getQuantity() == null ? 0 : item.getQuantity();
+        BigDecimal price = item.getPrice() == null ? BigDecimal.ZERO : item.getPrice();
+        Delta contribution = new Delta(
+                ItemRollup.TOTAL, null,
+                sign,
+                (long) sign * quantity,
+                price.multiply(BigDecimal.valueOf(quantity)).multiply(BigDecimal.valueOf(sign)),
+                quantity > 0 && quantity <= lowStockThreshold ? sign : 0,
+                quantity <= 0 ? sign : 0);
+
+        String status = item.getStatus() == null ? null : item.getStatus().name();
+        merge(deltas, contribution);
+        merge(deltas, contribution.withKey(ItemRollup.CATEGORY, item.getCategory()));
+        merge(deltas, contribution.withKey(ItemRollup.STATUS, status));
+    }
+
+    private static void merge(Map<String, Delta> deltas, Delta delta) {
+        deltas.merge(ItemRollup.idOf(delta.dimension(), delta.key()), delta, Delta::plus);
+    }
+
+    private void apply(Map<String, Delta> deltas) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ItemRollup.class);
+        deltas.forEach((id, delta) -> bulk.upsert(
+                Query.query(Criteria.where("_id").is(id)),
+                new Update()
+                        .setOnInsert("dimension", delta.dimension())
+                        .setOnInsert("key", delta.key())
+                        .inc("count", delta.count())
+                        .inc("quantity", delta.quantity())
+                        .inc("value", new Decimal128(delta.value()))
+                        .inc("lowStockItems", delta.lowStockItems())
+                        .inc("outOfStockItems", delta.outOfStockItems())));
+        bulk.execute();
+    }
+
+    private Map<String, ItemRollup> currentRollups() {
+        Map<String, ItemRollup> rollups = new HashMap<>();
+        for (ItemRollup rollup : mongoTemplate.findAll(ItemRollup.class)) {
+            rollups.put(rollup.getId(), rollup);
+        }
+        return rollups;
+    }
+
+    private static Map<String, Delta> expectedRollups(ItemStatsResponse stats) {
+        Map<String, Delta> expected = new LinkedHashMap<>();
+        if (stats.getTotalItems() > 0) {
+            expected.put(ItemRollup.TOTAL, new Delta(ItemRollup.TOTAL, null, stats.getTotalItems(),
+                    stats.getTotalQuantity(), stats.getTotalValue(), stats.getLowStockItems(),
+                    stats.getOutOfStockItems()));
+        }
+        for (GroupStats group : stats.getByCategory()) {
+            Delta delta = Delta.of(ItemRollup.CATEGORY, group);
+            expected.put(ItemRollup.idOf(delta.dimension(), delta.key()), delta);
+        }
+        for (GroupStats group : stats.getByStatus()) {
+            Delta delta = Delta.of(ItemRollup.STATUS, group);
+            expected.put(ItemRollup.idOf(delta.dimension(), delta.key()), delta);
+        }
+        return expected;
+    }
+
+    private static List<GroupStats> groups(Map<String, ItemRollup> rollups, String dimension) {
+        return rollups.values().stream()
+                .filter(rollup -> dimension.equals(rollup.getDimension()) && rollup.getCount() > 0)
+                .sorted(Comparator.comparing(ItemRollup::getKey, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .map(rollup -> GroupStats.builder()
+                        .key(rollup.getKey())
+                        .count(rollup.getCount())
+                        .totalQuantity(rollup.getQuantity())
+                        .totalValue(valueOf(rollup))
+                        .lowStockItems(rollup.getLowStockItems())
+                        .outOfStockItems(rollup.getOutOfStockItems())
+                        .build())
+                .toList();
+    }
+
+    private static BigDecimal valueOf(ItemRollup rollup) {
+        return rollup.getValue() == null ? BigDecimal.ZERO : rollup.getValue();
+    }
+
+    private static ItemRollup empty(String dimension, String key) {
+        return new ItemRollup(ItemRollup.idOf(dimension, key), dimension, key, 0, 0, BigDecimal.ZERO, 0, 0);
+    }
+
+    /**
+     * Change to (or content of) one rollup document
+     */
+    record Delta(String dimension, String key, long count, long quantity, BigDecimal value,
+                 long lowStockItems, long outOfStockItems) {
+
+        static Delta of(ItemRollup rollup) {
+            return new Delta(rollup.getDimension(), rollup.getKey(), rollup.getCount(), rollup.getQuantity(),
+                    valueOf(rollup), rollup.getLowStockItems(), rollup.getOutOfStockItems());
+        }
+
+        static Delta of(String dimension, GroupStats group) {
+            return new Delta(dimension, group.getKey(), group.getCount(), group.getTotalQuantity(),
+                    group.getTotalValue(), group.getLowStockItems(), group.getOutOfStockItems());
+        }
+
+        Delta withKey(String dimension, String key) {
+            return new Delta(dimension, key, count, quantity, value, lowStockItems, outOfStockItems);
+        }
+
+        Delta plus(Delta other) {
+            return new Delta(dimension, key, count + other.count, quantity + other.quantity, value.add(other.value),
+                    lowStockItems + other.lowStockItems, outOfStockItems + other.outOfStockItems);
+        }
+
+        Delta negate() {
+            return new Delta(dimension, key, -count, -quantity, value.negate(), -lowStockItems, -outOfStockItems);
+        }
+
+        Delta minus(Delta other) {
+            return plus(other.negate());
+        }
+
+        boolean isZero() {
+            return count == 0 && quantity == 0 && value.signum() == 0 && lowStockItems == 0 && outOfStockItems == 0;
+        }
+    }
+}
@@ -1,18 +1,36 @@
 package com.tacticalreport.tacticalreportbackend.service;
 
+import com.tacticalreport.tacticalreportbackend.event.ItemChangeType;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangedEvent;
 import com.tacticalreport.tacticalreportbackend.exception.DuplicateSkuException;
 import com.tacticalreport.tacticalreportbackend.exception.ItemNotFoundException;
+import com.tacticalreport.tacticalreportbackend.exception.PayloadTooLargeException;
+import com.tacticalreport.tacticalreportbackend.exception.PreconditionFailedException;
 import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemImageRef;
 import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import com.tacticalreport.tacticalreportbackend.model.ItemTombstone;
+import com.tacticalreport.tacticalreportbackend.model.ItemVersion;
 import com.tacticalreport.tacticalreportbackend.repository.ItemRepository;
+import com.tacticalreport.tacticalreportbackend.repository.ItemTombstoneRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +38,13 @@ import java.util.List;
 public class ItemService {
 
     private final ItemRepository itemRepository;
+    private final ItemTombstoneRepository itemTombstoneRepository;
+    private final ChangeSequenceService changeSequenceService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImageBlobStore imageBlobStore;
+    private final ItemReadCoalescer itemReadCoalescer;
+    private final ReadRouting readRouting;
+    private final ItemArchiveService itemArchiveService;
 
     /**
      * Create a new item
@@ -53,13 +78,30 @@ public class ItemService {
             item.setStatus(ItemStatus.OUT_OF_STOCK);
         }
 
-        Item savedItem = itemRepository.save(item);
+        // The image goes to the blob store; the document only keeps its hash
+        String imageHash = hasImage(item) ? storeImage(item.getImage()) : null;
+        item.setImageHash(imageHash);
+        item.setImage(null);
+
+        Item savedItem;
+        long sequence = changeSequenceService.begin();
+        try {
+            item.setChangeSequence(sequence);
+            savedItem = itemRepository.save(item);
+        } catch (RuntimeException e) {
+            imageBlobStore.release(imageHash);
+            throw e;
+        } finally {
+            changeSequenceService.complete(sequence);
+        }
         log.info("Item created successfully with ID: {}", savedItem.getId());
+        publishChange(ItemChangeType.CREATED, savedItem.getId(), null, savedItem);
         return savedItem;
     }
 
     /**
      * Get item by ID
+     * Concurrent reads of the same item share one query
      *
      * @param id The item ID
      * @return The item
@@ -68,6 +110,35 @@ public class ItemService {
     public Item getItemById(String id) {
         log.debug("Fetching item with ID: {}", id);
 
+        return itemReadCoalescer.findById(id, () -> itemRepository.findById(id))
+                .orElseThrow(() -> {
+                    log.error("Item not found with ID: {}", id);
+                    return new ItemNotFoundException(id);
+                });
+    }
+
+    /**
+     * Get item by ID, falling back to the archive
+     *
+     * @param id              The item ID
+     * @param includeArchived Also look in the archive when the item is not live
+     * @return The item; archived items have archivedAt set
+     * @throws ItemNotFoundException if item not found
+     */
+    public Item getItemById(String id, boolean includeArchived) {
+        if (!includeArchived) {
+            return getItemById(id);
+        }
+        return itemRepository.findById(id)
+                .or(() -> itemArchiveService.findArchived(id))
+                .orElseThrow(() -> new ItemNotFoundException(id));
+    }
+
+    /**
+     * Load the current document for a write, bypassing read coalescing
+     * The result is modified in place, so it must not be shared with concurrent readers
+     */
+    private Item findForUpdate(String id) {
         return itemRepository.findById(id)
                 .orElseThrow(() -> {
                     log.error("Item not found with ID: {}", id);
@@ -76,21 +147,41 @@ public class ItemService {
     }
 
     /**
-     * Get all items with pagination
+     * Get only the version fields of an item, used to answer conditional requests
      *
-     * @param pageable Pagination information (page number, size, sort)
-     * @return Page of items with pagination metadata
+     * @param id The item ID
+     * @return The item's version projection
+     * @throws ItemNotFoundException if item not found
      */
-    public Page<Item> getAllItems(Pageable pageable) {
+    public ItemVersion getItemVersion(String id) {
+        log.debug("Fetching version of item with ID: {}", id);
 
-        org.springframework.data.domain.Sort defaultSort =
-                org.springframework.data.domain.Sort.by(org.springframework.data.domain.Sort.Order.desc("createdAt"));
+        return itemRepository.findVersionById(id)
+                .orElseThrow(() -> new ItemNotFoundException(id));
+    }
 
-        Pageable effectivePageable = pageable.getSort().isUnsorted()
-                ? org.springframework.data.domain.PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), defaultSort)
-                : org.springframework.data.domain.PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), defaultSort.and(pageable.getSort()));
+    /**
+     * Get only the image hash of an item, used to serve renditions without loading the inline image
+     *
+     * @param id The item ID
+     * @return The item's image projection
+     * @throws ItemNotFoundException if item not found
+     */
+    public ItemImageRef getItemImageRef(String id) {
+        return itemRepository.findImageRefById(id)
+                .orElseThrow(() -> new ItemNotFoundException(id));
+    }
 
-        Page<Item> itemsPage = itemRepository.findAll(effectivePageable);
+    /**
+     * Get all items with pagination, newest first unless another sort is requested
+     *
+     * @param pageable Pagination information (page number, size, sort)
+     * @return Page of items with pagination metadata
+     * @throws IllegalArgumentException if the sort is not backed by an index (see ItemSort)
+     */
+    public Page<Item> getAllItems(Pageable pageable) {
+        Pageable effectivePageable = ItemSort.resolve(pageable, ItemSort.NEWEST_FIRST, null);
+        Page<Item> itemsPage = readRouting.secondary(() -> itemRepository.findAll(effectivePageable));
         log.info("Found {} items on page {} of {}",
                 itemsPage.getNumberOfElements(),
                 itemsPage.getNumber() + 1,
@@ -104,6 +195,7 @@ public class ItemService {
      * - Item must exist
      * - SKU must be unique (if changed)
      * - Status auto-updates based on quantity
+     * - A new image replaces the stored one; sending back the current imageHash without an image keeps it
      *
      * @param id          The item ID to update
      * @param itemDetails The updated item details
@@ -112,9 +204,24 @@ public class ItemService {
      * @throws DuplicateSkuException if new SKU already exists
      */
     public Item updateItem(String id, Item itemDetails) {
+        return updateItem(id, itemDetails, null);
+    }
+
+    /**
+     * Update an existing item if it still matches the client's ETag
+     *
+     * @param id          The item ID to update
+     * @param itemDetails The updated item details
+     * @param ifMatch     If-Match header value, or null for an unconditional update
+     * @return The updated item
+     * @throws PreconditionFailedException if the item no longer matches If-Match
+     */
+    public Item updateItem(String id, Item itemDetails, String ifMatch) {
         log.info("Updating item with ID: {}", id);
 
-        Item existingItem = getItemById(id);
+        Item existingItem = findForUpdate(id);
+        checkPrecondition(id, existingItem, ifMatch);
+        Item before = snapshot(existingItem);
 
         if (itemDetails.getSku() != null &&
                 !itemDetails.getSku().equals(existingItem.getSku()) &&
@@ -130,7 +237,14 @@ public class ItemService {
         existingItem.setQuantity(itemDetails.getQuantity());
         existingItem.setCategory(itemDetails.getCategory());
         existingItem.setSku(itemDetails.getSku());
-        existingItem.setImage(itemDetails.getImage());
+
+        String previousImageHash = existingItem.getImageHash();
+        boolean newImage = hasImage(itemDetails);
+        boolean keepImage = !newImage && previousImageHash != null
+                && previousImageHash.equals(itemDetails.getImageHash());
+        String imageHash = newImage ? storeImage(itemDetails.getImage()) : keepImage ? previousImageHash : null;
+        existingItem.setImageHash(imageHash);
+        existingItem.setImage(null);
 
         if (itemDetails.getQuantity() != null) {
             if (itemDetails.getQuantity() == 0) {
@@ -143,26 +257,132 @@ public class ItemService {
             }
         }
 
-        Item updatedItem = itemRepository.save(existingItem);
+        Item updatedItem;
+        long sequence = changeSequenceService.begin();
+        try {
+            existingItem.setChangeSequence(sequence);
+            updatedItem = save(existingItem, before, ifMatch);
+        } catch (RuntimeException e) {
+            if (newImage) {
+                imageBlobStore.release(imageHash);
+            }
+            throw e;
+        } finally {
+            changeSequenceService.complete(sequence);
+        }
+        if (!keepImage) {
+            imageBlobStore.release(previousImageHash);
+        }
         log.info("Item updated successfully: {}", updatedItem.getId());
+        publishChange(isStockOnlyChange(before, updatedItem) ? ItemChangeType.STOCK_CHANGED : ItemChangeType.UPDATED,
+                updatedItem.getId(), before, updatedItem);
+        return updatedItem;
+    }
+
+    /**
+     * Replace an item's image with bytes streamed from an upload
+     * The upload goes straight to the blob store in fixed-size chunks, hashed on the fly
+     *
+     * @param id          The item ID
+     * @param content     The image bytes
+     * @param contentType The image content type (PNG, JPEG, GIF or WebP, checked against the leading bytes)
+     * @param ifMatch     If-Match header value, or null for an unconditional update
+     * @return The updated item
+     * @throws ItemNotFoundException       if item not found
+     * @throws PreconditionFailedException if the item no longer matches If-Match
+     * @throws PayloadTooLargeException    if the upload exceeds the image size limit
+     */
+    public Item replaceImage(String id, InputStream content, String contentType, String ifMatch) throws IOException {
+        log.info("Replacing image of item with ID: {}", id);
+        if (!ItemImages.isRasterType(contentType)) {
+            throw new IllegalArgumentException("Image must be PNG, JPEG, GIF or WebP, got: " + contentType);
+        }
+        // Fail fast before reading the body
+        getItemVersion(id);
+
+        BufferedInputStream image = new BufferedInputStream(content);
+        image.mark(ItemImages.SNIFF_LENGTH);
+        String detectedType = ItemImages.requireRasterType(contentType, image.readNBytes(ItemImages.SNIFF_LENGTH));
+        image.reset();
+        String imageHash = imageBlobStore.put(image, imageBlobStore.getMaxImageBytes(), detectedType);
+
+        Item existingItem;
+        try {
+            existingItem = findForUpdate(id);
+            checkPrecondition(id, existingItem, ifMatch);
+        } catch (RuntimeException e) {
+            imageBlobStore.release(imageHash);
+            throw e;
+        }
+        Item before = snapshot(existingItem);
+        String previousImageHash = existingItem.getImageHash();
+        existingItem.setImageHash(imageHash);
+        existingItem.setImage(null);
+
+        Item updatedItem;
+        long sequence = changeSequenceService.begin();
+        try {
+            existingItem.setChangeSequence(sequence);
+            updatedItem = save(existingItem, before, ifMatch);
+        } catch (RuntimeException e) {
+            imageBlobStore.release(imageHash);
+            throw e;
+        } finally {
+            changeSequenceService.complete(sequence);
+        }
+        imageBlobStore.release(previousImageHash);
+        log.info("Image of item {} replaced with {}", id, imageHash);
+        publishChange(ItemChangeType.UPDATED, id, before, updatedItem);
         return updatedItem;
     }
 
     /**
      * Delete an item by ID
      * This operation is idempotent - deleting a non-existent item will not throw an error
+     * A tombstone is recorded first so delta-sync clients learn about the deletion, and the item is kept in the
+     * archive for the deleted retention window (soft delete)
      *
      * @param id The item ID to delete
      */
     public void deleteItem(String id) {
+        deleteItem(id, null);
+    }
+
+    /**
+     * Delete an item if it still matches the client's ETag
+     * A conditional delete of a missing item fails the precondition instead of being a no-op
+     * The item is claimed by stamping the new change sequence only while it is still at the checked version, so a
+     * write that lands after the check fails the delete
+     *
+     * @param id      The item ID to delete
+     * @param ifMatch If-Match header value, or null for an unconditional delete
+     * @throws PreconditionFailedException if the item no longer matches If-Match
+     */
+    public void deleteItem(String id, String ifMatch) {
         log.info("Deleting item with ID: {}", id);
 
-        if (itemRepository.existsById(id)) {
-            itemRepository.deleteById(id);
-            log.info("Item deleted successfully: {}", id);
-        } else {
+        Item existingItem = itemRepository.findById(id).orElse(null);
+        checkPrecondition(id, existingItem, ifMatch);
+        if (existingItem == null) {
             log.warn("Attempted to delete non-existent item with ID: {}", id);
+            return;
         }
+
+        long sequence = changeSequenceService.begin();
+        try {
+            if (ifMatch != null && !itemRepository.stampIfUnchanged(existingItem, sequence)) {
+                throw preconditionFailed(id);
+            }
+            itemTombstoneRepository.save(new ItemTombstone(id, existingItem.getSku(), existingItem.getCategory(),
+                    sequence, LocalDateTime.now()));
+            itemArchiveService.archiveDeleted(existingItem);
+            itemRepository.deleteById(id);
+        } finally {
+            changeSequenceService.complete(sequence);
+        }
+        imageBlobStore.release(existingItem.getImageHash());
+        log.info("Item deleted successfully: {}", id);
+        publishChange(ItemChangeType.DELETED, id, existingItem, null);
     }
 
 
@@ -192,7 +412,7 @@ public class ItemService {
      */
     public List<Item> getAvailableItems() {
         log.debug("Fetching available items");
-        return itemRepository.findByStatusAndQuantityGreaterThan(ItemStatus.AVAILABLE, 0);
+        return readRouting.secondary(() -> itemRepository.findByStatusAndQuantityGreaterThan(ItemStatus.AVAILABLE, 0));
     }
 
 
@@ -205,11 +425,13 @@ public class ItemService {
      */
     public Page<Item> searchItemsByName(String name, Pageable pageable) {
         log.debug("Searching items by name: {} with pagination", name);
-        return itemRepository.findByNameContainingIgnoreCase(name, pageable);
+        Pageable sorted = ItemSort.resolve(pageable, Sort.unsorted(), null);
+        return readRouting.secondary(() -> itemRepository.findByNameContainingIgnoreCase(name, sorted));
     }
 
     /**
      * Get items by category with pagination
+     * Concurrent reads of the same page share one query
      *
      * @param category The category
      * @param pageable Pagination information
@@ -217,7 +439,49 @@ public class ItemService {
      */
     public Page<Item> getItemsByCategory(String category, Pageable pageable) {
         log.debug("Fetching items by category: {} with pagination", category);
-        return itemRepository.findByCategory(category, pageable);
+        Pageable sorted = ItemSort.resolve(pageable, Sort.unsorted(), null, "category");
+        return itemReadCoalescer.findByCategory(category, sorted,
+                () -> readRouting.secondary(() -> itemRepository.findByCategory(category, sorted)));
+    }
+
+    /**
+     * Get live and archived items together with pagination, newest first
+     *
+     * @param category Filter by category (optional)
+     * @param status   Filter by status (optional)
+     * @param pageable Pagination information
+     * @return Page of items; archived items have archivedAt set
+     */
+    public Page<Item> getItemsIncludingArchived(String category, ItemStatus status, Pageable pageable) {
+        log.debug("Fetching items including archived, category: {}, status: {}", category, status);
+        if (pageable.getSort().isSorted()) {
+            throw new IllegalArgumentException("includeArchived lists newest first and cannot be sorted");
+        }
+        return itemArchiveService.findIncludingArchived(category, status, pageable);
+    }
+
+    /**
+     * Get items matching several filters at once with pagination
+     * Every active filter applies, with the same criteria the facet counts use
+     *
+     * @param filter   The list filters
+     * @param pageable Pagination information
+     * @return Page of items matching all filters
+     */
+    public Page<Item> getItemsByFilter(ItemFilter filter, Pageable pageable) {
+        ItemFilter normalized = filter.normalized();
+        log.debug("Fetching items by combined filter: {} with pagination", normalized);
+        String rangeField = normalized.minPrice() != null || normalized.maxPrice() != null ? "price"
+                : normalized.minQuantity() != null || normalized.maxQuantity() != null ? "quantity" : null;
+        List<String> equalityFields = new ArrayList<>();
+        if (normalized.category() != null) {
+            equalityFields.add("category");
+        }
+        if (normalized.status() != null) {
+            equalityFields.add("status");
+        }
+        Pageable sorted = ItemSort.resolve(pageable, Sort.unsorted(), rangeField, equalityFields.toArray(String[]::new));
+        return readRouting.secondary(() -> itemRepository.findMatching(normalized.toCriteria(), sorted));
     }
 
     /**
@@ -229,7 +493,8 @@ public class ItemService {
      */
     public Page<Item> getItemsByStatus(ItemStatus status, Pageable pageable) {
         log.debug("Fetching items by status: {} with pagination", status);
-        return itemRepository.findByStatus(status, pageable);
+        Pageable sorted = ItemSort.resolve(pageable, Sort.unsorted(), null, "status");
+        return readRouting.secondary(() -> itemRepository.findByStatus(status, sorted));
     }
 
     /**
@@ -242,33 +507,40 @@ public class ItemService {
      */
     public Page<Item> getItemsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
         log.debug("Fetching items by price range: {} - {} with pagination", minPrice, maxPrice);
-        return itemRepository.findByPriceBetween(minPrice, maxPrice, pageable);
+        Pageable sorted = ItemSort.resolve(pageable, Sort.unsorted(), "price");
+        return readRouting.secondary(() -> itemRepository.findByPriceBetween(minPrice, maxPrice, sorted));
     }
 
 
 
     public Page<Item> getItemsByQuantityLessThanEqual(Integer quantityIsLessThan, Pageable pageable) {
-        return itemRepository.findByQuantityLessThanEqual(quantityIsLessThan, pageable);
+        Pageable sorted = ItemSort.resolve(pageable, Sort.unsorted(), "quantity");
+        return readRouting.secondary(() -> itemRepository.findByQuantityLessThanEqual(quantityIsLessThan, sorted));
     }
 
     public Page<Item> findByQuantityGreaterThanEqual(Integer quantityIsGreaterThan, Pageable pageable) {
-        return itemRepository.findByQuantityGreaterThanEqual(quantityIsGreaterThan, pageable);
+        Pageable sorted = ItemSort.resolve(pageable, Sort.unsorted(), "quantity");
+        return readRouting.secondary(() -> itemRepository.findByQuantityGreaterThanEqual(quantityIsGreaterThan, sorted));
     }
 
     public Page<Item> getItemsByQuantityRange(Integer minQuantity, Integer maxQuantity, Pageable pageable) {
-        return itemRepository.findByQuantityBetween(minQuantity, maxQuantity, pageable);
+        Pageable sorted = ItemSort.resolve(pageable, Sort.unsorted(), "quantity");
+        return readRouting.secondary(() -> itemRepository.findByQuantityBetween(minQuantity, maxQuantity, sorted));
     }
 
     public Page<Item> findByPriceBetween(BigDecimal priceIsLessThan, Pageable pageable) {
-        return itemRepository.findByPriceBetween(priceIsLessThan, pageable);
+        Pageable sorted = ItemSort.resolve(pageable, Sort.unsorted(), "price");
+        return readRouting.secondary(() -> itemRepository.findByPriceBetween(priceIsLessThan, sorted));
     }
 
     public Page<Item> getItemsByPriceGreaterThanEqual(BigDecimal priceIsGreaterThan, Pageable pageable) {
-        return itemRepository.findByPriceGreaterThanEqual(priceIsGreaterThan, pageable);
+        Pageable sorted = ItemSort.resolve(pageable, Sort.unsorted(), "price");
+        return readRouting.secondary(() -> itemRepository.findByPriceGreaterThanEqual(priceIsGreaterThan, sorted));
     }
 
     public Page<Item> getItemsByPriceLessThanEqual(BigDecimal priceIsGreaterThan, Pageable pageable) {
-        return itemRepository.findByPriceLessThanEqual(priceIsGreaterThan,  pageable);
+        Pageable sorted = ItemSort.resolve(pageable, Sort.unsorted(), "price");
+        return readRouting.secondary(() -> itemRepository.findByPriceLessThanEqual(priceIsGreaterThan, sorted));
     }
 
 
@@ -287,8 +559,83 @@ public class ItemService {
             return getAllItems(pageable);
         }
         String q = query.trim();
-        return itemRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseOrSkuContainingIgnoreCaseOrCategoryContainingIgnoreCase(
-                q, q, q, q, pageable);
+        Pageable sorted = ItemSort.resolve(pageable, Sort.unsorted(), null);
+        return readRouting.secondary(() -> itemRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseOrSkuContainingIgnoreCaseOrCategoryContainingIgnoreCase(
+                q, q, q, q, sorted));
+    }
+
+    /**
+     * Whether the item carries an inline image to store
+     */
+    private static boolean hasImage(Item item) {
+        return item.getImage() != null && !item.getImage().isEmpty();
+    }
+
+    /**
+     * Store an image in the blob store and take a reference to it
+     * Renditions are generated asynchronously once the item is saved
+     */
+    private String storeImage(String image) {
+        ItemImages.DecodedImage decoded = ItemImages.decode(image);
+        return imageBlobStore.put(decoded.bytes(), decoded.contentType());
+    }
+
+    /**
+     * Fail fast on a stale If-Match; the write itself is conditional as well (see save)
+     */
+    private static void checkPrecondition(String id, Item current, String ifMatch) {
+        if (ifMatch != null && !ItemETags.matches(ifMatch, current == null ? null : ItemETags.of(current))) {
+            throw preconditionFailed(id);
+        }
+    }
+
+    /**
+     * Save an updated item; under If-Match the replace only matches the version the precondition was checked
+     * against, so a write that lands in between fails it instead of being overwritten
+     */
+    private Item save(Item item, Item before, String ifMatch) {
+        if (ifMatch == null) {
+            return itemRepository.save(item);
+        }
+        if (!itemRepository.replaceIfUnchanged(item, before)) {
+            throw preconditionFailed(item.getId());
+        }
+        return item;
+    }
+
+    private static PreconditionFailedException preconditionFailed(String id) {
+        log.warn("If-Match precondition failed for item with ID: {}", id);
+        return new PreconditionFailedException(id);
+    }
+
+    /**
+     * Notify listeners (SSE stream, caches, rollups) about a completed write
+     */
+    private void publishChange(ItemChangeType type, String id, Item before, Item after) {
+        eventPublisher.publishEvent(new ItemChangedEvent(type, id, before, after, Instant.now()));
+    }
+
+    /**
+     * Copy the item so later in-place modifications do not affect the copy
+     */
+    private static Item snapshot(Item item) {
+        Item copy = new Item();
+        BeanUtils.copyProperties(item, copy);
+        return copy;
+    }
+
+    /**
+     * A change is stock-only when nothing but quantity and status differ
+     */
+    private static boolean isStockOnlyChange(Item before, Item after) {
+        return Objects.equals(before.getName(), after.getName())
+                && Objects.equals(before.getDescription(), after.getDescription())
+                && (before.getPrice() == null ? after.getPrice() == null
+                    : after.getPrice() != null && before.getPrice().compareTo(after.getPrice()) == 0)
+                && Objects.equals(before.getCategory(), after.getCategory())
+                && Objects.equals(before.getSku(), after.getSku())
+                && Objects.equals(before.getImage(), after.getImage())
+                && Objects.equals(before.getImageHash(), after.getImageHash());
     }
 
-}
\ No newline at end of file
+}
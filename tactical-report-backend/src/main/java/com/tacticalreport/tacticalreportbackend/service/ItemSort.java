@@ -0,0 +1,147 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import org.bson.Document;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sorting of the item list queries, restricted to orders an index can return without an in-memory sort
+ * - Only createdAt, price, name and quantity are sortable, case-sensitively
+ * - A sort is accepted when one of the compound indexes declared on Item consists of the query's equality fields,
+ *   the sort fields in order and _id, with the requested directions or all of them reversed
+ * - _id is appended as tie-breaker in the index's direction, so pages stay stable across equal values
+ * - Queries with a range filter (price, quantity) must sort by that field first, so one index serves both
+ * Anything else is rejected with IllegalArgumentException (400 Bad Request).
+ */
+public final class ItemSort {
+
+    public static final List<String> SORTABLE = List.of("createdAt", "price", "name", "quantity");
+
+    static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt");
+
+    private static final String ID = "_id";
+
+    private static final List<Document> INDEXES = Arrays.stream(Item.class.getAnnotationsByType(CompoundIndex.class))
+            .map(index -> Document.parse(index.def()))
+            .filter(index -> ID.equals(lastKey(index)))
+            .toList();
+
+    private ItemSort() {
+    }
+
+    /**
+     * Apply the requested sort, or the default when none was requested, to a page request
+     *
+     * @param pageable       Requested page and sort
+     * @param defaultSort    Sort used when the request has none (may be unsorted)
+     * @param rangeField     Field the query filters by range (optional)
+     * @param equalityFields Fields the query filters by equality
+     * @return The page request with the resolved sort and _id tie-breaker
+     * @throws IllegalArgumentException if the sort is not backed by an index
+     */
+    public static Pageable resolve(Pageable pageable, Sort defaultSort, String rangeField, String... equalityFields) {
+        Sort requested = pageable.getSort().isSorted() ? pageable.getSort() : defaultSort;
+        if (requested.isUnsorted()) {
+            return pageable;
+        }
+        Sort sort = resolve(requested, rangeField, List.of(equalityFields));
+        return pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort)
+                : Pageable.unpaged(sort);
+    }
+
+    static Sort resolve(Sort requested, String rangeField, List<String> equalityFields) {
+        List<Sort.Order> orders = requested.toList();
+        for (Sort.Order order : orders) {
+            if (!SORTABLE.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort by '" + order.getProperty() + "'; sortable fields: "
+                        + String.join(", ", SORTABLE));
+            }
+            if (order.isIgnoreCase()) {
+                throw new IllegalArgumentException("Case-insensitive sorting is not supported");
+            }
+        }
+        if (rangeField != null && !orders.get(0).getProperty().equals(rangeField)) {
+            throw new IllegalArgumentException("Items filtered by " + rangeField + " must be sorted by "
+                    + rangeField + " first");
+        }
+        for (Document index : INDEXES) {
+            Sort.Direction tieBreak = tieBreak(index, orders, equalityFields);
+            if (tieBreak != null) {
+                return Sort.by(orders).and(Sort.by(tieBreak, ID));
+            }
+        }
+        throw new IllegalArgumentException("Sort " + describe(orders) + " is not backed by an index"
+                + (equalityFields.isEmpty() ? "" : " when filtering by " + String.join(", ", equalityFields))
+                + "; supported: " + supported(equalityFields) + " (or each reversed)");
+    }
+
+    /**
+     * Direction of _id if the index returns the orders for the equality fields, otherwise null
+     */
+    private static Sort.Direction tieBreak(Document index, List<Sort.Order> orders, List<String> equalityFields) {
+        List<String> keys = new ArrayList<>(index.keySet());
+        int prefix = equalityFields.size();
+        if (keys.size() != prefix + orders.size() + 1
+                || !Set.copyOf(keys.subList(0, prefix)).equals(Set.copyOf(equalityFields))) {
+            return null;
+        }
+        Boolean reversed = null;
+        for (int i = 0; i < orders.size(); i++) {
+            String key = keys.get(prefix + i);
+            if (!key.equals(orders.get(i).getProperty())) {
+                return null;
+            }
+            boolean flipped = ascending(index, key) != orders.get(i).isAscending();
+            if (reversed != null && reversed != flipped) {
+                return null;
+            }
+            reversed = flipped;
+        }
+        return ascending(index, ID) != reversed ? Sort.Direction.ASC : Sort.Direction.DESC;
+    }
+
+    private static String supported(List<String> equalityFields) {
+        Set<String> prefix = Set.copyOf(equalityFields);
+        return INDEXES.stream()
+                .filter(index -> {
+                    List<String> keys = new ArrayList<>(index.keySet());
+                    return keys.size() > prefix.size() + 1
+                            && Set.copyOf(keys.subList(0, prefix.size())).equals(prefix)
+                            && SORTABLE.containsAll(keys.subList(prefix.size(), keys.size() - 1));
+                })
+                .map(index -> index.keySet().stream()
+                        .skip(prefix.size())
+                        .filter(key -> !ID.equals(key))
+                        .map(key -> key + "," + (ascending(index, key) ? "asc" : "desc"))
+                        .collect(Collectors.joining("&sort=", "sort=", "")))
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String describe(List<Sort.Order> orders) {
+        return orders.stream()
+                .map(order -> order.getProperty() + "," + (order.isAscending() ? "asc" : "desc"))
+                .collect(Collectors.joining("&sort=", "sort=", ""));
+    }
+
+    private static boolean ascending(Document index, String key) {
+        return ((Number) index.get(key)).intValue() > 0;
+    }
+
+    private static String lastKey(Document index) {
+        String last = null;
+        for (String key : index.keySet()) {
+            last = key;
+        }
+        return last;
+    }
+}
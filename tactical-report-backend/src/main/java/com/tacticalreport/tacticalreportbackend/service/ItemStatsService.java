@@ -0,0 +1,221 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.cache.ExpiringCache;
+import com.tacticalreport.tacticalreportbackend.dto.ItemStatsResponse;
+import com.tacticalreport.tacticalreportbackend.dto.ItemStatsResponse.GroupStats;
+import com.tacticalreport.tacticalreportbackend.dto.ItemStatsResponse.PriceStats;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.BooleanOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inventory analytics computed by a single server-side aggregation
+ * The pipeline filters with an index-supported $match, derives per-item stock value and flags in $project,
+ * then groups by category, by status and overall inside one $facet.
+ * Results are cached for a few seconds per filter, so dashboards polling the endpoint cost one aggregation per TTL.
+ */
+@Service
+@Slf4j
+public class ItemStatsService {
+
+    private static final int MAX_CACHED_FILTERS = 256;
+
+    private final MongoTemplate mongoTemplate;
+    private final ReadRouting readRouting;
+    private final int defaultLowStockThreshold;
+    private final ExpiringCache<StatsKey, ItemStatsResponse> cache;
+
+    public ItemStatsService(
+            MongoTemplate mongoTemplate,
+            ReadRouting readRouting,
+            @Value("${items.stats.low-stock-threshold:5}") int defaultLowStockThreshold,
+            @Value("${items.stats.cache-ttl:10s}") Duration cacheTtl
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.readRouting = readRouting;
+        this.defaultLowStockThreshold = defaultLowStockThreshold;
+        this.cache = new ExpiringCache<>(cacheTtl, MAX_CACHED_FILTERS);
+    }
+
+    /**
+     * Get inventory statistics, optionally narrowed to one category and/or status
+     *
+     * @param category          Category filter (optional)
+     * @param status            Status filter (optional)
+     * @param lowStockThreshold Highest quantity still counted as low stock (optional, uses the configured default)
+     * @return Counts, stock value and price statistics overall, per category and per status
+     * @throws IllegalArgumentException if the threshold is negative
+     */
+    public ItemStatsResponse getStats(String category, ItemStatus status, Integer lowStockThreshold) {
+        int threshold = lowStockThreshold == null ? defaultLowStockThreshold : lowStockThreshold;
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Low stock threshold cannot be negative: " + threshold);
+        }
+        StatsKey key = new StatsKey(category, status, threshold);
+        ItemStatsResponse cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        ItemStatsResponse stats = aggregate(category, status, threshold);
+        cache.put(key, stats);
+        return stats;
+    }
+
+    /**
+     * Run the aggregation without going through the cache, on a secondary when read routing allows it
+     */
+    ItemStatsResponse aggregate(String category, ItemStatus status, int threshold) {
+        return readRouting.secondary(() -> aggregateOnCurrent(category, status, threshold));
+    }
+
+    /**
+     * Run the aggregation over all items on the primary
+     * Used as ground truth for the rollups, which are written there; a lagging secondary would report drift
+     */
+    ItemStatsResponse aggregateOnPrimary(int threshold) {
+        return aggregateOnCurrent(null, null, threshold);
+    }
+
+    private ItemStatsResponse aggregateOnCurrent(String category, ItemStatus status, int threshold) {
+        log.debug("Aggregating item stats for category={}, status={}, lowStockThreshold={}", category, status, threshold);
+        List<AggregationOperation> stages = new ArrayList<>();
+
+        // Equality on category/status is served by the category_status compound index and the status index
+        Criteria criteria = new Criteria();
+        if (category != null && !category.isBlank()) {
+            criteria.and("category").is(category);
+        }
+        if (status != null) {
+            criteria.and("status").is(status.name());
+        }
+        if (!criteria.getCriteriaObject().isEmpty()) {
+            stages.add(Aggregation.match(criteria));
+        }
+
+        // Prices are Decimal128; documents not yet reached by PriceDecimalMigration still hold strings
+        AggregationExpression price = ConvertOperators.ToDecimal.toDecimal("$price");
+        AggregationExpression lowStock = ConditionalOperators
+                .when(BooleanOperators.And.and(
+                        ComparisonOperators.valueOf("quantity").greaterThanValue(0),
+                        ComparisonOperators.valueOf("quantity").lessThanEqualToValue(threshold)))
+                .then(1)
+                .otherwise(0);
+        AggregationExpression outOfStock = ConditionalOperators
+                .when(ComparisonOperators.valueOf("quantity").lessThanEqualToValue(0))
+                .then(1)
+                .otherwise(0);
+        stages.add(Aggregation.project("category", "status", "quantity")
+                .and(price).as("price")
+                .and(ArithmeticOperators.Multiply.valueOf(price).multiplyBy("quantity")).as("value")
+                .and(lowStock).as("lowStock")
+                .and(outOfStock).as("outOfStock"));
+
+        stages.add(Aggregation.facet(group("category"), Aggregation.sort(Sort.Direction.ASC, "_id")).as("byCategory")
+                .and(group("status"), Aggregation.sort(Sort.Direction.ASC, "_id")).as("byStatus")
+                .and(group()
+                        .min("price").as("minPrice")
+                        .avg("price").as("avgPrice")
+                        .max("price").as("maxPrice")).as("totals"));
+
+        Document result = mongoTemplate
+                .aggregate(Aggregation.newAggregation(stages), Item.class, Document.class)
+                .getUniqueMappedResult();
+        return toResponse(result, threshold);
+    }
+
+    private static GroupOperation group(String... fields) {
+        GroupOperation group = fields.length == 0 ? Aggregation.group() : Aggregation.group(fields);
+        return group.count().as("count")
+                .sum("quantity").as("totalQuantity")
+                .sum("value").as("totalValue")
+                .sum("lowStock").as("lowStockItems")
+                .sum("outOfStock").as("outOfStockItems");
+    }
+
+    private static ItemStatsResponse toResponse(Document result, int threshold) {
+        List<Document> totalsList = result == null ? List.of() : result.getList("totals", Document.class, List.of());
+        Document totals = totalsList.isEmpty() ? new Document() : totalsList.get(0);
+
+        PriceStats price = null;
+        if (totals.get("minPrice") != null) {
+            price = PriceStats.builder()
+                    .min(toBigDecimal(totals.get("minPrice")))
+                    .avg(toBigDecimal(totals.get("avgPrice")).setScale(2, RoundingMode.HALF_UP))
+                    .max(toBigDecimal(totals.get("maxPrice")))
+                    .build();
+        }
+
+        return ItemStatsResponse.builder()
+                .totalItems(toLong(totals.get("count")))
+                .totalQuantity(toLong(totals.get("totalQuantity")))
+                .totalValue(toBigDecimal(totals.get("totalValue")))
+                .lowStockItems(toLong(totals.get("lowStockItems")))
+                .outOfStockItems(toLong(totals.get("outOfStockItems")))
+                .lowStockThreshold(threshold)
+                .price(price)
+                .byCategory(toGroups(result, "byCategory"))
+                .byStatus(toGroups(result, "byStatus"))
+                .generatedAt(Instant.now())
+                .build();
+    }
+
+    private static List<GroupStats> toGroups(Document result, String facet) {
+        if (result == null) {
+            return List.of();
+        }
+        return result.getList(facet, Document.class, List.of()).stream()
+                .map(group -> GroupStats.builder()
+                        .key(group.get("_id") == null ? null : group.get("_id").toString())
+                        .count(toLong(group.get("count")))
+                        .totalQuantity(toLong(group.get("totalQuantity")))
+                        .totalValue(toBigDecimal(group.get("totalValue")))
+                        .lowStockItems(toLong(group.get("lowStockItems")))
+                        .outOfStockItems(toLong(group.get("outOfStockItems")))
+                        .build())
+                .toList();
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof Decimal128 decimal) {
+            return decimal.bigDecimalValue();
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (value instanceof Number number) {
+            return BigDecimal.valueOf(number.doubleValue());
+        }
+        return BigDecimal.ZERO;
+    }
+
+    private record StatsKey(String category, ItemStatus status, int lowStockThreshold) {
+    }
+}
@@ -0,0 +1,163 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.dto.ItemChangesResponse;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemTombstone;
+import com.tacticalreport.tacticalreportbackend.repository.ItemRepository;
+import com.tacticalreport.tacticalreportbackend.repository.ItemTombstoneRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Delta sync of the item catalog
+ * Tokens are opaque to clients: they encode the last changeSequence seen and the time the client was last caught
+ * up. Every change after that sequence happened after that time, so while it lies within the tombstone retention
+ * window no deletion the client still needs has been purged; older tokens are answered with a resync. The time
+ * only advances on a page that catches up (hasMore=false), so slowly paging through a backlog cannot keep an
+ * outdated token alive. Items written before delta sync existed get their sequence from
+ * ChangeSequenceBackfillMigration.
+ */
+@Service
+@Slf4j
+public class ItemSyncService {
+
+    private final ItemRepository itemRepository;
+    private final ItemTombstoneRepository itemTombstoneRepository;
+    private final ChangeSequenceService changeSequenceService;
+    private final MongoTemplate mongoTemplate;
+    private final Duration tombstoneRetention;
+    private final int maxPageSize;
+
+    public ItemSyncService(
+            ItemRepository itemRepository,
+            ItemTombstoneRepository itemTombstoneRepository,
+            ChangeSequenceService changeSequenceService,
+            MongoTemplate mongoTemplate,
+            @Value("${items.changes.tombstone-retention:30d}") Duration tombstoneRetention,
+            @Value("${items.changes.max-page-size:1000}") int maxPageSize
+    ) {
+        this.itemRepository = itemRepository;
+        this.itemTombstoneRepository = itemTombstoneRepository;
+        this.changeSequenceService = changeSequenceService;
+        this.mongoTemplate = mongoTemplate;
+        this.tombstoneRetention = tombstoneRetention;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Get items changed and deleted since a token
+     *
+     * @param token Token from a previous call, or null for a full sync
+     * @param limit Maximum number of changes to return
+     * @return Changes in sequence order and the token for the next call
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public ItemChangesResponse getChangesSince(String token, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        Instant now = Instant.now();
+        long since = 0L;
+        Instant caughtUpAt = now;
+
+        if (token != null && !token.isBlank()) {
+            long[] decoded = decodeToken(token);
+            since = decoded[0];
+            caughtUpAt = Instant.ofEpochMilli(decoded[1]);
+            if (caughtUpAt.isBefore(now.minus(tombstoneRetention))) {
+                log.info("Sync token caught up at {} is older than tombstone retention {}, resync required",
+                        caughtUpAt, tombstoneRetention);
+                return ItemChangesResponse.builder()
+                        .items(List.of())
+                        .deleted(List.of())
+                        .resyncRequired(true)
+                        .build();
+            }
+        }
+
+        long watermark = changeSequenceService.stableWatermark();
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+        List<Item> items = new ArrayList<>(
+                itemRepository.findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(since, window));
+        List<ItemTombstone> tombstones = new ArrayList<>(
+                itemTombstoneRepository.findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(since, window));
+        items.removeIf(item -> item.getChangeSequence() > watermark);
+        tombstones.removeIf(tombstone -> tombstone.getChangeSequence() > watermark);
+
+        // Merge both streams by sequence and keep the first pageSize changes
+        List<Item> pageItems = new ArrayList<>();
+        List<ItemTombstone> pageTombstones = new ArrayList<>();
+        int i = 0;
+        int t = 0;
+        long lastSequence = since;
+        while (pageItems.size() + pageTombstones.size() < pageSize && (i < items.size() || t < tombstones.size())) {
+            boolean takeItem = t >= tombstones.size()
+                    || (i < items.size() && items.get(i).getChangeSequence() < tombstones.get(t).getChangeSequence());
+            if (takeItem) {
+                Item item = items.get(i++);
+                pageItems.add(item);
+                lastSequence = item.getChangeSequence();
+            } else {
+                ItemTombstone tombstone = tombstones.get(t++);
+                pageTombstones.add(tombstone);
+                lastSequence = tombstone.getChangeSequence();
+            }
+        }
+        boolean hasMore = i < items.size() || t < tombstones.size();
+
+        log.debug("Delta sync since {}: {} items, {} deletions, hasMore={}",
+                since, pageItems.size(), pageTombstones.size(), hasMore);
+        return ItemChangesResponse.builder()
+                .items(pageItems)
+                .deleted(pageTombstones)
+                .nextToken(encodeToken(lastSequence, hasMore ? caughtUpAt : now))
+                .hasMore(hasMore)
+                .resyncRequired(false)
+                .build();
+    }
+
+    /**
+     * Create the TTL index purging tombstones once they leave the retention window
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureTombstoneTtlIndex() {
+        try {
+            mongoTemplate.indexOps(ItemTombstone.class).createIndex(new Index()
+                    .on("deletedAt", Sort.Direction.ASC)
+                    .expire(tombstoneRetention)
+                    .named("deletedAt_ttl"));
+        } catch (RuntimeException e) {
+            log.warn("Could not create tombstone TTL index: {}", e.getMessage());
+        }
+    }
+
+    static String encodeToken(long sequence, Instant caughtUpAt) {
+        String raw = sequence + ":" + caughtUpAt.toEpochMilli();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static long[] decodeToken(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid sync token: " + token);
+            }
+            return new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid sync token: " + token);
+        }
+    }
+}
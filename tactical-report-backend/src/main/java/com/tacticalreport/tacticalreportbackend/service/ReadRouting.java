@@ -0,0 +1,87 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.mongodb.ReadPreference;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Decides which replica set member serves a read
+ * Reads default to the primary. List, search and analytics reads that can tolerate a little lag run inside
+ * {@link #secondary(Supplier)} and go to a secondary (secondaryPreferred with a max staleness), which the
+ * MongoTemplate picks up for every collection it touches on this thread. Item lookups by id, SKU uniqueness checks
+ * and writes never enter that scope, so they always see the latest committed data.
+ * Clients that need to read their own writes in a list send {@value #CONSISTENCY_HEADER}: strong, which keeps
+ * the whole request on the primary.
+ */
+@Component
+public class ReadRouting {
+
+    public static final String CONSISTENCY_HEADER = "X-Read-Consistency";
+    public static final String STRONG = "strong";
+
+    /**
+     * Smallest max staleness the server accepts
+     */
+    static final Duration MIN_MAX_STALENESS = Duration.ofSeconds(90);
+
+    private static final ThreadLocal<ReadPreference> CURRENT = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final ReadPreference secondary;
+
+    public ReadRouting(
+            @Value("${items.read-routing.enabled:true}") boolean enabled,
+            @Value("${items.read-routing.max-staleness:90s}") Duration maxStaleness
+    ) {
+        if (maxStaleness.compareTo(MIN_MAX_STALENESS) < 0) {
+            throw new IllegalArgumentException("Max staleness must be at least " + MIN_MAX_STALENESS.toSeconds()
+                    + " seconds: " + maxStaleness.toSeconds());
+        }
+        this.enabled = enabled;
+        this.secondary = ReadPreference.secondaryPreferred(maxStaleness.toSeconds(), TimeUnit.SECONDS);
+    }
+
+    /**
+     * Run a read that may be served by a secondary
+     * Falls back to the primary when routing is disabled or the current request asked for strong consistency
+     *
+     * @param read The read
+     * @return The read's result
+     */
+    public <T> T secondary(Supplier<T> read) {
+        if (!enabled || strongConsistencyRequested()) {
+            return read.get();
+        }
+        ReadPreference previous = CURRENT.get();
+        CURRENT.set(secondary);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Read preference for collections used on this thread, or null for the template's default (primary)
+     */
+    public ReadPreference current() {
+        return CURRENT.get();
+    }
+
+    private static boolean strongConsistencyRequested() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servlet
+                && STRONG.equalsIgnoreCase(servlet.getRequest().getHeader(CONSISTENCY_HEADER));
+    }
+}
@@ -0,0 +1,392 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.dto.StockAlert;
+import com.tacticalreport.tacticalreportbackend.dto.StockAlert.Severity;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangedEvent;
+import com.tacticalreport.tacticalreportbackend.event.StockAlertBroadcaster;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import com.tacticalreport.tacticalreportbackend.model.StockThreshold;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Continuous low-stock detection over item change events
+ * - Each quantity change is checked in memory against the item's threshold (item, else category, else the default);
+ *   nothing is polled, the catalog is only queried once at startup and when a threshold changes
+ * - At-risk items are kept in a priority queue ordered by stock cover: days until the item runs out at its recent
+ *   consumption, which is a decayed sum of its decrements over usage-window
+ * - An alert is raised once when an item crosses its threshold and again only when its severity changes; it
+ *   resolves once the quantity is back above the threshold plus a hysteresis band, so items hovering around the
+ *   threshold do not flap. Raised, changed and resolved alerts are pushed to the alert stream.
+ * State is per instance and covers the writes this instance publishes events for.
+ */
+@Service
+@Slf4j
+public class StockAlertService {
+
+    private static final Set<ItemStatus> NOT_SOLD = Set.of(ItemStatus.DISCONTINUED, ItemStatus.PRE_ORDER);
+
+    /**
+     * Lowest stock cover first; items without consumption after those with, then by quantity
+     */
+    static final Comparator<StockAlert> BY_COVER = Comparator
+            .comparing(StockAlert::getStockCoverDays, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingInt(StockAlert::getQuantity)
+            .thenComparing(StockAlert::getItemId);
+
+    private final MongoTemplate mongoTemplate;
+    private final StockAlertBroadcaster broadcaster;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int defaultThreshold;
+    private final double hysteresis;
+    private final Duration usageWindow;
+    private final int maxTracked;
+
+    private final Map<String, Integer> categoryThresholds = new ConcurrentHashMap<>();
+    private final Map<String, Integer> itemThresholds = new ConcurrentHashMap<>();
+
+    private final Object lock = new Object();
+    private final Map<String, StockAlert> active = new HashMap<>();
+    private final NavigableSet<StockAlert> atRisk = new TreeSet<>(BY_COVER);
+    private final Map<String, Usage> usage;
+
+    private final Counter raised;
+    private final Counter deduplicated;
+
+    public StockAlertService(
+            MongoTemplate mongoTemplate,
+            StockAlertBroadcaster broadcaster,
+            MeterRegistry meterRegistry,
+            @Value("${items.stock-alerts.enabled:true}") boolean enabled,
+            @Value("${items.stock-alerts.default-threshold:${items.stats.low-stock-threshold:5}}") int defaultThreshold,
+            @Value("${items.stock-alerts.hysteresis:0.2}") double hysteresis,
+            @Value("${items.stock-alerts.usage-window:7d}") Duration usageWindow,
+            @Value("${items.stock-alerts.max-tracked:100000}") int maxTracked
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.broadcaster = broadcaster;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.defaultThreshold = defaultThreshold;
+        this.hysteresis = hysteresis;
+        this.usageWindow = usageWindow;
+        this.maxTracked = maxTracked;
+        this.usage = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Usage> eldest) {
+                return size() > maxTracked;
+            }
+        };
+        this.raised = Counter.builder("items.stock.alerts.raised").register(meterRegistry);
+        this.deduplicated = Counter.builder("items.stock.alerts.deduplicated").register(meterRegistry);
+    }
+
+    /**
+     * Register the active alerts gauge once the service is fully constructed
+     */
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("items.stock.alerts.active", this, StockAlertService::activeCount).register(meterRegistry);
+    }
+
+    /**
+     * Load the thresholds and seed the alerts from the items currently at or below them
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            for (StockThreshold threshold : mongoTemplate.findAll(StockThreshold.class)) {
+                thresholdsOf(threshold.getScope()).put(threshold.getKey(), threshold.getThreshold());
+            }
+            int seeded = scan(new Criteria(), false);
+            log.info("Stock alerts seeded with {} at-risk items", seeded);
+        } catch (RuntimeException e) {
+            log.warn("Could not seed stock alerts: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Item before = event.getBefore();
+        Item after = event.getAfter();
+        Instant at = event.getOccurredAt();
+        synchronized (lock) {
+            if (after == null) {
+                usage.remove(event.getItemId());
+                StockAlert alert = active.get(event.getItemId());
+                if (alert != null) {
+                    resolve(alert, at, true);
+                }
+                return;
+            }
+            if (before != null) {
+                int consumed = quantityOf(before) - quantityOf(after);
+                if (consumed > 0) {
+                    usage.computeIfAbsent(after.getId(), id -> new Usage()).record(consumed, at, usageWindow);
+                }
+            }
+            evaluate(after, at, true);
+        }
+    }
+
+    /**
+     * Get the active alerts, lowest stock cover first
+     *
+     * @param category Only this category (optional)
+     * @param limit    Maximum number of alerts
+     * @return The most urgent alerts
+     */
+    public List<StockAlert> getAlerts(String category, int limit) {
+        List<StockAlert> alerts = new ArrayList<>();
+        synchronized (lock) {
+            for (StockAlert alert : atRisk) {
+                if (alerts.size() >= limit) {
+                    break;
+                }
+                if (category == null || category.equals(alert.getCategory())) {
+                    alerts.add(alert);
+                }
+            }
+        }
+        return alerts;
+    }
+
+    public List<StockThreshold> getThresholds() {
+        return mongoTemplate.find(new Query().with(Sort.by("_id")), StockThreshold.class);
+    }
+
+    /**
+     * Create or replace a threshold and re-evaluate the items it applies to
+     *
+     * @param threshold Scope, key (category or item ID) and threshold
+     * @return The saved threshold
+     */
+    public StockThreshold saveThreshold(StockThreshold threshold) {
+        String key = threshold.getKey().trim();
+        StockThreshold saved = mongoTemplate.save(StockThreshold.builder()
+                .id(StockThreshold.idOf(threshold.getScope(), key))
+                .scope(threshold.getScope())
+                .key(key)
+                .threshold(threshold.getThreshold())
+                .updatedAt(LocalDateTime.now())
+                .build());
+        thresholdsOf(saved.getScope()).put(key, saved.getThreshold());
+        rescan(saved.getScope(), key);
+        return saved;
+    }
+
+    /**
+     * Remove a threshold, falling back to the category or default threshold
+     *
+     * @return true if the threshold existed
+     */
+    public boolean deleteThreshold(StockThreshold.Scope scope, String key) {
+        boolean removed = mongoTemplate.remove(Query.query(Criteria.where("_id").is(StockThreshold.idOf(scope, key))),
+                StockThreshold.class).getDeletedCount() > 0;
+        if (thresholdsOf(scope).remove(key) != null || removed) {
+            rescan(scope, key);
+        }
+        return removed;
+    }
+
+    int thresholdOf(String itemId, String category) {
+        Integer threshold = itemThresholds.get(itemId);
+        if (threshold == null && category != null) {
+            threshold = categoryThresholds.get(category);
+        }
+        return threshold != null ? threshold : defaultThreshold;
+    }
+
+    /**
+     * Re-check the active alerts in a threshold's scope and pick up items that are now below it
+     */
+    private void rescan(StockThreshold.Scope scope, String key) {
+        if (!enabled) {
+            return;
+        }
+        Predicate<StockAlert> inScope = scope == StockThreshold.Scope.ITEM
+                ? alert -> alert.getItemId().equals(key)
+                : alert -> key.equals(alert.getCategory());
+        Instant now = Instant.now();
+        synchronized (lock) {
+            for (StockAlert alert : List.copyOf(active.values())) {
+                if (inScope.test(alert)) {
+                    evaluate(itemOf(alert), now, true);
+                }
+            }
+        }
+        scan(scope == StockThreshold.Scope.ITEM ? Criteria.where("_id").is(key) : Criteria.where("category").is(key),
+                true);
+    }
+
+    /**
+     * Evaluate the sold items in scope with a quantity at or below the highest threshold
+     *
+     * @return Number of items found
+     */
+    private int scan(Criteria scope, boolean publish) {
+        int highest = Math.max(defaultThreshold, Math.max(
+                categoryThresholds.values().stream().mapToInt(Integer::intValue).max().orElse(0),
+                itemThresholds.values().stream().mapToInt(Integer::intValue).max().orElse(0)));
+        Query query = Query.query(scope)
+                .addCriteria(Criteria.where("quantity").lte(highest))
+                .addCriteria(Criteria.where("status").nin(NOT_SOLD.stream().map(Enum::name).toList()))
+                .limit(maxTracked);
+        query.fields().include("name", "sku", "category", "quantity", "status");
+        List<Item> items = mongoTemplate.find(query, Item.class);
+        Instant now = Instant.now();
+        synchronized (lock) {
+            for (Item item : items) {
+                evaluate(item, now, publish);
+            }
+        }
+        return items.size();
+    }
+
+    /**
+     * Raise, update or resolve the alert of an item; caller holds the lock
+     */
+    private void evaluate(Item item, Instant at, boolean publish) {
+        StockAlert current = active.get(item.getId());
+        int quantity = quantityOf(item);
+        int threshold = thresholdOf(item.getId(), item.getCategory());
+        int resolveAbove = current == null ? threshold : threshold + (int) Math.max(1, Math.ceil(threshold * hysteresis));
+        if ((item.getStatus() != null && NOT_SOLD.contains(item.getStatus())) || quantity > resolveAbove) {
+            if (current != null) {
+                resolve(current, at, publish);
+            }
+            return;
+        }
+
+        Usage consumption = usage.get(item.getId());
+        double dailyUsage = consumption == null ? 0 : consumption.dailyAt(at, usageWindow);
+        Severity severity = quantity == 0 ? Severity.OUT_OF_STOCK : Severity.LOW_STOCK;
+        StockAlert alert = StockAlert.builder()
+                .itemId(item.getId())
+                .sku(item.getSku())
+                .name(item.getName())
+                .category(item.getCategory())
+                .severity(severity)
+                .quantity(quantity)
+                .threshold(threshold)
+                .dailyUsage(dailyUsage)
+                .stockCoverDays(quantity == 0 ? Double.valueOf(0) : dailyUsage > 0 ? quantity / dailyUsage : null)
+                .raisedAt(current != null ? current.getRaisedAt() : at)
+                .updatedAt(at)
+                .build();
+        if (current != null) {
+            atRisk.remove(current);
+        }
+        active.put(alert.getItemId(), alert);
+        atRisk.add(alert);
+
+        if (current != null && current.getSeverity() == severity) {
+            deduplicated.increment();
+        } else if (publish) {
+            raised.increment();
+            broadcaster.publish(alert);
+        }
+    }
+
+    private void resolve(StockAlert alert, Instant at, boolean publish) {
+        active.remove(alert.getItemId());
+        atRisk.remove(alert);
+        if (publish) {
+            broadcaster.publish(StockAlert.builder()
+                    .itemId(alert.getItemId())
+                    .sku(alert.getSku())
+                    .name(alert.getName())
+                    .category(alert.getCategory())
+                    .severity(Severity.RESOLVED)
+                    .quantity(alert.getQuantity())
+                    .threshold(alert.getThreshold())
+                    .raisedAt(alert.getRaisedAt())
+                    .updatedAt(at)
+                    .build());
+        }
+    }
+
+    private Map<String, Integer> thresholdsOf(StockThreshold.Scope scope) {
+        return scope == StockThreshold.Scope.ITEM ? itemThresholds : categoryThresholds;
+    }
+
+    private int activeCount() {
+        synchronized (lock) {
+            return active.size();
+        }
+    }
+
+    private static Item itemOf(StockAlert alert) {
+        Item item = new Item();
+        item.setId(alert.getItemId());
+        item.setSku(alert.getSku());
+        item.setName(alert.getName());
+        item.setCategory(alert.getCategory());
+        item.setQuantity(alert.getQuantity());
+        return item;
+    }
+
+    private static int quantityOf(Item item) {
+        return item.getQuantity() == null ? 0 : item.getQuantity();
+    }
+
+    /**
+     * Units consumed, decaying exponentially with the usage window as time constant
+     */
+    static final class Usage {
+
+        private double units;
+        private Instant updatedAt;
+
+        void record(int consumed, Instant at, Duration window) {
+            units = decayed(at, window) + consumed;
+            updatedAt = at;
+        }
+
+        double dailyAt(Instant at, Duration window) {
+            return decayed(at, window) * Duration.ofDays(1).toMillis() / window.toMillis();
+        }
+
+        private double decayed(Instant at, Duration window) {
+            if (updatedAt == null) {
+                return units;
+            }
+            long elapsed = Math.max(0, Duration.between(updatedAt, at).toMillis());
+            return units * Math.exp(-(double) elapsed / window.toMillis());
+        }
+    }
+}
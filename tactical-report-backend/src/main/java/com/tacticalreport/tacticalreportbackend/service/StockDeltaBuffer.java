@@ -0,0 +1,422 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.dto.StockDeltaRequest;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangeType;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangedEvent;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.SetOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-coalescing buffer for high-frequency stock changes (scanner feeds)
+ * Quantity deltas are summed per SKU in a striped in-memory buffer and flushed every flush interval, or sooner
+ * once max-pending deltas are buffered. Each SKU costs one pipeline update per flush however many deltas it
+ * received: quantity is incremented (never below zero) and the status moves to OUT_OF_STOCK at zero and back to
+ * AVAILABLE when stock returns, the same rules as ItemService.updateItem. A flush costs three round trips however
+ * many SKUs it covers: one query for the items, one unordered bulk write and one query for the written items.
+ * <p>
+ * Each update is guarded by the changeSequence read at the start of the flush and stamps a sequence of its own, so
+ * the ItemChangedEvent it publishes carries exactly the item before and after this write; an item written by
+ * someone else in between is read again and retried on the next flush. A write that fails with an unknown outcome
+ * (e.g. a timeout after the server applied it) is retried with the same guard, so it can never apply twice: if the
+ * guard no longer matches, the item's sequence tells whether an earlier attempt was applied. If the item has been
+ * written again since, that cannot be known and the delta is dropped, counted and reported to the submitters
+ * rather than risking a double count.
+ * Flushed items get a change sequence, so caches, rollups and sync see them like any other write. Deltas still
+ * buffered when the process dies are lost, which is why callers can choose to be acknowledged only after the flush.
+ */
+@Service
+@Slf4j
+public class StockDeltaBuffer {
+
+    /**
+     * When a submission is acknowledged
+     */
+    public enum Ack {
+        /** As soon as the deltas are buffered */
+        ENQUEUE,
+        /** Once the deltas have been written to the database */
+        FLUSH
+    }
+
+    /**
+     * Outcome of the flushes that wrote a submission's deltas
+     *
+     * @param unknownSkus    SKUs that matched no item; their deltas were dropped
+     * @param unresolvedSkus SKUs whose delta was dropped because it could not be known whether it had been applied
+     */
+    public record FlushResult(Set<String> unknownSkus, Set<String> unresolvedSkus) {
+    }
+
+    /**
+     * Completed when the deltas buffered with it are written; collects the SKUs whose deltas were dropped
+     */
+    private static final class Pending {
+        private final CompletableFuture<FlushResult> flushed = new CompletableFuture<>();
+        private final Set<String> unknownSkus = new HashSet<>();
+        private final Set<String> unresolvedSkus = new HashSet<>();
+
+        private void complete() {
+            flushed.complete(new FlushResult(unknownSkus, unresolvedSkus));
+        }
+    }
+
+    /**
+     * A write whose outcome is unknown, retried with the same guard on the next flush
+     * Keeps every change sequence it was attempted with, since any of the attempts may have been applied, and the
+     * submissions of the flush that first attempted it, so they can be told if the delta is dropped
+     */
+    private record Unconfirmed(Item before, long delta, List<Long> sequences, List<Pending> pendings) {
+
+        private long sequence() {
+            return sequences.getLast();
+        }
+
+        private Unconfirmed retriedAs(long sequence) {
+            List<Long> attempted = new ArrayList<>(sequences);
+            attempted.add(sequence);
+            return new Unconfirmed(before, delta, attempted, pendings);
+        }
+    }
+
+    private static final class Stripe {
+        private Map<String, Long> deltas = new HashMap<>();
+        private Pending pending = new Pending();
+        private int count;
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final ChangeSequenceService changeSequenceService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxPendingDeltas;
+
+    private final Stripe[] stripes;
+    private final AtomicInteger pendingDeltas = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Object flushLock = new Object();
+    private final List<Pending> carriedOver = new ArrayList<>();
+    private final Map<String, Unconfirmed> unconfirmed = new HashMap<>();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stock-delta-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter received;
+    private final Counter written;
+    private final Counter flushFailures;
+    private final Counter conflicts;
+    private final Counter unresolved;
+
+    public StockDeltaBuffer(
+            MongoTemplate mongoTemplate,
+            ChangeSequenceService changeSequenceService,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${items.stock-ingest.stripes:16}") int stripeCount,
+            @Value("${items.stock-ingest.max-pending-deltas:5000}") int maxPendingDeltas
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.changeSequenceService = changeSequenceService;
+        this.eventPublisher = eventPublisher;
+        this.maxPendingDeltas = maxPendingDeltas;
+        this.stripes = new Stripe[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.received = Counter.builder("items.stock.deltas.received").register(meterRegistry);
+        this.written = Counter.builder("items.stock.flush.writes").register(meterRegistry);
+        this.flushFailures = Counter.builder("items.stock.flush.failures").register(meterRegistry);
+        this.conflicts = Counter.builder("items.stock.flush.conflicts").register(meterRegistry);
+        this.unresolved = Counter.builder("items.stock.flush.unresolved").register(meterRegistry);
+        Gauge.builder("items.stock.deltas.pending", pendingDeltas, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Buffer quantity deltas
+     *
+     * @param deltas Signed quantity changes by SKU
+     * @return Completed when every delta has been written, with the SKUs whose deltas were dropped in those flushes
+     */
+    public CompletableFuture<FlushResult> add(List<StockDeltaRequest.Delta> deltas) {
+        Map<Stripe, List<StockDeltaRequest.Delta>> byStripe = new LinkedHashMap<>();
+        for (StockDeltaRequest.Delta delta : deltas) {
+            byStripe.computeIfAbsent(stripeOf(delta.getSku()), stripe -> new ArrayList<>()).add(delta);
+        }
+
+        List<CompletableFuture<FlushResult>> flushes = new ArrayList<>();
+        for (Map.Entry<Stripe, List<StockDeltaRequest.Delta>> entry : byStripe.entrySet()) {
+            Stripe stripe = entry.getKey();
+            synchronized (stripe) {
+                for (StockDeltaRequest.Delta delta : entry.getValue()) {
+                    stripe.deltas.merge(delta.getSku().trim(), (long) delta.getDelta(), Long::sum);
+                }
+                stripe.count += entry.getValue().size();
+                flushes.add(stripe.pending.flushed);
+            }
+        }
+        received.increment(deltas.size());
+
+        if (pendingDeltas.addAndGet(deltas.size()) >= maxPendingDeltas && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+
+        return CompletableFuture.allOf(flushes.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            Set<String> unknown = new HashSet<>();
+            Set<String> unresolvedSkus = new HashSet<>();
+            for (CompletableFuture<FlushResult> flush : flushes) {
+                unknown.addAll(flush.join().unknownSkus());
+                unresolvedSkus.addAll(flush.join().unresolvedSkus());
+            }
+            return new FlushResult(unknown, unresolvedSkus);
+        });
+    }
+
+    /**
+     * Write all buffered deltas
+     * Runs every flush interval (200ms by default), and early when max-pending deltas are buffered
+     *
+     * @return Number of items written
+     */
+    @Scheduled(fixedDelayString = "${items.stock-ingest.flush-interval-ms:200}")
+    public int flush() {
+        synchronized (flushLock) {
+            Map<String, Long> deltas = new HashMap<>();
+            List<Pending> pendings = new ArrayList<>(carriedOver);
+            carriedOver.clear();
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    if (stripe.deltas.isEmpty()) {
+                        continue;
+                    }
+                    deltas.putAll(stripe.deltas);
+                    pendings.add(stripe.pending);
+                    pendingDeltas.addAndGet(-stripe.count);
+                    stripe.deltas = new HashMap<>();
+                    stripe.pending = new Pending();
+                    stripe.count = 0;
+                }
+            }
+            if (deltas.isEmpty() && unconfirmed.isEmpty()) {
+                pendings.forEach(Pending::complete);
+                return 0;
+            }
+
+            Set<String> unknownSkus = new HashSet<>(deltas.keySet());
+            Map<String, Long> retry = new HashMap<>();
+            int writtenItems = write(deltas, pendings, unknownSkus, retry);
+            for (Pending pending : pendings) {
+                pending.unknownSkus.addAll(unknownSkus);
+            }
+            if (retry.isEmpty() && unconfirmed.isEmpty()) {
+                pendings.forEach(Pending::complete);
+            } else {
+                requeue(retry);
+                carriedOver.addAll(pendings);
+            }
+            return writtenItems;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdownNow();
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush buffered stock deltas on shutdown", e);
+        }
+    }
+
+    /**
+     * Apply one flush worth of deltas and publish the resulting changes
+     * Every guarded update goes out in one unordered bulk write, then the items are read back in one query: an item
+     * carrying its update's change sequence was written by it, and that read is its exact after-image. Unconfirmed
+     * writes of earlier flushes are retried in the same batch; new deltas for their SKUs wait for the next flush.
+     * If the batch fails, all of its writes become unconfirmed, so an unreachable database costs one timeout.
+     *
+     * @param deltas      Summed delta per SKU
+     * @param pendings    Submissions whose deltas are in this flush
+     * @param unknownSkus Starts as every SKU; SKUs that match an item are removed
+     * @param retry       Receives the deltas to buffer again for the next flush
+     * @return Number of items written
+     */
+    private int write(Map<String, Long> deltas, List<Pending> pendings, Set<String> unknownSkus,
+                      Map<String, Long> retry) {
+        Map<String, Long> ready = new HashMap<>();
+        deltas.forEach((sku, delta) -> (unconfirmed.containsKey(sku) ? retry : ready).put(sku, delta));
+        unknownSkus.removeAll(unconfirmed.keySet());
+        Map<String, Item> snapshots;
+        try {
+            snapshots = ready.isEmpty() ? Map.of() : bySku(ready.keySet());
+        } catch (RuntimeException e) {
+            unknownSkus.removeAll(ready.keySet());
+            retry.putAll(ready);
+            flushFailures.increment();
+            log.warn("Failed to read items for stock updates, retrying {} SKUs on the next flush", ready.size(), e);
+            return 0;
+        }
+        unknownSkus.removeAll(snapshots.keySet());
+        if (unconfirmed.isEmpty() && snapshots.isEmpty()) {
+            return 0;
+        }
+
+        List<Unconfirmed> attempts = new ArrayList<>();
+        long firstSequence = changeSequenceService.beginRange(unconfirmed.size() + snapshots.size());
+        long sequence = firstSequence;
+        for (Unconfirmed earlier : unconfirmed.values()) {
+            attempts.add(earlier.retriedAs(sequence++));
+        }
+        for (Item before : snapshots.values()) {
+            attempts.add(new Unconfirmed(before, ready.get(before.getSku()), List.of(sequence++), pendings));
+        }
+
+        Map<String, Item> after;
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Item.class);
+            for (Unconfirmed attempt : attempts) {
+                bulk.updateOne(guard(attempt.before()), stockUpdate(attempt.delta(), attempt.sequence()));
+            }
+            bulk.execute();
+            after = byId(attempts);
+        } catch (RuntimeException e) {
+            attempts.forEach(attempt -> unconfirmed.put(attempt.before().getSku(), attempt));
+            flushFailures.increment();
+            log.warn("Failed to write stock updates, retrying {} items on the next flush", attempts.size(), e);
+            return 0;
+        } finally {
+            changeSequenceService.complete(firstSequence);
+        }
+
+        int writtenItems = 0;
+        for (Unconfirmed attempt : attempts) {
+            Item before = attempt.before();
+            Item current = after.get(before.getId());
+            boolean retried = unconfirmed.remove(before.getSku()) != null;
+            if (current != null && attempt.sequences().contains(current.getChangeSequence())) {
+                publish(before, current);
+                writtenItems++;
+            } else if (retried) {
+                unresolved(attempt);
+            } else {
+                conflicts.increment();
+                retry.put(before.getSku(), attempt.delta());
+            }
+        }
+        written.increment(writtenItems);
+        return writtenItems;
+    }
+
+    /**
+     * Match an item only at the version it was read at
+     */
+    private static Query guard(Item before) {
+        return Query.query(Criteria.where("_id").is(before.getId())
+                .and("changeSequence").is(before.getChangeSequence()));
+    }
+
+    /**
+     * Drop the delta of an unconfirmed write whose guard no longer matches and which did not leave the item at any
+     * of its sequences: it may or may not have been applied before the item was written again
+     * The delta is reported to its submissions, which have not been acknowledged yet
+     */
+    private void unresolved(Unconfirmed write) {
+        unresolved.increment();
+        write.pendings().forEach(pending -> pending.unresolvedSkus.add(write.before().getSku()));
+        log.warn("Dropping stock delta {} for SKU {}: its earlier write may or may not have been applied and the "
+                + "item has changed since", write.delta(), write.before().getSku());
+    }
+
+    private void publish(Item before, Item after) {
+        eventPublisher.publishEvent(new ItemChangedEvent(ItemChangeType.STOCK_CHANGED, after.getId(),
+                before, after, Instant.now()));
+    }
+
+    /**
+     * Pipeline update adding a delta to the quantity (floored at zero) and deriving the status from the result
+     */
+    static AggregationUpdate stockUpdate(long delta, long sequence) {
+        int increment = (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, delta));
+        Document quantity = new Document("$max", List.of(0, new Document("$add", List.of("$quantity", increment))));
+        Document status = new Document("$switch", new Document("branches", List.of(
+                new Document("case", new Document("$lte", List.of(quantity, 0)))
+                        .append("then", ItemStatus.OUT_OF_STOCK.name()),
+                new Document("case", new Document("$eq", List.of("$status", ItemStatus.OUT_OF_STOCK.name())))
+                        .append("then", ItemStatus.AVAILABLE.name())))
+                .append("default", "$status"));
+
+        return AggregationUpdate.update().set(SetOperation.set("quantity").toValue(expression(quantity))
+                .and().set("status").toValue(expression(status))
+                .and().set("changeSequence").toValue(sequence)
+                .and().set("updatedAt").toValue(expression(new Document("$toDate", "$$NOW"))));
+    }
+
+    private static AggregationExpression expression(Document document) {
+        return context -> document;
+    }
+
+    private Map<String, Item> byId(List<Unconfirmed> writes) {
+        List<String> ids = writes.stream().map(write -> write.before().getId()).toList();
+        Map<String, Item> items = new HashMap<>();
+        for (Item item : mongoTemplate.find(Query.query(Criteria.where("_id").in(ids)), Item.class)) {
+            items.put(item.getId(), item);
+        }
+        return items;
+    }
+
+    private Map<String, Item> bySku(Set<String> skus) {
+        Map<String, Item> items = new HashMap<>();
+        for (Item item : mongoTemplate.find(Query.query(Criteria.where("sku").in(skus)), Item.class)) {
+            items.putIfAbsent(item.getSku(), item);
+        }
+        return items;
+    }
+
+    private void requeue(Map<String, Long> deltas) {
+        for (Map.Entry<String, Long> delta : deltas.entrySet()) {
+            Stripe stripe = stripeOf(delta.getKey());
+            synchronized (stripe) {
+                stripe.deltas.merge(delta.getKey(), delta.getValue(), Long::sum);
+                stripe.count++;
+            }
+            pendingDeltas.incrementAndGet();
+        }
+    }
+
+    private Stripe stripeOf(String sku) {
+        return stripes[Math.floorMod(sku.trim().hashCode(), stripes.length)];
+    }
+}
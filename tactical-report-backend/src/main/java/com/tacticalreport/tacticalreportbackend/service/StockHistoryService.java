@@ -0,0 +1,304 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.dto.StockSeriesPoint;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangedEvent;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.StockLevel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Records every quantity change into the "stock_history" time-series collection and queries it
+ * <p>
+ * Changes are taken from ItemChangedEvent (item writes, stock deltas, deletes and archiving), queued in memory
+ * and inserted in unordered batches every flush interval, or sooner once a batch is full, so writes never wait
+ * on the history. The queue is bounded: when the database falls behind, changes beyond max-pending are dropped
+ * and counted rather than growing the heap. The collection is bucketed per item (meta) at the configured
+ * granularity, which packs an item's changes into a few compressed buckets; old buckets expire after the
+ * retention.
+ */
+@Service
+@Slf4j
+public class StockHistoryService {
+
+    private static final Pattern INTERVAL = Pattern.compile("(\\d+)([mhdw])");
+
+    private final MongoTemplate mongoTemplate;
+    private final ReadRouting readRouting;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Granularity granularity;
+    private final Duration retention;
+    private final int maxPoints;
+
+    private final BlockingQueue<StockLevel> queue;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Object flushLock = new Object();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stock-history-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter recorded;
+    private final Counter dropped;
+    private final Counter flushFailures;
+
+    public StockHistoryService(
+            MongoTemplate mongoTemplate,
+            ReadRouting readRouting,
+            MeterRegistry meterRegistry,
+            @Value("${items.stock-history.enabled:true}") boolean enabled,
+            @Value("${items.stock-history.batch-size:1000}") int batchSize,
+            @Value("${items.stock-history.max-pending:100000}") int maxPending,
+            @Value("${items.stock-history.granularity:hours}") String granularity,
+            @Value("${items.stock-history.retention:365d}") Duration retention,
+            @Value("${items.stock-history.max-points:1000}") int maxPoints
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.readRouting = readRouting;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.granularity = Granularity.valueOf(granularity.trim().toUpperCase(Locale.ROOT));
+        this.retention = retention;
+        this.maxPoints = maxPoints;
+        this.queue = new ArrayBlockingQueue<>(maxPending);
+        this.recorded = Counter.builder("items.stock.history.recorded").register(meterRegistry);
+        this.dropped = Counter.builder("items.stock.history.dropped").register(meterRegistry);
+        this.flushFailures = Counter.builder("items.stock.history.flush.failures").register(meterRegistry);
+        Gauge.builder("items.stock.history.pending", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        StockLevel level = levelOf(event);
+        if (level == null) {
+            return;
+        }
+        if (!queue.offer(level)) {
+            dropped.increment();
+            return;
+        }
+        if (queue.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * The history entry for a change, or null if the quantity did not change
+     */
+    static StockLevel levelOf(ItemChangedEvent event) {
+        Item before = event.getBefore();
+        Item after = event.getAfter();
+        Item item = after != null ? after : before;
+        if (item == null) {
+            return null;
+        }
+        int previous = before == null || before.getQuantity() == null ? 0 : before.getQuantity();
+        int current = after == null || after.getQuantity() == null ? 0 : after.getQuantity();
+        if (before != null && previous == current) {
+            return null;
+        }
+        return StockLevel.builder()
+                .timestamp(LocalDateTime.ofInstant(event.getOccurredAt(), ZoneId.systemDefault()))
+                .meta(new StockLevel.Meta(item.getId(), item.getSku(), item.getCategory()))
+                .quantity(current)
+                .delta(current - previous)
+                .change(event.getType().name())
+                .build();
+    }
+
+    /**
+     * Insert queued changes in batches
+     * Runs every flush interval (1s by default), and early when a batch is full
+     *
+     * @return Number of changes written
+     */
+    @Scheduled(fixedDelayString = "${items.stock-history.flush-interval-ms:1000}")
+    public int flush() {
+        synchronized (flushLock) {
+            int written = 0;
+            List<StockLevel> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                try {
+                    mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, StockLevel.class).insert(batch).execute();
+                } catch (RuntimeException e) {
+                    // Retried on the next flush; a partially applied batch may record some changes twice
+                    flushFailures.increment();
+                    log.warn("Failed to write {} stock history entries, retrying on the next flush: {}",
+                            batch.size(), e.getMessage());
+                    batch.forEach(level -> {
+                        if (!queue.offer(level)) {
+                            dropped.increment();
+                        }
+                    });
+                    return written;
+                }
+                written += batch.size();
+                recorded.increment(batch.size());
+                batch = new ArrayList<>(batchSize);
+            }
+            return written;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdownNow();
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush stock history on shutdown", e);
+        }
+    }
+
+    /**
+     * Create the time-series collection and its secondary indexes
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureCollection() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (!mongoTemplate.collectionExists(StockLevel.class)) {
+                mongoTemplate.createCollection(StockLevel.class, CollectionOptions.timeSeries("timestamp",
+                        options -> options.metaField("meta").granularity(granularity).expireAfter(retention)));
+            }
+            mongoTemplate.indexOps(StockLevel.class).createIndex(new Index()
+                    .on("meta.itemId", Sort.Direction.ASC)
+                    .on("timestamp", Sort.Direction.DESC)
+                    .named("item_timestamp"));
+            mongoTemplate.indexOps(StockLevel.class).createIndex(new Index()
+                    .on("meta.category", Sort.Direction.ASC)
+                    .on("timestamp", Sort.Direction.ASC)
+                    .named("category_timestamp"));
+        } catch (RuntimeException e) {
+            log.warn("Could not create stock history collection: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Get the quantity changes of an item, newest first
+     *
+     * @param itemId The item ID
+     * @param from   Start of the range (inclusive)
+     * @param to     End of the range (exclusive)
+     * @param limit  Maximum number of changes
+     * @return Changes in the range
+     */
+    public List<StockLevel> getItemHistory(String itemId, LocalDateTime from, LocalDateTime to, int limit) {
+        Query query = Query.query(Criteria.where("meta.itemId").is(itemId).and("timestamp").gte(from).lt(to))
+                .with(Sort.by(Sort.Direction.DESC, "timestamp"))
+                .limit(Math.max(1, Math.min(limit, maxPoints)));
+        return readRouting.secondary(() -> mongoTemplate.find(query, StockLevel.class));
+    }
+
+    /**
+     * Get a category's stock movement downsampled into fixed buckets
+     *
+     * @param category The category
+     * @param from     Start of the range (inclusive)
+     * @param to       End of the range (exclusive)
+     * @param interval Bucket size: a number and m, h, d or w (e.g. 15m, 1h, 1d)
+     * @return One point per bucket with at least one change, oldest first
+     * @throws IllegalArgumentException for a malformed interval or too many buckets
+     */
+    public List<StockSeriesPoint> getCategorySeries(String category, LocalDateTime from, LocalDateTime to,
+                                                    String interval) {
+        Matcher bin = INTERVAL.matcher(interval == null ? "" : interval.trim());
+        if (!bin.matches() || Integer.parseInt(bin.group(1)) < 1) {
+            throw new IllegalArgumentException("Invalid interval: " + interval + " (expected e.g. 15m, 1h, 1d, 1w)");
+        }
+        int binSize = Integer.parseInt(bin.group(1));
+        String unit = switch (bin.group(2)) {
+            case "m" -> "minute";
+            case "h" -> "hour";
+            case "d" -> "day";
+            default -> "week";
+        };
+        Duration binLength = switch (bin.group(2)) {
+            case "m" -> Duration.ofMinutes(binSize);
+            case "h" -> Duration.ofHours(binSize);
+            case "d" -> Duration.ofDays(binSize);
+            default -> Duration.ofDays(7L * binSize);
+        };
+        if (Duration.between(from, to).dividedBy(binLength) > maxPoints) {
+            throw new IllegalArgumentException("Range holds more than " + maxPoints + " buckets of " + interval);
+        }
+
+        Document truncate = new Document("$dateTrunc", new Document("date", "$timestamp")
+                .append("unit", unit)
+                .append("binSize", binSize)
+                .append("timezone", ZoneId.systemDefault().getId()));
+        Document group = new Document("_id", truncate)
+                .append("changes", new Document("$sum", 1))
+                .append("unitsIn", new Document("$sum", new Document("$max", List.of("$delta", 0))))
+                .append("unitsOut", new Document("$sum",
+                        new Document("$max", List.of(new Document("$multiply", List.of("$delta", -1)), 0))));
+        AggregationOperation groupByBucket = context -> new Document("$group", group);
+        TypedAggregation<StockLevel> aggregation = Aggregation.newAggregation(StockLevel.class,
+                Aggregation.match(Criteria.where("meta.category").is(category).and("timestamp").gte(from).lt(to)),
+                groupByBucket,
+                Aggregation.sort(Sort.by("_id")));
+
+        List<Document> buckets = readRouting.secondary(() ->
+                mongoTemplate.aggregate(aggregation, Document.class).getMappedResults());
+        return buckets.stream().map(document -> {
+            long unitsIn = toLong(document.get("unitsIn"));
+            long unitsOut = toLong(document.get("unitsOut"));
+            return StockSeriesPoint.builder()
+                    .bucket(LocalDateTime.ofInstant(document.get("_id", Date.class).toInstant(), ZoneId.systemDefault()))
+                    .changes(toLong(document.get("changes")))
+                    .unitsIn(unitsIn)
+                    .unitsOut(unitsOut)
+                    .netChange(unitsIn - unitsOut)
+                    .build();
+        }).toList();
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+}
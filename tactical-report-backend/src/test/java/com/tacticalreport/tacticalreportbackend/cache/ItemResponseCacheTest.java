@@ -0,0 +1,153 @@
+package com.tacticalreport.tacticalreportbackend.cache;
+
+import com.tacticalreport.tacticalreportbackend.event.ItemChangeType;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangedEvent;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ItemResponseCache
+ * Covers hits, version fencing on writes, gzip bodies and header parsing
+ */
+@DisplayName("ItemResponseCache Unit Tests")
+class ItemResponseCacheTest {
+
+    private ItemResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ItemResponseCache(Jackson2ObjectMapperBuilder.json().build(), new SimpleMeterRegistry(),
+                true, 1, 512, 100, 256, Duration.ofMinutes(1));
+    }
+
+    private static Item item(String id, long sequence, String description) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName("Item " + id);
+        item.setDescription(description);
+        item.setPrice(new BigDecimal("19.99"));
+        item.setQuantity(5);
+        item.setChangeSequence(sequence);
+        return item;
+    }
+
+    private static String render(CachedItemBody body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        body.release();
+        byte[] bytes = out.toByteArray();
+        if (body.isGzipped()) {
+            bytes = new GZIPInputStream(new ByteArrayInputStream(bytes)).readAllBytes();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Should serve cached bytes after the first render")
+    void shouldServeCachedBytes() throws IOException {
+        // Given
+        String rendered = render(cache.put(item("a", 1, "first"), false));
+
+        // When
+        CachedItemBody cached = cache.get("a", false);
+
+        // Then
+        assertThat(cached).isNotNull();
+        assertThat(cached.getContentLength()).isEqualTo(rendered.length());
+        assertThat(render(cached)).isEqualTo(rendered).contains("\"description\":\"first\"");
+    }
+
+    @Test
+    @DisplayName("Should not cache a version older than the last write")
+    void shouldFenceOutStaleVersions() throws IOException {
+        // Given
+        render(cache.put(item("a", 1, "first"), false));
+        cache.onItemChanged(new ItemChangedEvent(ItemChangeType.UPDATED, "a",
+                item("a", 1, "first"), item("a", 2, "second"), Instant.now()));
+
+        // When
+        render(cache.put(item("a", 1, "first"), false));
+
+        // Then
+        assertThat(cache.get("a", false)).isNull();
+        render(cache.put(item("a", 2, "second"), false));
+        assertThat(render(cache.get("a", false))).contains("\"description\":\"second\"");
+    }
+
+    @Test
+    @DisplayName("Should serve gzip bodies for large items when accepted")
+    void shouldServeGzipBodies() throws IOException {
+        // Given
+        String description = "x".repeat(2000);
+        render(cache.put(item("a", 1, description), true));
+
+        // When
+        CachedItemBody gzipped = cache.get("a", true);
+        CachedItemBody plain = cache.get("a", false);
+
+        // Then
+        assertThat(gzipped.isGzipped()).isTrue();
+        assertThat(gzipped.getContentLength()).isLessThan(plain.getContentLength());
+        assertThat(render(gzipped)).isEqualTo(render(plain));
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used entries when the slab is full")
+    void shouldEvictWhenFull() throws IOException {
+        // Given - 1MB slab, ~10KB items
+        String description = "y".repeat(10_000);
+        for (int i = 0; i < 200; i++) {
+            render(cache.put(item("item-" + i, i, description), false));
+        }
+
+        // Then
+        assertThat(cache.get("item-0", false)).isNull();
+        assertThat(render(cache.get("item-199", false))).contains("item-199");
+    }
+
+    @Test
+    @DisplayName("Should keep fences through slab and max-entries eviction")
+    void shouldNotEvictFences() throws IOException {
+        // Given - the fence is the eldest entry when the slab fills up and the entry limit is exceeded
+        cache.onItemChanged(new ItemChangedEvent(ItemChangeType.UPDATED, "a",
+                item("a", 1, "first"), item("a", 2, "second"), Instant.now()));
+        String description = "y".repeat(10_000);
+        for (int i = 0; i < 200; i++) {
+            render(cache.put(item("item-" + i, i, description), false));
+        }
+
+        // When - a read that loaded the old version before the write finishes late
+        render(cache.put(item("a", 1, "first"), false));
+
+        // Then
+        assertThat(cache.get("a", false)).isNull();
+        assertThat(cache.get("item-0", false)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should leave binary formats to content negotiation")
+    void shouldDetectAcceptableMediaTypes() {
+        assertThat(ItemResponseCache.acceptsJson(null)).isTrue();
+        assertThat(ItemResponseCache.acceptsJson("*/*")).isTrue();
+        assertThat(ItemResponseCache.acceptsJson("application/json, text/plain, */*")).isTrue();
+        assertThat(ItemResponseCache.acceptsJson("application/cbor")).isFalse();
+        assertThat(ItemResponseCache.acceptsJson("application/x-jackson-smile, */*;q=0.1")).isFalse();
+        assertThat(ItemResponseCache.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(ItemResponseCache.acceptsGzip(null)).isFalse();
+    }
+}
@@ -0,0 +1,167 @@
+package com.tacticalreport.tacticalreportbackend.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for SingleFlight
+ * Covers sharing of one in-flight call, error propagation, the waiting timeout and forgetting stale calls
+ */
+@DisplayName("SingleFlight Tests")
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private SingleFlight<String, StringBuilder> singleFlight(Duration timeout) {
+        return new SingleFlight<>("test", timeout, StringBuilder::new, meterRegistry);
+    }
+
+    private double calls(String outcome) {
+        return meterRegistry.get("items.singleflight.calls").tag("outcome", outcome).counter().count();
+    }
+
+    /**
+     * Start a leader whose loader blocks until released, and wait until it is in flight
+     */
+    private Future<StringBuilder> startLeader(SingleFlight<String, StringBuilder> singleFlight, CountDownLatch release,
+                                              AtomicInteger loads) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        Future<StringBuilder> leader = executor.submit(() -> singleFlight.execute("item-1", () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            await(release);
+            return new StringBuilder("value");
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        return leader;
+    }
+
+    @Test
+    @DisplayName("Should run one load for concurrent callers and hand each follower its own copy")
+    void shouldShareInFlightCall() throws Exception {
+        // Given
+        SingleFlight<String, StringBuilder> singleFlight = singleFlight(Duration.ofSeconds(5));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Future<StringBuilder> leader = startLeader(singleFlight, release, loads);
+
+        // When
+        List<Future<StringBuilder>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(executor.submit(() -> singleFlight.execute("item-1", () -> {
+                loads.incrementAndGet();
+                return new StringBuilder("duplicate");
+            })));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        // Then
+        StringBuilder leaderValue = leader.get(5, TimeUnit.SECONDS);
+        for (Future<StringBuilder> follower : followers) {
+            StringBuilder value = follower.get(5, TimeUnit.SECONDS);
+            assertThat(value.toString()).isEqualTo("value");
+            assertThat(value).isNotSameAs(leaderValue);
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(calls("leader")).isEqualTo(1.0);
+        assertThat(calls("shared")).isEqualTo(5.0);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should propagate the leader's exception to waiting callers")
+    void shouldShareFailure() throws Exception {
+        // Given
+        SingleFlight<String, StringBuilder> singleFlight = singleFlight(Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> singleFlight.execute("item-1", () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("mongo down");
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        Future<StringBuilder> follower = executor.submit(() -> singleFlight.execute("item-1", StringBuilder::new));
+        Thread.sleep(100);
+        release.countDown();
+
+        // Then
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("mongo down");
+    }
+
+    @Test
+    @DisplayName("Should run its own load when the shared call takes longer than the timeout")
+    void shouldFallBackAfterTimeout() throws Exception {
+        // Given
+        SingleFlight<String, StringBuilder> singleFlight = singleFlight(Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        startLeader(singleFlight, release, loads);
+
+        // When
+        StringBuilder value = singleFlight.execute("item-1", () -> new StringBuilder("own"));
+        release.countDown();
+
+        // Then
+        assertThat(value.toString()).isEqualTo("own");
+        assertThat(calls("timeout")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should start a new call after the in-flight one is forgotten")
+    void shouldNotJoinForgottenCall() throws Exception {
+        // Given
+        SingleFlight<String, StringBuilder> singleFlight = singleFlight(Duration.ofSeconds(5));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        startLeader(singleFlight, release, loads);
+
+        // When
+        singleFlight.forget(key -> key.equals("item-1"));
+        StringBuilder value = singleFlight.execute("item-1", () -> new StringBuilder("after write"));
+        release.countDown();
+
+        // Then
+        assertThat(value.toString()).isEqualTo("after write");
+        assertThat(calls("leader")).isEqualTo(2.0);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.tacticalreport.tacticalreportbackend.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ConnectionPoolSettings;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.service.ReadRouting;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the Mongo client tuning in MongoConfig and MongoPoolMetrics,
+ * and for creating the read-routing template the way the application context does
+ */
+@DisplayName("MongoConfig Tests")
+class MongoConfigTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MongoPoolMetrics poolMetrics = new MongoPoolMetrics(meterRegistry);
+
+    private MongoClientSettings customize(List<String> compressors) {
+        MongoClientSettings.Builder builder = MongoClientSettings.builder();
+        new MongoConfig().mongoClientTuning(poolMetrics, 5, 50, Duration.ofMillis(1500), Duration.ofMinutes(10), 3,
+                Duration.ofSeconds(4), Duration.ofSeconds(20), compressors).customize(builder);
+        return builder.build();
+    }
+
+    @Test
+    @DisplayName("Should apply pool sizing, timeouts, compressors and the pool listener")
+    void shouldApplyClientSettings() {
+        // When
+        MongoClientSettings settings = customize(List.of("zstd", " snappy", "zlib"));
+
+        // Then
+        ConnectionPoolSettings pool = settings.getConnectionPoolSettings();
+        assertThat(pool.getMinSize()).isEqualTo(5);
+        assertThat(pool.getMaxSize()).isEqualTo(50);
+        assertThat(pool.getMaxWaitTime(TimeUnit.MILLISECONDS)).isEqualTo(1500);
+        assertThat(pool.getMaxConnecting()).isEqualTo(3);
+        assertThat(pool.getConnectionPoolListeners()).containsExactly(poolMetrics);
+        assertThat(settings.getSocketSettings().getConnectTimeout(TimeUnit.MILLISECONDS)).isEqualTo(4000);
+        assertThat(settings.getSocketSettings().getReadTimeout(TimeUnit.MILLISECONDS)).isEqualTo(20000);
+        assertThat(settings.getCompressorList()).extracting(MongoCompressor::getName)
+                .containsExactly("zstd", "snappy", "zlib");
+    }
+
+    @Test
+    @DisplayName("Should reject unknown compressors")
+    void shouldRejectUnknownCompressor() {
+        assertThatThrownBy(() -> customize(List.of("lz4")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("lz4");
+    }
+
+    @Test
+    @DisplayName("Should time checkout waits by outcome and count open connections")
+    void shouldRecordPoolMetrics() {
+        // Given
+        ConnectionId connection = new ConnectionId(new ServerId(new ClusterId(), new ServerAddress()));
+
+        // When
+        poolMetrics.connectionCreated(new ConnectionCreatedEvent(connection));
+        poolMetrics.connectionCreated(new ConnectionCreatedEvent(connection));
+        poolMetrics.connectionClosed(new ConnectionClosedEvent(connection, ConnectionClosedEvent.Reason.IDLE));
+        poolMetrics.connectionCheckedOut(new ConnectionCheckedOutEvent(connection, 1, TimeUnit.MILLISECONDS.toNanos(3)));
+        poolMetrics.connectionCheckOutFailed(new ConnectionCheckOutFailedEvent(connection.getServerId(), 2,
+                ConnectionCheckOutFailedEvent.Reason.TIMEOUT, TimeUnit.SECONDS.toNanos(2)));
+
+        // Then
+        assertThat(poolMetrics.openConnections()).isEqualTo(1);
+        assertThat(poolMetrics.openConnections(new ServerAddress())).isEqualTo(1);
+        assertThat(poolMetrics.openConnections(new ServerAddress("localhost", 27018))).isZero();
+        Timer success = meterRegistry.get("mongodb.pool.checkout.wait").tag("outcome", "success").timer();
+        assertThat(success.count()).isEqualTo(1);
+        assertThat(success.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(3);
+        Timer failed = meterRegistry.get("mongodb.pool.checkout.wait").tag("reason", "timeout").timer();
+        assertThat(failed.totalTime(TimeUnit.SECONDS)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should create the template with auto index creation and route reads to secondaries")
+    @SuppressWarnings("unchecked")
+    void shouldCreateTemplateWithAutoIndexCreation() {
+        // Given
+        MongoDatabaseFactory factory = mock(MongoDatabaseFactory.class);
+        MongoDatabase database = mock(MongoDatabase.class);
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        MongoCollection<Document> routedCollection = mock(MongoCollection.class);
+        when(factory.getMongoDatabase()).thenReturn(database);
+        when(database.getCollection(anyString(), eq(Document.class))).thenReturn(collection);
+        when(collection.withReadPreference(any(ReadPreference.class))).thenReturn(routedCollection);
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        mappingContext.setAutoIndexCreation(true);
+        mappingContext.setInitialEntitySet(Set.of(Item.class));
+        mappingContext.initialize();
+        ReadRouting readRouting = new ReadRouting(true, Duration.ofSeconds(90));
+
+        // When
+        MongoTemplate template = new MongoConfig().mongoTemplate(factory,
+                new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext), readRouting);
+        MongoCollection<Document> primary = template.execute("items", items -> items);
+        MongoCollection<Document> secondary = readRouting.secondary(() -> template.execute("items", items -> items));
+
+        // Then
+        verify(collection, atLeastOnce()).createIndex(any(Bson.class), any(IndexOptions.class));
+        assertThat(primary).isSameAs(collection);
+        assertThat(secondary).isSameAs(routedCollection);
+    }
+}
@@ -0,0 +1,105 @@
+package com.tacticalreport.tacticalreportbackend.config;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.connection.ClusterConnectionMode;
+import com.mongodb.connection.ClusterDescription;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ClusterType;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ServerConnectionState;
+import com.mongodb.connection.ServerDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.connection.ServerType;
+import com.mongodb.event.ConnectionCreatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for MongoPoolWarmer
+ * Covers warming the pool of every replica set member and stopping only once each has min-size connections
+ */
+@DisplayName("MongoPoolWarmer Tests")
+class MongoPoolWarmerTest {
+
+    private static final ServerAddress PRIMARY = new ServerAddress("localhost", 27017);
+    private static final ServerAddress SECONDARY = new ServerAddress("localhost", 27018);
+
+    private final MongoPoolMetrics poolMetrics = new MongoPoolMetrics(new SimpleMeterRegistry());
+    private final MongoClient mongoClient = mock(MongoClient.class);
+    private final MongoDatabase admin = mock(MongoDatabase.class);
+    private final ClusterId clusterId = new ClusterId();
+
+    @BeforeEach
+    void setUp() {
+        when(mongoClient.getClusterDescription()).thenReturn(new ClusterDescription(ClusterConnectionMode.MULTIPLE,
+                ClusterType.REPLICA_SET, List.of(server(PRIMARY, ServerType.REPLICA_SET_PRIMARY),
+                server(SECONDARY, ServerType.REPLICA_SET_SECONDARY))));
+        when(mongoClient.getDatabase("admin")).thenReturn(admin);
+    }
+
+    private static ServerDescription server(ServerAddress address, ServerType type) {
+        return ServerDescription.builder().address(address).type(type).ok(true)
+                .state(ServerConnectionState.CONNECTED).build();
+    }
+
+    /**
+     * Each ping opens a connection to the server its read preference selects
+     */
+    private void givenPingsReach(Function<ReadPreference, ServerAddress> selection) {
+        when(admin.runCommand(any(Bson.class), any(ReadPreference.class))).thenAnswer(invocation -> {
+            ServerAddress server = selection.apply(invocation.getArgument(1));
+            poolMetrics.connectionCreated(new ConnectionCreatedEvent(new ConnectionId(new ServerId(clusterId, server))));
+            return new Document("ok", 1);
+        });
+    }
+
+    @Test
+    @DisplayName("Should ping the primary and the secondaries until each has min-size connections")
+    void shouldWarmEveryServer() {
+        // Given
+        givenPingsReach(preference -> preference.equals(ReadPreference.primary()) ? PRIMARY : SECONDARY);
+        MongoPoolWarmer warmer = new MongoPoolWarmer(mongoClient, poolMetrics, true, 3, Duration.ofSeconds(5));
+
+        // When
+        boolean warmed = warmer.warm();
+
+        // Then
+        assertThat(warmed).isTrue();
+        assertThat(poolMetrics.openConnections(PRIMARY)).isEqualTo(3);
+        assertThat(poolMetrics.openConnections(SECONDARY)).isEqualTo(3);
+        verify(admin, times(3)).runCommand(any(Bson.class), eq(ReadPreference.primary()));
+        verify(admin, times(3)).runCommand(any(Bson.class), eq(ReadPreference.secondaryPreferred()));
+    }
+
+    @Test
+    @DisplayName("Should not count connections to one server towards another")
+    void shouldCountPerServer() {
+        // Given
+        givenPingsReach(preference -> PRIMARY);
+        MongoPoolWarmer warmer = new MongoPoolWarmer(mongoClient, poolMetrics, true, 3, Duration.ofSeconds(5));
+
+        // When
+        boolean warmed = warmer.warm();
+
+        // Then
+        assertThat(warmed).isFalse();
+        assertThat(poolMetrics.openConnections(SECONDARY)).isZero();
+        assertThat(poolMetrics.openConnections()).isGreaterThan(3);
+    }
+}
@@ -1,31 +1,46 @@
 package com.tacticalreport.tacticalreportbackend.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tacticalreport.tacticalreportbackend.cache.CachedItemBody;
+import com.tacticalreport.tacticalreportbackend.cache.ItemResponseCache;
+import com.tacticalreport.tacticalreportbackend.dto.ItemFacets;
 import com.tacticalreport.tacticalreportbackend.exception.DuplicateSkuException;
 import com.tacticalreport.tacticalreportbackend.exception.ItemNotFoundException;
+import com.tacticalreport.tacticalreportbackend.exception.PreconditionFailedException;
 import com.tacticalreport.tacticalreportbackend.model.Item;
 import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import com.tacticalreport.tacticalreportbackend.model.ItemVersion;
+import com.tacticalreport.tacticalreportbackend.service.ItemFacetService;
+import com.tacticalreport.tacticalreportbackend.service.ItemFilter;
 import com.tacticalreport.tacticalreportbackend.service.ItemService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,6 +51,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Does not require database or full Spring context
  */
 @WebMvcTest(ItemController.class)
+@Import(SimpleMeterRegistry.class) // metrics for the rate limit filter, which @WebMvcTest loads
 @DisplayName("ItemController Tests")
 class ItemControllerTest {
 
@@ -48,6 +64,12 @@ class ItemControllerTest {
     @MockitoBean // required because service isn't loaded
     private ItemService itemService;
 
+    @MockitoBean // disabled by default so requests take the regular serialization path
+    private ItemResponseCache itemResponseCache;
+
+    @MockitoBean
+    private ItemFacetService itemFacetService;
+
     private Item testItem;
     private static final String SAMPLE_BASE64_IMAGE = "data:image/png;base64,iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mNk+M9QDwADhgGAWjR9awAAAABJRU5ErkJggg==";
 
@@ -185,6 +207,50 @@ class ItemControllerTest {
     }
 
 
+    @Test
+    @DisplayName("GET /api/items/{id}?includeArchived=true - Should return an archived item")
+    void shouldReturnArchivedItemWhenIncluded() throws Exception {
+        testItem.setArchivedAt(LocalDateTime.of(2025, 1, 15, 10, 0));
+        when(itemService.getItemById("test-id-123", true)).thenReturn(testItem);
+
+        mockMvc.perform(get("/api/items/test-id-123").param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("test-id-123"))
+                .andExpect(jsonPath("$.archivedAt").exists());
+    }
+
+    @Test
+    @DisplayName("GET /api/items?includeArchived=true - Should reject filters other than category and status")
+    void shouldRejectUnsupportedFiltersWithIncludeArchived() throws Exception {
+        mockMvc.perform(get("/api/items").param("includeArchived", "true").param("name", "laptop"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).getItemsIncludingArchived(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/items?sort=price,asc&sort=name,desc - Should pass the sort orders in request order")
+    void shouldPassMultiFieldSort() throws Exception {
+        when(itemService.getAllItems(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(testItem)));
+
+        mockMvc.perform(get("/api/items").param("sort", "price,asc").param("sort", "name,desc"))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(itemService).getAllItems(pageable.capture());
+        assertThat(pageable.getValue().getSort()).containsExactly(Sort.Order.asc("price"), Sort.Order.desc("name"));
+    }
+
+    @Test
+    @DisplayName("GET /api/items?sort=description - Should return 400 for a sort that is not allowed")
+    void shouldRejectUnsupportedSort() throws Exception {
+        when(itemService.getAllItems(any(Pageable.class)))
+                .thenThrow(new IllegalArgumentException("Cannot sort by 'description'"));
+
+        mockMvc.perform(get("/api/items").param("sort", "description"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("PUT /api/items/{id} - Should update item successfully")
     void shouldUpdateItemSuccessfully() throws Exception {
@@ -195,7 +261,7 @@ class ItemControllerTest {
         updatedItem.setQuantity(15);
         updatedItem.setSku("TEST-001");
 
-        when(itemService.updateItem(eq("test-id-123"), any(Item.class))).thenReturn(updatedItem);
+        when(itemService.updateItem(eq("test-id-123"), any(Item.class), isNull())).thenReturn(updatedItem);
 
         mockMvc.perform(put("/api/items/test-id-123")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -209,7 +275,7 @@ class ItemControllerTest {
     @Test
     @DisplayName("PUT /api/items/{id} - Should return 404 when updating non-existent item")
     void shouldReturn404WhenUpdatingNonExistentItem() throws Exception {
-        when(itemService.updateItem(eq("invalid-id"), any(Item.class)))
+        when(itemService.updateItem(eq("invalid-id"), any(Item.class), isNull()))
                 .thenThrow(new ItemNotFoundException("invalid-id"));
 
         mockMvc.perform(put("/api/items/invalid-id")
@@ -224,7 +290,7 @@ class ItemControllerTest {
     @Test
     @DisplayName("DELETE /api/items/{id} - Should delete item successfully")
     void shouldDeleteItemSuccessfully() throws Exception {
-        doNothing().when(itemService).deleteItem("test-id-123");
+        doNothing().when(itemService).deleteItem("test-id-123", null);
 
         mockMvc.perform(delete("/api/items/test-id-123"))
                 .andExpect(status().isOk())
@@ -236,6 +302,55 @@ class ItemControllerTest {
 
 
 
+    @Test
+    @DisplayName("GET /api/items?category=Electronics&facets=true - Should return facet counts with the page")
+    void shouldReturnFacetsWithPage() throws Exception {
+        Page<Item> itemsPage = new PageImpl<>(List.of(testItem), PageRequest.of(0, 20), 1);
+        when(itemService.getItemsByCategory(eq("Electronics"), any(Pageable.class))).thenReturn(itemsPage);
+        ItemFacets facets = ItemFacets.builder()
+                .categories(List.of(new ItemFacets.ValueCount("Electronics", 1), new ItemFacets.ValueCount("Office", 4)))
+                .statuses(List.of(new ItemFacets.ValueCount("AVAILABLE", 1)))
+                .priceRanges(List.of(new ItemFacets.RangeCount(new BigDecimal("500"), null, 1)))
+                .quantityRanges(List.of())
+                .build();
+        when(itemFacetService.getFacets(any(ItemFilter.class))).thenReturn(facets);
+
+        mockMvc.perform(get("/api/items").param("category", "Electronics").param("facets", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.facets.categories", hasSize(2)))
+                .andExpect(jsonPath("$.facets.categories[1].value").value("Office"))
+                .andExpect(jsonPath("$.facets.categories[1].count").value(4))
+                .andExpect(jsonPath("$.facets.priceRanges[0].from").value(500));
+        verify(itemFacetService).getFacets(argThat(filter -> "Electronics".equals(filter.category())));
+    }
+
+    @Test
+    @DisplayName("GET /api/items?category=Electronics&status=AVAILABLE - Should apply both filters to the list")
+    void shouldCombineFilters() throws Exception {
+        Page<Item> itemsPage = new PageImpl<>(List.of(testItem), PageRequest.of(0, 20), 1);
+        when(itemService.getItemsByFilter(any(ItemFilter.class), any(Pageable.class))).thenReturn(itemsPage);
+
+        mockMvc.perform(get("/api/items").param("category", "Electronics").param("status", "AVAILABLE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)));
+        verify(itemService).getItemsByFilter(argThat(filter -> "Electronics".equals(filter.category())
+                && filter.status() == ItemStatus.AVAILABLE), any(Pageable.class));
+        verify(itemService, never()).getItemsByCategory(any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/items - Should not compute facets unless requested")
+    void shouldNotComputeFacetsByDefault() throws Exception {
+        when(itemService.getAllItems(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(testItem)));
+
+        mockMvc.perform(get("/api/items"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.facets").doesNotExist());
+        verifyNoInteractions(itemFacetService);
+    }
+
     @Test
     @DisplayName("GET /api/items?sku=TEST-001 - Should search by SKU")
     void shouldSearchBySku() throws Exception {
@@ -266,4 +381,153 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.content[0].price").value(29.99))
                 .andExpect(jsonPath("$.content[1].price").value(999.99));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET /api/items/{id} - Should return CBOR when requested via Accept header")
+    void shouldReturnCborWhenRequested() throws Exception {
+        testItem.setChangeSequence(42L);
+        when(itemService.getItemById("test-id-123")).thenReturn(testItem);
+
+        byte[] body = mockMvc.perform(get("/api/items/test-id-123")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("ETag", "\"42-cbor\""))
+                .andExpect(header().string("Vary", "Accept, Accept-Encoding"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Item decoded = Jackson2ObjectMapperBuilder.cbor().build().readValue(body, Item.class);
+        assertThat(decoded.getSku()).isEqualTo("TEST-001");
+        assertThat(decoded.getPrice()).isEqualByComparingTo("999.99");
+    }
+
+    @Test
+    @DisplayName("GET /api/items/{id} - Should return strong ETag from change sequence")
+    void shouldReturnETagForItem() throws Exception {
+        testItem.setChangeSequence(42L);
+        when(itemService.getItemById("test-id-123")).thenReturn(testItem);
+
+        mockMvc.perform(get("/api/items/test-id-123"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"42\""))
+                .andExpect(header().string("Vary", "Accept, Accept-Encoding"));
+    }
+
+    @Test
+    @DisplayName("GET /api/items/{id} - Should tag gzip bodies from the response cache separately from plain JSON")
+    void shouldReturnGzipETagFromCache() throws Exception {
+        CachedItemBody body = mock(CachedItemBody.class);
+        when(body.getETag()).thenReturn("\"42\"");
+        when(body.isGzipped()).thenReturn(true);
+        when(itemResponseCache.isEnabled()).thenReturn(true);
+        when(itemResponseCache.get("test-id-123", true)).thenReturn(body);
+
+        mockMvc.perform(get("/api/items/test-id-123").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"42-gzip\""))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept, Accept-Encoding"));
+        verify(body, atLeastOnce()).release();
+    }
+
+    @Test
+    @DisplayName("GET /api/items/{id} - Should not pin cached bytes for media types other than JSON")
+    void shouldBypassCacheForUnsupportedMediaTypes() throws Exception {
+        when(itemResponseCache.isEnabled()).thenReturn(true);
+        when(itemService.getItemById("test-id-123")).thenReturn(testItem);
+
+        mockMvc.perform(get("/api/items/test-id-123").accept(MediaType.APPLICATION_XML))
+                .andExpect(status().isNotAcceptable());
+        verify(itemResponseCache, never()).get(any(), anyBoolean());
+        verify(itemResponseCache, never()).put(any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("GET /api/items/{id} - Should answer 304 with the ETag of the negotiated representation")
+    void shouldReturn304ForRepresentation() throws Exception {
+        ItemVersion version = mock(ItemVersion.class);
+        when(version.getChangeSequence()).thenReturn(42L);
+        when(itemService.getItemVersion("test-id-123")).thenReturn(version);
+
+        mockMvc.perform(get("/api/items/test-id-123")
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header("If-None-Match", "\"42-cbor\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"42-cbor\""))
+                .andExpect(header().string("Vary", "Accept, Accept-Encoding"));
+    }
+
+    @Test
+    @DisplayName("GET /api/items/{id} - Should return 304 from version projection when ETag matches")
+    void shouldReturn304WhenETagMatches() throws Exception {
+        ItemVersion version = mock(ItemVersion.class);
+        when(version.getChangeSequence()).thenReturn(42L);
+        when(itemService.getItemVersion("test-id-123")).thenReturn(version);
+
+        mockMvc.perform(get("/api/items/test-id-123").header("If-None-Match", "\"42\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"42\""))
+                .andExpect(content().string(""));
+
+        verify(itemService, never()).getItemById(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/items/{id} - Should return full body when ETag is stale")
+    void shouldReturnBodyWhenETagIsStale() throws Exception {
+        ItemVersion version = mock(ItemVersion.class);
+        when(version.getChangeSequence()).thenReturn(43L);
+        when(itemService.getItemVersion("test-id-123")).thenReturn(version);
+        testItem.setChangeSequence(43L);
+        when(itemService.getItemById("test-id-123")).thenReturn(testItem);
+
+        mockMvc.perform(get("/api/items/test-id-123").header("If-None-Match", "\"42\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"43\""))
+                .andExpect(jsonPath("$.id").value("test-id-123"));
+    }
+
+    @Test
+    @DisplayName("GET /api/items - Should return 304 when list ETag matches")
+    void shouldReturn304ForUnchangedList() throws Exception {
+        testItem.setChangeSequence(42L);
+        Page<Item> itemsPage = new PageImpl<>(List.of(testItem), PageRequest.of(0, 20), 1);
+        when(itemService.getAllItems(any(Pageable.class))).thenReturn(itemsPage);
+
+        String etag = mockMvc.perform(get("/api/items"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertThat(etag).startsWith("W/");
+        mockMvc.perform(get("/api/items").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("PUT /api/items/{id} - Should return 412 when If-Match is stale")
+    void shouldReturn412WhenIfMatchIsStale() throws Exception {
+        when(itemService.updateItem(eq("test-id-123"), any(Item.class), eq("\"41\"")))
+                .thenThrow(new PreconditionFailedException("test-id-123"));
+
+        mockMvc.perform(put("/api/items/test-id-123")
+                        .header("If-Match", "\"41\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testItem)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412))
+                .andExpect(jsonPath("$.message").value(containsString("test-id-123")));
+    }
+
+    @Test
+    @DisplayName("GET /api/items - Should omit inline images that have renditions")
+    void shouldOmitInlineImagesFromList() throws Exception {
+        testItem.setImageHash("abc123");
+        Page<Item> itemsPage = new PageImpl<>(List.of(testItem), PageRequest.of(0, 20), 1);
+        when(itemService.getAllItems(any(Pageable.class))).thenReturn(itemsPage);
+
+        mockMvc.perform(get("/api/items"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].imageHash").value("abc123"))
+                .andExpect(jsonPath("$.content[0].image").doesNotExist());
+    }
+}
@@ -0,0 +1,172 @@
+package com.tacticalreport.tacticalreportbackend.event;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for SseBroadcaster
+ * Covers backlog overflow with resync, replay from Last-Event-ID and heartbeat cleanup of dead clients
+ */
+@DisplayName("SseBroadcaster Unit Tests")
+class SseBroadcasterTest {
+
+    private final List<Runnable> pending = new ArrayList<>();
+    private final Executor dispatch = pending::add;
+
+    private SseBroadcaster<String> broadcaster(int clientBufferSize, int replayCapacity, Executor executor) {
+        return new SseBroadcaster<>("test", clientBufferSize, replayCapacity, 0, executor) {
+            @Override
+            SseEmitter newEmitter() {
+                return new RecordingEmitter();
+            }
+        };
+    }
+
+    private void dispatchPending() {
+        while (!pending.isEmpty()) {
+            pending.removeFirst().run();
+        }
+    }
+
+    /**
+     * Emitter that records the events sent to it, or fails like a closed connection
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new ArrayList<>();
+        private boolean disconnected;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (disconnected) {
+                throw new IOException("Broken pipe");
+            }
+            StringBuilder event = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                event.append(part.getData());
+            }
+            events.add(event.toString());
+        }
+
+        private List<String> names() {
+            return events.stream().map(event -> field(event, "event:")).toList();
+        }
+
+        private List<Long> ids() {
+            return events.stream().map(event -> field(event, "id:")).filter(id -> id != null)
+                    .map(Long::valueOf).toList();
+        }
+
+        private long lastId() {
+            return ids().getLast();
+        }
+
+        private static String field(String event, String prefix) {
+            for (String line : event.split("\n")) {
+                if (line.startsWith(prefix)) {
+                    return line.substring(prefix.length());
+                }
+            }
+            return null;
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop the backlog of a slow client and send one resync before newer events only")
+    void shouldResyncOnOverflow() {
+        // Given
+        SseBroadcaster<String> broadcaster = broadcaster(2, 10, dispatch);
+        RecordingEmitter first = (RecordingEmitter) broadcaster.subscribe(null);
+        broadcaster.publish("item", "a");
+        dispatchPending();
+        long a = first.lastId();
+        RecordingEmitter slow = (RecordingEmitter) broadcaster.subscribe(null);
+
+        // When - three events overflow a backlog of two, a fourth is queued before the client drains
+        for (String payload : List.of("b", "c", "d", "e")) {
+            broadcaster.publish("item", payload);
+        }
+        dispatchPending();
+        broadcaster.publish("item", "f");
+        dispatchPending();
+
+        // Then
+        assertThat(slow.names()).containsExactly(SseBroadcaster.RESYNC_EVENT, "item");
+        assertThat(slow.ids()).containsExactly(a + 4, a + 5);
+        assertThat(slow.events.getLast()).contains("f");
+    }
+
+    @Test
+    @DisplayName("Should replay the events after Last-Event-ID to a reconnecting client")
+    void shouldReplayFromLastEventId() {
+        // Given
+        SseBroadcaster<String> broadcaster = broadcaster(10, 10, Runnable::run);
+        RecordingEmitter first = (RecordingEmitter) broadcaster.subscribe(null);
+        for (String payload : List.of("a", "b", "c")) {
+            broadcaster.publish("item", payload);
+        }
+
+        // When
+        RecordingEmitter reconnected = (RecordingEmitter) broadcaster.subscribe(
+                String.valueOf(first.ids().getFirst()));
+
+        // Then
+        assertThat(reconnected.names()).containsExactly("item", "item");
+        assertThat(reconnected.ids()).containsExactlyElementsOf(first.ids().subList(1, 3));
+        assertThat(reconnected.events.getLast()).contains("c");
+    }
+
+    @Test
+    @DisplayName("Should send a resync for a Last-Event-ID that is unknown or no longer buffered")
+    void shouldResyncUnknownLastEventId() {
+        // Given
+        SseBroadcaster<String> broadcaster = broadcaster(10, 2, Runnable::run);
+        RecordingEmitter first = (RecordingEmitter) broadcaster.subscribe(null);
+        for (String payload : List.of("a", "b", "c", "d")) {
+            broadcaster.publish("item", payload);
+        }
+        long latest = first.lastId();
+
+        // When
+        RecordingEmitter malformed = (RecordingEmitter) broadcaster.subscribe("not-a-number");
+        RecordingEmitter tooOld = (RecordingEmitter) broadcaster.subscribe(String.valueOf(first.ids().getFirst()));
+        RecordingEmitter ahead = (RecordingEmitter) broadcaster.subscribe(String.valueOf(latest + 100));
+        RecordingEmitter current = (RecordingEmitter) broadcaster.subscribe(String.valueOf(latest));
+
+        // Then
+        for (RecordingEmitter emitter : List.of(malformed, tooOld, ahead)) {
+            assertThat(emitter.names()).containsExactly(SseBroadcaster.RESYNC_EVENT);
+            assertThat(emitter.lastId()).isEqualTo(latest);
+        }
+        assertThat(current.events).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should remove clients whose connection fails on heartbeat")
+    void shouldRemoveDeadClientsOnHeartbeat() {
+        // Given
+        SseBroadcaster<String> broadcaster = broadcaster(10, 10, Runnable::run);
+        RecordingEmitter alive = (RecordingEmitter) broadcaster.subscribe(null);
+        RecordingEmitter dead = (RecordingEmitter) broadcaster.subscribe(null);
+        dead.disconnected = true;
+
+        // When
+        broadcaster.heartbeat();
+
+        // Then
+        assertThat(broadcaster.getSubscriberCount()).isEqualTo(1);
+        assertThat(alive.events).singleElement().asString().contains("heartbeat");
+        broadcaster.publish("item", "a");
+        assertThat(alive.names()).containsExactly(null, "item");
+        assertThat(dead.events).isEmpty();
+    }
+}
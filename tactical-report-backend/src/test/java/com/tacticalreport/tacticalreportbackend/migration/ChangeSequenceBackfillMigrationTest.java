@@ -0,0 +1,57 @@
+package com.tacticalreport.tacticalreportbackend.migration;
+
+import com.tacticalreport.tacticalreportbackend.service.ChangeSequenceService;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.util.Pair;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ChangeSequenceBackfillMigration
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ChangeSequenceBackfillMigration Unit Tests")
+class ChangeSequenceBackfillMigrationTest {
+
+    @Mock
+    private ChangeSequenceService changeSequenceService;
+
+    @InjectMocks
+    private ChangeSequenceBackfillMigration migration;
+
+    @Test
+    @DisplayName("Should stamp consecutive sequences guarded by a missing sequence and complete them once written")
+    void shouldStampSequencesAndCompleteAfterWrite() {
+        // Given
+        List<Document> batch = List.of(new Document("_id", new ObjectId()), new Document("_id", new ObjectId()));
+        when(changeSequenceService.beginRange(2)).thenReturn(41L);
+
+        // When
+        List<Pair<Query, UpdateDefinition>> updates = migration.rewrite(batch);
+        verify(changeSequenceService, never()).complete(anyLong());
+        migration.written(batch);
+
+        // Then
+        assertThat(migration.pending().getCriteriaObject()).containsEntry("changeSequence", null);
+        assertThat(updates).hasSize(2);
+        Document filter = updates.get(1).getFirst().getQueryObject();
+        assertThat(filter.get("_id")).isEqualTo(batch.get(1).get("_id"));
+        assertThat(filter).containsEntry("changeSequence", null);
+        assertThat(((Update) updates.get(1).getSecond()).getUpdateObject().get("$set", Document.class))
+                .containsEntry("changeSequence", 42L);
+        verify(changeSequenceService).complete(41L);
+    }
+}
@@ -0,0 +1,225 @@
+package com.tacticalreport.tacticalreportbackend.migration;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.tacticalreport.tacticalreportbackend.model.MigrationCheckpoint;
+import com.tacticalreport.tacticalreportbackend.model.MigrationCheckpoint.Chunk;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for MigrationRunner
+ * Covers range planning, chunked bulk rewrites with a final sweep, skipping completed migrations, resuming and
+ * stopping when the lease is taken over
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MigrationRunner Unit Tests")
+class MigrationRunnerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private final PriceDecimalMigration migration = new PriceDecimalMigration();
+    private MigrationRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        runner = new MigrationRunner(mongoTemplate, List.of(migration), true, 1, 4, 2, 1_000_000, Duration.ofMinutes(1));
+    }
+
+    private static MigrationCheckpoint checkpoint(List<Chunk> chunks) {
+        return MigrationCheckpoint.builder()
+                .id(PriceDecimalMigration.NAME)
+                .version(1)
+                .chunks(chunks)
+                .startedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private void givenCheckpoint(MigrationCheckpoint checkpoint) {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(MigrationCheckpoint.class))).thenReturn(checkpoint);
+    }
+
+    private void givenCheckpointWrites(long matched) {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(MigrationCheckpoint.class)))
+                .thenReturn(UpdateResult.acknowledged(matched, matched, null));
+    }
+
+    @Test
+    @DisplayName("Should split the ObjectId range into contiguous chunks open at both ends")
+    void shouldPlanContiguousRanges() {
+        // Given
+        ObjectId min = new ObjectId(new Date(1_700_000_000_000L));
+        ObjectId max = new ObjectId(new Date(1_700_000_400_000L));
+
+        // When
+        List<Chunk> ranges = MigrationRunner.ranges(min, max, 4);
+
+        // Then
+        assertThat(ranges).hasSize(4);
+        assertThat(ranges.getFirst().getFrom()).isNull();
+        assertThat(ranges.getLast().getTo()).isNull();
+        for (int i = 1; i < ranges.size(); i++) {
+            assertThat(ranges.get(i).getFrom()).isEqualTo(ranges.get(i - 1).getTo());
+        }
+        assertThat(MigrationRunner.ranges(min, min, 4)).hasSize(1);
+        assertThat(MigrationRunner.ranges(null, null, 4)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should bulk-rewrite pending documents chunk by chunk, sweep and mark the migration complete")
+    void shouldMigrateChunksAndComplete() {
+        // Given
+        ObjectId first = new ObjectId();
+        ObjectId second = new ObjectId();
+        givenCheckpoint(checkpoint(null));
+        givenCheckpointWrites(1);
+        when(mongoTemplate.findOne(any(Query.class), eq(Document.class), eq("items"))).thenReturn(null);
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("items")))
+                .thenReturn(List.of(new Document("_id", first), new Document("_id", second)))
+                .thenReturn(List.of());
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "items")).thenReturn(bulkOperations);
+        when(bulkOperations.updateOne(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 2, 0, 2, List.of(), List.of()));
+
+        // When
+        boolean complete = runner.run(migration);
+
+        // Then
+        assertThat(complete).isTrue();
+        verify(bulkOperations).updateOne(argThat(updates -> updates.size() == 2));
+        ArgumentCaptor<Query> batches = ArgumentCaptor.forClass(Query.class);
+        // ObjectId chunk: one batch, then empty; string chunk and both sweeps: empty
+        verify(mongoTemplate, times(5)).find(batches.capture(), eq(Document.class), eq("items"));
+        assertThat(batches.getAllValues().get(1).getQueryObject().toJson()).contains("$gt");
+        assertThat(batches.getAllValues().get(0).getQueryObject().toJson()).contains("$type");
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, atLeastOnce()).updateFirst(any(Query.class), updates.capture(),
+                eq(MigrationCheckpoint.class));
+        List<Document> updateObjects = new ArrayList<>();
+        updates.getAllValues().forEach(update -> updateObjects.add(update.getUpdateObject()));
+        assertThat(updateObjects).anySatisfy(update ->
+                assertThat(update.get("$inc", Document.class)).containsEntry("migrated", 2L)
+                        .containsEntry("chunks.0.migrated", 2L));
+        assertThat(updateObjects.getLast().get("$set", Document.class)).containsKey("completedAt");
+        ArgumentCaptor<Query> checkpoints = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, atLeastOnce()).updateFirst(checkpoints.capture(), any(Update.class),
+                eq(MigrationCheckpoint.class));
+        assertThat(checkpoints.getAllValues()).allSatisfy(query ->
+                assertThat(query.getQueryObject()).containsKey("owner"));
+    }
+
+    @Test
+    @DisplayName("Should not scan again once the migration is complete")
+    void shouldSkipCompletedMigration() {
+        // Given
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(MigrationCheckpoint.class))).thenThrow(new DuplicateKeyException("completed"));
+        MigrationCheckpoint completed = checkpoint(List.of());
+        completed.setCompletedAt(LocalDateTime.now());
+        when(mongoTemplate.findById(PriceDecimalMigration.NAME, MigrationCheckpoint.class)).thenReturn(completed);
+
+        // When
+        boolean complete = runner.run(migration);
+
+        // Then
+        assertThat(complete).isTrue();
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Document.class), eq("items"));
+    }
+
+    @Test
+    @DisplayName("Should resume unfinished chunks after their last _id and skip finished ones")
+    void shouldResumeFromChunkCheckpoints() {
+        // Given
+        ObjectId boundary = new ObjectId();
+        ObjectId lastId = new ObjectId();
+        Chunk finished = new Chunk(null, boundary, false, null, 10, true);
+        Chunk unfinished = new Chunk(boundary, null, false, lastId, 3, false);
+        givenCheckpoint(checkpoint(List.of(finished, unfinished)));
+        givenCheckpointWrites(1);
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("items"))).thenReturn(List.of());
+
+        // When
+        runner.run(migration);
+
+        // Then
+        ArgumentCaptor<Query> batches = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(3)).find(batches.capture(), eq(Document.class), eq("items"));
+        assertThat(batches.getAllValues().getFirst().getQueryObject().toJson()).contains(lastId.toHexString());
+        verify(mongoTemplate, never()).findOne(any(Query.class), eq(Document.class), eq("items"));
+    }
+
+    @Test
+    @DisplayName("Should release the lease and report failure when a batch fails")
+    void shouldReleaseLeaseOnFailure() {
+        // Given
+        givenCheckpoint(checkpoint(List.of(new Chunk(null, null, false, null, 0, false))));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("items")))
+                .thenThrow(new DataAccessResourceFailureException("primary stepped down"));
+
+        // When
+        boolean complete = runner.run(migration);
+
+        // Then
+        assertThat(complete).isFalse();
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), updates.capture(), eq(MigrationCheckpoint.class));
+        assertThat(updates.getValue().getUpdateObject().get("$unset", Document.class)).containsKey("leaseUntil");
+    }
+
+    @Test
+    @DisplayName("Should stop without further batches once another instance has taken over the lease")
+    void shouldStopWhenLeaseTakenOver() {
+        // Given
+        givenCheckpoint(checkpoint(List.of(new Chunk(null, null, false, null, 0, false))));
+        givenCheckpointWrites(0);
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("items")))
+                .thenReturn(List.of(new Document("_id", new ObjectId())));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "items")).thenReturn(bulkOperations);
+        when(bulkOperations.updateOne(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+
+        // When
+        boolean complete = runner.run(migration);
+
+        // Then
+        assertThat(complete).isFalse();
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Document.class), eq("items"));
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).updateFirst(any(Query.class), updates.capture(), eq(MigrationCheckpoint.class));
+        assertThat(updates.getAllValues().getFirst().getUpdateObject().get("$inc", Document.class))
+                .containsEntry("migrated", 1L);
+        assertThat(updates.getAllValues().getLast().getUpdateObject().get("$unset", Document.class))
+                .containsKey("leaseUntil");
+    }
+}
@@ -0,0 +1,55 @@
+package com.tacticalreport.tacticalreportbackend.migration;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.util.Pair;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PriceDecimalMigration
+ */
+@DisplayName("PriceDecimalMigration Unit Tests")
+class PriceDecimalMigrationTest {
+
+    private final PriceDecimalMigration migration = new PriceDecimalMigration();
+
+    @Test
+    @DisplayName("Should select items whose price is still a string")
+    void shouldSelectStringPrices() {
+        // When
+        Document pending = migration.pending().getCriteriaObject();
+
+        // Then
+        assertThat(pending.get("price", Document.class)).containsKey("$type");
+        assertThat(migration.fields()).containsExactly("_id");
+    }
+
+    @Test
+    @DisplayName("Should convert each item with a pipeline guarded by the string price filter")
+    void shouldConvertGuardedByStringPrice() {
+        // Given
+        ObjectId first = new ObjectId();
+        ObjectId second = new ObjectId();
+
+        // When
+        List<Pair<Query, UpdateDefinition>> updates = migration.rewrite(
+                List.of(new Document("_id", first), new Document("_id", second)));
+
+        // Then
+        assertThat(updates).hasSize(2);
+        Document filter = updates.get(1).getFirst().getQueryObject();
+        assertThat(filter.get("_id")).isEqualTo(second);
+        assertThat(filter.get("price", Document.class)).containsKey("$type");
+        AggregationUpdate update = (AggregationUpdate) updates.get(1).getSecond();
+        assertThat(update.toPipeline(Aggregation.DEFAULT_CONTEXT).getFirst().toJson()).contains("$toDecimal");
+    }
+}
@@ -0,0 +1,151 @@
+package com.tacticalreport.tacticalreportbackend.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ConcurrencyLimitFilter
+ * Covers request priorities, shedding order and the 503 response
+ */
+@DisplayName("ConcurrencyLimitFilter Tests")
+class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry,
+                true, 10, 10, 10, 0.2, 1.5, Duration.ofMillis(250), 0.8, 0.5, 5, Duration.ofMillis(20));
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+
+    private void fill(ConcurrencyLimitFilter.Priority priority, int requests) throws InterruptedException {
+        for (int i = 0; i < requests; i++) {
+            assertThat(filter.acquire(priority)).isPositive();
+        }
+    }
+
+    @Test
+    @DisplayName("Should rank writes over single reads over scans")
+    void shouldClassifyPriorities() {
+        MockHttpServletRequest search = request("GET", "/api/items");
+        search.setParameter("search", "laptop");
+
+        assertThat(ConcurrencyLimitFilter.priorityOf(request("PUT", "/api/items/abc")))
+                .isEqualTo(ConcurrencyLimitFilter.Priority.WRITE);
+        assertThat(ConcurrencyLimitFilter.priorityOf(request("GET", "/api/items/abc")))
+                .isEqualTo(ConcurrencyLimitFilter.Priority.READ);
+        assertThat(ConcurrencyLimitFilter.priorityOf(search)).isEqualTo(ConcurrencyLimitFilter.Priority.SCAN);
+    }
+
+    @Test
+    @DisplayName("Should shed scans first, then reads, and keep admitting writes up to the limit")
+    void shouldShedByPriority() throws InterruptedException {
+        // Given
+        fill(ConcurrencyLimitFilter.Priority.READ, 5);
+
+        // When / Then
+        assertThat(filter.acquire(ConcurrencyLimitFilter.Priority.SCAN)).isZero();
+        fill(ConcurrencyLimitFilter.Priority.READ, 3);
+        assertThat(filter.acquire(ConcurrencyLimitFilter.Priority.READ)).isZero();
+        fill(ConcurrencyLimitFilter.Priority.WRITE, 2);
+        assertThat(filter.acquire(ConcurrencyLimitFilter.Priority.WRITE)).isZero();
+
+        filter.release();
+        assertThat(filter.acquire(ConcurrencyLimitFilter.Priority.WRITE)).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should let a queued read in when a slot frees up")
+    void shouldAdmitQueuedReadOnRelease() throws Exception {
+        // Given
+        filter = new ConcurrencyLimitFilter(new ObjectMapper(), meterRegistry, true, 10, 10, 10, 0.2, 1.5,
+                Duration.ofMillis(250), 0.8, 0.5, 5, Duration.ofSeconds(5));
+        fill(ConcurrencyLimitFilter.Priority.READ, 8);
+        Thread releaser = new Thread(() -> {
+            sleep(50);
+            filter.release();
+        });
+
+        // When
+        releaser.start();
+        int admitted = filter.acquire(ConcurrencyLimitFilter.Priority.READ);
+        releaser.join();
+
+        // Then
+        assertThat(admitted).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("Should answer 503 with Retry-After and count the shed request")
+    void shouldRejectWithServiceUnavailable() throws Exception {
+        // Given
+        fill(ConcurrencyLimitFilter.Priority.WRITE, 10);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request("GET", "/api/items/abc"), response, chain);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(response.getContentAsString()).contains("\"status\":503");
+        assertThat(chain.getRequest()).isNull();
+        assertThat(meterRegistry.get("items.concurrency.shed").tag("priority", "read").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should release the slot after the request completes")
+    void shouldReleaseAfterRequest() throws Exception {
+        // When
+        filter.doFilter(request("GET", "/api/items/abc"), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertThat(meterRegistry.get("items.concurrency.inflight").gauge().value()).isZero();
+        assertThat(meterRegistry.get("items.concurrency.limit").gauge().value()).isEqualTo(10.0);
+    }
+
+    @Test
+    @DisplayName("Should not limit streamed image uploads, whose duration depends on the client")
+    void shouldSkipImageUploads() throws Exception {
+        // Given
+        fill(ConcurrencyLimitFilter.Priority.WRITE, 10);
+        MockFilterChain upload = new MockFilterChain();
+        MockFilterChain update = new MockFilterChain();
+
+        // When
+        filter.doFilter(request("PUT", "/api/items/abc/image"), new MockHttpServletResponse(), upload);
+        filter.doFilter(request("PUT", "/api/items/abc"), new MockHttpServletResponse(), update);
+
+        // Then
+        assertThat(upload.getRequest()).isNotNull();
+        assertThat(update.getRequest()).isNull();
+        assertThat(meterRegistry.get("items.concurrency.inflight").gauge().value()).isEqualTo(10.0);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.tacticalreport.tacticalreportbackend.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for GradientLimit
+ * Feeds windows of synthetic latencies and checks how the limit reacts
+ */
+@DisplayName("GradientLimit Tests")
+class GradientLimitTest {
+
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private long now;
+
+    /**
+     * Record one full window of identical samples
+     */
+    private void window(GradientLimit limit, long rttNanos, int inflight) {
+        now += WINDOW;
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(rttNanos, inflight, now);
+        }
+    }
+
+    @Test
+    @DisplayName("Should grow while latency stays flat and the limit is in use")
+    void shouldGrowUnderSteadyLatency() {
+        // Given
+        GradientLimit limit = new GradientLimit(20, 5, 100, 0.2, 1.5, WINDOW, now);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            window(limit, 10 * MS, limit.getLimit());
+        }
+
+        // Then
+        assertThat(limit.getLimit()).isGreaterThan(30);
+    }
+
+    @Test
+    @DisplayName("Should shrink sharply when latency rises")
+    void shouldShrinkWhenLatencyRises() {
+        // Given
+        GradientLimit limit = new GradientLimit(80, 5, 100, 0.2, 1.5, WINDOW, now);
+        window(limit, 10 * MS, 80);
+
+        // When
+        for (int i = 0; i < 30; i++) {
+            window(limit, 200 * MS, limit.getLimit());
+        }
+
+        // Then
+        assertThat(limit.getLimit()).isLessThan(16);
+    }
+
+    @Test
+    @DisplayName("Should not grow while most of the limit is unused")
+    void shouldNotGrowWhenAppLimited() {
+        // Given
+        GradientLimit limit = new GradientLimit(40, 5, 100, 0.2, 1.5, WINDOW, now);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            window(limit, 10 * MS, 3);
+        }
+
+        // Then
+        assertThat(limit.getLimit()).isEqualTo(40);
+    }
+}
@@ -0,0 +1,139 @@
+package com.tacticalreport.tacticalreportbackend.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for RateLimitFilter
+ * Covers route classification, per-client budgets and the 429 response
+ */
+@DisplayName("RateLimitFilter Tests")
+class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry,
+                true, 5, 0.001, 2, 0.001, 100, Set.of("integration-a"));
+    }
+
+    private static MockHttpServletRequest request(String uri, String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr(client);
+        return request;
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    @DisplayName("Should classify scans, facets, stats, export and bulk routes as expensive")
+    void shouldClassifyRoutes() {
+        MockHttpServletRequest search = request("/api/items", "10.0.0.1");
+        search.setParameter("search", "laptop");
+        MockHttpServletRequest facets = request("/api/items", "10.0.0.1");
+        facets.setParameter("facets", "true");
+
+        assertThat(RateLimitFilter.tierOf(search)).isEqualTo(RateLimitFilter.Tier.EXPENSIVE);
+        assertThat(RateLimitFilter.tierOf(facets)).isEqualTo(RateLimitFilter.Tier.EXPENSIVE);
+        assertThat(RateLimitFilter.tierOf(request("/api/items/export", "10.0.0.1"))).isEqualTo(RateLimitFilter.Tier.EXPENSIVE);
+        assertThat(RateLimitFilter.tierOf(request("/api/items/bulk", "10.0.0.1"))).isEqualTo(RateLimitFilter.Tier.EXPENSIVE);
+        assertThat(RateLimitFilter.tierOf(request("/api/items/stock-history", "10.0.0.1"))).isEqualTo(RateLimitFilter.Tier.EXPENSIVE);
+        assertThat(RateLimitFilter.tierOf(request("/api/items/stats", "10.0.0.1"))).isEqualTo(RateLimitFilter.Tier.EXPENSIVE);
+        assertThat(RateLimitFilter.tierOf(request("/api/items/stats/summary", "10.0.0.1"))).isEqualTo(RateLimitFilter.Tier.EXPENSIVE);
+        assertThat(RateLimitFilter.tierOf(request("/api/items", "10.0.0.1"))).isEqualTo(RateLimitFilter.Tier.CHEAP);
+        assertThat(RateLimitFilter.tierOf(request("/api/items/abc", "10.0.0.1"))).isEqualTo(RateLimitFilter.Tier.CHEAP);
+    }
+
+    @Test
+    @DisplayName("Should return 429 with Retry-After once the expensive budget is spent, without touching the cheap one")
+    void shouldRejectExhaustedExpensiveBudget() throws Exception {
+        // Given
+        MockHttpServletRequest search = request("/api/items", "10.0.0.1");
+        search.setParameter("search", "laptop");
+        perform(search);
+        perform(search);
+
+        // When
+        MockHttpServletResponse rejected = perform(search);
+        MockHttpServletResponse lookup = perform(request("/api/items/abc", "10.0.0.1"));
+
+        // Then
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isNotNull();
+        assertThat(Long.parseLong(rejected.getHeader("Retry-After"))).isPositive();
+        assertThat(rejected.getContentAsString()).contains("\"status\":429", "\"path\":\"/api/items\"");
+        assertThat(lookup.getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("items.ratelimit.rejected").tag("tier", "expensive").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should keep separate budgets per configured API key and per address, ignoring unknown keys")
+    void shouldIsolateClients() throws Exception {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            perform(request("/api/items/abc", "10.0.0.1"));
+        }
+        MockHttpServletRequest keyed = request("/api/items/abc", "10.0.0.1");
+        keyed.addHeader(RateLimitFilter.API_KEY_HEADER, "integration-a");
+        MockHttpServletRequest unknownKey = request("/api/items/abc", "10.0.0.1");
+        unknownKey.addHeader(RateLimitFilter.API_KEY_HEADER, "random-1234");
+
+        // When / Then
+        assertThat(perform(request("/api/items/abc", "10.0.0.1")).getStatus()).isEqualTo(429);
+        assertThat(perform(request("/api/items/abc", "10.0.0.2")).getStatus()).isEqualTo(200);
+        assertThat(perform(keyed).getStatus()).isEqualTo(200);
+        assertThat(perform(unknownKey).getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    @DisplayName("Should route new clients to the shared overflow bucket once max-clients buckets exist")
+    void shouldShareOverflowBucketBeyondMaxClients() throws Exception {
+        // Given
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry,
+                true, 5, 0.001, 2, 0.001, 1, Set.of());
+        perform(request("/api/items/abc", "10.0.0.1"));
+        for (int i = 0; i < 5; i++) {
+            perform(request("/api/items/abc", "10.0.0.2"));
+        }
+
+        // When / Then
+        assertThat(perform(request("/api/items/abc", "10.0.0.3")).getStatus()).isEqualTo(429);
+        assertThat(perform(request("/api/items/abc", "10.0.0.1")).getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("items.ratelimit.clients").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should not limit paths outside the item API or CORS preflights")
+    void shouldSkipOtherRequests() throws Exception {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            perform(request("/api/items/abc", "10.0.0.1"));
+        }
+        MockHttpServletRequest preflight = new MockHttpServletRequest("OPTIONS", "/api/items/abc");
+        preflight.setRemoteAddr("10.0.0.1");
+
+        // When / Then
+        assertThat(perform(request("/api/images/abc", "10.0.0.1")).getStatus()).isEqualTo(200);
+        assertThat(perform(preflight).getStatus()).isEqualTo(200);
+    }
+}
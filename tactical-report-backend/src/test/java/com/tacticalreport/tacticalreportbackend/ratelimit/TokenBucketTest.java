@@ -0,0 +1,81 @@
+package com.tacticalreport.tacticalreportbackend.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for TokenBucket
+ * Covers burst capacity, refill and the wait time reported for rejected requests
+ */
+@DisplayName("TokenBucket Tests")
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Should allow a burst up to capacity, then report the wait for the next token")
+    void shouldAllowBurstThenReject() {
+        // Given
+        TokenBucket bucket = new TokenBucket(3, 2, 0);
+
+        // When / Then
+        assertThat(bucket.tryAcquire(1, 0)).isZero();
+        assertThat(bucket.tryAcquire(1, 0)).isZero();
+        assertThat(bucket.tryAcquire(1, 0)).isZero();
+        assertThat(bucket.tryAcquire(1, 0)).isEqualTo(SECOND / 2);
+        assertThat(bucket.available(0)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should refill at the configured rate up to capacity")
+    void shouldRefill() {
+        // Given
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+        bucket.tryAcquire(2, 0);
+
+        // When / Then
+        assertThat(bucket.tryAcquire(1, SECOND / 2)).isEqualTo(SECOND / 2);
+        assertThat(bucket.tryAcquire(1, SECOND)).isZero();
+        assertThat(bucket.isFull(SECOND)).isFalse();
+        assertThat(bucket.available(10 * SECOND)).isEqualTo(2);
+        assertThat(bucket.isFull(10 * SECOND)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should hand out exactly capacity tokens to concurrent callers")
+    void shouldNotOverGrantUnderContention() throws InterruptedException {
+        // Given
+        TokenBucket bucket = new TokenBucket(1000, 0.001, 0);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        for (int i = 0; i < 4000; i++) {
+            executor.execute(() -> {
+                if (bucket.tryAcquire(1, 0) == 0) {
+                    granted.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        assertThat(granted).hasValue(1000);
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive capacity or rate")
+    void shouldRejectInvalidBudget() {
+        assertThatThrownBy(() -> new TokenBucket(0, 1, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(1, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
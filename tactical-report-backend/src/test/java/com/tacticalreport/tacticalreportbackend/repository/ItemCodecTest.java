@@ -0,0 +1,150 @@
+package com.tacticalreport.tacticalreportbackend.repository;
+
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Round-trip equivalence of ItemCodec and ItemSummaryCodec with Spring Data's MappingMongoConverter
+ * Documents written by either side must read back identically through the other
+ */
+@DisplayName("ItemCodec Tests")
+class ItemCodecTest {
+
+    private final ItemCodec codec = new ItemCodec();
+    private MappingMongoConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+    }
+
+    private static Item fullItem() {
+        LocalDateTime created = LocalDateTime.of(2025, 3, 1, 9, 30, 15).plusNanos(123_000_000);
+        Item item = new Item();
+        item.setId("65a1b2c3d4e5f6a7b8c90001");
+        item.setName("Wireless Mouse");
+        item.setDescription("Ergonomic wireless mouse");
+        item.setPrice(new BigDecimal("29.90"));
+        item.setQuantity(42);
+        item.setCategory("Electronics");
+        item.setSku("MOU-001");
+        item.setImageHash("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08");
+        item.setStatus(ItemStatus.PRE_ORDER);
+        item.setChangeSequence(7L);
+        item.setCreatedAt(created);
+        item.setUpdatedAt(created.plusDays(1).truncatedTo(ChronoUnit.MILLIS));
+        return item;
+    }
+
+    private static BsonDocument encode(Codec<Item> codec, Item item) {
+        BsonDocument document = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(document), item, EncoderContext.builder().build());
+        return document;
+    }
+
+    private static Item decode(Codec<Item> codec, Document document) {
+        return codec.decode(new BsonDocumentReader(document.toBsonDocument()), DecoderContext.builder().build());
+    }
+
+    private static Document toDocument(BsonDocument bson) {
+        return new DocumentCodec().decode(new BsonDocumentReader(bson), DecoderContext.builder().build());
+    }
+
+    @Test
+    @DisplayName("Should encode the same document as the mapping converter")
+    void shouldEncodeLikeMappingConverter() {
+        // Given
+        Item item = fullItem();
+        Document mapped = new Document();
+        converter.write(item, mapped);
+
+        // When
+        Document encoded = toDocument(encode(codec, item));
+
+        // Then
+        assertThat(encoded).isEqualTo(mapped);
+    }
+
+    @Test
+    @DisplayName("Should decode mapped documents into equal items")
+    void shouldDecodeLikeMappingConverter() {
+        // Given
+        Document mapped = new Document();
+        converter.write(fullItem(), mapped);
+        Document sparse = new Document("_id", "legacy-id").append("name", "Legacy").append("price", "5")
+                .append("unknownField", new Document("nested", 1));
+
+        // When / Then
+        assertThat(decode(codec, mapped)).isEqualTo(converter.read(Item.class, mapped));
+        assertThat(decode(codec, sparse)).isEqualTo(converter.read(Item.class, sparse));
+        assertThat(decode(codec, sparse).getStatus()).isEqualTo(ItemStatus.AVAILABLE);
+    }
+
+    @Test
+    @DisplayName("Should round trip items through the codec alone")
+    void shouldRoundTrip() {
+        // Given
+        Item item = fullItem();
+        item.setId("not-an-object-id");
+
+        // When
+        Item decoded = decode(codec, toDocument(encode(codec, item)));
+
+        // Then
+        assertThat(decoded).isEqualTo(converter.read(Item.class, toDocument(encode(codec, item))));
+        assertThat(decoded.getId()).isEqualTo("not-an-object-id");
+        assertThat(decoded.getPrice()).isEqualTo(new BigDecimal("29.90"));
+    }
+
+    @Test
+    @DisplayName("Should decode only summary fields with the summary codec")
+    void shouldDecodeSummaryFields() {
+        // Given
+        Item item = fullItem();
+        item.setImage("aGVsbG8=");
+        Document mapped = new Document();
+        converter.write(item, mapped);
+
+        // When
+        Item summary = decode(new ItemSummaryCodec(), mapped);
+
+        // Then
+        assertThat(summary.getDescription()).isNull();
+        assertThat(summary.getImage()).isNull();
+        assertThat(summary.getCreatedAt()).isNull();
+        assertThat(summary.getName()).isEqualTo(item.getName());
+        assertThat(summary.getPrice()).isEqualTo(item.getPrice());
+        assertThat(summary.getQuantity()).isEqualTo(item.getQuantity());
+        assertThat(summary.getStatus()).isEqualTo(item.getStatus());
+        assertThat(summary.getUpdatedAt()).isEqualTo(item.getUpdatedAt());
+        assertThat(ItemSummaryCodec.projection().keySet()).containsExactlyInAnyOrderElementsOf(ItemSummaryCodec.FIELDS);
+    }
+}
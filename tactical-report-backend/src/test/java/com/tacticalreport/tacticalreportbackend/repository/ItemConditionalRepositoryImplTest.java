@@ -0,0 +1,50 @@
+package com.tacticalreport.tacticalreportbackend.repository;
+
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Filters of the conditional item writes
+ */
+@DisplayName("ItemConditionalRepositoryImpl Tests")
+class ItemConditionalRepositoryImplTest {
+
+    @Test
+    @DisplayName("Should match the change sequence the item was read at")
+    void shouldMatchChangeSequence() {
+        // Given
+        Item item = new Item();
+        item.setId("item-1");
+        item.setChangeSequence(42L);
+        item.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+
+        // When
+        Document filter = ItemConditionalRepositoryImpl.versionQuery(item).getQueryObject();
+
+        // Then
+        assertThat(filter).isEqualTo(new Document("_id", "item-1").append("changeSequence", 42L));
+    }
+
+    @Test
+    @DisplayName("Should match updatedAt for items written before changeSequence existed")
+    void shouldMatchUpdatedAtWithoutChangeSequence() {
+        // Given
+        Item item = new Item();
+        item.setId("item-1");
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        item.setUpdatedAt(updatedAt);
+
+        // When
+        Document filter = ItemConditionalRepositoryImpl.versionQuery(item).getQueryObject();
+
+        // Then
+        assertThat(filter).isEqualTo(new Document("_id", "item-1").append("changeSequence", null)
+                .append("updatedAt", updatedAt));
+    }
+}
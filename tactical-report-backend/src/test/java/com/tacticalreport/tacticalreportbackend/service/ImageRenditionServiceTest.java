@@ -0,0 +1,112 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.model.ItemImageRendition;
+import com.tacticalreport.tacticalreportbackend.repository.ItemImageRenditionRepository;
+import com.tacticalreport.tacticalreportbackend.repository.ItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ImageRenditionService
+ * Covers rendition sizing, encoding and deduplication by image hash
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImageRenditionService Unit Tests")
+class ImageRenditionServiceTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ItemImageRenditionRepository renditionRepository;
+
+    @Mock
+    private ImageBlobStore imageBlobStore;
+
+    private ImageRenditionService imageRenditionService;
+
+    @BeforeEach
+    void setUp() {
+        imageRenditionService = new ImageRenditionService(itemRepository, renditionRepository, imageBlobStore,
+                new SimpleMeterRegistry(),
+                List.of(64, 256, 1024), 1, 10, 40_000_000L, 0.85f);
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageRenditionService.shutdown();
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    @Test
+    @DisplayName("Should generate JPEG renditions bounded by each size")
+    @SuppressWarnings("unchecked")
+    void shouldGenerateRenditions() throws IOException {
+        // Given
+        when(renditionRepository.countByImageHash("hash")).thenReturn(0L);
+        when(itemRepository.existsByImageHash("hash")).thenReturn(true);
+        when(imageBlobStore.open("hash")).thenReturn(new ByteArrayInputStream(png(2000, 1000)));
+
+        // When
+        imageRenditionService.generate("hash");
+
+        // Then
+        ArgumentCaptor<List<ItemImageRendition>> captor = ArgumentCaptor.forClass(List.class);
+        verify(renditionRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(ItemImageRendition::getId)
+                .containsExactly("hash:1024", "hash:256", "hash:64");
+
+        ItemImageRendition thumbnail = captor.getValue().get(2);
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(thumbnail.getData()));
+        assertThat(thumbnail.getContentType()).isEqualTo("image/jpeg");
+        assertThat(decoded.getWidth()).isEqualTo(64);
+        assertThat(decoded.getHeight()).isEqualTo(32);
+    }
+
+    @Test
+    @DisplayName("Should skip images whose renditions already exist")
+    void shouldSkipExistingRenditions() {
+        // Given
+        when(renditionRepository.countByImageHash("hash")).thenReturn(3L);
+
+        // When
+        imageRenditionService.generate("hash");
+
+        // Then
+        verify(renditionRepository, never()).saveAll(any());
+        verifyNoInteractions(imageBlobStore);
+    }
+
+    @Test
+    @DisplayName("Should resolve requested sizes to the nearest larger rendition")
+    void shouldResolveSizes() {
+        assertThat(imageRenditionService.resolveSize(10)).isEqualTo(64);
+        assertThat(imageRenditionService.resolveSize(200)).isEqualTo(256);
+        assertThat(imageRenditionService.resolveSize(256)).isEqualTo(256);
+        assertThat(imageRenditionService.resolveSize(5000)).isEqualTo(1024);
+    }
+}
@@ -0,0 +1,198 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.mongodb.client.result.DeleteResult;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangeType;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangedEvent;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import com.tacticalreport.tacticalreportbackend.model.ItemTombstone;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ItemArchiveService
+ * Covers the soft-delete copy, batched archiving of discontinued items (including items changed mid-batch) and
+ * the live-plus-archive listing
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ItemArchiveService Unit Tests")
+class ItemArchiveServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ChangeSequenceService changeSequenceService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private BulkOperations archiveBulk;
+
+    @Mock
+    private BulkOperations tombstoneBulk;
+
+    private ItemArchiveService itemArchiveService;
+
+    private final ObjectId first = new ObjectId();
+    private final ObjectId second = new ObjectId();
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        lenient().when(mongoTemplate.getConverter()).thenReturn(converter);
+        itemArchiveService = new ItemArchiveService(mongoTemplate, changeSequenceService, eventPublisher,
+                new ReadRouting(true, Duration.ofSeconds(90)), true, Duration.ofDays(180), Duration.ofDays(90), 10);
+    }
+
+    private static Document discontinued(ObjectId id, String sku) {
+        return new Document("_id", id)
+                .append("name", "Old " + sku)
+                .append("sku", sku)
+                .append("category", "Electronics")
+                .append("status", ItemStatus.DISCONTINUED.name());
+    }
+
+    private void givenBatch() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "items_archive")).thenReturn(archiveBulk);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ItemTombstone.class)).thenReturn(tombstoneBulk);
+        when(changeSequenceService.beginRange(2)).thenReturn(100L);
+    }
+
+    @Test
+    @DisplayName("Should archive a deleted item without its image and with an expiry")
+    void shouldArchiveDeletedItem() {
+        // Given
+        Item item = new Item();
+        item.setId(first.toHexString());
+        item.setName("Wireless Mouse");
+        item.setPrice(new BigDecimal("29.90"));
+        item.setImageHash("abc123");
+
+        // When
+        itemArchiveService.archiveDeleted(item);
+
+        // Then
+        ArgumentCaptor<Document> copy = ArgumentCaptor.forClass(Document.class);
+        verify(mongoTemplate).save(copy.capture(), eq("items_archive"));
+        assertThat(copy.getValue().get("_id")).isEqualTo(first);
+        assertThat(copy.getValue()).doesNotContainKey("imageHash")
+                .containsEntry("archiveReason", "DELETED")
+                .containsKeys("archivedAt", "expiresAt");
+    }
+
+    @Test
+    @DisplayName("Should move long-discontinued items with tombstones and delete events")
+    void shouldArchiveDiscontinuedItems() {
+        // Given
+        givenBatch();
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("items")))
+                .thenReturn(List.of(discontinued(first, "OLD-1"), discontinued(second, "OLD-2")));
+        when(mongoTemplate.remove(any(Query.class), eq("items"))).thenReturn(DeleteResult.acknowledged(2));
+
+        // When
+        int moved = itemArchiveService.archiveDiscontinued();
+
+        // Then
+        assertThat(moved).isEqualTo(2);
+        verify(archiveBulk, times(2)).replaceOne(any(Query.class), any(Document.class), any(FindAndReplaceOptions.class));
+        ArgumentCaptor<ItemTombstone> tombstones = ArgumentCaptor.forClass(ItemTombstone.class);
+        verify(tombstoneBulk, times(2)).replaceOne(any(Query.class), tombstones.capture(),
+                any(FindAndReplaceOptions.class));
+        assertThat(tombstones.getAllValues()).extracting(ItemTombstone::getChangeSequence).containsExactly(100L, 101L);
+        assertThat(tombstones.getAllValues().get(1).getId()).isEqualTo(second.toHexString());
+        verify(changeSequenceService).complete(100L);
+        ArgumentCaptor<ItemChangedEvent> events = ArgumentCaptor.forClass(ItemChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).allSatisfy(event -> {
+            assertThat(event.getType()).isEqualTo(ItemChangeType.DELETED);
+            assertThat(event.getBefore().getStatus()).isEqualTo(ItemStatus.DISCONTINUED);
+        });
+    }
+
+    @Test
+    @DisplayName("Should keep items changed while being archived and roll back their copies")
+    void shouldRollBackItemsChangedMidBatch() {
+        // Given
+        givenBatch();
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("items")))
+                .thenReturn(List.of(discontinued(first, "OLD-1"), discontinued(second, "OLD-2")))
+                .thenReturn(List.of(new Document("_id", second)));
+        when(mongoTemplate.remove(any(Query.class), eq("items"))).thenReturn(DeleteResult.acknowledged(1));
+
+        // When
+        int moved = itemArchiveService.archiveDiscontinued();
+
+        // Then
+        assertThat(moved).isEqualTo(1);
+        ArgumentCaptor<Query> rolledBack = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(rolledBack.capture(), eq("items_archive"));
+        assertThat(rolledBack.getValue().getQueryObject().toJson()).contains(second.toHexString())
+                .doesNotContain(first.toHexString());
+        verify(mongoTemplate).remove(any(Query.class), eq(ItemTombstone.class));
+        ArgumentCaptor<ItemChangedEvent> events = ArgumentCaptor.forClass(ItemChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(events.capture());
+        assertThat(events.getValue().getItemId()).isEqualTo(first.toHexString());
+    }
+
+    @Test
+    @DisplayName("Should take the newest page's worth from each collection before merging live and archived items")
+    void shouldLimitEachSideBeforeUnion() {
+        // Given
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("items"), eq(Item.class)))
+                .thenReturn(new AggregationResults<>(List.of(), new Document()));
+
+        // When
+        itemArchiveService.findIncludingArchived("Electronics", null, PageRequest.of(2, 20));
+
+        // Then
+        ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregate(aggregation.capture(), eq("items"), eq(Item.class));
+        List<Document> stages = aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+        Document newestFirst = new Document("createdAt", -1).append("_id", -1);
+        assertThat(stages).extracting(stage -> stage.keySet().iterator().next())
+                .containsExactly("$match", "$sort", "$limit", "$unionWith", "$sort", "$skip", "$limit");
+        assertThat(stages.get(1).get("$sort", Document.class)).isEqualTo(newestFirst);
+        assertThat(stages.get(2).get("$limit", Number.class).longValue()).isEqualTo(60L);
+        List<Document> archiveStages = stages.get(3).get("$unionWith", Document.class).getList("pipeline", Document.class);
+        assertThat(archiveStages).extracting(stage -> stage.keySet().iterator().next())
+                .containsExactly("$match", "$sort", "$limit");
+        assertThat(archiveStages.get(2).get("$limit", Number.class).longValue()).isEqualTo(60L);
+        assertThat(aggregation.getValue().getOptions().isAllowDiskUse()).isTrue();
+    }
+}
@@ -0,0 +1,123 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.dto.ItemFacets;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ItemFacetService
+ * Covers the per-facet $match construction, mapping of $facet/$bucket output and caching by normalized filter
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ItemFacetService Unit Tests")
+class ItemFacetServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private ItemFacetService itemFacetService;
+
+    @BeforeEach
+    void setUp() {
+        itemFacetService = new ItemFacetService(mongoTemplate, new ReadRouting(true, Duration.ofSeconds(90)),
+                List.of(new BigDecimal("0"), new BigDecimal("100"), new BigDecimal("500")),
+                List.of(0, 1, 10), 50, Duration.ofSeconds(30));
+    }
+
+    private static ItemFilter filter(String search, String category, ItemStatus status) {
+        return new ItemFilter(search, null, null, category, status, null, null, null, null);
+    }
+
+    private void givenAggregationResult(Document result) {
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Item.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(result), new Document()));
+    }
+
+    private static Document facetResult() {
+        return new Document("categories", List.of(
+                new Document("_id", "Electronics").append("count", 7),
+                new Document("_id", "Office").append("count", 2)))
+                .append("statuses", List.of(new Document("_id", "AVAILABLE").append("count", 8)))
+                .append("priceRanges", List.of(
+                        new Document("_id", new Decimal128(new BigDecimal("100"))).append("count", 3),
+                        new Document("_id", "other").append("count", 1)))
+                .append("quantityRanges", List.of(new Document("_id", 0).append("count", 2)));
+    }
+
+    @Test
+    @DisplayName("Should map facet output and fill empty ranges and statuses with zero")
+    void shouldMapFacetResult() {
+        // Given
+        givenAggregationResult(facetResult());
+
+        // When
+        ItemFacets facets = itemFacetService.getFacets(filter(null, null, null));
+
+        // Then
+        assertThat(facets.getCategories()).extracting(ItemFacets.ValueCount::getValue)
+                .containsExactly("Electronics", "Office");
+        assertThat(facets.getStatuses()).hasSize(ItemStatus.values().length);
+        assertThat(facets.getStatuses()).filteredOn(count -> count.getValue().equals("AVAILABLE"))
+                .singleElement().satisfies(count -> assertThat(count.getCount()).isEqualTo(8));
+        assertThat(facets.getPriceRanges()).extracting(ItemFacets.RangeCount::getCount).containsExactly(0L, 3L, 1L);
+        assertThat(facets.getPriceRanges().get(2).getTo()).isNull();
+        assertThat(facets.getQuantityRanges()).extracting(ItemFacets.RangeCount::getCount).containsExactly(2L, 0L, 0L);
+    }
+
+    @Test
+    @DisplayName("Should count each facet with every filter except its own")
+    void shouldExcludeOwnFilterFromFacet() {
+        // Given
+        givenAggregationResult(facetResult());
+        ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+
+        // When
+        itemFacetService.getFacets(filter("laptop", "Electronics", ItemStatus.AVAILABLE));
+
+        // Then
+        verify(mongoTemplate).aggregate(aggregation.capture(), eq(Item.class), eq(Document.class));
+        List<Document> pipeline = aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertThat(pipeline.get(0)).containsKey("$match");
+        Document facet = pipeline.get(1).get("$facet", Document.class);
+        String categoryMatch = facet.getList("categories", Document.class).get(0).toJson();
+        String statusMatch = facet.getList("statuses", Document.class).get(0).toJson();
+        assertThat(categoryMatch).contains("AVAILABLE").doesNotContain("Electronics");
+        assertThat(statusMatch).contains("Electronics").doesNotContain("AVAILABLE");
+    }
+
+    @Test
+    @DisplayName("Should share cached facets between equivalent filters")
+    void shouldCacheByNormalizedFilter() {
+        // Given
+        givenAggregationResult(facetResult());
+
+        // When
+        itemFacetService.getFacets(filter(" Laptop ", "Electronics", null));
+        itemFacetService.getFacets(filter("laptop", "Electronics ", null));
+        itemFacetService.getFacets(filter("laptop", "Office", null));
+
+        // Then
+        verify(mongoTemplate, times(2)).aggregate(any(Aggregation.class), eq(Item.class), eq(Document.class));
+    }
+}
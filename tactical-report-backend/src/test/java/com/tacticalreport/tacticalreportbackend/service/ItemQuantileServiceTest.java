@@ -0,0 +1,188 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.dto.ItemQuantilesResponse;
+import com.tacticalreport.tacticalreportbackend.dto.ItemQuantilesResponse.SketchQuantiles;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangeType;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangedEvent;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemQuantileSketch;
+import com.tacticalreport.tacticalreportbackend.repository.ItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ItemQuantileService
+ * Covers quantile accuracy, rebuild from a cursor scan and snapshot round trips
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ItemQuantileService Unit Tests")
+class ItemQuantileServiceTest {
+
+    private static final List<Double> QUANTILES = List.of(0.5, 0.9, 0.99);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemQuantileService itemQuantileService;
+
+    @BeforeEach
+    void setUp() {
+        itemQuantileService = new ItemQuantileService(mongoTemplate, itemRepository, 100, 0.2, 1000, 10000, Duration.ofHours(6));
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemQuantileService.shutdown();
+    }
+
+    private static Item item(String id, String category, int price, int quantity) {
+        Item item = new Item();
+        item.setId(id);
+        item.setCategory(category);
+        item.setPrice(BigDecimal.valueOf(price));
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private void created(Item item) {
+        itemQuantileService.onItemChanged(new ItemChangedEvent(ItemChangeType.CREATED, item.getId(), null, item,
+                Instant.now()));
+    }
+
+    @Test
+    @DisplayName("Should approximate percentiles per category and overall")
+    void shouldApproximatePercentiles() {
+        // Given
+        IntStream.rangeClosed(1, 1000).forEach(i -> created(item("e" + i, "Electronics", i, i % 100)));
+        IntStream.rangeClosed(1, 100).forEach(i -> created(item("o" + i, "Office", 5, 1)));
+
+        // When
+        ItemQuantilesResponse response = itemQuantileService.getQuantiles(null, QUANTILES);
+
+        // Then
+        assertThat(response.getCategories()).extracting(SketchQuantiles::getCategory)
+                .containsExactly("Electronics", "Office");
+        SketchQuantiles electronics = response.getCategories().get(0);
+        assertThat(electronics.getCount()).isEqualTo(1000);
+        assertThat(electronics.getPrice().get("p50").doubleValue()).isCloseTo(500, within(10.0));
+        assertThat(electronics.getPrice().get("p99").doubleValue()).isCloseTo(990, within(5.0));
+        assertThat(response.getCategories().get(1).getPrice().get("p90")).isEqualByComparingTo("5");
+        assertThat(response.getOverall().getCount()).isEqualTo(1100);
+    }
+
+    @Test
+    @DisplayName("Should rebuild sketches from a cursor scan and forget replaced values")
+    void shouldRebuildFromScan() {
+        // Given
+        created(item("a", "Electronics", 1000, 1));
+        when(itemRepository.streamSummaries())
+                .thenReturn(Stream.of(item("a", "Electronics", 10, 1), item("b", "Electronics", 20, 2)));
+
+        // When
+        itemQuantileService.rebuild();
+        ItemQuantilesResponse response = itemQuantileService.getQuantiles("Electronics", List.of(1.0));
+
+        // Then
+        assertThat(response.getCategories()).singleElement().satisfies(sketch -> {
+            assertThat(sketch.getCount()).isEqualTo(2);
+            assertThat(sketch.getPrice().get("p100")).isEqualByComparingTo("20");
+        });
+        assertThat(response.getRebuiltAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should replay writes seen during the rebuild scan onto the new sketches exactly once")
+    void shouldReplayWritesDuringRebuild() {
+        // Given
+        when(itemRepository.streamSummaries()).thenReturn(Stream.of(item("a", "Electronics", 10, 1))
+                .peek(scanned -> created(item("b", "Electronics", 20, 2))));
+
+        // When
+        itemQuantileService.rebuild();
+
+        // Then
+        assertThat(itemQuantileService.getQuantiles("Electronics", List.of(1.0)).getCategories())
+                .singleElement().satisfies(sketch -> assertThat(sketch.getCount()).isEqualTo(2));
+    }
+
+    @Test
+    @DisplayName("Should keep the current sketches when more writes arrive during the rebuild than can be replayed")
+    void shouldAbandonRebuildWhenPendingWritesOverflow() {
+        // Given
+        ItemQuantileService service = new ItemQuantileService(mongoTemplate, itemRepository, 100, 0.2, 1000, 1,
+                Duration.ofHours(6));
+        when(itemRepository.streamSummaries()).thenReturn(Stream.of(item("a", "Electronics", 10, 1))
+                .peek(scanned -> IntStream.rangeClosed(1, 3).forEach(i -> service.onItemChanged(
+                        new ItemChangedEvent(ItemChangeType.CREATED, "n" + i, null,
+                                item("n" + i, "Electronics", 20, 2), Instant.now())))));
+
+        // When
+        service.rebuild();
+
+        // Then
+        ItemQuantilesResponse response = service.getQuantiles("Electronics", List.of(1.0));
+        assertThat(response.getCategories()).singleElement()
+                .satisfies(sketch -> assertThat(sketch.getCount()).isEqualTo(3));
+        assertThat(response.getRebuiltAt()).isNull();
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should restore the same quantiles from a snapshot")
+    void shouldRoundTripSnapshot() {
+        // Given
+        IntStream.rangeClosed(1, 200).forEach(i -> created(item("e" + i, "Electronics", i, i)));
+        ItemQuantilesResponse original = itemQuantileService.getQuantiles("Electronics", QUANTILES);
+        itemQuantileService.snapshot();
+        ArgumentCaptor<ItemQuantileSketch> saved = ArgumentCaptor.forClass(ItemQuantileSketch.class);
+        verify(mongoTemplate, times(2)).save(saved.capture());
+
+        // When
+        ItemQuantileService restarted = new ItemQuantileService(mongoTemplate, itemRepository, 100, 0.2, 1000, 10000,
+                Duration.ofHours(6));
+        when(mongoTemplate.findAll(ItemQuantileSketch.class)).thenReturn(saved.getAllValues());
+        restarted.loadSnapshot();
+
+        // Then
+        assertThat(restarted.getQuantiles("Electronics", QUANTILES).getCategories())
+                .isEqualTo(original.getCategories());
+        restarted.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should reject quantiles outside [0, 1]")
+    void shouldRejectInvalidQuantile() {
+        assertThatThrownBy(() -> itemQuantileService.getQuantiles(null, List.of(0.5, 1.5)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should label quantiles as percentiles")
+    void shouldLabelQuantiles() {
+        assertThat(ItemQuantileService.labelOf(0.5)).isEqualTo("p50");
+        assertThat(ItemQuantileService.labelOf(0.999)).isEqualTo("p99.9");
+        assertThat(ItemQuantileService.labelOf(1.0)).isEqualTo("p100");
+    }
+}
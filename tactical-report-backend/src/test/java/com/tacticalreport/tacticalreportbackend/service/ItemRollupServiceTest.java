@@ -0,0 +1,251 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.dto.ItemStatsResponse;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangeType;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangedEvent;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemRollup;
+import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ItemRollupService
+ * Covers delta computation from before/after states, the summary read and drift reconciliation
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ItemRollupService Unit Tests")
+class ItemRollupServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ItemStatsService itemStatsService;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private ChangeSequenceService changeSequenceService;
+
+    private ItemRollupService itemRollupService;
+
+    @BeforeEach
+    void setUp() {
+        itemRollupService = new ItemRollupService(mongoTemplate, itemStatsService, changeSequenceService,
+                new SimpleMeterRegistry(), 5);
+    }
+
+    private static Item item(String category, int quantity) {
+        Item item = new Item();
+        item.setId("item-1");
+        item.setName("Test Laptop");
+        item.setPrice(new BigDecimal("100.00"));
+        item.setQuantity(quantity);
+        item.setCategory(category);
+        item.setStatus(quantity > 0 ? ItemStatus.AVAILABLE : ItemStatus.OUT_OF_STOCK);
+        return item;
+    }
+
+    private static ItemChangedEvent event(Item before, Item after) {
+        return new ItemChangedEvent(ItemChangeType.UPDATED, "item-1", before, after, Instant.now());
+    }
+
+    private void givenNoWritesInFlight() {
+        when(changeSequenceService.stableWatermark()).thenReturn(Long.MAX_VALUE);
+        when(changeSequenceService.latestSequence()).thenReturn(41L);
+    }
+
+    /**
+     * Run the event through the service and collect the $inc document of every upserted rollup
+     */
+    private Map<String, Document> capturedIncrements() {
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations, atLeastOnce()).upsert(queries.capture(), updates.capture());
+        verify(bulkOperations).execute();
+        Map<String, Document> increments = new HashMap<>();
+        for (int i = 0; i < queries.getAllValues().size(); i++) {
+            String id = queries.getAllValues().get(i).getQueryObject().getString("_id");
+            increments.put(id, (Document) updates.getAllValues().get(i).getUpdateObject().get("$inc"));
+        }
+        return increments;
+    }
+
+    @Test
+    @DisplayName("Should increment stock units, value and low stock count on a stock change")
+    void shouldApplyStockChangeDelta() {
+        // Given
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ItemRollup.class)).thenReturn(bulkOperations);
+
+        // When
+        itemRollupService.onItemChanged(event(item("Electronics", 10), item("Electronics", 3)));
+
+        // Then
+        Map<String, Document> increments = capturedIncrements();
+        assertThat(increments).containsOnlyKeys("total", "category:Electronics", "status:AVAILABLE");
+        Document category = increments.get("category:Electronics");
+        assertThat(category.get("count")).isEqualTo(0L);
+        assertThat(category.get("quantity")).isEqualTo(-7L);
+        assertThat(category.get("lowStockItems")).isEqualTo(1L);
+        assertThat(((Decimal128) category.get("value")).bigDecimalValue()).isEqualByComparingTo("-700");
+    }
+
+    @Test
+    @DisplayName("Should move an item between category and status rollups")
+    void shouldMoveItemBetweenRollups() {
+        // Given
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ItemRollup.class)).thenReturn(bulkOperations);
+
+        // When
+        itemRollupService.onItemChanged(event(item("Electronics", 10), item("Office", 0)));
+
+        // Then
+        Map<String, Document> increments = capturedIncrements();
+        assertThat(increments.get("category:Electronics").get("count")).isEqualTo(-1L);
+        assertThat(increments.get("category:Office").get("count")).isEqualTo(1L);
+        assertThat(increments.get("category:Office").get("outOfStockItems")).isEqualTo(1L);
+        assertThat(increments.get("status:AVAILABLE").get("count")).isEqualTo(-1L);
+        assertThat(increments.get("status:OUT_OF_STOCK").get("count")).isEqualTo(1L);
+        assertThat(increments.get("total").get("count")).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("Should not touch rollups when nothing they track changes")
+    void shouldSkipIrrelevantChange() {
+        // Given
+        Item after = item("Electronics", 10);
+        after.setName("Renamed Laptop");
+
+        // When
+        itemRollupService.onItemChanged(event(item("Electronics", 10), after));
+
+        // Then
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Should build the summary from rollup documents")
+    void shouldReadSummaryFromRollups() {
+        // Given
+        when(mongoTemplate.findAll(ItemRollup.class)).thenReturn(List.of(
+                new ItemRollup("total", "total", null, 3, 12, new BigDecimal("1200.00"), 1, 1),
+                new ItemRollup("category:Office", "category", "Office", 1, 0, BigDecimal.ZERO, 0, 1),
+                new ItemRollup("category:Electronics", "category", "Electronics", 2, 12, new BigDecimal("1200.00"), 1, 0),
+                new ItemRollup("category:Garden", "category", "Garden", 0, 0, BigDecimal.ZERO, 0, 0)));
+
+        // When
+        ItemStatsResponse summary = itemRollupService.getSummary();
+
+        // Then
+        assertThat(summary.getTotalItems()).isEqualTo(3);
+        assertThat(summary.getTotalValue()).isEqualByComparingTo("1200");
+        assertThat(summary.getPrice()).isNull();
+        assertThat(summary.getByCategory()).extracting(ItemStatsResponse.GroupStats::getKey)
+                .containsExactly("Electronics", "Office");
+    }
+
+    @Test
+    @DisplayName("Should repair drifted rollups with compensating increments")
+    void shouldRepairDrift() {
+        // Given
+        givenNoWritesInFlight();
+        ItemStatsResponse stats = ItemStatsResponse.builder()
+                .totalItems(2).totalQuantity(12).totalValue(new BigDecimal("1200.00"))
+                .byCategory(List.of(ItemStatsResponse.GroupStats.builder()
+                        .key("Electronics").count(2).totalQuantity(12).totalValue(new BigDecimal("1200.00")).build()))
+                .byStatus(List.of())
+                .build();
+        when(itemStatsService.aggregateOnPrimary(5)).thenReturn(stats);
+        when(mongoTemplate.findAll(ItemRollup.class)).thenReturn(List.of(
+                new ItemRollup("total", "total", null, 2, 12, new BigDecimal("1200.00"), 0, 0),
+                new ItemRollup("category:Electronics", "category", "Electronics", 3, 12, new BigDecimal("1200.00"), 0, 0)));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ItemRollup.class)).thenReturn(bulkOperations);
+
+        // When
+        int repaired = itemRollupService.reconcile();
+
+        // Then
+        assertThat(repaired).isEqualTo(1);
+        Map<String, Document> increments = capturedIncrements();
+        assertThat(increments).containsOnlyKeys("category:Electronics");
+        assertThat(increments.get("category:Electronics").get("count")).isEqualTo(-1L);
+    }
+
+    @Test
+    @DisplayName("Should skip reconciliation when rollups change while aggregating")
+    void shouldSkipReconciliationOnConcurrentWrite() {
+        // Given
+        givenNoWritesInFlight();
+        when(itemStatsService.aggregateOnPrimary(5)).thenReturn(ItemStatsResponse.builder()
+                .totalValue(BigDecimal.ZERO).byCategory(List.of()).byStatus(List.of()).build());
+        when(mongoTemplate.findAll(ItemRollup.class))
+                .thenReturn(List.of(new ItemRollup("total", "total", null, 1, 1, BigDecimal.TEN, 1, 0)))
+                .thenReturn(List.of(new ItemRollup("total", "total", null, 2, 2, BigDecimal.TEN, 2, 0)));
+
+        // When
+        int repaired = itemRollupService.reconcile();
+
+        // Then
+        assertThat(repaired).isZero();
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(ItemRollup.class));
+    }
+
+    @Test
+    @DisplayName("Should not aggregate while an item write is in flight")
+    void shouldSkipReconciliationWhileWritesInFlight() {
+        // Given
+        when(changeSequenceService.stableWatermark()).thenReturn(41L);
+
+        // When
+        int repaired = itemRollupService.reconcile();
+
+        // Then
+        assertThat(repaired).isZero();
+        verify(itemStatsService, never()).aggregateOnPrimary(anyInt());
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(ItemRollup.class));
+    }
+
+    @Test
+    @DisplayName("Should skip reconciliation when a write starts while aggregating")
+    void shouldSkipReconciliationWhenWriteStarts() {
+        // Given
+        when(changeSequenceService.stableWatermark()).thenReturn(Long.MAX_VALUE);
+        when(changeSequenceService.latestSequence()).thenReturn(41L, 42L);
+        when(itemStatsService.aggregateOnPrimary(5)).thenReturn(ItemStatsResponse.builder()
+                .totalItems(1).totalValue(BigDecimal.ZERO).byCategory(List.of()).byStatus(List.of()).build());
+        when(mongoTemplate.findAll(ItemRollup.class)).thenReturn(List.of());
+
+        // When
+        int repaired = itemRollupService.reconcile();
+
+        // Then
+        assertThat(repaired).isZero();
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(ItemRollup.class));
+    }
+}
@@ -1,19 +1,41 @@
 package com.tacticalreport.tacticalreportbackend.service;
 
+import com.tacticalreport.tacticalreportbackend.event.ItemChangeType;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangedEvent;
 import com.tacticalreport.tacticalreportbackend.exception.DuplicateSkuException;
 import com.tacticalreport.tacticalreportbackend.exception.ItemNotFoundException;
+import com.tacticalreport.tacticalreportbackend.exception.PreconditionFailedException;
 import com.tacticalreport.tacticalreportbackend.model.Item;
 import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import com.tacticalreport.tacticalreportbackend.model.ItemTombstone;
+import com.tacticalreport.tacticalreportbackend.model.ItemVersion;
 import com.tacticalreport.tacticalreportbackend.repository.ItemRepository;
+import com.tacticalreport.tacticalreportbackend.repository.ItemTombstoneRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +43,8 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -35,10 +59,33 @@ class ItemServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private ItemTombstoneRepository itemTombstoneRepository;
+
+    @Mock
+    private ChangeSequenceService changeSequenceService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ImageBlobStore imageBlobStore;
+
+    @Mock
+    private ItemArchiveService itemArchiveService;
+
+    @Spy // real coalescer so reads still reach the mocked repository
+    private ItemReadCoalescer itemReadCoalescer =
+            new ItemReadCoalescer(new SimpleMeterRegistry(), true, Duration.ofSeconds(2));
+
+    @Spy
+    private ReadRouting readRouting = new ReadRouting(true, Duration.ofSeconds(90));
+
     @InjectMocks
     private ItemService itemService;
 
     private Item testItem;
+    private static final byte[] PNG_HEADER = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13};
     private static final String SAMPLE_BASE64_IMAGE = "data:image/png;base64,iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mNk+M9QDwADhgGAWjR9awAAAABJRU5ErkJggg==";
 
     @BeforeEach
@@ -266,18 +313,73 @@ class ItemServiceTest {
 
 
     @Test
-    @DisplayName("Should delete item successfully")
+    @DisplayName("Should delete item successfully, record a tombstone and keep an archive copy")
     void shouldDeleteItemSuccessfully() {
         // Given
-        when(itemRepository.existsById("test-id-123")).thenReturn(true);
+        when(itemRepository.findById("test-id-123")).thenReturn(Optional.of(testItem));
+        when(changeSequenceService.begin()).thenReturn(42L);
         doNothing().when(itemRepository).deleteById("test-id-123");
 
         // When
         itemService.deleteItem("test-id-123");
 
         // Then
-        verify(itemRepository, times(1)).existsById("test-id-123");
-        verify(itemRepository, times(1)).deleteById("test-id-123");
+        ArgumentCaptor<ItemTombstone> captor = ArgumentCaptor.forClass(ItemTombstone.class);
+        verify(itemTombstoneRepository, times(1)).save(captor.capture());
+        assertThat(captor.getValue().getId()).isEqualTo("test-id-123");
+        assertThat(captor.getValue().getSku()).isEqualTo("TEST-001");
+        assertThat(captor.getValue().getChangeSequence()).isEqualTo(42L);
+
+        verify(itemRepository, times(1)).findById("test-id-123");
+        InOrder order = inOrder(itemArchiveService, itemRepository);
+        order.verify(itemArchiveService).archiveDeleted(testItem);
+        order.verify(itemRepository).deleteById("test-id-123");
+        verify(changeSequenceService, times(1)).complete(42L);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the archive only when includeArchived is set")
+    void shouldFindArchivedItemWhenIncluded() {
+        // Given
+        when(itemRepository.findById("archived-id")).thenReturn(Optional.empty());
+        when(itemArchiveService.findArchived("archived-id")).thenReturn(Optional.of(testItem));
+
+        // When / Then
+        assertThat(itemService.getItemById("archived-id", true)).isSameAs(testItem);
+        assertThatThrownBy(() -> itemService.getItemById("archived-id", false))
+                .isInstanceOf(ItemNotFoundException.class);
+        verify(itemArchiveService, times(1)).findArchived("archived-id");
+    }
+
+    @Test
+    @DisplayName("Should ignore delete of non-existent item")
+    void shouldIgnoreDeleteOfNonExistentItem() {
+        // Given
+        when(itemRepository.findById("invalid-id")).thenReturn(Optional.empty());
+
+        // When
+        itemService.deleteItem("invalid-id");
+
+        // Then
+        verify(itemRepository, never()).deleteById(any());
+        verify(itemTombstoneRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should stamp change sequence on create")
+    void shouldStampChangeSequenceOnCreate() {
+        // Given
+        when(itemRepository.existsBySku("TEST-001")).thenReturn(false);
+        when(changeSequenceService.begin()).thenReturn(7L);
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Item result = itemService.createItem(testItem);
+
+        // Then
+        assertThat(result.getChangeSequence()).isEqualTo(7L);
+        verify(changeSequenceService, times(1)).complete(7L);
     }
 
 
@@ -331,4 +433,323 @@ class ItemServiceTest {
 
         verify(itemRepository, times(1)).findByStatusAndQuantityGreaterThan(ItemStatus.AVAILABLE, 0);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should route list reads to secondaries but keep lookups and SKU checks on the primary")
+    void shouldRouteOnlyListReadsToSecondaries() {
+        // Given
+        when(itemRepository.findByStatusAndQuantityGreaterThan(ItemStatus.AVAILABLE, 0)).thenReturn(List.of());
+        when(itemRepository.findBySku("TEST-001")).thenReturn(Optional.of(testItem));
+        when(itemRepository.existsBySku("TEST-001")).thenReturn(false);
+        when(itemRepository.save(any(Item.class))).thenReturn(testItem);
+
+        // When
+        itemService.getItemBySku("TEST-001");
+        itemService.createItem(testItem);
+
+        // Then
+        verify(readRouting, never()).secondary(any());
+
+        // When
+        itemService.getAvailableItems();
+
+        // Then
+        verify(readRouting, times(1)).secondary(any());
+    }
+
+
+    @Test
+    @DisplayName("Should apply every active filter in one query and sort within the filter's index")
+    void shouldCombineFilters() {
+        // Given
+        ItemFilter filter = new ItemFilter(null, null, null, " Electronics ", ItemStatus.AVAILABLE,
+                null, new BigDecimal("500.00"), null, null);
+        when(itemRepository.findMatching(any(Criteria.class), any(Pageable.class))).thenReturn(Page.empty());
+
+        // When
+        itemService.getItemsByFilter(filter, PageRequest.of(0, 20));
+
+        // Then
+        ArgumentCaptor<Criteria> criteria = ArgumentCaptor.forClass(Criteria.class);
+        verify(itemRepository).findMatching(criteria.capture(), eq(PageRequest.of(0, 20)));
+        assertThat(criteria.getValue().getCriteriaObject()).isEqualTo(new Document("$and", List.of(
+                new Document("category", "Electronics"),
+                new Document("status", "AVAILABLE"),
+                new Document("price", new Document("$lte", new Decimal128(new BigDecimal("5E+2")))))));
+        assertThatThrownBy(() -> itemService.getItemsByFilter(filter, PageRequest.of(0, 20, Sort.by("name"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("sorted by price first");
+    }
+
+    @Test
+    @DisplayName("Should publish CREATED event after creating item")
+    void shouldPublishCreatedEvent() {
+        // Given
+        when(itemRepository.existsBySku("TEST-001")).thenReturn(false);
+        when(itemRepository.save(any(Item.class))).thenReturn(testItem);
+
+        // When
+        itemService.createItem(testItem);
+
+        // Then
+        ArgumentCaptor<ItemChangedEvent> captor = ArgumentCaptor.forClass(ItemChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        assertThat(captor.getValue().getType()).isEqualTo(ItemChangeType.CREATED);
+        assertThat(captor.getValue().getItemId()).isEqualTo("test-id-123");
+        assertThat(captor.getValue().getBefore()).isNull();
+        assertThat(captor.getValue().getAfter()).isSameAs(testItem);
+    }
+
+    @Test
+    @DisplayName("Should publish STOCK_CHANGED event when only quantity changes")
+    void shouldPublishStockChangedEvent() {
+        // Given
+        testItem.setImage(null);
+        testItem.setImageHash("abc123");
+        Item stockUpdate = new Item();
+        stockUpdate.setName(testItem.getName());
+        stockUpdate.setDescription(testItem.getDescription());
+        stockUpdate.setPrice(new BigDecimal("999.990"));
+        stockUpdate.setQuantity(3);
+        stockUpdate.setCategory(testItem.getCategory());
+        stockUpdate.setSku(testItem.getSku());
+        stockUpdate.setImageHash(testItem.getImageHash());
+
+        when(itemRepository.findById("test-id-123")).thenReturn(Optional.of(testItem));
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        itemService.updateItem("test-id-123", stockUpdate);
+
+        // Then
+        ArgumentCaptor<ItemChangedEvent> captor = ArgumentCaptor.forClass(ItemChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        assertThat(captor.getValue().getType()).isEqualTo(ItemChangeType.STOCK_CHANGED);
+        assertThat(captor.getValue().getBefore().getQuantity()).isEqualTo(10);
+        assertThat(captor.getValue().getAfter().getQuantity()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should not publish event when create fails")
+    void shouldNotPublishEventWhenCreateFails() {
+        // Given
+        when(itemRepository.existsBySku("TEST-001")).thenReturn(true);
+
+        // When & Then
+        assertThatThrownBy(() -> itemService.createItem(testItem))
+                .isInstanceOf(DuplicateSkuException.class);
+
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should reject update when If-Match does not match current version")
+    void shouldRejectUpdateWithStaleIfMatch() {
+        // Given
+        testItem.setChangeSequence(42L);
+        when(itemRepository.findById("test-id-123")).thenReturn(Optional.of(testItem));
+
+        // When & Then
+        assertThatThrownBy(() -> itemService.updateItem("test-id-123", testItem, "\"41\""))
+                .isInstanceOf(PreconditionFailedException.class);
+
+        verify(itemRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should update when If-Match matches current version")
+    void shouldUpdateWithMatchingIfMatch() {
+        // Given
+        testItem.setChangeSequence(42L);
+        when(itemRepository.findById("test-id-123")).thenReturn(Optional.of(testItem));
+        when(changeSequenceService.begin()).thenReturn(43L);
+        when(itemRepository.replaceIfUnchanged(any(Item.class), any(Item.class))).thenReturn(true);
+
+        // When
+        Item result = itemService.updateItem("test-id-123", testItem, "\"40\", \"42\"");
+
+        // Then
+        assertThat(result.getChangeSequence()).isEqualTo(43L);
+        ArgumentCaptor<Item> expected = ArgumentCaptor.forClass(Item.class);
+        verify(itemRepository).replaceIfUnchanged(eq(result), expected.capture());
+        assertThat(expected.getValue().getChangeSequence()).isEqualTo(42L);
+        verify(itemRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should fail the precondition when the item changes between the If-Match check and the write")
+    void shouldRejectUpdateWhenItemChangesAfterCheck() {
+        // Given
+        testItem.setChangeSequence(42L);
+        when(itemRepository.findById("test-id-123")).thenReturn(Optional.of(testItem));
+        when(changeSequenceService.begin()).thenReturn(43L);
+        when(itemRepository.replaceIfUnchanged(any(Item.class), any(Item.class))).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> itemService.updateItem("test-id-123", testItem, "\"42\""))
+                .isInstanceOf(PreconditionFailedException.class);
+        verify(changeSequenceService).complete(43L);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should fail a conditional delete when the item changes between the If-Match check and the write")
+    void shouldRejectDeleteWhenItemChangesAfterCheck() {
+        // Given
+        testItem.setChangeSequence(42L);
+        when(itemRepository.findById("test-id-123")).thenReturn(Optional.of(testItem));
+        when(changeSequenceService.begin()).thenReturn(43L);
+        when(itemRepository.stampIfUnchanged(testItem, 43L)).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> itemService.deleteItem("test-id-123", "\"42\""))
+                .isInstanceOf(PreconditionFailedException.class);
+        verify(itemTombstoneRepository, never()).save(any());
+        verify(itemRepository, never()).deleteById(any());
+        verify(changeSequenceService).complete(43L);
+    }
+
+    @Test
+    @DisplayName("Should fail conditional delete of non-existent item")
+    void shouldFailConditionalDeleteOfNonExistentItem() {
+        // Given
+        when(itemRepository.findById("invalid-id")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThatThrownBy(() -> itemService.deleteItem("invalid-id", "*"))
+                .isInstanceOf(PreconditionFailedException.class);
+
+        verify(itemRepository, never()).deleteById(any());
+    }
+
+    @Test
+    @DisplayName("Should move image to blob store on create")
+    void shouldStoreImageInBlobStoreOnCreate() {
+        // Given
+        when(itemRepository.existsBySku("TEST-001")).thenReturn(false);
+        when(imageBlobStore.put(any(byte[].class), eq("image/png"))).thenReturn("abc123");
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Item result = itemService.createItem(testItem);
+
+        // Then
+        assertThat(result.getImageHash()).isEqualTo("abc123");
+        assertThat(result.getImage()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep stored image when update sends back its hash")
+    void shouldKeepImageWhenHashIsSentBack() {
+        // Given
+        testItem.setImage(null);
+        testItem.setImageHash("abc123");
+        Item details = new Item();
+        details.setName("Renamed Laptop");
+        details.setPrice(new BigDecimal("999.99"));
+        details.setQuantity(10);
+        details.setImageHash("abc123");
+        when(itemRepository.findById("test-id-123")).thenReturn(Optional.of(testItem));
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Item result = itemService.updateItem("test-id-123", details);
+
+        // Then
+        assertThat(result.getImageHash()).isEqualTo("abc123");
+        verify(imageBlobStore, never()).put(any(), any());
+        verify(imageBlobStore, never()).release(any());
+    }
+
+    @Test
+    @DisplayName("Should release the previous image when it is replaced")
+    void shouldReleasePreviousImageOnReplace() {
+        // Given
+        testItem.setImageHash("old-hash");
+        when(itemRepository.findById("test-id-123")).thenReturn(Optional.of(testItem));
+        when(imageBlobStore.put(any(byte[].class), eq("image/png"))).thenReturn("new-hash");
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Item details = new Item();
+        details.setName("Test Laptop");
+        details.setPrice(new BigDecimal("999.99"));
+        details.setQuantity(10);
+        details.setImage(SAMPLE_BASE64_IMAGE);
+
+        // When
+        Item result = itemService.updateItem("test-id-123", details);
+
+        // Then
+        assertThat(result.getImageHash()).isEqualTo("new-hash");
+        verify(imageBlobStore).release("old-hash");
+    }
+
+    @Test
+    @DisplayName("Should stream uploaded image into blob store and release the previous one")
+    void shouldReplaceImageFromStream() throws IOException {
+        // Given
+        testItem.setImageHash("old-hash");
+        testItem.setImage(null);
+        InputStream content = new ByteArrayInputStream(PNG_HEADER);
+        when(itemRepository.findVersionById("test-id-123")).thenReturn(Optional.of(mock(ItemVersion.class)));
+        when(itemRepository.findById("test-id-123")).thenReturn(Optional.of(testItem));
+        when(imageBlobStore.getMaxImageBytes()).thenReturn(1024L);
+        when(imageBlobStore.put(any(InputStream.class), eq(1024L), eq("image/png"))).thenReturn("new-hash");
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Item result = itemService.replaceImage("test-id-123", content, "image/png", null);
+
+        // Then
+        assertThat(result.getImageHash()).isEqualTo("new-hash");
+        assertThat(result.getImage()).isNull();
+        verify(imageBlobStore).release("old-hash");
+        verify(eventPublisher).publishEvent(any(ItemChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should reject image upload with a non-image content type")
+    void shouldRejectNonImageUpload() throws IOException {
+        // When & Then
+        assertThatThrownBy(() -> itemService.replaceImage("test-id-123",
+                new ByteArrayInputStream(new byte[]{1}), "text/plain", null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(imageBlobStore, never()).put(any(InputStream.class), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject images that are not PNG, JPEG, GIF or WebP")
+    void shouldRejectNonRasterImages() {
+        // Given
+        when(itemRepository.existsBySku("TEST-001")).thenReturn(false);
+
+        // When & Then
+        testItem.setImage("data:text/html;base64,PHNjcmlwdD5hbGVydCgxKTwvc2NyaXB0Pg==");
+        assertThatThrownBy(() -> itemService.createItem(testItem))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("text/html");
+        testItem.setImage("data:image/png;base64,PHNjcmlwdD5hbGVydCgxKTwvc2NyaXB0Pg==");
+        assertThatThrownBy(() -> itemService.createItem(testItem))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("PNG, JPEG, GIF or WebP");
+        verify(imageBlobStore, never()).put(any(byte[].class), any());
+    }
+
+    @Test
+    @DisplayName("Should release uploaded image when If-Match does not match")
+    void shouldReleaseUploadedImageOnPreconditionFailure() throws IOException {
+        // Given
+        testItem.setChangeSequence(5L);
+        InputStream content = new ByteArrayInputStream(PNG_HEADER);
+        when(itemRepository.findVersionById("test-id-123")).thenReturn(Optional.of(mock(ItemVersion.class)));
+        when(itemRepository.findById("test-id-123")).thenReturn(Optional.of(testItem));
+        when(imageBlobStore.getMaxImageBytes()).thenReturn(1024L);
+        when(imageBlobStore.put(any(InputStream.class), eq(1024L), eq("image/png"))).thenReturn("new-hash");
+
+        // When & Then
+        assertThatThrownBy(() -> itemService.replaceImage("test-id-123", content, "image/png", "\"4\""))
+                .isInstanceOf(PreconditionFailedException.class);
+        verify(imageBlobStore).release("new-hash");
+        verify(itemRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,76 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for ItemSort
+ * Covers index-backed sorts with the _id tie-breaker, reversed index traversal and rejected sorts
+ */
+@DisplayName("ItemSort Unit Tests")
+class ItemSortTest {
+
+    @Test
+    @DisplayName("Should default to newest first and append _id in the index direction")
+    void shouldResolveDefaultAndRequestedSorts() {
+        // Given
+        Pageable unsorted = PageRequest.of(2, 20);
+        Pageable priceThenName = PageRequest.of(0, 20, Sort.by(Sort.Order.asc("price"), Sort.Order.desc("name")));
+        Pageable reversed = PageRequest.of(0, 20, Sort.by(Sort.Order.desc("price"), Sort.Order.asc("name")));
+
+        // When
+        Pageable newest = ItemSort.resolve(unsorted, ItemSort.NEWEST_FIRST, null);
+        Pageable forward = ItemSort.resolve(priceThenName, ItemSort.NEWEST_FIRST, null);
+        Pageable backward = ItemSort.resolve(reversed, ItemSort.NEWEST_FIRST, null);
+
+        // Then
+        assertThat(newest.getPageNumber()).isEqualTo(2);
+        assertThat(newest.getSort()).containsExactly(Sort.Order.desc("createdAt"), Sort.Order.desc("_id"));
+        assertThat(forward.getSort()).containsExactly(
+                Sort.Order.asc("price"), Sort.Order.desc("name"), Sort.Order.asc("_id"));
+        assertThat(backward.getSort()).containsExactly(
+                Sort.Order.desc("price"), Sort.Order.asc("name"), Sort.Order.desc("_id"));
+    }
+
+    @Test
+    @DisplayName("Should use the indexes with the query's equality fields and keep unsorted queries unsorted")
+    void shouldResolveSortsForFilteredQueries() {
+        // When
+        Sort byCategory = ItemSort.resolve(Sort.by(Sort.Direction.DESC, "name"), null, List.of("category"));
+        Sort byPriceRange = ItemSort.resolve(Sort.by("price"), "price", List.of());
+        Pageable unsorted = ItemSort.resolve(PageRequest.of(0, 20), Sort.unsorted(), null, "status");
+
+        // Then
+        assertThat(byCategory).containsExactly(Sort.Order.desc("name"), Sort.Order.desc("_id"));
+        assertThat(byPriceRange).containsExactly(Sort.Order.asc("price"), Sort.Order.asc("_id"));
+        assertThat(unsorted.getSort().isUnsorted()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject unknown fields, case-insensitive sorts and sorts no index returns in order")
+    void shouldRejectUnsupportedSorts() {
+        assertThatThrownBy(() -> ItemSort.resolve(Sort.by("description"), null, List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("sortable fields");
+        assertThatThrownBy(() -> ItemSort.resolve(Sort.by(Sort.Order.asc("name").ignoreCase()), null, List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ItemSort.resolve(
+                Sort.by(Sort.Order.asc("price"), Sort.Order.asc("name")), null, List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("sort=price,asc&sort=name,desc");
+        assertThatThrownBy(() -> ItemSort.resolve(Sort.by("quantity"), null, List.of("status")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("when filtering by status");
+        assertThatThrownBy(() -> ItemSort.resolve(Sort.by("name"), "price", List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("sorted by price first");
+    }
+}
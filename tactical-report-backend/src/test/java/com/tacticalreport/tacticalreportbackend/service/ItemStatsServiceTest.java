@@ -0,0 +1,181 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.mongodb.ReadPreference;
+import com.tacticalreport.tacticalreportbackend.dto.ItemStatsResponse;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ItemStatsService
+ * Covers mapping of the $facet result, the short-lived cache and the $match stage
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ItemStatsService Unit Tests")
+class ItemStatsServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private ItemStatsService itemStatsService;
+
+    @BeforeEach
+    void setUp() {
+        itemStatsService = new ItemStatsService(mongoTemplate, new ReadRouting(true, Duration.ofSeconds(90)), 5,
+                Duration.ofSeconds(10));
+    }
+
+    private void givenAggregationResult(Document result) {
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Item.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(result), new Document()));
+    }
+
+    private static Document facetResult() {
+        Document electronics = new Document("_id", "Electronics").append("count", 2).append("totalQuantity", 12)
+                .append("totalValue", new Decimal128(new BigDecimal("2009.98"))).append("lowStockItems", 1);
+        Document office = new Document("_id", "Office").append("count", 1).append("totalQuantity", 0)
+                .append("totalValue", new Decimal128(new BigDecimal("0.00"))).append("lowStockItems", 0);
+        Document available = new Document("_id", "AVAILABLE").append("count", 2).append("totalQuantity", 12)
+                .append("totalValue", new Decimal128(new BigDecimal("2009.98"))).append("lowStockItems", 1);
+        Document totals = new Document("_id", null).append("count", 3).append("totalQuantity", 12)
+                .append("totalValue", new Decimal128(new BigDecimal("2009.98"))).append("lowStockItems", 1)
+                .append("outOfStockItems", 1)
+                .append("minPrice", new Decimal128(new BigDecimal("4.99")))
+                .append("avgPrice", new Decimal128(new BigDecimal("501.656666666")))
+                .append("maxPrice", new Decimal128(new BigDecimal("999.99")));
+        return new Document("byCategory", List.of(electronics, office))
+                .append("byStatus", List.of(available))
+                .append("totals", List.of(totals));
+    }
+
+    @Test
+    @DisplayName("Should map totals, price statistics and groups from the aggregation")
+    void shouldMapFacetResult() {
+        // Given
+        givenAggregationResult(facetResult());
+
+        // When
+        ItemStatsResponse stats = itemStatsService.getStats(null, null, null);
+
+        // Then
+        assertThat(stats.getTotalItems()).isEqualTo(3);
+        assertThat(stats.getTotalQuantity()).isEqualTo(12);
+        assertThat(stats.getTotalValue()).isEqualByComparingTo("2009.98");
+        assertThat(stats.getLowStockItems()).isEqualTo(1);
+        assertThat(stats.getOutOfStockItems()).isEqualTo(1);
+        assertThat(stats.getLowStockThreshold()).isEqualTo(5);
+        assertThat(stats.getPrice().getMin()).isEqualByComparingTo("4.99");
+        assertThat(stats.getPrice().getAvg()).isEqualByComparingTo("501.66");
+        assertThat(stats.getPrice().getMax()).isEqualByComparingTo("999.99");
+        assertThat(stats.getByCategory()).extracting(ItemStatsResponse.GroupStats::getKey)
+                .containsExactly("Electronics", "Office");
+        assertThat(stats.getByStatus()).singleElement()
+                .satisfies(group -> assertThat(group.getCount()).isEqualTo(2));
+    }
+
+    @Test
+    @DisplayName("Should return empty stats when no item matches")
+    void shouldReturnEmptyStats() {
+        // Given
+        givenAggregationResult(new Document("byCategory", List.of()).append("byStatus", List.of())
+                .append("totals", List.of()));
+
+        // When
+        ItemStatsResponse stats = itemStatsService.getStats("Nothing", null, null);
+
+        // Then
+        assertThat(stats.getTotalItems()).isZero();
+        assertThat(stats.getTotalValue()).isEqualByComparingTo("0");
+        assertThat(stats.getPrice()).isNull();
+        assertThat(stats.getByCategory()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should serve repeated requests for the same filter from cache")
+    void shouldCacheStatsPerFilter() {
+        // Given
+        givenAggregationResult(facetResult());
+
+        // When
+        itemStatsService.getStats("Electronics", ItemStatus.AVAILABLE, null);
+        itemStatsService.getStats("Electronics", ItemStatus.AVAILABLE, null);
+        itemStatsService.getStats("Electronics", ItemStatus.AVAILABLE, 10);
+
+        // Then
+        verify(mongoTemplate, times(2)).aggregate(any(Aggregation.class), eq(Item.class), eq(Document.class));
+    }
+
+    @Test
+    @DisplayName("Should start the pipeline with a $match only when filters are given")
+    void shouldMatchOnFilters() {
+        // Given
+        givenAggregationResult(facetResult());
+        ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+
+        // When
+        itemStatsService.getStats(null, null, null);
+        itemStatsService.getStats("Electronics", ItemStatus.AVAILABLE, null);
+
+        // Then
+        verify(mongoTemplate, times(2)).aggregate(aggregation.capture(), eq(Item.class), eq(Document.class));
+        List<Document> unfiltered = aggregation.getAllValues().get(0).toPipeline(Aggregation.DEFAULT_CONTEXT);
+        List<Document> filtered = aggregation.getAllValues().get(1).toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertThat(unfiltered.get(0)).containsKey("$project");
+        assertThat(filtered.get(0)).containsEntry("$match",
+                new Document("category", "Electronics").append("status", "AVAILABLE"));
+        assertThat(filtered).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Should aggregate on a secondary for stats but on the primary for rollup reconciliation")
+    void shouldAggregateOnPrimaryForReconciliation() {
+        // Given
+        ReadRouting readRouting = new ReadRouting(true, Duration.ofSeconds(90));
+        itemStatsService = new ItemStatsService(mongoTemplate, readRouting, 5, Duration.ofSeconds(10));
+        List<ReadPreference> preferences = new ArrayList<>();
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Item.class), eq(Document.class)))
+                .thenAnswer(invocation -> {
+                    preferences.add(readRouting.current());
+                    return new AggregationResults<>(List.of(facetResult()), new Document());
+                });
+
+        // When
+        itemStatsService.getStats(null, null, null);
+        itemStatsService.aggregateOnPrimary(5);
+
+        // Then
+        assertThat(preferences).hasSize(2);
+        assertThat(preferences.get(0)).isNotNull();
+        assertThat(preferences.get(1)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject a negative low stock threshold")
+    void shouldRejectNegativeThreshold() {
+        assertThatThrownBy(() -> itemStatsService.getStats(null, null, -1))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(mongoTemplate);
+    }
+}
@@ -0,0 +1,157 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.dto.ItemChangesResponse;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemTombstone;
+import com.tacticalreport.tacticalreportbackend.repository.ItemRepository;
+import com.tacticalreport.tacticalreportbackend.repository.ItemTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ItemSyncService
+ * Covers token handling and merging of item changes with deletion tombstones
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ItemSyncService Unit Tests")
+class ItemSyncServiceTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ItemTombstoneRepository itemTombstoneRepository;
+
+    @Mock
+    private ChangeSequenceService changeSequenceService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private ItemSyncService itemSyncService;
+
+    @BeforeEach
+    void setUp() {
+        itemSyncService = new ItemSyncService(itemRepository, itemTombstoneRepository, changeSequenceService,
+                mongoTemplate, Duration.ofDays(30), 1000);
+    }
+
+    private static Item itemWithSequence(String id, long sequence) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName("Item " + id);
+        item.setChangeSequence(sequence);
+        return item;
+    }
+
+    private static ItemTombstone tombstoneWithSequence(String id, long sequence) {
+        return new ItemTombstone(id, "SKU-" + id, "Electronics", sequence, LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("Should merge items and tombstones in sequence order")
+    void shouldMergeChangesInSequenceOrder() {
+        // Given
+        when(changeSequenceService.stableWatermark()).thenReturn(Long.MAX_VALUE);
+        when(itemRepository.findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(itemWithSequence("a", 1), itemWithSequence("c", 3)));
+        when(itemTombstoneRepository.findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(tombstoneWithSequence("b", 2), tombstoneWithSequence("d", 4)));
+
+        // When
+        ItemChangesResponse response = itemSyncService.getChangesSince(null, 3);
+
+        // Then
+        assertThat(response.getItems()).extracting(Item::getId).containsExactly("a", "c");
+        assertThat(response.getDeleted()).extracting(ItemTombstone::getId).containsExactly("b");
+        assertThat(response.isHasMore()).isTrue();
+        assertThat(response.isResyncRequired()).isFalse();
+        assertThat(ItemSyncService.decodeToken(response.getNextToken())[0]).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Should withhold changes above the stable watermark")
+    void shouldWithholdChangesAboveWatermark() {
+        // Given
+        String token = ItemSyncService.encodeToken(10L, Instant.now());
+        when(changeSequenceService.stableWatermark()).thenReturn(11L);
+        when(itemRepository.findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(itemWithSequence("a", 11), itemWithSequence("b", 13)));
+        when(itemTombstoneRepository.findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // When
+        ItemChangesResponse response = itemSyncService.getChangesSince(token, 100);
+
+        // Then
+        assertThat(response.getItems()).extracting(Item::getId).containsExactly("a");
+        assertThat(response.isHasMore()).isFalse();
+        assertThat(ItemSyncService.decodeToken(response.getNextToken())[0]).isEqualTo(11L);
+    }
+
+    @Test
+    @DisplayName("Should keep the caught-up time in the token until a page catches up")
+    void shouldKeepCaughtUpTimeWhilePaging() {
+        // Given
+        Instant caughtUpAt = Instant.now().minus(Duration.ofDays(29));
+        String token = ItemSyncService.encodeToken(10L, caughtUpAt);
+        when(changeSequenceService.stableWatermark()).thenReturn(Long.MAX_VALUE);
+        when(itemRepository.findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(itemWithSequence("a", 11), itemWithSequence("b", 12)));
+        when(itemRepository.findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(eq(11L), any(Pageable.class)))
+                .thenReturn(List.of(itemWithSequence("b", 12)));
+        when(itemTombstoneRepository.findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // When
+        ItemChangesResponse partial = itemSyncService.getChangesSince(token, 1);
+        ItemChangesResponse last = itemSyncService.getChangesSince(partial.getNextToken(), 1);
+
+        // Then
+        assertThat(partial.isHasMore()).isTrue();
+        assertThat(ItemSyncService.decodeToken(partial.getNextToken())[1]).isEqualTo(caughtUpAt.toEpochMilli());
+        assertThat(last.isHasMore()).isFalse();
+        assertThat(ItemSyncService.decodeToken(last.getNextToken())[1]).isGreaterThan(caughtUpAt.toEpochMilli());
+    }
+
+    @Test
+    @DisplayName("Should require resync when token is older than tombstone retention")
+    void shouldRequireResyncForExpiredToken() {
+        // Given
+        String token = ItemSyncService.encodeToken(10L, Instant.now().minus(Duration.ofDays(31)));
+
+        // When
+        ItemChangesResponse response = itemSyncService.getChangesSince(token, 100);
+
+        // Then
+        assertThat(response.isResyncRequired()).isTrue();
+        assertThat(response.getNextToken()).isNull();
+        verifyNoInteractions(itemRepository, itemTombstoneRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed token")
+    void shouldRejectMalformedToken() {
+        assertThatThrownBy(() -> itemSyncService.getChangesSince("not-a-token", 100))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid sync token");
+    }
+}
@@ -0,0 +1,73 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.TaggableReadPreference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for ReadRouting
+ * Covers the secondary scope, opting out per request and configuration limits
+ */
+@DisplayName("ReadRouting Tests")
+class ReadRoutingTest {
+
+    private final ReadRouting readRouting = new ReadRouting(true, Duration.ofSeconds(120));
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Should route reads in the secondary scope and restore the primary afterwards")
+    void shouldRouteReadsInSecondaryScope() {
+        // When
+        ReadPreference inside = readRouting.secondary(readRouting::current);
+
+        // Then
+        assertThat(inside).isEqualTo(ReadPreference.secondaryPreferred(120, TimeUnit.SECONDS));
+        assertThat(((TaggableReadPreference) inside).getMaxStaleness(TimeUnit.SECONDS)).isEqualTo(120);
+        assertThat(readRouting.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep reads on the primary when routing is disabled")
+    void shouldKeepReadsOnPrimaryWhenDisabled() {
+        // Given
+        ReadRouting disabled = new ReadRouting(false, Duration.ofSeconds(90));
+
+        // When / Then
+        assertThat(disabled.secondary(disabled::current)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep reads on the primary when the request asks for strong consistency")
+    void shouldKeepReadsOnPrimaryForStrongConsistency() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/items");
+        request.addHeader(ReadRouting.CONSISTENCY_HEADER, "STRONG");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        // When / Then
+        assertThat(readRouting.secondary(readRouting::current)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject a max staleness below the server minimum")
+    void shouldRejectShortMaxStaleness() {
+        assertThatThrownBy(() -> new ReadRouting(true, Duration.ofSeconds(30)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("90");
+    }
+}
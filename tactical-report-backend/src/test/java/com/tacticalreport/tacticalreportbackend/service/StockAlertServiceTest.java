@@ -0,0 +1,152 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.mongodb.client.result.DeleteResult;
+import com.tacticalreport.tacticalreportbackend.dto.StockAlert;
+import com.tacticalreport.tacticalreportbackend.dto.StockAlert.Severity;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangeType;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangedEvent;
+import com.tacticalreport.tacticalreportbackend.event.StockAlertBroadcaster;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.ItemStatus;
+import com.tacticalreport.tacticalreportbackend.model.StockThreshold;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StockAlertService
+ * Covers raising and de-duplicating alerts, hysteresis on resolve, ordering by stock cover and threshold overrides
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockAlertService Unit Tests")
+class StockAlertServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private StockAlertBroadcaster broadcaster;
+
+    private StockAlertService stockAlertService;
+
+    private final Instant start = Instant.parse("2026-01-05T08:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        stockAlertService = new StockAlertService(mongoTemplate, broadcaster, new SimpleMeterRegistry(),
+                true, 5, 0.2, Duration.ofDays(7), 1000);
+    }
+
+    private static Item item(String id, String category, int quantity) {
+        Item item = new Item();
+        item.setId(id);
+        item.setSku("SKU-" + id);
+        item.setCategory(category);
+        item.setQuantity(quantity);
+        item.setStatus(ItemStatus.AVAILABLE);
+        return item;
+    }
+
+    private void change(String id, String category, int from, int to, Instant at) {
+        stockAlertService.onItemChanged(new ItemChangedEvent(ItemChangeType.STOCK_CHANGED, id,
+                item(id, category, from), item(id, category, to), at));
+    }
+
+    private List<Severity> published() {
+        ArgumentCaptor<StockAlert> alerts = ArgumentCaptor.forClass(StockAlert.class);
+        verify(broadcaster, atLeast(0)).publish(alerts.capture());
+        return alerts.getAllValues().stream().map(StockAlert::getSeverity).toList();
+    }
+
+    @Test
+    @DisplayName("Should raise an alert once per crossing and again only when the severity changes")
+    void shouldDeduplicateAlerts() {
+        // When
+        change("a", "Electronics", 8, 5, start);
+        change("a", "Electronics", 5, 3, start.plusSeconds(60));
+        change("a", "Electronics", 3, 1, start.plusSeconds(120));
+        change("a", "Electronics", 1, 0, start.plusSeconds(180));
+
+        // Then
+        assertThat(published()).containsExactly(Severity.LOW_STOCK, Severity.OUT_OF_STOCK);
+        List<StockAlert> alerts = stockAlertService.getAlerts(null, 10);
+        assertThat(alerts).singleElement().satisfies(alert -> {
+            assertThat(alert.getSeverity()).isEqualTo(Severity.OUT_OF_STOCK);
+            assertThat(alert.getRaisedAt()).isEqualTo(start);
+            assertThat(alert.getStockCoverDays()).isZero();
+        });
+    }
+
+    @Test
+    @DisplayName("Should resolve only once the quantity is above the threshold plus the hysteresis band")
+    void shouldResolveWithHysteresis() {
+        // Given
+        change("a", "Electronics", 8, 4, start);
+
+        // When
+        change("a", "Electronics", 4, 6, start.plusSeconds(60));
+        List<StockAlert> hovering = stockAlertService.getAlerts(null, 10);
+        change("a", "Electronics", 6, 7, start.plusSeconds(120));
+
+        // Then
+        assertThat(hovering).hasSize(1);
+        assertThat(stockAlertService.getAlerts(null, 10)).isEmpty();
+        assertThat(published()).containsExactly(Severity.LOW_STOCK, Severity.RESOLVED);
+    }
+
+    @Test
+    @DisplayName("Should order at-risk items by stock cover and apply item thresholds over category thresholds")
+    void shouldOrderByStockCoverWithThresholdOverrides() {
+        // Given
+        when(mongoTemplate.save(any(StockThreshold.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mongoTemplate.find(any(Query.class), eq(Item.class))).thenReturn(List.of());
+        stockAlertService.saveThreshold(new StockThreshold(null, StockThreshold.Scope.CATEGORY, "Tools", 20, null));
+        stockAlertService.saveThreshold(new StockThreshold(null, StockThreshold.Scope.ITEM, "quiet", 2, null));
+
+        // When
+        change("slow", "Tools", 21, 18, start);
+        change("fast", "Tools", 60, 15, start);
+        change("quiet", "Tools", 21, 3, start);
+
+        // Then
+        assertThat(stockAlertService.thresholdOf("quiet", "Tools")).isEqualTo(2);
+        assertThat(stockAlertService.getAlerts("Tools", 10)).extracting(StockAlert::getItemId)
+                .containsExactly("fast", "slow");
+        assertThat(stockAlertService.getAlerts("Electronics", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should fall back to the category threshold when an item threshold is removed")
+    void shouldRescanWhenThresholdRemoved() {
+        // Given
+        when(mongoTemplate.save(any(StockThreshold.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mongoTemplate.find(any(Query.class), eq(Item.class))).thenReturn(List.of());
+        stockAlertService.saveThreshold(new StockThreshold(null, StockThreshold.Scope.ITEM, "a", 10, null));
+        change("a", "Electronics", 12, 9, start);
+        when(mongoTemplate.remove(any(Query.class), eq(StockThreshold.class))).thenReturn(DeleteResult.acknowledged(1));
+
+        // When
+        boolean removed = stockAlertService.deleteThreshold(StockThreshold.Scope.ITEM, "a");
+
+        // Then
+        assertThat(removed).isTrue();
+        assertThat(stockAlertService.getAlerts(null, 10)).isEmpty();
+        assertThat(published()).containsExactly(Severity.LOW_STOCK, Severity.RESOLVED);
+    }
+}
@@ -0,0 +1,268 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.dto.StockDeltaRequest.Delta;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangeType;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangedEvent;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StockDeltaBuffer
+ * Covers summing deltas per SKU into one bulk write, acknowledgement after flush, unknown SKUs, conflicting writes and failed writes
+ * that must not be applied twice
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockDeltaBuffer Unit Tests")
+class StockDeltaBufferTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private ChangeSequenceService changeSequenceService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private StockDeltaBuffer stockDeltaBuffer;
+
+    /** Items as read by SKU at the start of a flush */
+    private final Map<String, Item> stored = new HashMap<>();
+    /** Quantity of items whose update in the current batch applied, by id */
+    private final Map<String, Integer> applied = new HashMap<>();
+    /** Items as read back after the batch when their update did not apply, by id */
+    private final Map<String, Item> current = new HashMap<>();
+    /** Sequence each update of the current batch stamps, by id */
+    private final Map<String, Long> stamped = new HashMap<>();
+    private long nextSequence = 100;
+    private long batchStart;
+
+    @BeforeEach
+    void setUp() {
+        stockDeltaBuffer = new StockDeltaBuffer(mongoTemplate, changeSequenceService, eventPublisher,
+                new SimpleMeterRegistry(), 4, 1000);
+        lenient().when(changeSequenceService.beginRange(anyInt())).thenAnswer(invocation -> {
+            batchStart = nextSequence;
+            nextSequence += invocation.<Integer>getArgument(0);
+            stamped.clear();
+            return batchStart;
+        });
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Item.class))
+                .thenReturn(bulkOperations);
+        lenient().when(bulkOperations.updateOne(any(Query.class), any(UpdateDefinition.class)))
+                .thenAnswer(invocation -> {
+                    String id = ((Query) invocation.getArgument(0)).getQueryObject().getString("_id");
+                    stamped.put(id, batchStart + stamped.size());
+                    return bulkOperations;
+                });
+        lenient().when(mongoTemplate.find(any(Query.class), eq(Item.class))).thenAnswer(invocation -> {
+            Document query = ((Query) invocation.getArgument(0)).getQueryObject();
+            if (query.containsKey("sku")) {
+                return List.copyOf(stored.values());
+            }
+            List<Item> items = new ArrayList<>(current.values());
+            applied.forEach((id, quantity) -> items.add(item(id.substring(3), quantity, stamped.get(id))));
+            return items;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockDeltaBuffer.shutdown();
+    }
+
+    private static Item item(String sku, int quantity, long sequence) {
+        Item item = new Item();
+        item.setId("id-" + sku);
+        item.setSku(sku);
+        item.setQuantity(quantity);
+        item.setChangeSequence(sequence);
+        return item;
+    }
+
+    private void givenStored(Item... items) {
+        stored.clear();
+        for (Item item : items) {
+            stored.put(item.getSku(), item);
+        }
+    }
+
+    private List<Query> guards(int updates) {
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(bulkOperations, times(updates)).updateOne(queries.capture(), any(UpdateDefinition.class));
+        return queries.getAllValues();
+    }
+
+    @Test
+    @DisplayName("Should write one guarded update per SKU in one bulk write and publish its exact before and after")
+    void shouldSumDeltasPerSku() throws Exception {
+        // Given
+        Item a = item("SKU-A", 10, 5);
+        givenStored(a, item("SKU-B", 1, 6));
+        applied.put("id-SKU-A", 13);
+        applied.put("id-SKU-B", 0);
+        CompletableFuture<StockDeltaBuffer.FlushResult> flushed = stockDeltaBuffer.add(List.of(
+                new Delta("SKU-A", 5), new Delta("SKU-A", -2), new Delta("SKU-B", -1)));
+        assertThat(flushed).isNotDone();
+
+        // When
+        int written = stockDeltaBuffer.flush();
+
+        // Then
+        assertThat(written).isEqualTo(2);
+        assertThat(flushed.get(1, TimeUnit.SECONDS).unknownSkus()).isEmpty();
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> updates = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(bulkOperations, times(2)).updateOne(queries.capture(), updates.capture());
+        verify(bulkOperations).execute();
+        verify(mongoTemplate, times(2)).find(any(Query.class), eq(Item.class));
+        int indexOfA = queries.getAllValues().get(0).getQueryObject().getString("_id").equals("id-SKU-A") ? 0 : 1;
+        assertThat(queries.getAllValues().get(indexOfA).getQueryObject()).containsEntry("changeSequence", 5L);
+        assertThat(pipeline(updates.getAllValues().get(indexOfA))).contains("[\"$quantity\", 3]");
+        verify(changeSequenceService).beginRange(2);
+        verify(changeSequenceService).complete(100L);
+        ArgumentCaptor<ItemChangedEvent> events = ArgumentCaptor.forClass(ItemChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).extracting(ItemChangedEvent::getType)
+                .containsOnly(ItemChangeType.STOCK_CHANGED);
+        ItemChangedEvent eventOfA = events.getAllValues().stream()
+                .filter(event -> event.getItemId().equals("id-SKU-A")).findFirst().orElseThrow();
+        assertThat(eventOfA.getBefore()).isSameAs(a);
+        assertThat(eventOfA.getAfter().getQuantity()).isEqualTo(13);
+    }
+
+    @Test
+    @DisplayName("Should report SKUs that match no item and not write them")
+    void shouldReportUnknownSkus() throws Exception {
+        // Given
+        givenStored(item("SKU-A", 10, 5));
+        applied.put("id-SKU-A", 11);
+        CompletableFuture<StockDeltaBuffer.FlushResult> flushed = stockDeltaBuffer.add(List.of(
+                new Delta("SKU-A", 1), new Delta("SKU-X", 1)));
+
+        // When
+        stockDeltaBuffer.flush();
+
+        // Then
+        assertThat(flushed.get(1, TimeUnit.SECONDS).unknownSkus()).containsExactly("SKU-X");
+        guards(1);
+    }
+
+    @Test
+    @DisplayName("Should read an item written in between again and retry its delta on the next flush")
+    void shouldRetryConflictingWrite() throws Exception {
+        // Given
+        givenStored(item("SKU-A", 10, 5));
+        current.put("id-SKU-A", item("SKU-A", 7, 8));
+        CompletableFuture<StockDeltaBuffer.FlushResult> flushed = stockDeltaBuffer.add(List.of(new Delta("SKU-A", 4)));
+
+        // When
+        int first = stockDeltaBuffer.flush();
+        givenStored(item("SKU-A", 7, 8));
+        current.clear();
+        applied.put("id-SKU-A", 11);
+        int second = stockDeltaBuffer.flush();
+
+        // Then
+        assertThat(first).isZero();
+        assertThat(second).isEqualTo(1);
+        assertThat(flushed.get(1, TimeUnit.SECONDS).unknownSkus()).isEmpty();
+        assertThat(guards(2).get(1).getQueryObject()).containsEntry("changeSequence", 8L);
+        verify(eventPublisher, times(1)).publishEvent(any(ItemChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should not apply a delta twice when a failed write had been applied")
+    void shouldNotReplayAppliedWrite() throws Exception {
+        // Given
+        givenStored(item("SKU-A", 10, 5));
+        when(bulkOperations.execute()).thenThrow(new IllegalStateException("timeout")).thenReturn(null);
+        CompletableFuture<StockDeltaBuffer.FlushResult> flushed = stockDeltaBuffer.add(List.of(new Delta("SKU-A", 4)));
+
+        // When
+        int first = stockDeltaBuffer.flush();
+        current.put("id-SKU-A", item("SKU-A", 14, 100));
+        int second = stockDeltaBuffer.flush();
+
+        // Then
+        assertThat(first).isZero();
+        assertThat(second).isEqualTo(1);
+        assertThat(flushed.get(1, TimeUnit.SECONDS).unknownSkus()).isEmpty();
+        assertThat(guards(2)).extracting(query -> query.getQueryObject().get("changeSequence"))
+                .containsExactly(5L, 5L);
+        ArgumentCaptor<ItemChangedEvent> events = ArgumentCaptor.forClass(ItemChangedEvent.class);
+        verify(eventPublisher).publishEvent(events.capture());
+        assertThat(events.getValue().getBefore().getQuantity()).isEqualTo(10);
+        assertThat(events.getValue().getAfter().getQuantity()).isEqualTo(14);
+        verify(mongoTemplate, times(2)).find(any(Query.class), eq(Item.class));
+    }
+
+    @Test
+    @DisplayName("Should report a dropped delta when a failed write cannot be confirmed and the item changed since")
+    void shouldReportUnresolvedWrite() throws Exception {
+        // Given
+        givenStored(item("SKU-A", 10, 5));
+        when(bulkOperations.execute()).thenThrow(new IllegalStateException("timeout")).thenReturn(null);
+        CompletableFuture<StockDeltaBuffer.FlushResult> flushed = stockDeltaBuffer.add(List.of(new Delta("SKU-A", 4)));
+
+        // When
+        stockDeltaBuffer.flush();
+        assertThat(flushed).isNotDone();
+        current.put("id-SKU-A", item("SKU-A", 3, 120));
+        int second = stockDeltaBuffer.flush();
+
+        // Then
+        assertThat(second).isZero();
+        assertThat(flushed.get(1, TimeUnit.SECONDS).unresolvedSkus()).containsExactly("SKU-A");
+        assertThat(flushed.get(1, TimeUnit.SECONDS).unknownSkus()).isEmpty();
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should floor quantity at zero and derive status in the pipeline update")
+    void shouldDeriveStatusInUpdate() {
+        // When
+        String pipeline = pipeline(StockDeltaBuffer.stockUpdate(-3, 7));
+
+        // Then
+        assertThat(pipeline).contains("$max", "$add", "$switch", "OUT_OF_STOCK", "AVAILABLE", "$$NOW");
+    }
+
+    private static String pipeline(UpdateDefinition update) {
+        return ((AggregationUpdate) update).toPipeline(Aggregation.DEFAULT_CONTEXT).stream()
+                .map(Document::toJson)
+                .reduce("", String::concat);
+    }
+}
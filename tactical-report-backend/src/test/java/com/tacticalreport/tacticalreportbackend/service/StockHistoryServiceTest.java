@@ -0,0 +1,134 @@
+package com.tacticalreport.tacticalreportbackend.service;
+
+import com.tacticalreport.tacticalreportbackend.event.ItemChangeType;
+import com.tacticalreport.tacticalreportbackend.event.ItemChangedEvent;
+import com.tacticalreport.tacticalreportbackend.model.Item;
+import com.tacticalreport.tacticalreportbackend.model.StockLevel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StockHistoryService
+ * Covers recording quantity changes from item events, batched flushes with retry and series interval validation
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockHistoryService Unit Tests")
+class StockHistoryServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private StockHistoryService stockHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        stockHistoryService = new StockHistoryService(mongoTemplate, new ReadRouting(true, Duration.ofSeconds(90)),
+                new SimpleMeterRegistry(), true, 10, 100, "hours", Duration.ofDays(365), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockHistoryService.shutdown();
+    }
+
+    private static Item item(String id, int quantity) {
+        Item item = new Item();
+        item.setId(id);
+        item.setSku("SKU-" + id);
+        item.setCategory("Electronics");
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private static ItemChangedEvent event(ItemChangeType type, Item before, Item after) {
+        String id = after != null ? after.getId() : before.getId();
+        return new ItemChangedEvent(type, id, before, after, Instant.now());
+    }
+
+    @Test
+    @DisplayName("Should record quantity changes with delta and meta and skip other updates")
+    void shouldRecordOnlyQuantityChanges() {
+        // Given
+        ItemChangedEvent created = event(ItemChangeType.CREATED, null, item("a", 5));
+        ItemChangedEvent renamed = event(ItemChangeType.UPDATED, item("a", 5), item("a", 5));
+        ItemChangedEvent sold = event(ItemChangeType.STOCK_CHANGED, item("a", 5), item("a", 3));
+        ItemChangedEvent deleted = event(ItemChangeType.DELETED, item("a", 3), null);
+
+        // When
+        StockLevel first = StockHistoryService.levelOf(created);
+        StockLevel unchanged = StockHistoryService.levelOf(renamed);
+        StockLevel second = StockHistoryService.levelOf(sold);
+        StockLevel last = StockHistoryService.levelOf(deleted);
+
+        // Then
+        assertThat(unchanged).isNull();
+        assertThat(first.getDelta()).isEqualTo(5);
+        assertThat(second.getQuantity()).isEqualTo(3);
+        assertThat(second.getDelta()).isEqualTo(-2);
+        assertThat(second.getChange()).isEqualTo("STOCK_CHANGED");
+        assertThat(last.getQuantity()).isZero();
+        assertThat(last.getDelta()).isEqualTo(-3);
+        assertThat(last.getMeta()).isEqualTo(new StockLevel.Meta("a", "SKU-a", "Electronics"));
+    }
+
+    @Test
+    @DisplayName("Should insert queued changes in batches and retry a failed batch on the next flush")
+    void shouldFlushInBatchesAndRetry() {
+        // Given
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, StockLevel.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenThrow(new IllegalStateException("timeout")).thenReturn(null);
+        stockHistoryService.onItemChanged(event(ItemChangeType.STOCK_CHANGED, item("a", 5), item("a", 4)));
+
+        // When
+        int failed = stockHistoryService.flush();
+        stockHistoryService.onItemChanged(event(ItemChangeType.STOCK_CHANGED, item("b", 1), item("b", 2)));
+        int written = stockHistoryService.flush();
+
+        // Then
+        assertThat(failed).isZero();
+        assertThat(written).isEqualTo(2);
+        ArgumentCaptor<List<StockLevel>> batches = ArgumentCaptor.captor();
+        verify(bulkOperations, times(2)).insert(batches.capture());
+        assertThat(batches.getAllValues().get(1)).extracting(level -> level.getMeta().getItemId())
+                .containsExactly("a", "b");
+    }
+
+    @Test
+    @DisplayName("Should reject malformed intervals and ranges with too many buckets")
+    void shouldValidateSeriesInterval() {
+        // Given
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = to.minusDays(7);
+
+        // When / Then
+        assertThatThrownBy(() -> stockHistoryService.getCategorySeries("Electronics", from, to, "1y"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> stockHistoryService.getCategorySeries("Electronics", from, to, "1m"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("100 buckets");
+        verifyNoInteractions(mongoTemplate);
+    }
+}
@@ -9,6 +9,7 @@ import ItemDetails from '@/components/items/ItemDetails';
 import ItemForm from '@/components/items/ItemForm';
 import { useItems } from '@/lib/hooks/useItems';
 import { useDeleteItem } from '@/lib/hooks/useDeleteItem';
+import { useItemEvents } from '@/lib/hooks/useItemEvents';
 import { motion } from 'framer-motion';
 import { FiPlus } from 'react-icons/fi';
 import Swal from 'sweetalert2';
@@ -23,9 +24,12 @@ export default function Home() {
   const itemsPerPage = 12;
 
   // Fetch items with pagination and filters
-  const { data, isLoading, error } = useItems(currentPage, itemsPerPage, filters);
+  const { data, isLoading, error } = useItems(currentPage, itemsPerPage, filters, true);
   console.log('Fetched Items Data:', data);
 
+  // Refresh cached items when anyone changes the catalog
+  useItemEvents();
+
   // Delete item mutation
   const { mutate: deleteItemMutation } = useDeleteItem();
 
@@ -155,6 +159,7 @@ export default function Home() {
         <SearchFilter
           onFilterChange={handleFilterChange}
           onReset={handleResetFilters}
+          facets={data?.facets}
         />
           <br />
 
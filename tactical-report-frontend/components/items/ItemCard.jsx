@@ -3,6 +3,7 @@
 import { motion } from 'framer-motion';
 import { FiPackage, FiDollarSign, FiLayers } from 'react-icons/fi';
 import Image from 'next/image';
+import { getItemImageUrl } from '@/lib/api/items';
 
 export default function ItemCard({ item, onClick }) {
   const getStatusColor = (status) => {
@@ -25,6 +26,9 @@ export default function ItemCard({ item, onClick }) {
     }).format(price);
   };
 
+  // List responses carry only the image hash; the versioned thumbnail URL is cached forever
+  const imageSrc = getItemImageUrl(item, 256);
+
   return (
     <motion.div
       initial={{ opacity: 0, y: 20 }}
@@ -36,13 +40,14 @@ export default function ItemCard({ item, onClick }) {
     >
       {/* Image */}
       <div className="relative h-48 bg-gray-100 overflow-hidden">
-        {item.image ? (
+        {imageSrc ? (
           <Image
-            src={item.image}
+            src={imageSrc}
             alt={item.name}
             className="w-full h-full object-cover"
             height={300}
             width={400}
+            unoptimized
           />
         ) : (
           <div className="w-full h-full flex items-center justify-center">
@@ -4,6 +4,7 @@ import { useItem } from '@/lib/hooks/useItem';
 import LoadingSpinner from '@/components/shared/LoadingSpinner';
 import { FiPackage, FiDollarSign, FiLayers, FiTag, FiCalendar, FiEdit, FiTrash2 } from 'react-icons/fi';
 import Image from 'next/image';
+import { getItemImageUrl } from '@/lib/api/items';
 
 export default function ItemDetails({ itemId, onEdit, onDelete }) {
   const { data: item, isLoading, error } = useItem(itemId);
@@ -61,13 +62,14 @@ export default function ItemDetails({ itemId, onEdit, onDelete }) {
     <div className="space-y-6">
       {/* Image */}
       <div className="relative w-full h-64 bg-gray-100 rounded-lg overflow-hidden">
-        {item.image ? (
+        {getItemImageUrl(item) ? (
           <Image
-            src={item.image}
+            src={getItemImageUrl(item, 1024)}
             alt={item.name}
             className="w-full h-full object-cover"
             height={400}
             width={600}
+            unoptimized
 
           />
         ) : (
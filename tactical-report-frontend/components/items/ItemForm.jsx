@@ -6,6 +6,7 @@ import { useUpdateItem } from '@/lib/hooks/useUpdateItem';
 import LoadingSpinner from '@/components/shared/LoadingSpinner';
 import { FiSave, FiX, FiUpload } from 'react-icons/fi';
 import Swal from 'sweetalert2';
+import { getItemImageUrl } from '@/lib/api/items';
 
 export default function ItemForm({ item, onSuccess, onCancel }) {
   const isEditMode = !!item;
@@ -21,6 +22,7 @@ export default function ItemForm({ item, onSuccess, onCancel }) {
         sku: item.sku || '',
         status: item.status || 'AVAILABLE',
         image: item.image || '',
+        imageHash: item.imageHash || null,
       };
     }
     return {
@@ -32,11 +34,13 @@ export default function ItemForm({ item, onSuccess, onCancel }) {
       sku: '',
       status: 'AVAILABLE',
       image: '',
+      imageHash: null,
     };
   });
 
   const [errors, setErrors] = useState({});
-  const [imagePreview, setImagePreview] = useState(item?.image || '');
+  const [imagePreview, setImagePreview] = useState(getItemImageUrl(item, 256) || '');
+  const [imageFile, setImageFile] = useState(null);
 
   const { mutate: createItem, isPending: isCreating } = useCreateItem();
   const { mutate: updateItem, isPending: isUpdating } = useUpdateItem();
@@ -70,40 +74,33 @@ export default function ItemForm({ item, onSuccess, onCancel }) {
       return;
     }
 
-    if (file.size > 5 * 1024 * 1024) {
+    if (file.size > 10 * 1024 * 1024) {
       setErrors((prev) => ({
         ...prev,
-        image: 'Image size must be less than 5MB',
+        image: 'Image size must be less than 10MB',
       }));
       return;
     }
 
-    const reader = new FileReader();
-    reader.onloadend = () => {
-      const base64String = reader.result; // This is already in format: data:image/png;base64,iVBORw0KG...
-      setFormData((prev) => ({
-        ...prev,
-        image: base64String,
-      }));
-      setImagePreview(base64String);
-      setErrors((prev) => ({
-        ...prev,
-        image: null,
-      }));
-    };
-    reader.onerror = () => {
-      setErrors((prev) => ({
-        ...prev,
-        image: 'Failed to read image file',
-      }));
-    };
-    reader.readAsDataURL(file);
+    // The file is uploaded as-is after the item is saved; the current image is kept until then
+    setImageFile(file);
+    setFormData((prev) => ({
+      ...prev,
+      image: '',
+    }));
+    setImagePreview(URL.createObjectURL(file));
+    setErrors((prev) => ({
+      ...prev,
+      image: null,
+    }));
   };
 
   const handleRemoveImage = () => {
+    setImageFile(null);
     setFormData((prev) => ({
       ...prev,
       image: '',
+      imageHash: null,
     }));
     setImagePreview('');
     const fileInput = document.getElementById('image-upload');
@@ -145,11 +142,13 @@ export default function ItemForm({ item, onSuccess, onCancel }) {
       sku: formData.sku.trim(),
       status: formData.status,
       image: formData.image,
+      // Sending back the stored hash without a new image keeps the current image
+      imageHash: formData.imageHash,
     };
 
     if (isEditMode) {
       updateItem(
-        { id: item.id, data: submitData },
+        { id: item.id, data: submitData, imageFile },
         {
           onSuccess: (response) => {
             Swal.fire({
@@ -171,7 +170,7 @@ export default function ItemForm({ item, onSuccess, onCancel }) {
         }
       );
     } else {
-      createItem(submitData, {
+      createItem({ ...submitData, imageFile }, {
         onSuccess: (response) => {
           Swal.fire({
             title: 'Created!',
@@ -369,7 +368,7 @@ export default function ItemForm({ item, onSuccess, onCancel }) {
               <p className="mb-2 text-sm text-gray-500">
                 <span className="font-semibold">Click to upload</span> or drag and drop
               </p>
-              <p className="text-xs text-gray-500">PNG, JPG, GIF up to 5MB</p>
+              <p className="text-xs text-gray-500">PNG, JPG, GIF up to 10MB</p>
             </div>
             <input
               id="image-upload"
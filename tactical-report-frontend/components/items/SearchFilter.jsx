@@ -3,7 +3,20 @@
 import {useState} from 'react';
 import {FiSearch, FiX, FiFilter} from 'react-icons/fi';
 
-export default function SearchFilter({onFilterChange, onReset}) {
+const STATUS_LABELS = {
+    AVAILABLE: 'Available',
+    OUT_OF_STOCK: 'Out of Stock',
+    DISCONTINUED: 'Discontinued',
+};
+
+/**
+ * Label an option with its facet count, e.g. "Available (12)"
+ */
+const withCount = (label, count) => (count === undefined ? label : `${label} (${count})`);
+
+const rangeLabel = ({from, to}) => (to === null || to === undefined ? `${from}+` : `${from}–${to}`);
+
+export default function SearchFilter({onFilterChange, onReset, facets}) {
     const [isExpanded, setIsExpanded] = useState(false);
     const [filters, setFilters] = useState({
         search: '',
@@ -34,6 +47,19 @@ export default function SearchFilter({onFilterChange, onReset}) {
         onReset();
     };
 
+    // Pick a facet range: ranges are [from, to), so the inclusive max is one unit below "to" for quantities
+    const applyRange = (minName, maxName, range, step) => {
+        const updatedFilters = {
+            ...filters,
+            [minName]: String(range.from),
+            [maxName]: range.to === null || range.to === undefined ? '' : String(Number(range.to) - step),
+        };
+        setFilters(updatedFilters);
+        onFilterChange(updatedFilters);
+    };
+
+    const statusCount = (status) => facets?.statuses?.find(facet => facet.value === status)?.count;
+
     const hasActiveFilters = Object.values(filters).some(value => value !== '');
 
     return (
@@ -96,8 +122,16 @@ export default function SearchFilter({onFilterChange, onReset}) {
                                 value={filters.category}
                                 onChange={handleInputChange}
                                 placeholder="e.g., Electronics"
+                                list="category-facets"
                                 className="w-full px-3 py-2 text-black border border-gray-300 rounded-lg focus:ring-2 focus:ring-blue-500 focus:border-transparent"
                             />
+                            <datalist id="category-facets">
+                                {facets?.categories?.filter(facet => facet.value).map(facet => (
+                                    <option key={facet.value} value={facet.value}>
+                                        {withCount(facet.value, facet.count)}
+                                    </option>
+                                ))}
+                            </datalist>
                         </div>
 
                         {/* Status Filter */}
@@ -112,9 +146,11 @@ export default function SearchFilter({onFilterChange, onReset}) {
                                 className="w-full px-3 py-2 border text-black border-gray-300 rounded-lg focus:ring-2 focus:ring-blue-500 focus:border-transparent bg-white"
                             >
                                 <option value="">All Status</option>
-                                <option value="AVAILABLE">Available</option>
-                                <option value="OUT_OF_STOCK">Out of Stock</option>
-                                <option value="DISCONTINUED">Discontinued</option>
+                                {Object.entries(STATUS_LABELS).map(([value, label]) => (
+                                    <option key={value} value={value} disabled={statusCount(value) === 0}>
+                                        {withCount(label, statusCount(value))}
+                                    </option>
+                                ))}
                             </select>
                         </div>
 
@@ -179,6 +215,31 @@ export default function SearchFilter({onFilterChange, onReset}) {
                             />
                         </div>
                     </div>
+
+                    {/* Facet ranges: counts for each range under the other active filters */}
+                    {facets && (
+                        <div className="mt-4 space-y-2">
+                            {[
+                                {title: 'Price', ranges: facets.priceRanges, min: 'minPrice', max: 'maxPrice', step: 0.01},
+                                {title: 'Quantity', ranges: facets.quantityRanges, min: 'minQuantity', max: 'maxQuantity', step: 1},
+                            ].map(({title, ranges, min, max, step}) => (
+                                <div key={title} className="flex flex-wrap items-center gap-2">
+                                    <span className="text-sm font-medium text-gray-700 w-20">{title}</span>
+                                    {ranges?.map(range => (
+                                        <button
+                                            key={`${title}-${range.from}`}
+                                            type="button"
+                                            disabled={range.count === 0}
+                                            onClick={() => applyRange(min, max, range, step)}
+                                            className="px-2 py-1 text-xs rounded-full border border-gray-300 text-gray-700 bg-white hover:bg-blue-50 disabled:opacity-40 disabled:cursor-not-allowed"
+                                        >
+                                            {withCount(rangeLabel(range), range.count)}
+                                        </button>
+                                    ))}
+                                </div>
+                            ))}
+                        </div>
+                    )}
                 </div>
             )}
         </div>
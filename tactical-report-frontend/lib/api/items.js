@@ -1,4 +1,4 @@
-import { apiClient } from './client';
+import { apiClient, API_BASE_URL } from './client';
 
 /**
  * Build query string from filters object
@@ -21,8 +21,8 @@ const buildQueryString = (filters) => {
  * Get all items with pagination and filters
  * @param {number} page - Page number (0-indexed)
  * @param {number} size - Items per page
- * @param {object} filters - Filter parameters (search, category, status, minPrice, maxPrice, minQuantity, maxQuantity)
- * @returns {Promise} Paginated items response
+ * @param {object} filters - Filter parameters (search, category, status, minPrice, maxPrice, minQuantity, maxQuantity, facets)
+ * @returns {Promise} Paginated items response (with a facets object when facets=true)
  */
 export const getAllItems = (page = 0, size = 12, filters = {}) => {
   const baseParams = `page=${page}&size=${size}`;
@@ -75,4 +75,36 @@ export const deleteItem = (id) => {
   return apiClient(`/items/${id}`, {
     method: 'DELETE',
   });
-};
\ No newline at end of file
+};
+
+/**
+ * Upload an item image as a raw request body
+ * The file is sent as-is (no base64) and streamed by the backend into its blob store
+ * @param {string} id - Item ID
+ * @param {File} file - Image file
+ * @returns {Promise} Updated item
+ */
+export const uploadItemImage = (id, file) => {
+  return apiClient(`/items/${id}/image`, {
+    method: 'PUT',
+    body: file,
+    headers: { 'Content-Type': file.type },
+    timeout: 60000,
+  });
+};
+
+/**
+ * Build the URL of an item image
+ * Images live in the backend blob store and are addressed by hash, so these URLs are cacheable forever
+ * @param {object} item - Item with imageHash (or a legacy inline image)
+ * @param {number} [size] - Thumbnail size in pixels (original image if omitted)
+ * @returns {string|null} Image URL, inline data URL, or null if the item has no image
+ */
+export const getItemImageUrl = (item, size) => {
+  if (!item?.imageHash) {
+    return item?.image || null;
+  }
+  return size
+    ? `${API_BASE_URL}/items/${item.id}/image?size=${size}&v=${item.imageHash}`
+    : `${API_BASE_URL}/images/${item.imageHash}`;
+};
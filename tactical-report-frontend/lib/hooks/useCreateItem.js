@@ -1,18 +1,22 @@
 'use client';
 
 import { useMutation, useQueryClient } from '@tanstack/react-query';
-import { createItem } from '@/lib/api/items';
+import { createItem, uploadItemImage } from '@/lib/api/items';
 import { trackActivity, ActivityType } from '@/lib/utils/activityTracker';
 
 /**
  * Hook to create a new item
+ * An optional imageFile is uploaded after the item is created
  * @returns {object} Mutation object with mutate function, loading, error states
  */
 export function useCreateItem() {
   const queryClient = useQueryClient();
 
   return useMutation({
-    mutationFn: (itemData) => createItem(itemData),
+    mutationFn: async ({ imageFile, ...itemData }) => {
+      const created = await createItem(itemData);
+      return imageFile ? uploadItemImage(created.id, imageFile) : created;
+    },
     onSuccess: (data) => {
       queryClient.invalidateQueries({ queryKey: ['items'] });
 
@@ -0,0 +1,55 @@
+'use client';
+
+import { useEffect } from 'react';
+import { useQueryClient } from '@tanstack/react-query';
+import { API_BASE_URL } from '@/lib/api/client';
+
+const ITEM_EVENTS = ['created', 'updated', 'deleted', 'stock_changed'];
+
+/**
+ * Hook to keep cached item queries in sync with server-side changes
+ * Subscribes to the /items/events SSE stream; EventSource reconnects on its own and
+ * sends Last-Event-ID so missed events are replayed by the server
+ */
+export function useItemEvents() {
+  const queryClient = useQueryClient();
+
+  useEffect(() => {
+    if (typeof window === 'undefined' || !window.EventSource) return undefined;
+
+    const source = new EventSource(`${API_BASE_URL}/items/events`);
+    let listTimer = null;
+
+    // Coalesce bursts of changes into a single list refetch
+    const invalidateLists = () => {
+      clearTimeout(listTimer);
+      listTimer = setTimeout(() => {
+        queryClient.invalidateQueries({ queryKey: ['items'] });
+      }, 250);
+    };
+
+    const handleItemEvent = (event) => {
+      const change = JSON.parse(event.data);
+      if (change.type === 'DELETED') {
+        queryClient.removeQueries({ queryKey: ['item', change.itemId] });
+      } else {
+        queryClient.invalidateQueries({ queryKey: ['item', change.itemId] });
+      }
+      invalidateLists();
+    };
+
+    // Server dropped events for this client, reload everything
+    const handleResync = () => {
+      queryClient.invalidateQueries({ queryKey: ['items'] });
+      queryClient.invalidateQueries({ queryKey: ['item'] });
+    };
+
+    ITEM_EVENTS.forEach((name) => source.addEventListener(name, handleItemEvent));
+    source.addEventListener('resync', handleResync);
+
+    return () => {
+      clearTimeout(listTimer);
+      source.close();
+    };
+  }, [queryClient]);
+}
@@ -8,16 +8,17 @@ import { getAllItems } from '@/lib/api/items';
  * @param {number} page - Page number (0-indexed)
  * @param {number} size - Items per page
  * @param {object} filters - Filter parameters (search, category, status, minPrice, maxPrice, minQuantity, maxQuantity)
+ * @param {boolean} withFacets - Also fetch facet counts for the filter sidebar (returned as data.facets)
  * @returns {object} Query result with items data, loading, error states
  */
-export function useItems(page = 0, size = 12, filters = {}) {
+export function useItems(page = 0, size = 12, filters = {}, withFacets = false) {
   console.log('useItems called with:', { page, size, filters });
 
   // Serialize filters to ensure proper cache key comparison
   const filterKey = JSON.stringify(filters);
 
   return useQuery({
-    queryKey: ['items', page, size, filterKey],
-    queryFn: () => getAllItems(page, size, filters),
+    queryKey: ['items', page, size, filterKey, withFacets],
+    queryFn: () => getAllItems(page, size, withFacets ? { ...filters, facets: true } : filters),
   });
 }
\ No newline at end of file
@@ -1,18 +1,22 @@
 'use client';
 
 import { useMutation, useQueryClient } from '@tanstack/react-query';
-import { updateItem } from '@/lib/api/items';
+import { updateItem, uploadItemImage } from '@/lib/api/items';
 import { trackActivity, ActivityType } from '@/lib/utils/activityTracker';
 
 /**
  * Hook to update an existing item
+ * An optional imageFile is uploaded after the item details are saved
  * @returns {object} Mutation object with mutate function, loading, error states
  */
 export function useUpdateItem() {
   const queryClient = useQueryClient();
 
   return useMutation({
-    mutationFn: ({ id, data }) => updateItem(id, data),
+    mutationFn: async ({ id, data, imageFile }) => {
+      const updated = await updateItem(id, data);
+      return imageFile ? uploadItemImage(id, imageFile) : updated;
+    },
     onSuccess: (data, variables) => {
       queryClient.invalidateQueries({ queryKey: ['items'] });
       queryClient.invalidateQueries({ queryKey: ['item', variables.id] });